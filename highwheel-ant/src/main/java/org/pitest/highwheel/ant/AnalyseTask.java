@@ -1,25 +1,31 @@
 package org.pitest.highwheel.ant;
 
+import java.io.Closeable;
 import java.io.File;
 import java.io.FileInputStream;
 import java.io.IOException;
-import java.util.regex.Pattern;
 
 import org.apache.tools.ant.BuildException;
 import org.apache.tools.ant.Task;
 import org.apache.tools.ant.types.Path;
 import org.apache.tools.ant.types.Reference;
 import org.pitest.highwheel.Highwheel;
+import org.pitest.highwheel.algorithm.Budget;
+import org.pitest.highwheel.baseline.BaselineRecord;
+import org.pitest.highwheel.bytecodeparser.ClassFileParser;
 import org.pitest.highwheel.bytecodeparser.ClassPathParser;
+import org.pitest.highwheel.bytecodeparser.ConstantPoolClassParser;
+import org.pitest.highwheel.bytecodeparser.PipelinedClassPathParser;
+import org.pitest.highwheel.classpath.ClassParser;
 import org.pitest.highwheel.classpath.ClasspathRoot;
+import org.pitest.highwheel.cycles.CycleAnalyser;
 import org.pitest.highwheel.cycles.Filter;
-import org.pitest.highwheel.model.ElementName;
 import org.pitest.highwheel.oracle.DependencyOracle;
 import org.pitest.highwheel.oracle.DependendencyStatus;
 import org.pitest.highwheel.oracle.FixedScorer;
 import org.pitest.highwheel.oracle.SimpleFlatFileOracleParser;
 import org.pitest.highwheel.report.FileStreamFactory;
-import org.pitest.highwheel.util.GlobToRegex;
+import org.pitest.highwheel.util.GlobFilter;
 
 public class AnalyseTask extends Task {
 
@@ -31,6 +37,16 @@ public class AnalyseTask extends Task {
   private Path testPath;
   private String              accessRules;
   private File                outputDir;
+  private File                baseline;
+  private boolean             fastScan;
+  private Filter              roots;
+  private int                 maxSubCycles;
+  private int                 maxSubCycleLength;
+  private long                tangleTimeBudget;
+  private long                tangleWorkBudget;
+  private long                totalTimeBudget;
+  private long                totalWorkBudget;
+  private boolean             methodGraph;
 
   public AnalyseTask() {
     this(new AntPathParser(), new StreamSource());
@@ -45,6 +61,38 @@ public class AnalyseTask extends Task {
     this.filter = makeFilter(glob);
   }
 
+  public void setRoots(final String glob) {
+    this.roots = makeFilter(glob);
+  }
+
+  public void setMaxSubCycles(final int maxSubCycles) {
+    this.maxSubCycles = maxSubCycles;
+  }
+
+  public void setMaxSubCycleLength(final int maxSubCycleLength) {
+    this.maxSubCycleLength = maxSubCycleLength;
+  }
+
+  public void setTangleTimeBudget(final long millis) {
+    this.tangleTimeBudget = millis;
+  }
+
+  public void setTangleWorkBudget(final long work) {
+    this.tangleWorkBudget = work;
+  }
+
+  public void setTotalTimeBudget(final long millis) {
+    this.totalTimeBudget = millis;
+  }
+
+  public void setTotalWorkBudget(final long work) {
+    this.totalWorkBudget = work;
+  }
+
+  public void setMethodGraph(final boolean methodGraph) {
+    this.methodGraph = methodGraph;
+  }
+
   @Override
   public void execute() throws BuildException {
     super.execute();
@@ -63,18 +111,42 @@ public class AnalyseTask extends Task {
 
   private void analyse() throws IOException {
 
-    final ClassPathParser parser = new ClassPathParser(this.filter);
+    if (this.methodGraph && this.fastScan) {
+      log("Method calls are not seen by a fast scan, so the method graph will be empty");
+    }
+
+    final ClassFileParser classParser = this.fastScan
+        ? new ConstantPoolClassParser(this.filter) : new ClassPathParser(
+            this.filter);
+    final ClassParser parser = new PipelinedClassPathParser(this.filter,
+        classParser);
 
+    final ClasspathRoot mainRoot = this.parser.parse(this.analysisPath);
+    final ClasspathRoot testRoot = makeTestRoot();
     final FileStreamFactory fos = this.streams.get(pickOutputDir());
     try {
-      final Highwheel a = new Highwheel(parser, makePackageOracle(), fos);
-      a.analyse(this.parser.parse(this.analysisPath), makeTestRoot());
+      final Highwheel a = new Highwheel(parser, makePackageOracle(), fos,
+          this.roots, new CycleAnalyser(
+              CycleAnalyser.DEFAULT_SUB_ANALYSIS_THRESHOLD, this.maxSubCycles,
+              this.maxSubCycleLength,
+              new Budget(this.tangleWorkBudget, this.tangleTimeBudget),
+              new Budget(this.totalWorkBudget, this.totalTimeBudget)),
+          this.methodGraph);
+      a.analyse(mainRoot, testRoot, readBaseline());
     } finally {
       fos.close();
+      close(testRoot);
+      close(mainRoot);
     }
 
   }
 
+  private static void close(final ClasspathRoot root) throws IOException {
+    if (root instanceof Closeable) {
+      ((Closeable) root).close();
+    }
+  }
+
   private ClasspathRoot makeTestRoot() {
     if ( this.testPath != null ) {
       return this.parser.parse(this.testPath);
@@ -90,6 +162,22 @@ public class AnalyseTask extends Task {
     return getOwningTarget().getProject().getBaseDir();
   }
 
+  private BaselineRecord readBaseline() throws IOException {
+    if (this.baseline == null) {
+      return null;
+    }
+    if (!this.baseline.exists()) {
+      log("No baseline found at " + this.baseline.getAbsolutePath());
+      return null;
+    }
+    final FileInputStream is = new FileInputStream(this.baseline);
+    try {
+      return BaselineRecord.read(is);
+    } finally {
+      is.close();
+    }
+  }
+
   private DependencyOracle makePackageOracle() throws IOException {
     if (this.accessRules != null) {
       final FileInputStream is = new FileInputStream(new File(getProject()
@@ -160,13 +248,7 @@ public class AnalyseTask extends Task {
   }
 
   private Filter makeFilter(final String glob) {
-    final Pattern p = Pattern.compile(GlobToRegex.convertGlobToRegex(glob));
-    return new Filter() {
-      public boolean include(final ElementName item) {
-        return p.matcher(item.asJavaName()).matches();
-      }
-
-    };
+    return new GlobFilter(glob);
   }
 
   public void setAccessRules(final String accessRules) {
@@ -177,4 +259,12 @@ public class AnalyseTask extends Task {
     this.outputDir = outputDir;
   }
 
+  public void setBaseline(final File baseline) {
+    this.baseline = baseline;
+  }
+
+  public void setFastScan(final boolean fastScan) {
+    this.fastScan = fastScan;
+  }
+
 }
\ No newline at end of file
@@ -1,12 +1,14 @@
 package org.pitest.highwheel.ant;
 
 import java.io.File;
+import java.io.IOException;
 import java.util.ArrayList;
 import java.util.Collection;
 import java.util.List;
 
 import org.pitest.highwheel.bytecodeparser.classpath.ArchiveClassPathRoot;
 import org.pitest.highwheel.bytecodeparser.classpath.DirectoryClassPathRoot;
+import org.pitest.highwheel.bytecodeparser.classpath.NestedArchiveClassPathRoot;
 import org.pitest.highwheel.classpath.ClasspathRoot;
 
 public class ClassPath {
@@ -20,10 +22,21 @@ public class ClassPath {
         if (!f.canRead()) {
           throw new RuntimeException("Can't read the file " + f);
         }
-        rs.add(new ArchiveClassPathRoot(f));
+        rs.add(createArchiveRoot(f));
       }
     }
     return rs;
   }
 
+  private static ClasspathRoot createArchiveRoot(final File f) {
+    try {
+      if (NestedArchiveClassPathRoot.isNestedArchive(f)) {
+        return NestedArchiveClassPathRoot.open(f);
+      }
+      return new ArchiveClassPathRoot(f);
+    } catch (final IOException ex) {
+      throw new RuntimeException("Can't read the archive " + f, ex);
+    }
+  }
+
 }
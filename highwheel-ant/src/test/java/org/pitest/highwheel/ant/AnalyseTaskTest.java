@@ -5,12 +5,15 @@ import static org.mockito.Matchers.any;
 import static org.mockito.Matchers.anyString;
 import static org.mockito.Matchers.eq;
 import static org.mockito.Mockito.atLeast;
+import static org.mockito.Mockito.mock;
 import static org.mockito.Mockito.never;
 import static org.mockito.Mockito.times;
 import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
+import static org.mockito.Mockito.withSettings;
 
 import java.io.ByteArrayOutputStream;
+import java.io.Closeable;
 import java.io.File;
 import java.io.IOException;
 
@@ -95,6 +98,16 @@ public class AnalyseTaskTest {
     verify(this.parser).parse(eq(p));
   }
 
+  @Test
+  public void shouldCloseTheAnalysedPathOnceDone() throws IOException {
+    setMandatoryProperties();
+    final ClasspathRoot root = mock(ClasspathRoot.class, withSettings()
+        .extraInterfaces(Closeable.class));
+    when(this.parser.parse(any(Path.class))).thenReturn(root);
+    this.testee.execute();
+    verify((Closeable) root).close();
+  }
+
   @Test
   public void shouldIgnoreSuppliedEmptyPaths() throws IOException {
     setMandatoryProperties();
@@ -3,7 +3,6 @@ package org.pitest.highwheel.bytecode;
 import java.io.File;
 import java.util.ArrayList;
 import java.util.List;
-import java.util.regex.Pattern;
 
 import org.apache.maven.plugin.AbstractMojo;
 import org.apache.maven.plugin.MojoExecutionException;
@@ -13,8 +12,7 @@ import org.pitest.highwheel.bytecodeparser.classpath.CompoundClassPathRoot;
 import org.pitest.highwheel.bytecodeparser.classpath.DirectoryClassPathRoot;
 import org.pitest.highwheel.classpath.ClasspathRoot;
 import org.pitest.highwheel.cycles.Filter;
-import org.pitest.highwheel.model.ElementName;
-import org.pitest.highwheel.util.GlobToRegex;
+import org.pitest.highwheel.util.GlobFilter;
 
 /**
  * Base mojo for analysis mojos that require a class filter
@@ -32,7 +30,8 @@ public abstract class BaseMojo extends AbstractMojo {
   private MavenProject project;
 
   /**
-   * Classes to include in analyse. Glob syntax
+   * Classes to include in analyse. Comma separated globs, those starting with
+   * ! exclude classes
    * 
    * @parameter default="" expression="${classFilter}"
    */
@@ -115,13 +114,7 @@ public abstract class BaseMojo extends AbstractMojo {
   }
 
   private Filter makeFilter(final String glob) {
-    final Pattern p = Pattern.compile(GlobToRegex.convertGlobToRegex(glob));
-    return new Filter() {
-      public boolean include(final ElementName item) {
-        return p.matcher(item.asJavaName()).matches();
-      }
-
-    };
+    return new GlobFilter(glob);
   }
 
   protected File makeReportDirectory(String dirName) {
@@ -1,52 +1,156 @@
 package org.pitest.highwheel;
 
 import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
 
+import org.pitest.highwheel.baseline.BaselineDiff;
+import org.pitest.highwheel.baseline.BaselineRecord;
+import org.pitest.highwheel.callgraph.MethodGraphBuildingVisitor;
 import org.pitest.highwheel.classpath.AccessVisitor;
 import org.pitest.highwheel.classpath.ClassParser;
 import org.pitest.highwheel.classpath.ClasspathRoot;
+import org.pitest.highwheel.classpath.CompoundAccessVisitor;
 import org.pitest.highwheel.cycles.ClassDependencyGraphBuildingVisitor;
 import org.pitest.highwheel.cycles.CodeGraphs;
+import org.pitest.highwheel.cycles.CodeStats;
 import org.pitest.highwheel.cycles.CycleAnalyser;
 import org.pitest.highwheel.cycles.CycleReporter;
+import org.pitest.highwheel.cycles.Filter;
 import org.pitest.highwheel.losttests.LostTestAnalyser;
 import org.pitest.highwheel.losttests.LostTestHTMLVisitor;
 import org.pitest.highwheel.losttests.LostTestVisitor;
 import org.pitest.highwheel.model.Dependency;
 import org.pitest.highwheel.model.ElementName;
 import org.pitest.highwheel.oracle.DependencyOracle;
+import org.pitest.highwheel.reachability.EntryPointVisitor;
+import org.pitest.highwheel.reachability.ReachabilityAnalyser;
+import org.pitest.highwheel.reachability.ReachabilityHTMLVisitor;
 import org.pitest.highwheel.report.FileStreamFactory;
+import org.pitest.highwheel.report.html.ChangesWriter;
 import org.pitest.highwheel.report.html.HtmlCycleWriter;
+import org.pitest.highwheel.report.html.IndexWriter;
+import org.pitest.highwheel.report.html.MethodsWriter;
+import org.pitest.highwheel.snapshot.SnapshotWriter;
 
 import edu.uci.ics.jung.graph.DirectedGraph;
 import edu.uci.ics.jung.graph.DirectedSparseGraph;
 
 public class Highwheel {
 
+  public final static String      SNAPSHOT = "classes.hwg";
+  public final static String      BASELINE = "baseline.hwb";
+
   private final DependencyOracle  dependencyOracle;
   private final FileStreamFactory fsf;
   private final ClassParser       parser;
+  private final Filter            extraRoots;
+  private final CycleAnalyser     cycleAnalyser;
+  private final boolean           methodGraph;
 
   public Highwheel(final ClassParser parser,
       final DependencyOracle dependencyOracle, final FileStreamFactory fsf) {
+    this(parser, dependencyOracle, fsf, null);
+  }
+
+  /**
+   * @param extraRoots
+   *          filter matching classes, or annotations on classes, from which
+   *          code should be reachable in addition to classes with a main
+   *          method. May be null.
+   */
+  public Highwheel(final ClassParser parser,
+      final DependencyOracle dependencyOracle, final FileStreamFactory fsf,
+      final Filter extraRoots) {
+    this(parser, dependencyOracle, fsf, extraRoots, new CycleAnalyser());
+  }
+
+  public Highwheel(final ClassParser parser,
+      final DependencyOracle dependencyOracle, final FileStreamFactory fsf,
+      final Filter extraRoots, final CycleAnalyser cycleAnalyser) {
+    this(parser, dependencyOracle, fsf, extraRoots, cycleAnalyser, false);
+  }
+
+  /**
+   * @param methodGraph
+   *          whether to also build a graph of the calls between methods while
+   *          parsing, and report its recursive tangles and the fan in and fan
+   *          out of each method. Calls are only seen by a full scan.
+   */
+  public Highwheel(final ClassParser parser,
+      final DependencyOracle dependencyOracle, final FileStreamFactory fsf,
+      final Filter extraRoots, final CycleAnalyser cycleAnalyser,
+      final boolean methodGraph) {
     this.dependencyOracle = dependencyOracle;
     this.fsf = fsf;
     this.parser = parser;
+    this.extraRoots = extraRoots;
+    this.cycleAnalyser = cycleAnalyser;
+    this.methodGraph = methodGraph;
   }
 
   public void analyse(final ClasspathRoot mainRoot, final ClasspathRoot testRoot)
       throws IOException {
+    analyse(mainRoot, testRoot, null);
+  }
+
+  /**
+   * Analyses the code and records a baseline of the results. If a previous
+   * baseline is supplied the changes since it are reported, and the cycles are
+   * not analysed when nothing has changed.
+   */
+  public void analyse(final ClasspathRoot mainRoot,
+      final ClasspathRoot testRoot, final BaselineRecord previous)
+      throws IOException {
 
     final DirectedGraph<ElementName, Dependency> classGraph = new DirectedSparseGraph<ElementName, Dependency>();
 
     final AccessVisitor v = new ClassDependencyGraphBuildingVisitor(classGraph);
+    final EntryPointVisitor entryPoints = new EntryPointVisitor(
+        this.extraRoots);
+    final SnapshotWriter snapshot = new SnapshotWriter(
+        this.fsf.getStream(SNAPSHOT));
+
+    final List<AccessVisitor> visitors = new ArrayList<AccessVisitor>(
+        Arrays.<AccessVisitor> asList(v, entryPoints, snapshot));
+    final MethodGraphBuildingVisitor methods = this.methodGraph
+        ? new MethodGraphBuildingVisitor() : null;
+    if (methods != null) {
+      visitors.add(methods);
+    }
+
+    this.parser.parse(mainRoot, new CompoundAccessVisitor(visitors));
+    snapshot.finish();
 
-    this.parser.parse(mainRoot, v);
+    if (methods != null) {
+      new MethodsWriter(this.fsf).write(methods.build());
+    }
 
     final CodeGraphs g = new CodeGraphs(classGraph);
-    final CycleAnalyser cycleAnalyser = new CycleAnalyser();
-    final CycleReporter r = new HtmlCycleWriter(this.dependencyOracle, this.fsf);
-    cycleAnalyser.analyse(g, r);
+    final BaselineRecord record = BaselineRecord.create(g,
+        this.dependencyOracle);
+    record.write(this.fsf.getStream(BASELINE));
+
+    IndexWriter.Baseline baseline = IndexWriter.Baseline.NONE;
+    if (previous != null) {
+      final BaselineDiff diff = previous.compareTo(record);
+      new ChangesWriter(this.fsf).write(diff);
+      baseline = diff.isEmpty() ? IndexWriter.Baseline.UNCHANGED
+          : IndexWriter.Baseline.CHANGED;
+    }
+
+    final CycleReporter r = new HtmlCycleWriter(this.dependencyOracle,
+        this.fsf, baseline, this.methodGraph);
+    if (baseline == IndexWriter.Baseline.UNCHANGED) {
+      r.start(new CodeStats(g));
+      r.end();
+    } else {
+      this.cycleAnalyser.analyse(g, r);
+    }
+
+    new ReachabilityAnalyser().analyse(classGraph, entryPoints.getRoots(),
+        new ReachabilityHTMLVisitor(this.fsf));
 
     if (testRoot != null) {
       LostTestVisitor visitor = new LostTestHTMLVisitor(this.fsf);
@@ -0,0 +1,324 @@
+package org.pitest.highwheel.algorithm;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import edu.uci.ics.jung.graph.DirectedGraph;
+
+/**
+ * Lists every elementary cycle within an SCC of up to a given length, rather
+ * than only the shortest through each vertex as ElementalCycleFinder does.
+ *
+ * Members are numbered, and each cycle is found only from its lowest numbered
+ * member, so each is listed once, rotated to start there. The search from a
+ * start only visits higher numbered members, and is cut short wherever the
+ * shortest way back to the start would make the cycle too long. Johnson's
+ * blocked sets are not sound once cycles are bounded in length, so these
+ * distances take their place.
+ *
+ * Starts are shared between threads, each with its own path and distance
+ * arrays. Once the cap on cycles is reached all threads stop, wasCapped
+ * reports true, and which cycles were found first depends on timing. An
+ * executor may be shared between enumerators, so that searching many SCCs
+ * does not start a pool of threads for each.
+ *
+ * @param <V>
+ *          Vertex
+ */
+public class BoundedCycleEnumerator<V> {
+
+  private static final int          UNREACHED = Integer.MAX_VALUE / 2;
+
+  private final DirectedGraph<V, ?> graph;
+  private final int                 maxLength;
+  private final int                 maxCycles;
+  private final int                 threads;
+  private final ExecutorService     executor;
+  private boolean                   capped;
+
+  /**
+   * @param maxLength
+   *          most members a listed cycle may have
+   * @param maxCycles
+   *          most cycles to list before giving up
+   * @param threads
+   *          threads to search with, started afresh for each search
+   */
+  public BoundedCycleEnumerator(final DirectedGraph<V, ?> graph,
+      final int maxLength, final int maxCycles, final int threads) {
+    this(graph, maxLength, maxCycles, null, threads);
+  }
+
+  /**
+   * @param maxLength
+   *          most members a listed cycle may have
+   * @param maxCycles
+   *          most cycles to list before giving up
+   * @param executor
+   *          executor to search on, which is not shut down. If null a pool
+   *          is started for each search.
+   * @param threads
+   *          most tasks to search with at once
+   */
+  public BoundedCycleEnumerator(final DirectedGraph<V, ?> graph,
+      final int maxLength, final int maxCycles, final ExecutorService executor,
+      final int threads) {
+    this.graph = graph;
+    this.maxLength = maxLength;
+    this.maxCycles = maxCycles;
+    this.executor = executor;
+    this.threads = threads;
+  }
+
+  /**
+   * @return cycles shortest first, each as its members in the order the
+   *         dependencies run, starting with the same member however the cycle
+   *         was reached
+   */
+  public List<List<V>> findCycles(final Cycle<V> scc) {
+    this.capped = false;
+    if (this.maxLength < 2) {
+      return Collections.emptyList();
+    }
+    final List<V> members = new ArrayList<V>(scc.size());
+    for (final V each : scc) {
+      members.add(each);
+    }
+    final Search search = new Search(members);
+    final List<int[]> found = search.run();
+    this.capped = search.capped.get();
+
+    Collections.sort(found, SHORTEST_FIRST);
+    final List<List<V>> cycles = new ArrayList<List<V>>(found.size());
+    for (final int[] each : found) {
+      final List<V> cycle = new ArrayList<V>(each.length);
+      for (final int member : each) {
+        cycle.add(members.get(member));
+      }
+      cycles.add(cycle);
+    }
+    return cycles;
+  }
+
+  /**
+   * Whether the last search stopped at the cap before listing every cycle.
+   */
+  public boolean wasCapped() {
+    return this.capped;
+  }
+
+  private static final Comparator<int[]> SHORTEST_FIRST = new Comparator<int[]>() {
+    public int compare(final int[] a, final int[] b) {
+      if (a.length != b.length) {
+        return a.length < b.length ? -1 : 1;
+      }
+      for (int i = 0; i != a.length; i++) {
+        if (a[i] != b[i]) {
+          return a[i] < b[i] ? -1 : 1;
+        }
+      }
+      return 0;
+    }
+  };
+
+  /**
+   * The members of one SCC held in compressed sparse row form, in both
+   * directions, with the state shared between threads searching them.
+   */
+  private final class Search {
+    private final int           n;
+    private final int[]         offsets;
+    private final int[]         targets;
+    private final int[]         reverseOffsets;
+    private final int[]         sources;
+    private final AtomicInteger nextStart = new AtomicInteger();
+    private final AtomicInteger count     = new AtomicInteger();
+    private final AtomicBoolean capped    = new AtomicBoolean();
+
+    Search(final List<V> members) {
+      this.n = members.size();
+      final Map<V, Integer> ids = new HashMap<V, Integer>(this.n * 2);
+      for (int i = 0; i != this.n; i++) {
+        ids.put(members.get(i), i);
+      }
+      final List<int[]> edges = new ArrayList<int[]>();
+      for (int i = 0; i != this.n; i++) {
+        for (final V each : BoundedCycleEnumerator.this.graph
+            .getSuccessors(members.get(i))) {
+          final Integer to = ids.get(each);
+          if (to != null) {
+            edges.add(new int[] { i, to });
+          }
+        }
+      }
+      this.offsets = new int[this.n + 1];
+      this.reverseOffsets = new int[this.n + 1];
+      for (final int[] each : edges) {
+        this.offsets[each[0] + 1]++;
+        this.reverseOffsets[each[1] + 1]++;
+      }
+      for (int i = 0; i != this.n; i++) {
+        this.offsets[i + 1] += this.offsets[i];
+        this.reverseOffsets[i + 1] += this.reverseOffsets[i];
+      }
+      this.targets = new int[edges.size()];
+      this.sources = new int[edges.size()];
+      final int[] nextOut = Arrays.copyOf(this.offsets, this.n);
+      final int[] nextIn = Arrays.copyOf(this.reverseOffsets, this.n);
+      for (final int[] each : edges) {
+        this.targets[nextOut[each[0]]++] = each[1];
+        this.sources[nextIn[each[1]]++] = each[0];
+      }
+    }
+
+    private int pathLength() {
+      return Math.min(BoundedCycleEnumerator.this.maxLength, this.n);
+    }
+
+    List<int[]> run() {
+      final int workers = Math.max(1,
+          Math.min(BoundedCycleEnumerator.this.threads, this.n));
+      if (workers == 1) {
+        return new Worker().call();
+      }
+      final ExecutorService shared = BoundedCycleEnumerator.this.executor;
+      final ExecutorService executor = shared != null ? shared : Executors
+          .newFixedThreadPool(workers);
+      final List<Future<List<int[]>>> results = new ArrayList<Future<List<int[]>>>();
+      try {
+        for (int i = 0; i != workers; i++) {
+          results.add(executor.submit(new Worker()));
+        }
+        final List<int[]> found = new ArrayList<int[]>();
+        for (final Future<List<int[]>> each : results) {
+          found.addAll(get(each));
+        }
+        return found;
+      } finally {
+        for (final Future<List<int[]>> each : results) {
+          each.cancel(true);
+        }
+        if (shared == null) {
+          executor.shutdownNow();
+        }
+      }
+    }
+
+    private final class Worker implements Callable<List<int[]>> {
+      private final boolean[]   onPath   = new boolean[Search.this.n];
+      private final int[]       distance = new int[Search.this.n];
+      private final int[]       queue    = new int[Search.this.n];
+      private final int[]       path     = new int[pathLength()];
+      private final int[]       cursor   = new int[pathLength()];
+      private final List<int[]> found    = new ArrayList<int[]>();
+
+      Worker() {
+        Arrays.fill(this.distance, UNREACHED);
+      }
+
+      public List<int[]> call() {
+        for (int start = Search.this.nextStart.getAndIncrement(); start < Search.this.n
+            && !Search.this.capped.get(); start = Search.this.nextStart
+            .getAndIncrement()) {
+          final int reached = measureDistancesTo(start);
+          searchFrom(start);
+          for (int i = 0; i != reached; i++) {
+            this.distance[this.queue[i]] = UNREACHED;
+          }
+        }
+        return this.found;
+      }
+
+      /**
+       * Breadth first search back from start over higher numbered members,
+       * as far as a cycle could reach. Returns the number of members reached,
+       * which are left in the queue.
+       */
+      private int measureDistancesTo(final int start) {
+        int head = 0;
+        int tail = 0;
+        this.distance[start] = 0;
+        this.queue[tail++] = start;
+        while (head != tail) {
+          final int v = this.queue[head++];
+          final int d = this.distance[v] + 1;
+          if (d >= BoundedCycleEnumerator.this.maxLength) {
+            continue;
+          }
+          for (int i = Search.this.reverseOffsets[v]; i != Search.this.reverseOffsets[v + 1]; i++) {
+            final int u = Search.this.sources[i];
+            if (u > start && this.distance[u] == UNREACHED) {
+              this.distance[u] = d;
+              this.queue[tail++] = u;
+            }
+          }
+        }
+        return tail;
+      }
+
+      private void searchFrom(final int start) {
+        final int maxLength = BoundedCycleEnumerator.this.maxLength;
+        int depth = 0;
+        this.path[0] = start;
+        this.cursor[0] = Search.this.offsets[start];
+        this.onPath[start] = true;
+        while (depth >= 0) {
+          final int v = this.path[depth];
+          if (this.cursor[depth] == Search.this.offsets[v + 1]) {
+            this.onPath[v] = false;
+            depth--;
+            continue;
+          }
+          final int w = Search.this.targets[this.cursor[depth]++];
+          if (w == start) {
+            if (depth != 0 && !emit(depth + 1)) {
+              for (int i = 0; i <= depth; i++) {
+                this.onPath[this.path[i]] = false;
+              }
+              return;
+            }
+          } else if (w > start && !this.onPath[w]
+              && depth + 1 + this.distance[w] <= maxLength) {
+            depth++;
+            this.path[depth] = w;
+            this.cursor[depth] = Search.this.offsets[w];
+            this.onPath[w] = true;
+          }
+        }
+      }
+
+      private boolean emit(final int length) {
+        if (Search.this.count.incrementAndGet() > BoundedCycleEnumerator.this.maxCycles) {
+          Search.this.capped.set(true);
+          return false;
+        }
+        this.found.add(Arrays.copyOf(this.path, length));
+        return true;
+      }
+    }
+  }
+
+  private static List<int[]> get(final Future<List<int[]>> future) {
+    try {
+      return future.get();
+    } catch (final InterruptedException e) {
+      Thread.currentThread().interrupt();
+      throw new RuntimeException(e);
+    } catch (final ExecutionException e) {
+      throw new RuntimeException(e.getCause());
+    }
+  }
+
+}
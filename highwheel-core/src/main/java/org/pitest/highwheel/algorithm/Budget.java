@@ -0,0 +1,94 @@
+package org.pitest.highwheel.algorithm;
+
+/**
+ * Limits on the time and work an analysis may spend. Work is counted in
+ * whatever unit the analysis chooses, usually edges examined, so a work limit
+ * gives the same result on every run while a time limit does not.
+ *
+ * A limit of zero or less means no limit.
+ */
+public final class Budget {
+
+  public static final Budget UNLIMITED = new Budget(0, 0);
+
+  private final long         maxWork;
+  private final long         maxMillis;
+
+  public Budget(final long maxWork, final long maxMillis) {
+    this.maxWork = maxWork;
+    this.maxMillis = maxMillis;
+  }
+
+  public boolean isUnlimited() {
+    return this.maxWork <= 0 && this.maxMillis <= 0;
+  }
+
+  /**
+   * Starts spending against this budget. The clock starts now.
+   */
+  public Allowance start() {
+    return new Allowance(this, null);
+  }
+
+  /**
+   * Starts spending against this budget, with all spending also counted
+   * against the parent, so whichever runs out first stops the work.
+   */
+  public Allowance start(final Allowance parent) {
+    return new Allowance(this, parent);
+  }
+
+  /**
+   * Spending against a budget.
+   */
+  public static final class Allowance {
+    private final Budget    budget;
+    private final Allowance parent;
+    private final long      deadline;
+    private long            spent;
+
+    private Allowance(final Budget budget, final Allowance parent) {
+      this.budget = budget;
+      this.parent = parent;
+      this.deadline = System.nanoTime() + (budget.maxMillis * 1000000L);
+    }
+
+    /**
+     * Whether this allowance, or its parent, may run out.
+     */
+    public boolean isLimited() {
+      return !this.budget.isUnlimited()
+          || (this.parent != null && this.parent.isLimited());
+    }
+
+    public void spend(final long work) {
+      this.spent += work;
+      if (this.parent != null) {
+        this.parent.spend(work);
+      }
+    }
+
+    public boolean isExhausted() {
+      return remainingWork() <= 0 || isOutOfTime()
+          || (this.parent != null && this.parent.isExhausted());
+    }
+
+    private boolean isOutOfTime() {
+      return this.budget.maxMillis > 0
+          && System.nanoTime() - this.deadline >= 0;
+    }
+
+    /**
+     * Work that may still be spent, or Long.MAX_VALUE if work is not limited.
+     */
+    public long remainingWork() {
+      long remaining = this.budget.maxWork > 0 ? this.budget.maxWork
+          - this.spent : Long.MAX_VALUE;
+      if (this.parent != null) {
+        remaining = Math.min(remaining, this.parent.remainingWork());
+      }
+      return remaining;
+    }
+  }
+
+}
@@ -0,0 +1,83 @@
+package org.pitest.highwheel.algorithm;
+
+import java.util.Arrays;
+
+/**
+ * Tarjan's algorithm over a graph of int vertices held in compressed sparse
+ * row form, where the successors of vertex v are targets[offsets[v]] to
+ * targets[offsets[v + 1] - 1].
+ *
+ * Unlike SCCFinder this runs without recursion, so it copes with the long
+ * call chains found in method level graphs, and allocates only a few int
+ * arrays whatever the size of the graph.
+ */
+public final class CompactSCCFinder {
+
+  private CompactSCCFinder() {
+  }
+
+  /**
+   * Labels each vertex with the number of its strongly connected component.
+   * Components are numbered in reverse topological order, so any edge between
+   * two components runs from a higher number to a lower one.
+   */
+  public static int[] findComponents(final int[] offsets, final int[] targets) {
+    final int n = offsets.length - 1;
+    final int[] index = new int[n];
+    final int[] lowlink = new int[n];
+    final int[] component = new int[n];
+    final int[] next = new int[n];
+    final int[] stack = new int[n];
+    final int[] callStack = new int[n];
+    Arrays.fill(index, -1);
+
+    int counter = 0;
+    int components = 0;
+    int top = 0;
+    for (int root = 0; root != n; root++) {
+      if (index[root] != -1) {
+        continue;
+      }
+      int depth = 0;
+      callStack[depth++] = root;
+      index[root] = lowlink[root] = counter++;
+      next[root] = offsets[root];
+      stack[top++] = root;
+      component[root] = -1;
+
+      while (depth != 0) {
+        final int v = callStack[depth - 1];
+        if (next[v] != offsets[v + 1]) {
+          final int w = targets[next[v]++];
+          if (index[w] == -1) {
+            index[w] = lowlink[w] = counter++;
+            next[w] = offsets[w];
+            stack[top++] = w;
+            component[w] = -1;
+            callStack[depth++] = w;
+          } else if (component[w] == -1) {
+            // w is still on the stack
+            lowlink[v] = Math.min(lowlink[v], index[w]);
+          }
+          continue;
+        }
+
+        depth--;
+        if (lowlink[v] == index[v]) {
+          int w;
+          do {
+            w = stack[--top];
+            component[w] = components;
+          } while (w != v);
+          components++;
+        }
+        if (depth != 0) {
+          final int parent = callStack[depth - 1];
+          lowlink[parent] = Math.min(lowlink[parent], lowlink[v]);
+        }
+      }
+    }
+    return component;
+  }
+
+}
@@ -1,6 +1,7 @@
 package org.pitest.highwheel.algorithm;
 
 import java.util.Collection;
+import java.util.Collections;
 import java.util.HashSet;
 import java.util.Iterator;
 import java.util.Set;
@@ -9,10 +10,14 @@ import org.pitest.highwheel.model.ElementName;
 
 public class Cycle<V> implements Iterable<V> {
 
+  // unmodifiable, so that nothing can leave the cached hash stale
   private final Set<V> members;
+  // cycles are mostly held in sets, so the hash is worked out once
+  private final int    hash;
 
   public Cycle(final Collection<V> members) {
-    this.members = new HashSet<V>(members);
+    this.members = Collections.unmodifiableSet(new HashSet<V>(members));
+    this.hash = this.members.hashCode();
   }
 
   public boolean contains(final ElementName element) {
@@ -34,11 +39,7 @@ public class Cycle<V> implements Iterable<V> {
 
   @Override
   public int hashCode() {
-    final int prime = 31;
-    int result = 1;
-    result = (prime * result)
-        + ((this.members == null) ? 0 : this.members.hashCode());
-    return result;
+    return this.hash;
   }
 
   @Override
@@ -53,14 +54,7 @@ public class Cycle<V> implements Iterable<V> {
       return false;
     }
     final Cycle<?> other = (Cycle<?>) obj;
-    if (this.members == null) {
-      if (other.members != null) {
-        return false;
-      }
-    } else if (!this.members.equals(other.members)) {
-      return false;
-    }
-    return true;
+    return this.hash == other.hash && this.members.equals(other.members);
   }
 
 }
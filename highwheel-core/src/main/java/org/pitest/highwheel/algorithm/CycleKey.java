@@ -0,0 +1,41 @@
+package org.pitest.highwheel.algorithm;
+
+import java.util.Arrays;
+
+/**
+ * The members of a cycle as sorted vertex ids, with the hash worked out once,
+ * so cycles found many times over can be recognised without building a set
+ * of their members each time.
+ */
+final class CycleKey {
+
+  private final int[] ids;
+  private final int   hash;
+
+  /**
+   * Takes ownership of the array, which is sorted in place.
+   */
+  CycleKey(final int[] ids) {
+    Arrays.sort(ids);
+    this.ids = ids;
+    this.hash = Arrays.hashCode(ids);
+  }
+
+  @Override
+  public int hashCode() {
+    return this.hash;
+  }
+
+  @Override
+  public boolean equals(final Object obj) {
+    if (this == obj) {
+      return true;
+    }
+    if (!(obj instanceof CycleKey)) {
+      return false;
+    }
+    final CycleKey other = (CycleKey) obj;
+    return this.hash == other.hash && Arrays.equals(this.ids, other.ids);
+  }
+
+}
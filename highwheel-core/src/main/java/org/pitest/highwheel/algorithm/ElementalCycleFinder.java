@@ -1,38 +1,118 @@
 package org.pitest.highwheel.algorithm;
 
+import java.util.ArrayList;
 import java.util.Collection;
+import java.util.Collections;
+import java.util.Comparator;
 import java.util.HashMap;
 import java.util.HashSet;
 import java.util.LinkedList;
 import java.util.List;
 import java.util.Map;
+import java.util.PriorityQueue;
 import java.util.Set;
 
+import org.apache.commons.collections15.Transformer;
 
 import edu.uci.ics.jung.graph.DirectedGraph;
 
 /**
  * Finds the elemental cycles within an SCC.
- * 
+ *
  * Based on the paper
  * "Efficient Retrieval and Ranking of Undesired Package Cycles in Large Software Systems"
  * http://www.jot.fm/issues/issue_2012_04/article4.pdf
- * 
+ *
+ * Cycles may be ranked as the paper suggests, by the weight of their weakest
+ * edge. A cycle held together by a single light dependency is the cheapest to
+ * break, so it ranks first.
+ *
+ * Searching from every vertex of an SCC costs time quadratic in its size. The
+ * search can be given a budget, counted in edges examined. Starts are then
+ * tried most connected vertex first. If the budget will not stretch to every
+ * vertex, an evenly spread sample of the remaining vertices is used, and the
+ * search stops when the budget runs out. In that case wasTruncated reports
+ * true and only some cycles are returned.
+ *
+ * The same cycle is found from each of its members. Repeats are recognised by
+ * the sorted ids of their members, so a cycle is only built once.
+ *
  * @param <V>
  */
 public class ElementalCycleFinder<V, E> {
 
   private final DirectedGraph<V, E> graph;
   private final Set<Cycle<V>>       cycles;
+  private final Set<CycleKey>       found;
+  private final Map<V, Integer>     ids;
+  private boolean                   truncated;
 
   public ElementalCycleFinder(final DirectedGraph<V, E> graph) {
     this.graph = graph;
     this.cycles = new HashSet<Cycle<V>>();
+    this.found = new HashSet<CycleKey>();
+    this.ids = new HashMap<V, Integer>();
   }
 
   public Set<Cycle<V>> findShortestCycles(final List<Cycle<V>> sccs) {
+    final Sink<V, E> sink = new Sink<V, E>() {
+      public boolean wantsEdges() {
+        return false;
+      }
+
+      public boolean isNew(final CycleKey key) {
+        return ElementalCycleFinder.this.found.add(key);
+      }
+
+      public void accept(final CycleKey key, final List<V> path,
+          final List<E> edges) {
+        ElementalCycleFinder.this.cycles.add(new Cycle<V>(path));
+      }
+    };
+    find(sccs, sink, Budget.UNLIMITED.start());
+    return this.cycles;
+  }
+
+  /**
+   * Finds the same cycles as findShortestCycles, but keeps only the limit
+   * weakest as they are found, so memory is bounded by the limit rather than
+   * the number of cycles.
+   *
+   * @return the weakest cycles, weakest first. Cycles of equal weight are
+   *         ordered shortest first.
+   */
+  public List<Cycle<V>> findWeakestCycles(final List<Cycle<V>> sccs,
+      final Transformer<E, ? extends Number> weight, final int limit) {
+    return findWeakestCycles(sccs, weight, limit, Budget.UNLIMITED.start());
+  }
 
+  /**
+   * As findWeakestCycles, but sampling start vertices and stopping early
+   * rather than overspending the allowance.
+   */
+  public List<Cycle<V>> findWeakestCycles(final List<Cycle<V>> sccs,
+      final Transformer<E, ? extends Number> weight, final int limit,
+      final Budget.Allowance allowance) {
+    final WeakestCycles<V, E> weakest = new WeakestCycles<V, E>(weight, limit);
+    find(sccs, weakest, allowance);
+    return weakest.inOrder();
+  }
+
+  /**
+   * Whether the last search ran out of budget before trying every start
+   * vertex.
+   */
+  public boolean wasTruncated() {
+    return this.truncated;
+  }
+
+  private void find(final List<Cycle<V>> sccs, final Sink<V, E> sink,
+      final Budget.Allowance allowance) {
+    this.truncated = false;
     for (final Cycle<V> scc : sccs) {
+      if (this.truncated) {
+        return;
+      }
       if (scc.size() > 1) {
         Map<V, Set<V>> predecessorMap = new HashMap<V, Set<V>>();
         for (final V v : scc) {
@@ -43,17 +123,68 @@ public class ElementalCycleFinder<V, E> {
             predecessorMap.get(target).add(v);
           }
         }
-        for (final V pkg : scc) {
-          this.cycles.addAll(getShortestCycles(pkg,predecessorMap));
+        if (!allowance.isLimited()) {
+          for (final V pkg : scc) {
+            getShortestCycles(pkg, predecessorMap, sink);
+          }
+        } else {
+          searchWithin(scc, predecessorMap, sink, allowance);
         }
       }
     }
+  }
 
-    return this.cycles;
+  private void searchWithin(final Cycle<V> scc,
+      final Map<V, Set<V>> predecessorMap, final Sink<V, E> sink,
+      final Budget.Allowance allowance) {
+    final List<V> starts = mostConnectedFirst(scc);
+    long stride = 1;
+    for (long i = 0; i < starts.size(); i += stride) {
+      if (allowance.isExhausted()) {
+        this.truncated = true;
+        return;
+      }
+      final long work = getShortestCycles(starts.get((int) i),
+          predecessorMap, sink);
+      allowance.spend(work);
+
+      // assume each remaining start costs about as much as this one, and
+      // spread those that can be afforded evenly over the rest
+      final long remaining = allowance.remainingWork();
+      final long toGo = starts.size() - i - 1;
+      if (remaining != Long.MAX_VALUE && work > 0) {
+        final long affordable = Math.max(1, remaining / work);
+        if (affordable * stride < toGo) {
+          stride = (toGo + affordable - 1) / affordable;
+          this.truncated = true;
+        }
+      }
+    }
+  }
+
+  private List<V> mostConnectedFirst(final Cycle<V> scc) {
+    final List<V> starts = new ArrayList<V>(scc.size());
+    for (final V each : scc) {
+      starts.add(each);
+    }
+    final Map<V, Integer> degrees = new HashMap<V, Integer>(scc.size() * 2);
+    for (final V each : starts) {
+      degrees.put(each, this.graph.degree(each));
+    }
+    Collections.sort(starts, new Comparator<V>() {
+      public int compare(final V a, final V b) {
+        return degrees.get(b).compareTo(degrees.get(a));
+      }
+    });
+    return starts;
   }
 
-  private Set<Cycle<V>> getShortestCycles(final V pkg, Map<V, Set<V>> predecessorMap) {
-    final Set<Cycle<V>> cycles = new HashSet<Cycle<V>>();
+  /**
+   * @return number of edges examined
+   */
+  private long getShortestCycles(final V pkg, Map<V, Set<V>> predecessorMap,
+      final Sink<V, E> sink) {
+    long work = 0;
     final Map<V, V> prevMap = new HashMap<V, V>();
 
     final List<V> stack = new LinkedList<V>();
@@ -71,6 +202,7 @@ public class ElementalCycleFinder<V, E> {
       opened.remove(visiting);
 
       for (final V next : getPredecessors(visiting)) {
+        work++;
 
         if (!closed.contains(next) && !opened.contains(next)) {
           prevMap.put(next, visiting);
@@ -85,15 +217,144 @@ public class ElementalCycleFinder<V, E> {
             .get(current)) {
           path.add(current);
         }
-        cycles.add(new Cycle<V>(path));
+        final CycleKey key = keyOf(path);
+        if (sink.isNew(key)) {
+          sink.accept(key, path, sink.wantsEdges() ? edges(pkg, path) : null);
+        }
         ancestors.remove(visiting);
       }
 
     }
-    return cycles;
+    return work;
+  }
+
+  private CycleKey keyOf(final List<V> path) {
+    final int[] members = new int[path.size()];
+    int i = 0;
+    for (final V each : path) {
+      members[i++] = id(each);
+    }
+    return new CycleKey(members);
+  }
+
+  private int id(final V vertex) {
+    Integer id = this.ids.get(vertex);
+    if (id == null) {
+      id = this.ids.size();
+      this.ids.put(vertex, id);
+    }
+    return id;
+  }
+
+  /**
+   * The path runs from a successor of start back to start, so the cycle is
+   * the edge from start to the head of the path followed by the path.
+   */
+  private List<E> edges(final V start, final List<V> path) {
+    final List<E> edges = new ArrayList<E>(path.size());
+    V from = start;
+    for (final V each : path) {
+      edges.add(this.graph.findEdge(from, each));
+      from = each;
+    }
+    return edges;
   }
 
   private Collection<V> getPredecessors(final V vertex) {
     return this.graph.getPredecessors(vertex);
   }
+
+  /**
+   * Receives each cycle found. Cycles are found many times over, once from
+   * each member at most, so isNew is asked first and accept is only called
+   * for cycles not seen before.
+   */
+  private interface Sink<V, E> {
+    boolean wantsEdges();
+
+    boolean isNew(CycleKey key);
+
+    void accept(CycleKey key, List<V> path, List<E> edges);
+  }
+
+  private static final class Ranked<V> {
+    private final CycleKey key;
+    private final List<V>  path;
+    private final double   weakest;
+
+    Ranked(final CycleKey key, final List<V> path, final double weakest) {
+      this.key = key;
+      this.path = path;
+      this.weakest = weakest;
+    }
+  }
+
+  /**
+   * Bounded heap holding the weakest cycles offered, with the strongest of
+   * them on top so it can be evicted when a weaker one arrives.
+   */
+  private static final class WeakestCycles<V, E> implements Sink<V, E> {
+    private final Transformer<E, ? extends Number> weight;
+    private final int                              limit;
+    private final PriorityQueue<Ranked<V>>         heap;
+    private final Set<CycleKey>                    held = new HashSet<CycleKey>();
+
+    WeakestCycles(final Transformer<E, ? extends Number> weight,
+        final int limit) {
+      this.weight = weight;
+      this.limit = limit;
+      this.heap = new PriorityQueue<Ranked<V>>(Math.max(1,
+          Math.min(limit, 64)), Collections.reverseOrder(WeakestCycles
+          .<V> weakestFirst()));
+    }
+
+    public boolean wantsEdges() {
+      return true;
+    }
+
+    public boolean isNew(final CycleKey key) {
+      return this.limit > 0 && !this.held.contains(key);
+    }
+
+    public void accept(final CycleKey key, final List<V> path,
+        final List<E> edges) {
+      double weakest = Double.MAX_VALUE;
+      for (final E each : edges) {
+        weakest = Math.min(weakest, this.weight.transform(each).doubleValue());
+      }
+      final Ranked<V> candidate = new Ranked<V>(key, path, weakest);
+      if (this.heap.size() == this.limit) {
+        if (WeakestCycles.<V> weakestFirst().compare(candidate,
+            this.heap.peek()) >= 0) {
+          return;
+        }
+        this.held.remove(this.heap.poll().key);
+      }
+      this.heap.add(candidate);
+      this.held.add(key);
+    }
+
+    List<Cycle<V>> inOrder() {
+      final List<Ranked<V>> ranked = new ArrayList<Ranked<V>>(this.heap);
+      Collections.sort(ranked, WeakestCycles.<V> weakestFirst());
+      final List<Cycle<V>> cycles = new ArrayList<Cycle<V>>(ranked.size());
+      for (final Ranked<V> each : ranked) {
+        cycles.add(new Cycle<V>(each.path));
+      }
+      return cycles;
+    }
+
+    private static <V> Comparator<Ranked<V>> weakestFirst() {
+      return new Comparator<Ranked<V>>() {
+        public int compare(final Ranked<V> a, final Ranked<V> b) {
+          final int byWeight = Double.compare(a.weakest, b.weakest);
+          if (byWeight != 0) {
+            return byWeight;
+          }
+          return a.path.size() < b.path.size() ? -1
+              : a.path.size() == b.path.size() ? 0 : 1;
+        }
+      };
+    }
+  }
 }
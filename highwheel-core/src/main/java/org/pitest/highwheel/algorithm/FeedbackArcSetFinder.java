@@ -0,0 +1,286 @@
+package org.pitest.highwheel.algorithm;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import org.apache.commons.collections15.Transformer;
+
+import edu.uci.ics.jung.graph.DirectedGraph;
+
+/**
+ * Suggests a light set of edges whose removal leaves a graph without cycles,
+ * using the greedy heuristic of Eades, Lin and Smyth weighted by edge
+ * strength.
+ *
+ * Vertices are taken off the graph one at a time. Sinks go to the end of an
+ * ordering and sources to the start. When neither remain, the vertex whose
+ * outgoing weight most exceeds its incoming weight goes to the start. The
+ * edges that run backwards against the finished ordering are the feedback
+ * arcs. Vertices are held in a heap keyed on that difference, so the whole
+ * run costs O(E log V).
+ *
+ * Finding the lightest such set is NP hard. The greedy choice usually gives a
+ * small set, but it is only a suggestion.
+ */
+public class FeedbackArcSetFinder<V, E> {
+
+  private final DirectedGraph<V, E>              graph;
+  private final Transformer<E, ? extends Number> weight;
+
+  public FeedbackArcSetFinder(final DirectedGraph<V, E> graph,
+      final Transformer<E, ? extends Number> weight) {
+    this.graph = graph;
+    this.weight = weight;
+  }
+
+  /**
+   * @return edges to remove, lightest first
+   */
+  public List<E> findFeedbackArcs() {
+    final List<V> vertices = new ArrayList<V>(this.graph.getVertices());
+    final int n = vertices.size();
+    final Map<V, Integer> ids = new HashMap<V, Integer>(n * 2);
+    for (int i = 0; i != n; i++) {
+      ids.put(vertices.get(i), i);
+    }
+
+    final List<E> edges = new ArrayList<E>();
+    final List<E> selfLoops = new ArrayList<E>();
+    for (final E each : this.graph.getEdges()) {
+      if (this.graph.getSource(each).equals(this.graph.getDest(each))) {
+        selfLoops.add(each);
+      } else {
+        edges.add(each);
+      }
+    }
+    final int m = edges.size();
+    final int[] from = new int[m];
+    final int[] to = new int[m];
+    final double[] weights = new double[m];
+    for (int e = 0; e != m; e++) {
+      from[e] = ids.get(this.graph.getSource(edges.get(e)));
+      to[e] = ids.get(this.graph.getDest(edges.get(e)));
+      weights[e] = this.weight.transform(edges.get(e)).doubleValue();
+    }
+
+    final int[] position = order(n, from, to, weights);
+
+    final List<E> arcs = new ArrayList<E>(selfLoops);
+    for (int e = 0; e != m; e++) {
+      if (position[from[e]] > position[to[e]]) {
+        arcs.add(edges.get(e));
+      }
+    }
+    Collections.sort(arcs, new Comparator<E>() {
+      public int compare(final E a, final E b) {
+        return Double.compare(weightOf(a), weightOf(b));
+      }
+    });
+    return arcs;
+  }
+
+  private double weightOf(final E edge) {
+    return this.weight.transform(edge).doubleValue();
+  }
+
+  /**
+   * Returns the position of each vertex in an ordering with few backward
+   * edges.
+   */
+  private static int[] order(final int n, final int[] from, final int[] to,
+      final double[] weights) {
+    final int[] outOffsets = offsets(n, from);
+    final int[] inOffsets = offsets(n, to);
+    final int[] outEdges = bucket(outOffsets, from);
+    final int[] inEdges = bucket(inOffsets, to);
+
+    final int[] outDegree = new int[n];
+    final int[] inDegree = new int[n];
+    final double[] delta = new double[n];
+    for (int e = 0; e != from.length; e++) {
+      outDegree[from[e]]++;
+      inDegree[to[e]]++;
+      delta[from[e]] += weights[e];
+      delta[to[e]] -= weights[e];
+    }
+
+    final boolean[] removed = new boolean[n];
+    final int[] sinks = new int[n];
+    final int[] sources = new int[n];
+    int sinkCount = 0;
+    int sourceCount = 0;
+    final MaxHeap heap = new MaxHeap(delta);
+    for (int v = 0; v != n; v++) {
+      if (outDegree[v] == 0) {
+        sinks[sinkCount++] = v;
+      } else if (inDegree[v] == 0) {
+        sources[sourceCount++] = v;
+      }
+    }
+
+    final int[] position = new int[n];
+    int head = 0;
+    int tail = n - 1;
+    while (head <= tail) {
+      int v;
+      boolean toHead;
+      if (sinkCount != 0) {
+        v = sinks[--sinkCount];
+        toHead = false;
+      } else if (sourceCount != 0) {
+        v = sources[--sourceCount];
+        toHead = true;
+      } else {
+        v = heap.top();
+        toHead = true;
+      }
+      if (removed[v]) {
+        continue;
+      }
+      removed[v] = true;
+      heap.remove(v);
+      position[v] = toHead ? head++ : tail--;
+
+      for (int i = outOffsets[v]; i != outOffsets[v + 1]; i++) {
+        final int e = outEdges[i];
+        final int w = to[e];
+        if (!removed[w]) {
+          delta[w] += weights[e];
+          heap.changed(w);
+          if (--inDegree[w] == 0 && outDegree[w] != 0) {
+            sources[sourceCount++] = w;
+          }
+        }
+      }
+      for (int i = inOffsets[v]; i != inOffsets[v + 1]; i++) {
+        final int e = inEdges[i];
+        final int u = from[e];
+        if (!removed[u]) {
+          delta[u] -= weights[e];
+          heap.changed(u);
+          if (--outDegree[u] == 0) {
+            sinks[sinkCount++] = u;
+          }
+        }
+      }
+    }
+    return position;
+  }
+
+  private static int[] offsets(final int n, final int[] ends) {
+    final int[] offsets = new int[n + 1];
+    for (final int each : ends) {
+      offsets[each + 1]++;
+    }
+    for (int i = 0; i != n; i++) {
+      offsets[i + 1] += offsets[i];
+    }
+    return offsets;
+  }
+
+  private static int[] bucket(final int[] offsets, final int[] ends) {
+    final int[] next = offsets.clone();
+    final int[] edges = new int[ends.length];
+    for (int e = 0; e != ends.length; e++) {
+      edges[next[ends[e]]++] = e;
+    }
+    return edges;
+  }
+
+  /**
+   * Binary heap of vertices ordered by a key array that the caller updates,
+   * with the position of each vertex tracked so it can be moved or removed.
+   */
+  private static final class MaxHeap {
+    private final double[] keys;
+    private final int[]    heap;
+    private final int[]    index;
+    private int            size;
+
+    MaxHeap(final double[] keys) {
+      this.keys = keys;
+      this.size = keys.length;
+      this.heap = new int[this.size];
+      this.index = new int[this.size];
+      for (int i = 0; i != this.size; i++) {
+        this.heap[i] = i;
+        this.index[i] = i;
+      }
+      for (int i = this.size / 2 - 1; i >= 0; i--) {
+        down(i);
+      }
+    }
+
+    int top() {
+      return this.heap[0];
+    }
+
+    void remove(final int v) {
+      final int i = this.index[v];
+      if (i == -1) {
+        return;
+      }
+      this.index[v] = -1;
+      this.size--;
+      if (i != this.size) {
+        move(this.heap[this.size], i);
+        changedAt(i);
+      }
+    }
+
+    void changed(final int v) {
+      if (this.index[v] != -1) {
+        changedAt(this.index[v]);
+      }
+    }
+
+    private void changedAt(final int i) {
+      final int v = this.heap[i];
+      up(i);
+      down(this.index[v]);
+    }
+
+    private void up(int i) {
+      final int v = this.heap[i];
+      while (i != 0) {
+        final int parent = (i - 1) / 2;
+        if (this.keys[this.heap[parent]] >= this.keys[v]) {
+          break;
+        }
+        move(this.heap[parent], i);
+        i = parent;
+      }
+      move(v, i);
+    }
+
+    private void down(int i) {
+      final int v = this.heap[i];
+      while (true) {
+        int child = 2 * i + 1;
+        if (child >= this.size) {
+          break;
+        }
+        if (child + 1 < this.size
+            && this.keys[this.heap[child + 1]] > this.keys[this.heap[child]]) {
+          child++;
+        }
+        if (this.keys[this.heap[child]] <= this.keys[v]) {
+          break;
+        }
+        move(this.heap[child], i);
+        i = child;
+      }
+      move(v, i);
+    }
+
+    private void move(final int v, final int i) {
+      this.heap[i] = v;
+      this.index[v] = i;
+    }
+  }
+
+}
@@ -0,0 +1,429 @@
+package org.pitest.highwheel.algorithm;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.Deque;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+import edu.uci.ics.jung.graph.DirectedGraph;
+
+/**
+ * Keeps the strongly connected components of a directed graph up to date as
+ * edges and vertices are added and removed, so a small change to the graph
+ * costs work in proportion to the components it touches rather than the whole
+ * graph.
+ *
+ * Components are held in topological order. An added edge that agrees with
+ * the order changes nothing. Otherwise only the components placed between its
+ * ends are searched and reordered, following Pearce and Kelly, and those the
+ * edge closes into a cycle are merged. A removed edge within a component may
+ * split it. Splits are deferred until components are next asked for, and then
+ * found by running Tarjan's algorithm over the members of each such component
+ * alone, so many removals from one component are handled in a single pass.
+ *
+ * Not safe for use by several threads.
+ *
+ * @param <V>
+ *          Vertex
+ */
+public class IncrementalSCCFinder<V> {
+
+  private final Map<V, Node<V>>         nodes  = new HashMap<V, Node<V>>();
+  private final List<Component<V>>      order  = new ArrayList<Component<V>>();
+  private final Set<Component<V>>       broken = new LinkedHashSet<Component<V>>();
+  private int                           stamp;
+
+  public IncrementalSCCFinder() {
+  }
+
+  /**
+   * Starts from the components of an existing graph, found in one pass.
+   */
+  public IncrementalSCCFinder(final DirectedGraph<V, ?> graph) {
+    for (final V each : graph.getVertices()) {
+      this.nodes.put(each, new Node<V>(each));
+    }
+    for (final V each : graph.getVertices()) {
+      final Node<V> source = this.nodes.get(each);
+      for (final V successor : graph.getSuccessors(each)) {
+        final Node<V> dest = this.nodes.get(successor);
+        source.out.add(dest);
+        dest.in.add(source);
+      }
+    }
+    final Component<V> all = new Component<V>();
+    for (final Node<V> each : this.nodes.values()) {
+      all.add(each);
+    }
+    if (!all.members.isEmpty()) {
+      this.order.add(all);
+      this.broken.add(all);
+    }
+  }
+
+  public boolean addVertex(final V vertex) {
+    if (this.nodes.containsKey(vertex)) {
+      return false;
+    }
+    final Node<V> node = new Node<V>(vertex);
+    this.nodes.put(vertex, node);
+    final Component<V> component = new Component<V>();
+    component.add(node);
+    component.position = this.order.size();
+    this.order.add(component);
+    return true;
+  }
+
+  /**
+   * Removes a vertex and all edges to and from it.
+   */
+  public boolean removeVertex(final V vertex) {
+    final Node<V> node = this.nodes.remove(vertex);
+    if (node == null) {
+      return false;
+    }
+    for (final Node<V> each : node.out) {
+      each.in.remove(node);
+    }
+    for (final Node<V> each : node.in) {
+      each.out.remove(node);
+    }
+    node.out.clear();
+    node.in.clear();
+
+    final Component<V> component = node.component;
+    component.members.remove(node);
+    if (component.members.isEmpty()) {
+      this.broken.remove(component);
+      this.order.remove(component.position);
+      renumber(component.position);
+    } else {
+      this.broken.add(component);
+    }
+    return true;
+  }
+
+  /**
+   * Adds an edge, adding either vertex if not already present.
+   */
+  public boolean addEdge(final V from, final V to) {
+    addVertex(from);
+    addVertex(to);
+    final Node<V> source = this.nodes.get(from);
+    final Node<V> dest = this.nodes.get(to);
+    if (!source.out.add(dest)) {
+      return false;
+    }
+    dest.in.add(source);
+    if (dest.component.position < source.component.position) {
+      reorder(dest.component, source.component);
+    }
+    return true;
+  }
+
+  public boolean removeEdge(final V from, final V to) {
+    final Node<V> source = this.nodes.get(from);
+    final Node<V> dest = this.nodes.get(to);
+    if (source == null || dest == null || !source.out.remove(dest)) {
+      return false;
+    }
+    dest.in.remove(source);
+    if (source.component == dest.component && source != dest) {
+      this.broken.add(source.component);
+    }
+    return true;
+  }
+
+  public boolean containsVertex(final V vertex) {
+    return this.nodes.containsKey(vertex);
+  }
+
+  /**
+   * All components, in the reverse topological order that SCCFinder returns
+   * them in.
+   */
+  public List<Cycle<V>> findStronglyConnectedComponents() {
+    repair();
+    final List<Cycle<V>> sccs = new ArrayList<Cycle<V>>(this.order.size());
+    for (int i = this.order.size() - 1; i >= 0; i--) {
+      sccs.add(this.order.get(i).asCycle());
+    }
+    return sccs;
+  }
+
+  /**
+   * Components with more than one member.
+   */
+  public List<Cycle<V>> findTangles() {
+    repair();
+    final List<Cycle<V>> tangles = new ArrayList<Cycle<V>>();
+    for (int i = this.order.size() - 1; i >= 0; i--) {
+      final Component<V> each = this.order.get(i);
+      if (each.members.size() > 1) {
+        tangles.add(each.asCycle());
+      }
+    }
+    return tangles;
+  }
+
+  public Cycle<V> componentOf(final V vertex) {
+    final Node<V> node = this.nodes.get(vertex);
+    if (node == null) {
+      return null;
+    }
+    repair();
+    return node.component.asCycle();
+  }
+
+  public int componentCount() {
+    repair();
+    return this.order.size();
+  }
+
+  /**
+   * Restores the order after adding an edge from last to first, where first
+   * is currently placed before last.
+   */
+  private void reorder(final Component<V> first, final Component<V> last) {
+    final int mark = ++this.stamp;
+    final List<Component<V>> forward = new ArrayList<Component<V>>();
+    final List<Component<V>> backward = new ArrayList<Component<V>>();
+    search(first, last.position, true, mark, forward);
+    search(last, first.position, false, mark, backward);
+
+    final List<Component<V>> cycle = new ArrayList<Component<V>>();
+    if (last.forwardMark == mark) {
+      for (final Component<V> each : forward) {
+        if (each.backwardMark == mark) {
+          cycle.add(each);
+        }
+      }
+    }
+
+    final List<Component<V>> affected = new ArrayList<Component<V>>(
+        forward.size() + backward.size());
+    affected.addAll(forward);
+    for (final Component<V> each : backward) {
+      if (each.forwardMark != mark) {
+        affected.add(each);
+      }
+    }
+    final int[] slots = new int[affected.size()];
+    for (int i = 0; i != slots.length; i++) {
+      slots[i] = affected.get(i).position;
+    }
+    Arrays.sort(slots);
+
+    // whatever reaches the edge's source keeps the lowest slots and whatever
+    // its target reaches the highest, so neither moves past a component
+    // outside the search. A merged cycle may sit anywhere between them.
+    final List<Component<V>> before = new ArrayList<Component<V>>();
+    for (final Component<V> each : sorted(backward)) {
+      if (each.forwardMark != mark) {
+        before.add(each);
+      }
+    }
+    final List<Component<V>> after = new ArrayList<Component<V>>();
+    for (final Component<V> each : sorted(forward)) {
+      if (each.backwardMark != mark) {
+        after.add(each);
+      }
+    }
+    for (int i = 0; i != slots.length; i++) {
+      this.order.set(slots[i], null);
+    }
+    for (int i = 0; i != before.size(); i++) {
+      place(before.get(i), slots[i]);
+    }
+    for (int i = 0; i != after.size(); i++) {
+      place(after.get(i), slots[slots.length - after.size() + i]);
+    }
+    if (!cycle.isEmpty()) {
+      place(merge(cycle), slots[before.size()]);
+      this.order.removeAll(Collections.singleton(null));
+      renumber(slots[before.size()]);
+    }
+  }
+
+  private void place(final Component<V> component, final int slot) {
+    component.position = slot;
+    this.order.set(slot, component);
+  }
+
+  private void search(final Component<V> start, final int bound,
+      final boolean forward, final int mark, final List<Component<V>> found) {
+    final Deque<Component<V>> stack = new ArrayDeque<Component<V>>();
+    start.mark(forward, mark);
+    found.add(start);
+    stack.push(start);
+    while (!stack.isEmpty()) {
+      final Component<V> component = stack.pop();
+      for (final Node<V> member : component.members) {
+        for (final Node<V> each : forward ? member.out : member.in) {
+          final Component<V> next = each.component;
+          final boolean inBounds = forward ? next.position <= bound
+              : next.position >= bound;
+          if (inBounds && !next.isMarked(forward, mark)) {
+            next.mark(forward, mark);
+            found.add(next);
+            stack.push(next);
+          }
+        }
+      }
+    }
+  }
+
+  private Component<V> merge(final List<Component<V>> cycle) {
+    Component<V> survivor = cycle.get(0);
+    for (final Component<V> each : cycle) {
+      if (each.members.size() > survivor.members.size()) {
+        survivor = each;
+      }
+    }
+    boolean needsRepair = false;
+    for (final Component<V> each : cycle) {
+      needsRepair |= this.broken.remove(each);
+      if (each != survivor) {
+        for (final Node<V> member : each.members) {
+          survivor.add(member);
+        }
+        each.members.clear();
+      }
+    }
+    // a component awaiting a split may hold members the new cycle passes by
+    if (needsRepair) {
+      this.broken.add(survivor);
+    }
+    return survivor;
+  }
+
+  private void repair() {
+    if (this.broken.isEmpty()) {
+      return;
+    }
+    final List<Component<V>> toSplit = new ArrayList<Component<V>>(
+        this.broken);
+    this.broken.clear();
+    for (final Component<V> each : sorted(toSplit)) {
+      split(each);
+    }
+  }
+
+  private void split(final Component<V> component) {
+    final List<Node<V>> members = component.members;
+    for (int i = 0; i != members.size(); i++) {
+      members.get(i).local = i;
+    }
+    final int[] offsets = new int[members.size() + 1];
+    int edges = 0;
+    for (int i = 0; i != members.size(); i++) {
+      for (final Node<V> each : members.get(i).out) {
+        if (each.component == component) {
+          edges++;
+        }
+      }
+      offsets[i + 1] = edges;
+    }
+    final int[] targets = new int[edges];
+    int e = 0;
+    for (final Node<V> member : members) {
+      for (final Node<V> each : member.out) {
+        if (each.component == component) {
+          targets[e++] = each.local;
+        }
+      }
+    }
+
+    final int[] labels = CompactSCCFinder.findComponents(offsets, targets);
+    int count = 0;
+    for (final int each : labels) {
+      count = Math.max(count, each + 1);
+    }
+    if (count <= 1) {
+      return;
+    }
+
+    // labels run in reverse topological order
+    final List<Component<V>> parts = new ArrayList<Component<V>>(count);
+    for (int i = 0; i != count; i++) {
+      parts.add(new Component<V>());
+    }
+    for (int i = 0; i != members.size(); i++) {
+      parts.get(count - 1 - labels[i]).add(members.get(i));
+    }
+    final int position = component.position;
+    this.order.remove(position);
+    this.order.addAll(position, parts);
+    renumber(position);
+  }
+
+  private void renumber(final int from) {
+    for (int i = from; i < this.order.size(); i++) {
+      this.order.get(i).position = i;
+    }
+  }
+
+  private static <V> List<Component<V>> sorted(
+      final List<Component<V>> components) {
+    final List<Component<V>> copy = new ArrayList<Component<V>>(components);
+    Collections.sort(copy, new Comparator<Component<V>>() {
+      public int compare(final Component<V> a, final Component<V> b) {
+        return a.position < b.position ? -1 : a.position == b.position ? 0
+            : 1;
+      }
+    });
+    return copy;
+  }
+
+  private static final class Node<V> {
+    private final V            value;
+    private final Set<Node<V>> out = new LinkedHashSet<Node<V>>();
+    private final Set<Node<V>> in  = new LinkedHashSet<Node<V>>();
+    private Component<V>       component;
+    private int                local;
+
+    Node(final V value) {
+      this.value = value;
+    }
+  }
+
+  private static final class Component<V> {
+    private final List<Node<V>> members = new ArrayList<Node<V>>(1);
+    private int                 position;
+    private int                 forwardMark;
+    private int                 backwardMark;
+
+    void add(final Node<V> node) {
+      this.members.add(node);
+      node.component = this;
+    }
+
+    void mark(final boolean forward, final int mark) {
+      if (forward) {
+        this.forwardMark = mark;
+      } else {
+        this.backwardMark = mark;
+      }
+    }
+
+    boolean isMarked(final boolean forward, final int mark) {
+      return (forward ? this.forwardMark : this.backwardMark) == mark;
+    }
+
+    Cycle<V> asCycle() {
+      final List<V> values = new ArrayList<V>(this.members.size());
+      for (final Node<V> each : this.members) {
+        values.add(each.value);
+      }
+      return new Cycle<V>(values);
+    }
+  }
+
+}
@@ -9,6 +9,9 @@ import java.util.Map;
 import java.util.Set;
 
 
+import org.pitest.highwheel.jfr.StronglyConnectedComponentsTrace;
+import org.pitest.highwheel.jfr.Traces;
+
 import edu.uci.ics.jung.graph.DirectedGraph;
 import edu.uci.ics.jung.graph.Graph;
 
@@ -34,6 +37,10 @@ public class SCCFinder<V, E> {
   public List<Cycle<V>> findStronglyConnectedComponents(
       final DirectedGraph<V, E> g) {
 
+    final StronglyConnectedComponentsTrace event = Traces
+        .stronglyConnectedComponents();
+    event.begin();
+
     for (final V v : g.getVertices()) {
       if (this.indexmap.get(v) == null) {
         tarjan(v, g);
@@ -45,10 +52,24 @@ public class SCCFinder<V, E> {
     for (final Collection<V> y : this.scc) {
       sccs.add(new Cycle<V>(y));
     }
+
+    event.end();
+    if (event.shouldCommit()) {
+      event.record(g.getVertexCount(), g.getEdgeCount(), sccs.size(),
+          largest(sccs));
+    }
     return sccs;
 
   }
 
+  private int largest(final List<Cycle<V>> sccs) {
+    int largest = 0;
+    for (final Cycle<V> each : sccs) {
+      largest = Math.max(largest, each.size());
+    }
+    return largest;
+  }
+
   private void tarjan(final V v, final Graph<V, E> g) {
 
     this.indexmap.put(v, this.index);
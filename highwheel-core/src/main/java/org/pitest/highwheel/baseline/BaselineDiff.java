@@ -0,0 +1,218 @@
+package org.pitest.highwheel.baseline;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Differences between a baseline record and the record of the current run.
+ *
+ * Names in the two records are first matched by merging their sorted tables.
+ * As the resulting mapping preserves order, the sorted edge and id arrays of
+ * the baseline can then be merged against those of the current run directly.
+ */
+public final class BaselineDiff {
+
+  private final List<String>             addedClassEdges     = new ArrayList<String>();
+  private final List<String>             removedClassEdges   = new ArrayList<String>();
+  private final List<String>             addedPackageEdges   = new ArrayList<String>();
+  private final List<String>             removedPackageEdges = new ArrayList<String>();
+  private final List<Collection<String>> newClassTangles     = new ArrayList<Collection<String>>();
+  private final List<Collection<String>> grownClassTangles   = new ArrayList<Collection<String>>();
+  private final List<Collection<String>> newPackageTangles   = new ArrayList<Collection<String>>();
+  private final List<Collection<String>> grownPackageTangles = new ArrayList<Collection<String>>();
+  private final List<String>             newForbiddenAccesses = new ArrayList<String>();
+
+  private BaselineDiff() {
+  }
+
+  static BaselineDiff compare(final BaselineRecord baseline,
+      final BaselineRecord current) {
+    final BaselineDiff diff = new BaselineDiff();
+    final int[] remap = remap(baseline.names, current.names);
+    compareEdges(remap, baseline, current, baseline.classEdges,
+        current.classEdges, diff.addedClassEdges, diff.removedClassEdges);
+    compareEdges(remap, baseline, current, baseline.packageEdges,
+        current.packageEdges, diff.addedPackageEdges, diff.removedPackageEdges);
+    compareTangles(remap, baseline.classTangles, current,
+        current.classTangles, diff.newClassTangles, diff.grownClassTangles);
+    compareTangles(remap, baseline.packageTangles, current,
+        current.packageTangles, diff.newPackageTangles,
+        diff.grownPackageTangles);
+    compareIds(remap, baseline.forbidden, current, current.forbidden,
+        diff.newForbiddenAccesses);
+    return diff;
+  }
+
+  public boolean isEmpty() {
+    return this.addedClassEdges.isEmpty() && this.removedClassEdges.isEmpty()
+        && this.addedPackageEdges.isEmpty()
+        && this.removedPackageEdges.isEmpty()
+        && this.newClassTangles.isEmpty() && this.grownClassTangles.isEmpty()
+        && this.newPackageTangles.isEmpty()
+        && this.grownPackageTangles.isEmpty()
+        && this.newForbiddenAccesses.isEmpty();
+  }
+
+  public List<String> getAddedClassEdges() {
+    return this.addedClassEdges;
+  }
+
+  public List<String> getRemovedClassEdges() {
+    return this.removedClassEdges;
+  }
+
+  public List<String> getAddedPackageEdges() {
+    return this.addedPackageEdges;
+  }
+
+  public List<String> getRemovedPackageEdges() {
+    return this.removedPackageEdges;
+  }
+
+  public List<Collection<String>> getNewClassTangles() {
+    return this.newClassTangles;
+  }
+
+  public List<Collection<String>> getGrownClassTangles() {
+    return this.grownClassTangles;
+  }
+
+  public List<Collection<String>> getNewPackageTangles() {
+    return this.newPackageTangles;
+  }
+
+  public List<Collection<String>> getGrownPackageTangles() {
+    return this.grownPackageTangles;
+  }
+
+  public List<String> getNewForbiddenAccesses() {
+    return this.newForbiddenAccesses;
+  }
+
+  /**
+   * Maps each baseline name id to the id of the same name in the current
+   * record, or -1 if it no longer exists.
+   */
+  private static int[] remap(final String[] baseline, final String[] current) {
+    final int[] remap = new int[baseline.length];
+    int j = 0;
+    for (int i = 0; i != baseline.length; i++) {
+      while (j != current.length && current[j].compareTo(baseline[i]) < 0) {
+        j++;
+      }
+      if (j != current.length && current[j].equals(baseline[i])) {
+        remap[i] = j;
+      } else {
+        remap[i] = -1;
+      }
+    }
+    return remap;
+  }
+
+  private static void compareEdges(final int[] remap,
+      final BaselineRecord baseline, final BaselineRecord current,
+      final long[] before, final long[] after, final List<String> added,
+      final List<String> removed) {
+    int i = 0;
+    int j = 0;
+    while (i != before.length || j != after.length) {
+      if (i != before.length && remapEdge(remap, before[i]) == -1) {
+        removed.add(edgeName(baseline, before[i]));
+        i++;
+      } else if (j == after.length) {
+        removed.add(edgeName(baseline, before[i]));
+        i++;
+      } else if (i == before.length
+          || after[j] < remapEdge(remap, before[i])) {
+        added.add(edgeName(current, after[j]));
+        j++;
+      } else if (after[j] == remapEdge(remap, before[i])) {
+        i++;
+        j++;
+      } else {
+        removed.add(edgeName(baseline, before[i]));
+        i++;
+      }
+    }
+  }
+
+  private static long remapEdge(final int[] remap, final long edge) {
+    final int source = remap[BaselineRecord.source(edge)];
+    final int dest = remap[BaselineRecord.dest(edge)];
+    if (source == -1 || dest == -1) {
+      return -1;
+    }
+    return ((long) source << 32) | dest;
+  }
+
+  private static String edgeName(final BaselineRecord record, final long edge) {
+    return record.names[BaselineRecord.source(edge)] + " -> "
+        + record.names[BaselineRecord.dest(edge)];
+  }
+
+  /**
+   * A current tangle is new if no baseline tangle held two of its members, and
+   * grown if its members are not all drawn from a single baseline tangle.
+   */
+  private static void compareTangles(final int[] remap,
+      final int[][] before, final BaselineRecord current, final int[][] after,
+      final List<Collection<String>> newTangles,
+      final List<Collection<String>> grownTangles) {
+    final int[] previousTangle = new int[current.names.length];
+    Arrays.fill(previousTangle, -1);
+    for (int t = 0; t != before.length; t++) {
+      for (final int member : before[t]) {
+        if (remap[member] != -1) {
+          previousTangle[remap[member]] = t;
+        }
+      }
+    }
+
+    for (final int[] tangle : after) {
+      final Map<Integer, Integer> overlaps = new HashMap<Integer, Integer>();
+      int largestOverlap = 0;
+      for (final int member : tangle) {
+        final int t = previousTangle[member];
+        if (t != -1) {
+          final Integer count = overlaps.get(t);
+          final int overlap = count == null ? 1 : count + 1;
+          overlaps.put(t, overlap);
+          largestOverlap = Math.max(largestOverlap, overlap);
+        }
+      }
+      if (largestOverlap < 2) {
+        newTangles.add(names(current, tangle));
+      } else if (largestOverlap != tangle.length) {
+        grownTangles.add(names(current, tangle));
+      }
+    }
+  }
+
+  private static void compareIds(final int[] remap, final int[] before,
+      final BaselineRecord current, final int[] after, final List<String> added) {
+    int i = 0;
+    for (final int each : after) {
+      while (i != before.length
+          && (remap[before[i]] == -1 || remap[before[i]] < each)) {
+        i++;
+      }
+      if (i == before.length || remap[before[i]] != each) {
+        added.add(current.names[each]);
+      }
+    }
+  }
+
+  private static Collection<String> names(final BaselineRecord record,
+      final int[] ids) {
+    final List<String> names = new ArrayList<String>(ids.length);
+    for (final int each : ids) {
+      names.add(record.names[each]);
+    }
+    return names;
+  }
+
+}
@@ -0,0 +1,296 @@
+package org.pitest.highwheel.baseline;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.nio.charset.Charset;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.List;
+import java.util.TreeSet;
+import java.util.zip.Deflater;
+import java.util.zip.DeflaterOutputStream;
+import java.util.zip.InflaterInputStream;
+
+import org.pitest.highwheel.algorithm.Cycle;
+import org.pitest.highwheel.algorithm.SCCFinder;
+import org.pitest.highwheel.cycles.CodeGraphs;
+import org.pitest.highwheel.model.Access;
+import org.pitest.highwheel.model.Dependency;
+import org.pitest.highwheel.model.ElementName;
+import org.pitest.highwheel.oracle.DependencyOracle;
+import org.pitest.highwheel.oracle.DependendencyStatus;
+import org.pitest.highwheel.util.VarInt;
+
+import edu.uci.ics.jung.graph.DirectedGraph;
+
+/**
+ * Compact, sorted record of the edges, tangles and forbidden accesses found by
+ * a single analysis run.
+ *
+ * Every name is held once in a sorted table. Edges, tangle members and
+ * forbidden accesses are held as sorted arrays of indexes into that table, so
+ * two records can be compared with a single linear merge.
+ */
+public final class BaselineRecord {
+
+  private static final Charset UTF8    = Charset.forName("UTF-8");
+  private static final byte[]  MAGIC   = { 'H', 'W', 'B', 'L' };
+  private static final int     VERSION = 1;
+
+  final String[]               names;
+  final long[]                 classEdges;
+  final long[]                 packageEdges;
+  final int[][]                classTangles;
+  final int[][]                packageTangles;
+  final int[]                  forbidden;
+
+  BaselineRecord(final String[] names, final long[] classEdges,
+      final long[] packageEdges, final int[][] classTangles,
+      final int[][] packageTangles, final int[] forbidden) {
+    this.names = names;
+    this.classEdges = classEdges;
+    this.packageEdges = packageEdges;
+    this.classTangles = classTangles;
+    this.packageTangles = packageTangles;
+    this.forbidden = forbidden;
+  }
+
+  public static BaselineRecord create(final CodeGraphs graphs,
+      final DependencyOracle oracle) {
+    final List<String> violations = findForbiddenAccesses(graphs.classGraph(),
+        oracle);
+
+    final TreeSet<String> all = new TreeSet<String>(violations);
+    addVertices(all, graphs.classGraph());
+    addVertices(all, graphs.packageGraph());
+    final String[] names = all.toArray(new String[all.size()]);
+
+    return new BaselineRecord(names, edges(names, graphs.classGraph()), edges(
+        names, graphs.packageGraph()), tangles(names, graphs.classGraph()),
+        tangles(names, graphs.packageGraph()), ids(names, violations));
+  }
+
+  public BaselineDiff compareTo(final BaselineRecord current) {
+    return BaselineDiff.compare(this, current);
+  }
+
+  public void write(final OutputStream os) throws IOException {
+    os.write(MAGIC);
+    VarInt.write(os, VERSION);
+    final DeflaterOutputStream deflater = new DeflaterOutputStream(os,
+        new Deflater(Deflater.BEST_COMPRESSION));
+    final OutputStream out = new BufferedOutputStream(deflater);
+    writeNames(out);
+    writeEdges(out, this.classEdges);
+    writeEdges(out, this.packageEdges);
+    writeTangles(out, this.classTangles);
+    writeTangles(out, this.packageTangles);
+    writeIds(out, this.forbidden);
+    out.flush();
+    deflater.finish();
+  }
+
+  public static BaselineRecord read(final InputStream is) throws IOException {
+    final byte[] magic = new byte[MAGIC.length];
+    for (int i = 0; i != magic.length; i++) {
+      magic[i] = (byte) is.read();
+    }
+    if (!Arrays.equals(magic, MAGIC)) {
+      throw new IOException("Not a highwheel baseline");
+    }
+    final int version = VarInt.read(is);
+    if (version != VERSION) {
+      throw new IOException("Unsupported baseline version " + version);
+    }
+    final InputStream in = new BufferedInputStream(new InflaterInputStream(is));
+    final String[] names = readNames(in);
+    return new BaselineRecord(names, readEdges(in), readEdges(in),
+        readTangles(in), readTangles(in), readIds(in));
+  }
+
+  static String describe(final Access access) {
+    return access.getSource() + " -> " + access.getDest() + " ("
+        + access.getType() + ")";
+  }
+
+  static int source(final long edge) {
+    return (int) (edge >>> 32);
+  }
+
+  static int dest(final long edge) {
+    return (int) edge;
+  }
+
+  private static List<String> findForbiddenAccesses(
+      final DirectedGraph<ElementName, Dependency> g,
+      final DependencyOracle oracle) {
+    final List<String> violations = new ArrayList<String>();
+    for (final Dependency each : g.getEdges()) {
+      for (final Access access : each.consituents()) {
+        if (oracle.assess(access) == DependendencyStatus.FORBIDDEN) {
+          violations.add(describe(access));
+        }
+      }
+    }
+    return violations;
+  }
+
+  private static void addVertices(final Collection<String> names,
+      final DirectedGraph<ElementName, Dependency> g) {
+    for (final ElementName each : g.getVertices()) {
+      names.add(each.asJavaName());
+    }
+  }
+
+  private static int id(final String[] names, final ElementName name) {
+    return Arrays.binarySearch(names, name.asJavaName());
+  }
+
+  private static long[] edges(final String[] names,
+      final DirectedGraph<ElementName, Dependency> g) {
+    final long[] edges = new long[g.getEdgeCount()];
+    int i = 0;
+    for (final Dependency each : g.getEdges()) {
+      edges[i] = ((long) id(names, g.getSource(each)) << 32)
+          | id(names, g.getDest(each));
+      i++;
+    }
+    Arrays.sort(edges);
+    return edges;
+  }
+
+  private static int[][] tangles(final String[] names,
+      final DirectedGraph<ElementName, Dependency> g) {
+    final List<int[]> tangles = new ArrayList<int[]>();
+    for (final Cycle<ElementName> each : new SCCFinder<ElementName, Dependency>()
+        .findStronglyConnectedComponents(g)) {
+      if (each.size() > 1) {
+        final int[] members = new int[each.size()];
+        int i = 0;
+        for (final ElementName member : each) {
+          members[i] = id(names, member);
+          i++;
+        }
+        Arrays.sort(members);
+        tangles.add(members);
+      }
+    }
+    return tangles.toArray(new int[tangles.size()][]);
+  }
+
+  private static int[] ids(final String[] names, final Collection<String> values) {
+    final TreeSet<String> unique = new TreeSet<String>(values);
+    final int[] ids = new int[unique.size()];
+    int i = 0;
+    for (final String each : unique) {
+      ids[i] = Arrays.binarySearch(names, each);
+      i++;
+    }
+    return ids;
+  }
+
+  private void writeNames(final OutputStream out) throws IOException {
+    VarInt.write(out, this.names.length);
+    byte[] previous = new byte[0];
+    for (final String each : this.names) {
+      final byte[] bytes = each.getBytes(UTF8);
+      int shared = 0;
+      final int max = Math.min(previous.length, bytes.length);
+      while (shared != max && previous[shared] == bytes[shared]) {
+        shared++;
+      }
+      VarInt.write(out, shared);
+      VarInt.write(out, bytes.length - shared);
+      out.write(bytes, shared, bytes.length - shared);
+      previous = bytes;
+    }
+  }
+
+  private static String[] readNames(final InputStream in) throws IOException {
+    final String[] names = new String[VarInt.read(in)];
+    byte[] previous = new byte[0];
+    for (int i = 0; i != names.length; i++) {
+      final int shared = VarInt.read(in);
+      final byte[] bytes = new byte[shared + VarInt.read(in)];
+      System.arraycopy(previous, 0, bytes, 0, shared);
+      readFully(in, bytes, shared);
+      names[i] = new String(bytes, UTF8);
+      previous = bytes;
+    }
+    return names;
+  }
+
+  private static void writeEdges(final OutputStream out, final long[] edges)
+      throws IOException {
+    VarInt.write(out, edges.length);
+    int previousSource = 0;
+    for (final long each : edges) {
+      VarInt.write(out, source(each) - previousSource);
+      VarInt.write(out, dest(each));
+      previousSource = source(each);
+    }
+  }
+
+  private static long[] readEdges(final InputStream in) throws IOException {
+    final long[] edges = new long[VarInt.read(in)];
+    int source = 0;
+    for (int i = 0; i != edges.length; i++) {
+      source += VarInt.read(in);
+      edges[i] = ((long) source << 32) | VarInt.read(in);
+    }
+    return edges;
+  }
+
+  private static void writeTangles(final OutputStream out,
+      final int[][] tangles) throws IOException {
+    VarInt.write(out, tangles.length);
+    for (final int[] each : tangles) {
+      writeIds(out, each);
+    }
+  }
+
+  private static int[][] readTangles(final InputStream in) throws IOException {
+    final int[][] tangles = new int[VarInt.read(in)][];
+    for (int i = 0; i != tangles.length; i++) {
+      tangles[i] = readIds(in);
+    }
+    return tangles;
+  }
+
+  private static void writeIds(final OutputStream out, final int[] ids)
+      throws IOException {
+    VarInt.write(out, ids.length);
+    int previous = 0;
+    for (final int each : ids) {
+      VarInt.write(out, each - previous);
+      previous = each;
+    }
+  }
+
+  private static int[] readIds(final InputStream in) throws IOException {
+    final int[] ids = new int[VarInt.read(in)];
+    int previous = 0;
+    for (int i = 0; i != ids.length; i++) {
+      previous += VarInt.read(in);
+      ids[i] = previous;
+    }
+    return ids;
+  }
+
+  private static void readFully(final InputStream in, final byte[] bytes,
+      final int offset) throws IOException {
+    int read = offset;
+    while (read != bytes.length) {
+      final int n = in.read(bytes, read, bytes.length - read);
+      if (n == -1) {
+        throw new IOException("Truncated baseline");
+      }
+      read += n;
+    }
+  }
+
+}
@@ -0,0 +1,136 @@
+package org.pitest.highwheel.callgraph;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+
+import org.pitest.highwheel.algorithm.CompactSCCFinder;
+import org.pitest.highwheel.algorithm.Cycle;
+import org.pitest.highwheel.model.AccessPoint;
+
+/**
+ * Immutable graph of calls between methods. Each method has an int id, and
+ * the calls are held in compressed sparse row form, so a graph of millions of
+ * calls costs a few bytes per call rather than an object.
+ *
+ * Repeated calls between the same pair of methods are held as one edge.
+ */
+public final class MethodGraph {
+
+  private final AccessPoint[]             methods;
+  private final Map<AccessPoint, Integer> ids;
+  private final int[]                     offsets;
+  private final int[]                     targets;
+  private final int[]                     fanIn;
+
+  MethodGraph(final AccessPoint[] methods, final Map<AccessPoint, Integer> ids,
+      final int[] offsets, final int[] targets) {
+    this.methods = methods;
+    this.ids = ids;
+    this.offsets = offsets;
+    this.targets = targets;
+    this.fanIn = new int[methods.length];
+    for (final int each : targets) {
+      this.fanIn[each]++;
+    }
+  }
+
+  public int size() {
+    return this.methods.length;
+  }
+
+  public int edgeCount() {
+    return this.targets.length;
+  }
+
+  public AccessPoint method(final int id) {
+    return this.methods[id];
+  }
+
+  /**
+   * The id of a method, or -1 if it is not in the graph.
+   */
+  public int id(final AccessPoint method) {
+    final Integer id = this.ids.get(method);
+    return id != null ? id : -1;
+  }
+
+  /**
+   * Number of distinct methods called by a method.
+   */
+  public int fanOut(final int id) {
+    return this.offsets[id + 1] - this.offsets[id];
+  }
+
+  /**
+   * Number of distinct methods that call a method.
+   */
+  public int fanIn(final int id) {
+    return this.fanIn[id];
+  }
+
+  /**
+   * The ith method called by a method, for i less than its fan out.
+   */
+  public int successor(final int id, final int i) {
+    return this.targets[this.offsets[id] + i];
+  }
+
+  /**
+   * Labels each method with the number of its strongly connected component,
+   * numbered as by CompactSCCFinder.
+   */
+  public int[] components() {
+    return CompactSCCFinder.findComponents(this.offsets, this.targets);
+  }
+
+  /**
+   * Groups of methods that call each other, directly or indirectly, together
+   * with methods that call themselves. These are the recursive call tangles
+   * that lie behind cycles between classes.
+   */
+  public List<Cycle<AccessPoint>> findTangles() {
+    final int[] component = components();
+    int count = 0;
+    for (final int each : component) {
+      count = Math.max(count, each + 1);
+    }
+
+    final int[] sizes = new int[count];
+    for (final int each : component) {
+      sizes[each]++;
+    }
+    for (int v = 0; v != this.methods.length; v++) {
+      if (sizes[component[v]] == 1 && callsItself(v)) {
+        sizes[component[v]]++;
+      }
+    }
+
+    final List<List<AccessPoint>> members = new ArrayList<List<AccessPoint>>(
+        count);
+    for (int i = 0; i != count; i++) {
+      members.add(sizes[i] > 1 ? new ArrayList<AccessPoint>() : null);
+    }
+    for (int v = 0; v != this.methods.length; v++) {
+      final List<AccessPoint> tangle = members.get(component[v]);
+      if (tangle != null) {
+        tangle.add(this.methods[v]);
+      }
+    }
+
+    final List<Cycle<AccessPoint>> tangles = new ArrayList<Cycle<AccessPoint>>();
+    for (final List<AccessPoint> each : members) {
+      if (each != null) {
+        tangles.add(new Cycle<AccessPoint>(each));
+      }
+    }
+    return tangles;
+  }
+
+  private boolean callsItself(final int id) {
+    return Arrays.binarySearch(this.targets, this.offsets[id],
+        this.offsets[id + 1], id) >= 0;
+  }
+
+}
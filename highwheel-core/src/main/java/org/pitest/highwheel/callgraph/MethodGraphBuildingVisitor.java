@@ -0,0 +1,96 @@
+package org.pitest.highwheel.callgraph;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import org.pitest.highwheel.classpath.AccessVisitor;
+import org.pitest.highwheel.model.AccessPoint;
+import org.pitest.highwheel.model.AccessPointName;
+import org.pitest.highwheel.model.AccessType;
+import org.pitest.highwheel.model.ElementName;
+
+/**
+ * Records the calls made between methods as they are parsed, so that a
+ * MethodGraph can be built without holding an Access for each call. Accesses
+ * to fields and classes are ignored.
+ */
+public class MethodGraphBuildingVisitor implements AccessVisitor {
+
+  private final Map<AccessPoint, Integer> ids     = new HashMap<AccessPoint, Integer>();
+  private final List<AccessPoint>         methods = new ArrayList<AccessPoint>();
+  private long[]                          calls   = new long[1024];
+  private int                             callCount;
+
+  public void apply(final AccessPoint source, final AccessPoint dest,
+      final AccessType type) {
+    if (isMethod(source) && isMethod(dest)) {
+      if (this.callCount == this.calls.length) {
+        this.calls = Arrays.copyOf(this.calls, this.callCount * 2);
+      }
+      this.calls[this.callCount++] = ((long) id(source) << 32) | id(dest);
+    }
+  }
+
+  public void newNode(final ElementName clazz) {
+
+  }
+
+  public void newAccessPoint(final AccessPoint ap) {
+    if (isMethod(ap)) {
+      id(ap);
+    }
+  }
+
+  public void newEntryPoint(final ElementName clazz) {
+
+  }
+
+  public void newAnnotation(final ElementName clazz,
+      final ElementName annotation) {
+
+  }
+
+  public MethodGraph build() {
+    final long[] sorted = Arrays.copyOf(this.calls, this.callCount);
+    Arrays.sort(sorted);
+
+    final int n = this.methods.size();
+    final int[] offsets = new int[n + 1];
+    final int[] targets = new int[sorted.length];
+    int edges = 0;
+    for (int i = 0; i != sorted.length; i++) {
+      if (i != 0 && sorted[i] == sorted[i - 1]) {
+        continue;
+      }
+      offsets[(int) (sorted[i] >>> 32) + 1]++;
+      targets[edges++] = (int) sorted[i];
+    }
+    for (int v = 0; v != n; v++) {
+      offsets[v + 1] += offsets[v];
+    }
+
+    return new MethodGraph(this.methods.toArray(new AccessPoint[n]),
+        new HashMap<AccessPoint, Integer>(this.ids), offsets, Arrays.copyOf(
+            targets, edges));
+  }
+
+  private int id(final AccessPoint method) {
+    Integer id = this.ids.get(method);
+    if (id == null) {
+      id = this.methods.size();
+      this.ids.put(method, id);
+      this.methods.add(method);
+    }
+    return id;
+  }
+
+  private static boolean isMethod(final AccessPoint point) {
+    final AccessPointName attribute = point.getAttribute();
+    return attribute != null && attribute.getDescriptor() != null
+        && attribute.getDescriptor().startsWith("(");
+  }
+
+}
@@ -48,6 +48,12 @@ public class ClassDependencyGraphBuildingVisitor implements AccessVisitor {
 
   }
 
+  @Override
+  public void newAnnotation(final ElementName clazz,
+      final ElementName annotation) {
+
+  }
+
   @Override
   public void newAccessPoint(AccessPoint ap) {
     
@@ -3,74 +3,181 @@ package org.pitest.highwheel.cycles;
 import java.util.ArrayList;
 import java.util.Collection;
 import java.util.Collections;
+import java.util.Comparator;
+import java.util.LinkedHashSet;
 import java.util.List;
 import java.util.Set;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
 
-import org.apache.commons.collections15.Predicate;
+import org.apache.commons.collections15.Transformer;
+import org.pitest.highwheel.algorithm.BoundedCycleEnumerator;
+import org.pitest.highwheel.algorithm.Budget;
 import org.pitest.highwheel.algorithm.Cycle;
 import org.pitest.highwheel.algorithm.ElementalCycleFinder;
+import org.pitest.highwheel.algorithm.FeedbackArcSetFinder;
 import org.pitest.highwheel.algorithm.SCCFinder;
+import org.pitest.highwheel.jfr.SubCycleAnalysisTrace;
+import org.pitest.highwheel.jfr.Traces;
 import org.pitest.highwheel.model.Dependency;
 import org.pitest.highwheel.model.ElementName;
 
-import edu.uci.ics.jung.algorithms.filters.VertexPredicateFilter;
 import edu.uci.ics.jung.graph.DirectedGraph;
+import edu.uci.ics.jung.graph.DirectedSparseGraph;
 
 /**
  * Identifies interesting cycles and sub cycles within a graph
+ *
+ * Sub cycles are reported weakest first, ranked by the strength of the
+ * weakest dependency holding them together. Each tangle is also given a
+ * suggested set of dependencies to cut, chosen to be light by the same
+ * measure.
+ *
+ * Breaking a large tangle down into sub cycles can take a long time, so it
+ * may be limited by a budget for each tangle and one for the whole analysis.
+ * When a budget runs out the sub cycles are found from a sample of start
+ * points, or not at all, and the tangle is reported as truncated.
+ *
+ * Given a maximum sub cycle length, every sub cycle up to that length is
+ * listed instead of only the shortest through each member. The budgets do not
+ * apply to this search, which is capped at MAX_ENUMERATED_SUB_CYCLES, and the
+ * tangles of one analysis are searched on a single shared pool of threads.
  */
 public class CycleAnalyser {
 
-  private static final int ARBITRARY_SIZE_THRESHOLD = 6;
+  public static final int  DEFAULT_SUB_ANALYSIS_THRESHOLD = 6;
+  public static final int  MAX_ENUMERATED_SUB_CYCLES      = 10000;
+  private static final int ALL                            = 0;
+  private static final int THREADS                        = Runtime.getRuntime()
+                                                              .availableProcessors();
+
+  private static final Transformer<Dependency, Integer> STRENGTH = new Transformer<Dependency, Integer>() {
+    public Integer transform(final Dependency dependency) {
+      return dependency.getStrength();
+    }
+  };
   
   private final int cycleSubAnalysisThreshold;
+  private final int subCycleLimit;
+  private final int maxSubCycleLength;
+  private final Budget tangleBudget;
+  private final Budget totalBudget;
   
   public CycleAnalyser() {
-    this(ARBITRARY_SIZE_THRESHOLD);
+    this(DEFAULT_SUB_ANALYSIS_THRESHOLD);
   }
   
   CycleAnalyser(int cycleSubAnalysisThreshold) {
+    this(cycleSubAnalysisThreshold, ALL);
+  }
+
+  /**
+   * @param cycleSubAnalysisThreshold
+   *          size at which a tangle is broken down into sub cycles
+   * @param subCycleLimit
+   *          most sub cycles to report for each tangle. Only the weakest are
+   *          kept while they are found, so large tangles cost no more memory
+   *          than small ones. Zero or less reports them all.
+   */
+  public CycleAnalyser(int cycleSubAnalysisThreshold, int subCycleLimit) {
+    this(cycleSubAnalysisThreshold, subCycleLimit, Budget.UNLIMITED,
+        Budget.UNLIMITED);
+  }
+
+  /**
+   * @param tangleBudget
+   *          time and work allowed for finding the sub cycles of each tangle
+   * @param totalBudget
+   *          time and work allowed for finding sub cycles across all tangles
+   */
+  public CycleAnalyser(int cycleSubAnalysisThreshold, int subCycleLimit,
+      Budget tangleBudget, Budget totalBudget) {
+    this(cycleSubAnalysisThreshold, subCycleLimit, ALL, tangleBudget,
+        totalBudget);
+  }
+
+  /**
+   * @param maxSubCycleLength
+   *          if greater than zero, every sub cycle with up to this many
+   *          members is found, rather than the shortest through each member
+   */
+  public CycleAnalyser(int cycleSubAnalysisThreshold, int subCycleLimit,
+      int maxSubCycleLength, Budget tangleBudget, Budget totalBudget) {
     this.cycleSubAnalysisThreshold = cycleSubAnalysisThreshold;
+    this.subCycleLimit = subCycleLimit;
+    this.maxSubCycleLength = maxSubCycleLength;
+    this.tangleBudget = tangleBudget;
+    this.totalBudget = totalBudget;
   }
 
   public void analyse(final CodeGraphs  graphs, final CycleReporter visitor) {
+    analyse(graphs, findStronglyConnectedComponents(graphs.classGraph()),
+        visitor);
+  }
+
+  /**
+   * Analyses the graphs using class components that are already known, such
+   * as those kept up to date by an IncrementalSCCFinder, rather than finding
+   * them again. Components with a single member are ignored.
+   */
+  public void analyse(final CodeGraphs graphs,
+      final Collection<Cycle<ElementName>> classComponents,
+      final CycleReporter visitor) {
 
-    generateStats(visitor, graphs);
-    findClassTangles(visitor, graphs);
-    visitor.endClassCycles();
-    findPackageTangles(visitor, graphs);
-    visitor.end();
+    final Budget.Allowance total = this.totalBudget.start();
+    final ExecutorService executor = this.maxSubCycleLength > 0 ? Executors
+        .newFixedThreadPool(THREADS) : null;
+    try {
+      generateStats(visitor, graphs);
+      examineClassTangles(visitor, classComponents, graphs, total, executor);
+      visitor.endClassCycles();
+      findPackageTangles(visitor, graphs, total, executor);
+      visitor.end();
+    } finally {
+      if (executor != null) {
+        executor.shutdownNow();
+      }
+    }
     
   }
 
-  private void findPackageTangles(final CycleReporter visitor, CodeGraphs graphs) {
+  private void findPackageTangles(final CycleReporter visitor, CodeGraphs graphs,
+      final Budget.Allowance total, final ExecutorService executor) {
     final List<Cycle<ElementName>> packageTangles = findStronglyConnectedComponents(graphs
         .packageGraph());
     for (final Cycle<ElementName> scc : packageTangles) {
-      examinePackageTangle(visitor, scc, graphs);
+      examinePackageTangle(visitor, scc, graphs, total, executor);
     }
   }
 
-  private void findClassTangles(final CycleReporter visitor, CodeGraphs graphs) {
-    final List<Cycle<ElementName>> classTangles = findStronglyConnectedComponents(graphs
-        .classGraph());
-    for (final Cycle<ElementName> scc : classTangles) {
-      examineClassTangle(visitor, scc, graphs);
+  private void examineClassTangles(final CycleReporter visitor,
+      final Collection<Cycle<ElementName>> classComponents, CodeGraphs graphs,
+      final Budget.Allowance total, final ExecutorService executor) {
+    for (final Cycle<ElementName> scc : classComponents) {
+      if (scc.size() > 1) {
+        examineClassTangle(visitor, scc, graphs, total, executor);
+      }
     }
   }
 
   private void examineClassTangle(final CycleReporter visitor,
-      final Cycle<ElementName> scc, CodeGraphs graphs) {
+      final Cycle<ElementName> scc, CodeGraphs graphs,
+      final Budget.Allowance total, final ExecutorService executor) {
     final DirectedGraph<ElementName, Dependency> sccGraph = filterGraph(scc,
         graphs.classGraph());
 
     visitor.visitClassStronglyConnectedComponent(sccGraph);
+    visitor.visitClassTangleCuts(sccGraph, findCuts(sccGraph));
     if (tooBigToUnderstandOnOwn(scc)) {
-      final Collection<DirectedGraph<ElementName, Dependency>> subCycles = findSubCycles(
-          graphs.classGraph(), scc);
+      final Collection<DirectedGraph<ElementName, Dependency>> subCycles = new ArrayList<DirectedGraph<ElementName, Dependency>>();
+      final boolean truncated = findSubCycles(graphs.classGraph(), scc,
+          this.tangleBudget.start(total), executor, subCycles);
       for (final DirectedGraph<ElementName, Dependency> each : subCycles) {
         visitor.visitClassSubCycle(each);
       }
+      if (truncated) {
+        visitor.visitClassSubCyclesTruncated(sccGraph);
+      }
     }
     visitor.endClassStronglyConnectedComponent(sccGraph);
 
@@ -92,21 +199,33 @@ public class CycleAnalyser {
   }
 
   private void examinePackageTangle(final CycleReporter visitor,
-      final Cycle<ElementName> scc, CodeGraphs graphs) {
+      final Cycle<ElementName> scc, CodeGraphs graphs,
+      final Budget.Allowance total, final ExecutorService executor) {
     final DirectedGraph<ElementName, Dependency> sccGraph = filterGraph(scc,
         graphs.packageGraph());
     visitor.visitPackageStronglyConnectedComponent(sccGraph);
+    visitor.visitPackageTangleCuts(sccGraph, findCuts(sccGraph));
     if (tooBigToUnderstandOnOwn(scc)) {
-      final Collection<DirectedGraph<ElementName, Dependency>> subCycles = findSubCycles(
-          graphs.packageGraph(), scc);
+      final Collection<DirectedGraph<ElementName, Dependency>> subCycles = new ArrayList<DirectedGraph<ElementName, Dependency>>();
+      final boolean truncated = findSubCycles(graphs.packageGraph(), scc,
+          this.tangleBudget.start(total), executor, subCycles);
       for (final DirectedGraph<ElementName, Dependency> each : subCycles) {
         visitor.visitSubCycle(each);
       }
+      if (truncated) {
+        visitor.visitPackageSubCyclesTruncated(sccGraph);
+      }
     }
     visitor.endPackageStronglyConnectedComponent(sccGraph);
 
   }
 
+  private List<Dependency> findCuts(
+      final DirectedGraph<ElementName, Dependency> sccGraph) {
+    return new FeedbackArcSetFinder<ElementName, Dependency>(sccGraph,
+        STRENGTH).findFeedbackArcs();
+  }
+
   private void generateStats(final CycleReporter visitor, CodeGraphs graphs) {
     final CodeStats stats = new CodeStats(graphs);
     visitor.start(stats);
@@ -116,26 +235,107 @@ public class CycleAnalyser {
     return scc.size() >= cycleSubAnalysisThreshold;
   }
 
-  private Collection<DirectedGraph<ElementName, Dependency>> findSubCycles(
+  /**
+   * Adds the sub cycle graphs to subCycleGraphs, returning true if the
+   * allowance ran out before all were found.
+   */
+  private boolean findSubCycles(
       final DirectedGraph<ElementName, Dependency> graph,
-      final Cycle<ElementName> scc) {
+      final Cycle<ElementName> scc, final Budget.Allowance allowance,
+      final ExecutorService executor,
+      final Collection<DirectedGraph<ElementName, Dependency>> subCycleGraphs) {
+    final SubCycleAnalysisTrace event = Traces.subCycleAnalysis();
+    event.begin();
     final DirectedGraph<ElementName, Dependency> sccGraph = filterGraph(scc,
         graph);
 
-    final ElementalCycleFinder<ElementName, Dependency> subCycleFinder = new ElementalCycleFinder<ElementName, Dependency>(
-        sccGraph);
-    final Set<Cycle<ElementName>> subCycles = subCycleFinder
-        .findShortestCycles(Collections.singletonList(scc));
+    final int limit = this.subCycleLimit > 0 ? this.subCycleLimit
+        : Integer.MAX_VALUE;
+    final List<Cycle<ElementName>> subCycles;
+    final boolean truncated;
+    if (this.maxSubCycleLength > 0) {
+      final BoundedCycleEnumerator<ElementName> enumerator = new BoundedCycleEnumerator<ElementName>(
+          sccGraph, this.maxSubCycleLength, MAX_ENUMERATED_SUB_CYCLES,
+          executor, THREADS);
+      subCycles = weakestFirst(enumerator.findCycles(scc), sccGraph, limit);
+      truncated = enumerator.wasCapped();
+    } else {
+      final ElementalCycleFinder<ElementName, Dependency> subCycleFinder = new ElementalCycleFinder<ElementName, Dependency>(
+          sccGraph);
+      subCycles = subCycleFinder.findWeakestCycles(
+          Collections.singletonList(scc), STRENGTH, limit, allowance);
+      truncated = subCycleFinder.wasTruncated();
+    }
 
-    final Collection<DirectedGraph<ElementName, Dependency>> subCycleGraphs = toGraphs(
-        subCycles, sccGraph);
+    subCycleGraphs.addAll(toGraphs(subCycles, sccGraph));
 
-    return subCycleGraphs;
+    event.end();
+    if (event.shouldCommit()) {
+      event.record(scc.iterator().next().asJavaName(),
+          sccGraph.getVertexCount(), sccGraph.getEdgeCount(),
+          subCycles.size(), truncated);
+    }
+    return truncated;
 
   }
 
+  /**
+   * Orders enumerated cycles as ElementalCycleFinder ranks them, weakest
+   * dependency first then shortest, keeping the first limit with distinct
+   * members. Each cycle is weighed once, before sorting.
+   */
+  private List<Cycle<ElementName>> weakestFirst(
+      final List<List<ElementName>> cycles,
+      final DirectedGraph<ElementName, Dependency> sccGraph, final int limit) {
+    final List<RankedCycle> ranked = new ArrayList<RankedCycle>(cycles.size());
+    for (final List<ElementName> each : cycles) {
+      ranked.add(new RankedCycle(weakest(each, sccGraph), each));
+    }
+    Collections.sort(ranked, WEAKEST_THEN_SHORTEST);
+    final Set<Cycle<ElementName>> distinct = new LinkedHashSet<Cycle<ElementName>>();
+    for (final RankedCycle each : ranked) {
+      if (distinct.size() == limit) {
+        break;
+      }
+      distinct.add(new Cycle<ElementName>(each.members));
+    }
+    return new ArrayList<Cycle<ElementName>>(distinct);
+  }
+
+  private static final Comparator<RankedCycle> WEAKEST_THEN_SHORTEST = new Comparator<RankedCycle>() {
+    public int compare(final RankedCycle a, final RankedCycle b) {
+      if (a.weight != b.weight) {
+        return a.weight < b.weight ? -1 : 1;
+      }
+      final int sizeA = a.members.size();
+      final int sizeB = b.members.size();
+      return sizeA < sizeB ? -1 : sizeA == sizeB ? 0 : 1;
+    }
+  };
+
+  private static final class RankedCycle {
+    private final int               weight;
+    private final List<ElementName> members;
+
+    RankedCycle(final int weight, final List<ElementName> members) {
+      this.weight = weight;
+      this.members = members;
+    }
+  }
+
+  private static int weakest(final List<ElementName> cycle,
+      final DirectedGraph<ElementName, Dependency> graph) {
+    int weakest = Integer.MAX_VALUE;
+    for (int i = 0; i != cycle.size(); i++) {
+      final Dependency each = graph.findEdge(cycle.get(i),
+          cycle.get((i + 1) % cycle.size()));
+      weakest = Math.min(weakest, STRENGTH.transform(each));
+    }
+    return weakest;
+  }
+
   private Collection<DirectedGraph<ElementName, Dependency>> toGraphs(
-      final Set<Cycle<ElementName>> subCycles,
+      final List<Cycle<ElementName>> subCycles,
       final DirectedGraph<ElementName, Dependency> sccGraph) {
     final Collection<DirectedGraph<ElementName, Dependency>> gs = new ArrayList<DirectedGraph<ElementName, Dependency>>();
     for (final Cycle<ElementName> each : subCycles) {
@@ -144,18 +344,26 @@ public class CycleAnalyser {
     return gs;
   }
 
+  /**
+   * The part of the graph among the members of the cycle, built from their
+   * own edges rather than by filtering the whole graph.
+   */
   private DirectedGraph<ElementName, Dependency> filterGraph(
       final Cycle<ElementName> each,
       final DirectedGraph<ElementName, Dependency> graph) {
-    final Predicate<ElementName> p = new Predicate<ElementName>() {
-      public boolean evaluate(final ElementName arg0) {
-        return each.contains(arg0);
+    final DirectedGraph<ElementName, Dependency> induced = new DirectedSparseGraph<ElementName, Dependency>();
+    for (final ElementName member : each) {
+      induced.addVertex(member);
+    }
+    for (final ElementName member : each) {
+      for (final Dependency edge : graph.getOutEdges(member)) {
+        final ElementName dest = graph.getDest(edge);
+        if (each.contains(dest)) {
+          induced.addEdge(edge, member, dest);
+        }
       }
-
-    };
-    final VertexPredicateFilter<ElementName, Dependency> f = new VertexPredicateFilter<ElementName, Dependency>(
-        p);
-    return (DirectedGraph<ElementName, Dependency>) f.transform(graph);
+    }
+    return induced;
   }
 
 }
@@ -1,5 +1,7 @@
 package org.pitest.highwheel.cycles;
 
+import java.util.List;
+
 import org.pitest.highwheel.model.Dependency;
 import org.pitest.highwheel.model.ElementName;
 
@@ -17,8 +19,37 @@ public interface CycleReporter {
   void visitPackageStronglyConnectedComponent(
       final DirectedGraph<ElementName, Dependency> scc);
 
+  /**
+   * Dependencies that, if removed, would leave the class tangle without
+   * cycles. Called after visitClassStronglyConnectedComponent, lightest
+   * first.
+   */
+  void visitClassTangleCuts(DirectedGraph<ElementName, Dependency> scc,
+      List<Dependency> cuts);
+
+  /**
+   * Dependencies that, if removed, would leave the package tangle without
+   * cycles. Called after visitPackageStronglyConnectedComponent, lightest
+   * first.
+   */
+  void visitPackageTangleCuts(DirectedGraph<ElementName, Dependency> scc,
+      List<Dependency> cuts);
+
   void visitSubCycle(final DirectedGraph<ElementName, Dependency> cycle);
 
+  /**
+   * Called after the sub cycles of a class tangle if the time or work budget
+   * ran out before all were found, so only some were reported.
+   */
+  void visitClassSubCyclesTruncated(DirectedGraph<ElementName, Dependency> scc);
+
+  /**
+   * Called after the sub cycles of a package tangle if the time or work
+   * budget ran out before all were found, so only some were reported.
+   */
+  void visitPackageSubCyclesTruncated(
+      DirectedGraph<ElementName, Dependency> scc);
+
   void endPackageStronglyConnectedComponent(
       final DirectedGraph<ElementName, Dependency> scc);
 
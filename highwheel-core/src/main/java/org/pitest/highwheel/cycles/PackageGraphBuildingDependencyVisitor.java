@@ -46,6 +46,12 @@ class PackageGraphBuildingDependencyVisitor implements AccessVisitor {
 
   }
 
+  @Override
+  public void newAnnotation(final ElementName clazz,
+      final ElementName annotation) {
+
+  }
+
   @Override
   public void newAccessPoint(AccessPoint ap) {
     
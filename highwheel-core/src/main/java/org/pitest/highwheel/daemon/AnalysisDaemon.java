@@ -0,0 +1,216 @@
+package org.pitest.highwheel.daemon;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.UnsupportedEncodingException;
+import java.net.InetAddress;
+import java.net.InetSocketAddress;
+import java.net.URLDecoder;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import org.pitest.highwheel.cycles.CodeGraphs;
+import org.pitest.highwheel.cycles.CycleAnalyser;
+import org.pitest.highwheel.impact.ImpactIndex;
+import org.pitest.highwheel.model.ElementName;
+import org.pitest.highwheel.oracle.DependencyOracle;
+import org.pitest.highwheel.report.FileStreamFactory;
+import org.pitest.highwheel.report.html.HtmlCycleWriter;
+
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpHandler;
+import com.sun.net.httpserver.HttpServer;
+
+/**
+ * Keeps the class graph of a set of class directories in memory, updating it
+ * as the classes are recompiled, and answers requests against it over HTTP on
+ * the loopback interface.
+ *
+ * <ul>
+ * <li>/status - number of classes, dependencies and class tangles, and the
+ * graph version</li>
+ * <li>/dependents?class=a.B - classes that transitively depend on a.B</li>
+ * <li>/dependencies?class=a.B - classes that a.B transitively depends on</li>
+ * <li>/report - writes the html report to the report directory</li>
+ * </ul>
+ *
+ * The class parameter may be repeated.
+ */
+public class AnalysisDaemon {
+
+  private static final String         UTF8 = "UTF-8";
+
+  private final IncrementalClassGraph graph;
+  private final ClassFileWatcher      watcher;
+  private final DependencyOracle      oracle;
+  private final CycleAnalyser         analyser;
+  private final File                  reportDir;
+  private final HttpServer            server;
+
+  private ImpactIndex                 index;
+  private long                        indexVersion = -1;
+  private volatile boolean            running      = true;
+
+  public AnalysisDaemon(final IncrementalClassGraph graph,
+      final ClassFileWatcher watcher, final DependencyOracle oracle,
+      final CycleAnalyser analyser, final File reportDir, final int port)
+      throws IOException {
+    this.graph = graph;
+    this.watcher = watcher;
+    this.oracle = oracle;
+    this.analyser = analyser;
+    this.reportDir = reportDir;
+    this.server = HttpServer.create(
+        new InetSocketAddress(InetAddress.getLoopbackAddress(), port), 0);
+    this.server.createContext("/status", new HttpHandler() {
+      public void handle(final HttpExchange exchange) throws IOException {
+        respond(exchange, 200, status());
+      }
+    });
+    this.server.createContext("/dependents", new HttpHandler() {
+      public void handle(final HttpExchange exchange) throws IOException {
+        final ImpactIndex index = index();
+        respond(exchange, 200,
+            lines(index.dependentsOf(classes(exchange, index))));
+      }
+    });
+    this.server.createContext("/dependencies", new HttpHandler() {
+      public void handle(final HttpExchange exchange) throws IOException {
+        final ImpactIndex index = index();
+        respond(exchange, 200,
+            lines(index.dependenciesOf(classes(exchange, index))));
+      }
+    });
+    this.server.createContext("/report", new HttpHandler() {
+      public void handle(final HttpExchange exchange) throws IOException {
+        report();
+        respond(exchange, 200, AnalysisDaemon.this.reportDir.getAbsolutePath()
+            + "\n");
+      }
+    });
+  }
+
+  /**
+   * Parses all classes, then serves requests and applies changes until
+   * stopped or interrupted.
+   */
+  public void run() throws IOException, InterruptedException {
+    this.graph.load();
+    this.server.start();
+    try {
+      while (this.running) {
+        final ClassFileWatcher.Changes changes = this.watcher.poll(1,
+            TimeUnit.SECONDS);
+        if (changes == null) {
+          continue;
+        }
+        if (changes.isOverflowed()) {
+          this.graph.load();
+        } else {
+          update(changes);
+        }
+      }
+    } finally {
+      this.server.stop(0);
+      this.watcher.close();
+    }
+  }
+
+  public void stop() {
+    this.running = false;
+  }
+
+  public int getPort() {
+    return this.server.getAddress().getPort();
+  }
+
+  private void update(final ClassFileWatcher.Changes changes)
+      throws IOException {
+    try {
+      this.graph.update(changes.getChanged(), changes.getRemoved());
+    } catch (final IOException ex) {
+      // a class may have been deleted after it was reported as changed
+      this.graph.load();
+    } catch (final RuntimeException ex) {
+      // a class may have been rewritten while it was read
+      this.graph.load();
+    }
+  }
+
+  private String status() {
+    synchronized (this.graph) {
+      return "classes " + this.graph.getGraph().getVertexCount() + "\n"
+          + "dependencies " + this.graph.getGraph().getEdgeCount() + "\n"
+          + "tangles " + this.graph.getClassTangles().size() + "\n"
+          + "version " + this.graph.getVersion() + "\n";
+    }
+  }
+
+  private synchronized ImpactIndex index() {
+    synchronized (this.graph) {
+      if (this.indexVersion != this.graph.getVersion()) {
+        this.index = new ImpactIndex(this.graph.getGraph());
+        this.indexVersion = this.graph.getVersion();
+      }
+      return this.index;
+    }
+  }
+
+  private void report() {
+    synchronized (this.graph) {
+      this.reportDir.mkdirs();
+      final FileStreamFactory fsf = new FileStreamFactory(this.reportDir);
+      try {
+        this.analyser.analyse(new CodeGraphs(this.graph.getGraph()),
+            this.graph.getClassTangles(), new HtmlCycleWriter(this.oracle, fsf));
+      } finally {
+        fsf.close();
+      }
+    }
+  }
+
+  private static List<ElementName> classes(final HttpExchange exchange,
+      final ImpactIndex index) throws UnsupportedEncodingException {
+    final List<ElementName> classes = new ArrayList<ElementName>();
+    final String query = exchange.getRequestURI().getRawQuery();
+    if (query == null) {
+      return classes;
+    }
+    for (final String each : query.split("&")) {
+      final int eq = each.indexOf('=');
+      if (eq != -1 && each.substring(0, eq).equals("class")) {
+        final ElementName name = ElementName.fromString(URLDecoder.decode(
+            each.substring(eq + 1), UTF8));
+        if (index.contains(name)) {
+          classes.add(name);
+        }
+      }
+    }
+    return classes;
+  }
+
+  private static String lines(final List<ElementName> names) {
+    final StringBuilder sb = new StringBuilder();
+    for (final ElementName each : names) {
+      sb.append(each.asJavaName()).append('\n');
+    }
+    return sb.toString();
+  }
+
+  private static void respond(final HttpExchange exchange, final int status,
+      final String body) throws IOException {
+    final byte[] bytes = body.getBytes(UTF8);
+    exchange.getResponseHeaders().set("Content-Type",
+        "text/plain; charset=utf-8");
+    exchange.sendResponseHeaders(status, bytes.length);
+    final OutputStream os = exchange.getResponseBody();
+    try {
+      os.write(bytes);
+    } finally {
+      os.close();
+    }
+  }
+
+}
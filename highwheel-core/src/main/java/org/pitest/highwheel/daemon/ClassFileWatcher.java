@@ -0,0 +1,185 @@
+package org.pitest.highwheel.daemon;
+
+import static java.nio.file.StandardWatchEventKinds.ENTRY_CREATE;
+import static java.nio.file.StandardWatchEventKinds.ENTRY_DELETE;
+import static java.nio.file.StandardWatchEventKinds.ENTRY_MODIFY;
+import static java.nio.file.StandardWatchEventKinds.OVERFLOW;
+
+import java.io.Closeable;
+import java.io.File;
+import java.io.IOException;
+import java.nio.file.FileVisitResult;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.SimpleFileVisitor;
+import java.nio.file.WatchEvent;
+import java.nio.file.WatchKey;
+import java.nio.file.WatchService;
+import java.nio.file.attribute.BasicFileAttributes;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+
+import org.pitest.highwheel.model.ElementName;
+
+/**
+ * Watches directories of class files, as written by a compiler, and reports
+ * the classes that have changed.
+ *
+ * Compilers write many files at once, so once a change is seen events are
+ * gathered until none have arrived for a short quiet period.
+ */
+public class ClassFileWatcher implements Closeable {
+
+  private static final String       CLASS_SUFFIX = ".class";
+
+  private final WatchService        watcher;
+  private final long                quietMillis;
+  private final Map<WatchKey, Path> dirs         = new HashMap<WatchKey, Path>();
+  private final Map<WatchKey, Path> roots        = new HashMap<WatchKey, Path>();
+
+  public ClassFileWatcher(final List<File> roots, final long quietMillis)
+      throws IOException {
+    this.watcher = roots.isEmpty() ? null : roots.get(0).toPath()
+        .getFileSystem().newWatchService();
+    this.quietMillis = quietMillis;
+    for (final File each : roots) {
+      final Path root = each.toPath();
+      if (Files.isDirectory(root)) {
+        register(root, root, null);
+      }
+    }
+  }
+
+  /**
+   * Waits up to the timeout for classes to change. Returns null if nothing
+   * changed.
+   */
+  public Changes poll(final long timeout, final TimeUnit unit)
+      throws InterruptedException, IOException {
+    if (this.watcher == null) {
+      unit.sleep(timeout);
+      return null;
+    }
+    WatchKey key = this.watcher.poll(timeout, unit);
+    if (key == null) {
+      return null;
+    }
+    final Changes changes = new Changes();
+    while (key != null) {
+      handle(key, changes);
+      key = this.watcher.poll(this.quietMillis, TimeUnit.MILLISECONDS);
+    }
+    changes.classify();
+    return changes.isEmpty() ? null : changes;
+  }
+
+  public void close() throws IOException {
+    if (this.watcher != null) {
+      this.watcher.close();
+    }
+  }
+
+  private void handle(final WatchKey key, final Changes changes)
+      throws IOException {
+    final Path dir = this.dirs.get(key);
+    final Path root = this.roots.get(key);
+    for (final WatchEvent<?> event : key.pollEvents()) {
+      if (event.kind() == OVERFLOW) {
+        changes.overflowed = true;
+        continue;
+      }
+      final Path path = dir.resolve((Path) event.context());
+      if (event.kind() == ENTRY_CREATE && Files.isDirectory(path)) {
+        register(path, root, changes);
+      } else if (path.getFileName().toString().endsWith(CLASS_SUFFIX)) {
+        changes.touched.put(toClassName(root, path), path);
+      }
+    }
+    if (!key.reset()) {
+      this.dirs.remove(key);
+      this.roots.remove(key);
+    }
+  }
+
+  /**
+   * Watches a directory and those below it. Class files already in a newly
+   * created directory are reported, as they may have been written before the
+   * directory was watched.
+   */
+  private void register(final Path dir, final Path root, final Changes changes)
+      throws IOException {
+    Files.walkFileTree(dir, new SimpleFileVisitor<Path>() {
+      @Override
+      public FileVisitResult preVisitDirectory(final Path d,
+          final BasicFileAttributes attrs) throws IOException {
+        final WatchKey key = d.register(ClassFileWatcher.this.watcher,
+            ENTRY_CREATE, ENTRY_MODIFY, ENTRY_DELETE);
+        ClassFileWatcher.this.dirs.put(key, d);
+        ClassFileWatcher.this.roots.put(key, root);
+        return FileVisitResult.CONTINUE;
+      }
+
+      @Override
+      public FileVisitResult visitFile(final Path file,
+          final BasicFileAttributes attrs) {
+        if (changes != null
+            && file.getFileName().toString().endsWith(CLASS_SUFFIX)) {
+          changes.touched.put(toClassName(root, file), file);
+        }
+        return FileVisitResult.CONTINUE;
+      }
+    });
+  }
+
+  private static ElementName toClassName(final Path root, final Path file) {
+    final String relative = root.relativize(file).toString();
+    return ElementName.fromString(relative.substring(0,
+        relative.length() - CLASS_SUFFIX.length()).replace(File.separatorChar,
+        '.'));
+  }
+
+  public static final class Changes {
+    private final Map<ElementName, Path> touched  = new HashMap<ElementName, Path>();
+    private final Set<ElementName>       changed  = new LinkedHashSet<ElementName>();
+    private final Set<ElementName>       removed  = new LinkedHashSet<ElementName>();
+    private boolean                      overflowed;
+
+    private void classify() {
+      for (final Map.Entry<ElementName, Path> each : this.touched.entrySet()) {
+        if (Files.isRegularFile(each.getValue())) {
+          this.changed.add(each.getKey());
+        } else {
+          this.removed.add(each.getKey());
+        }
+      }
+    }
+
+    private boolean isEmpty() {
+      return !this.overflowed && this.touched.isEmpty();
+    }
+
+    /**
+     * Classes created or modified.
+     */
+    public Collection<ElementName> getChanged() {
+      return this.changed;
+    }
+
+    public Collection<ElementName> getRemoved() {
+      return this.removed;
+    }
+
+    /**
+     * True if events were lost, so every class must be checked.
+     */
+    public boolean isOverflowed() {
+      return this.overflowed;
+    }
+  }
+
+}
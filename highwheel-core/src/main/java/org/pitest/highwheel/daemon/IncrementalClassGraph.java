@@ -0,0 +1,360 @@
+package org.pitest.highwheel.daemon;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+import org.pitest.highwheel.algorithm.Cycle;
+import org.pitest.highwheel.algorithm.IncrementalSCCFinder;
+import org.pitest.highwheel.classpath.AccessVisitor;
+import org.pitest.highwheel.classpath.ClassParser;
+import org.pitest.highwheel.classpath.ClasspathRoot;
+import org.pitest.highwheel.cycles.ClassDependencyGraphBuildingVisitor;
+import org.pitest.highwheel.model.AccessPoint;
+import org.pitest.highwheel.model.AccessPointPool;
+import org.pitest.highwheel.model.AccessType;
+import org.pitest.highwheel.model.Dependency;
+import org.pitest.highwheel.model.ElementName;
+
+import edu.uci.ics.jung.graph.DirectedGraph;
+import edu.uci.ics.jung.graph.DirectedSparseGraph;
+
+/**
+ * Class dependency graph that can be brought up to date with a changed set of
+ * class files without parsing the others again.
+ *
+ * The accesses found in each class file are kept. When files change, the
+ * edges leaving the classes those files contributed to are removed and rebuilt
+ * from the kept accesses of every file that contributes to the same classes,
+ * so the graph matches the one a full parse would build.
+ *
+ * The strongly connected components of the graph are kept up to date from
+ * the edges each update adds and removes, so finding the tangles after a small
+ * change only revisits the components it touched.
+ *
+ * All methods are synchronized on the instance. Callers reading the graph
+ * while it may be updated should hold the same lock.
+ */
+public class IncrementalClassGraph {
+
+  private final ClassParser                            parser;
+  private final ClasspathRoot                          root;
+  private final DirectedGraph<ElementName, Dependency> graph         = new DirectedSparseGraph<ElementName, Dependency>();
+  private final AccessPointPool                        points        = new AccessPointPool();
+
+  private final Map<ElementName, Contribution>         contributions = new HashMap<ElementName, Contribution>();
+  private final Map<ElementName, Set<ElementName>>     filesBySource = new HashMap<ElementName, Set<ElementName>>();
+  private final Map<ElementName, Integer>              declarations  = new HashMap<ElementName, Integer>();
+  private IncrementalSCCFinder<ElementName>            components    = new IncrementalSCCFinder<ElementName>();
+  private long                                         version;
+
+  public IncrementalClassGraph(final ClassParser parser,
+      final ClasspathRoot root) {
+    this.parser = parser;
+    this.root = root;
+  }
+
+  /**
+   * Parses every class in the root, discarding anything already held.
+   */
+  public synchronized void load() throws IOException {
+    for (final ElementName each : new ArrayList<ElementName>(
+        this.graph.getVertices())) {
+      this.graph.removeVertex(each);
+    }
+    this.contributions.clear();
+    this.filesBySource.clear();
+    this.declarations.clear();
+    // the components of the new graph are cheaper to find in one pass than
+    // edge by edge
+    this.components = null;
+    update(new LinkedHashSet<ElementName>(this.root.classNames()),
+        Collections.<ElementName> emptySet());
+    this.components = new IncrementalSCCFinder<ElementName>(this.graph);
+  }
+
+  /**
+   * Brings the graph up to date after the given class files have been
+   * created or changed, or removed.
+   */
+  public synchronized void update(final Collection<ElementName> changed,
+      final Collection<ElementName> removed) throws IOException {
+    final Set<ElementName> sources = new HashSet<ElementName>();
+    final Set<ElementName> orphans = new HashSet<ElementName>();
+
+    for (final ElementName each : concat(removed, changed)) {
+      final Contribution old = this.contributions.remove(each);
+      if (old != null) {
+        unindex(each, old);
+        sources.addAll(old.sources());
+        orphans.addAll(old.nodes);
+        orphans.addAll(old.destinations());
+      }
+    }
+
+    for (final ElementName each : changed) {
+      final Contribution c = parse(each);
+      this.contributions.put(each, c);
+      index(each, c);
+      sources.addAll(c.sources());
+    }
+
+    final Map<ElementName, Set<ElementName>> before = new HashMap<ElementName, Set<ElementName>>();
+    for (final ElementName each : sources) {
+      if (this.graph.containsVertex(each)) {
+        before.put(each, successors(each));
+        for (final Dependency edge : new ArrayList<Dependency>(
+            this.graph.getOutEdges(each))) {
+          this.graph.removeEdge(edge);
+        }
+      }
+    }
+
+    final ClassDependencyGraphBuildingVisitor v = new ClassDependencyGraphBuildingVisitor(
+        this.graph);
+    final Set<ElementName> replay = new HashSet<ElementName>();
+    for (final ElementName each : sources) {
+      final Set<ElementName> files = this.filesBySource.get(each);
+      if (files != null) {
+        replay.addAll(files);
+      }
+    }
+    for (final ElementName each : replay) {
+      this.contributions.get(each).replay(v, sources);
+    }
+    for (final ElementName each : changed) {
+      for (final ElementName node : this.contributions.get(each).nodes) {
+        this.graph.addVertex(node);
+      }
+    }
+
+    if (this.components != null) {
+      updateComponents(sources, before, changed);
+    }
+
+    for (final ElementName each : orphans) {
+      if (!this.declarations.containsKey(each)
+          && this.graph.containsVertex(each) && this.graph.degree(each) == 0) {
+        this.graph.removeVertex(each);
+        if (this.components != null) {
+          this.components.removeVertex(each);
+        }
+      }
+    }
+
+    this.version++;
+  }
+
+  public synchronized DirectedGraph<ElementName, Dependency> getGraph() {
+    return this.graph;
+  }
+
+  /**
+   * Number of updates applied, so callers can tell when results derived from
+   * the graph are stale.
+   */
+  public synchronized long getVersion() {
+    return this.version;
+  }
+
+  public synchronized Set<ElementName> getClassFiles() {
+    return new HashSet<ElementName>(this.contributions.keySet());
+  }
+
+  /**
+   * Strongly connected components of the graph with more than one member.
+   */
+  public synchronized List<Cycle<ElementName>> getClassTangles() {
+    return this.components.findTangles();
+  }
+
+  private void updateComponents(final Set<ElementName> sources,
+      final Map<ElementName, Set<ElementName>> before,
+      final Collection<ElementName> changed) {
+    for (final ElementName each : changed) {
+      for (final ElementName node : this.contributions.get(each).nodes) {
+        this.components.addVertex(node);
+      }
+    }
+    for (final ElementName each : sources) {
+      Set<ElementName> old = before.get(each);
+      if (old == null) {
+        old = Collections.emptySet();
+      }
+      final Set<ElementName> now = this.graph.containsVertex(each) ? successors(each)
+          : Collections.<ElementName> emptySet();
+      for (final ElementName dest : old) {
+        if (!now.contains(dest)) {
+          this.components.removeEdge(each, dest);
+        }
+      }
+      for (final ElementName dest : now) {
+        if (!old.contains(dest)) {
+          this.components.addEdge(each, dest);
+        }
+      }
+    }
+  }
+
+  private Set<ElementName> successors(final ElementName vertex) {
+    return new HashSet<ElementName>(this.graph.getSuccessors(vertex));
+  }
+
+  private Contribution parse(final ElementName file) throws IOException {
+    final Contribution c = new Contribution(this.points);
+    this.parser.parse(new SingleClassRoot(this.root, file), c);
+    return c;
+  }
+
+  private void index(final ElementName file, final Contribution c) {
+    for (final ElementName each : c.sources()) {
+      Set<ElementName> files = this.filesBySource.get(each);
+      if (files == null) {
+        files = new HashSet<ElementName>();
+        this.filesBySource.put(each, files);
+      }
+      files.add(file);
+    }
+    for (final ElementName each : c.nodes) {
+      final Integer count = this.declarations.get(each);
+      this.declarations.put(each, count == null ? 1 : count + 1);
+    }
+  }
+
+  private void unindex(final ElementName file, final Contribution c) {
+    for (final ElementName each : c.sources()) {
+      final Set<ElementName> files = this.filesBySource.get(each);
+      files.remove(file);
+      if (files.isEmpty()) {
+        this.filesBySource.remove(each);
+      }
+    }
+    for (final ElementName each : c.nodes) {
+      final int count = this.declarations.get(each);
+      if (count == 1) {
+        this.declarations.remove(each);
+      } else {
+        this.declarations.put(each, count - 1);
+      }
+    }
+  }
+
+  private static List<ElementName> concat(final Collection<ElementName> a,
+      final Collection<ElementName> b) {
+    final List<ElementName> all = new ArrayList<ElementName>(a);
+    all.addAll(b);
+    return all;
+  }
+
+  /**
+   * The nodes and accesses found in one class file.
+   */
+  private static final class Contribution implements AccessVisitor {
+    private final AccessPointPool   points;
+    private final List<ElementName> nodes   = new ArrayList<ElementName>(1);
+    private AccessPoint[]           from    = new AccessPoint[16];
+    private AccessPoint[]           to      = new AccessPoint[16];
+    private AccessType[]            types   = new AccessType[16];
+    private int                     size;
+
+    Contribution(final AccessPointPool points) {
+      this.points = points;
+    }
+
+    public void apply(final AccessPoint source, final AccessPoint dest,
+        final AccessType type) {
+      if (this.size == this.from.length) {
+        this.from = Arrays.copyOf(this.from, this.size * 2);
+        this.to = Arrays.copyOf(this.to, this.size * 2);
+        this.types = Arrays.copyOf(this.types, this.size * 2);
+      }
+      this.from[this.size] = pooled(source);
+      this.to[this.size] = pooled(dest);
+      this.types[this.size] = type;
+      this.size++;
+    }
+
+    public void newNode(final ElementName clazz) {
+      this.nodes.add(clazz);
+    }
+
+    public void newAccessPoint(final AccessPoint ap) {
+
+    }
+
+    public void newEntryPoint(final ElementName clazz) {
+
+    }
+
+    public void newAnnotation(final ElementName clazz,
+        final ElementName annotation) {
+
+    }
+
+    void replay(final AccessVisitor v, final Set<ElementName> sources) {
+      for (int i = 0; i != this.size; i++) {
+        if (sources.contains(this.from[i].getElementName())) {
+          v.apply(this.from[i], this.to[i], this.types[i]);
+        }
+      }
+    }
+
+    Set<ElementName> sources() {
+      return elements(this.from);
+    }
+
+    Set<ElementName> destinations() {
+      return elements(this.to);
+    }
+
+    private Set<ElementName> elements(final AccessPoint[] points) {
+      if (this.size == 0) {
+        return Collections.emptySet();
+      }
+      final Set<ElementName> names = new HashSet<ElementName>();
+      for (int i = 0; i != this.size; i++) {
+        names.add(points[i].getElementName());
+      }
+      return names;
+    }
+
+    private AccessPoint pooled(final AccessPoint point) {
+      return this.points.create(point.getElementName(), point.getAttribute());
+    }
+  }
+
+  /**
+   * Presents a single class of a root to a parser.
+   */
+  private static final class SingleClassRoot implements ClasspathRoot {
+    private final ClasspathRoot child;
+    private final ElementName   name;
+
+    SingleClassRoot(final ClasspathRoot child, final ElementName name) {
+      this.child = child;
+      this.name = name;
+    }
+
+    public InputStream getData(final ElementName name) throws IOException {
+      return this.child.getData(name);
+    }
+
+    public Collection<ElementName> classNames() {
+      return Collections.singletonList(this.name);
+    }
+
+    public InputStream getResource(final String name) throws IOException {
+      return this.child.getResource(name);
+    }
+  }
+
+}
@@ -0,0 +1,212 @@
+package org.pitest.highwheel.impact;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import org.pitest.highwheel.model.Access;
+import org.pitest.highwheel.model.Dependency;
+import org.pitest.highwheel.model.ElementName;
+
+import edu.uci.ics.jung.graph.DirectedGraph;
+
+/**
+ * Explains how one class or package comes to depend on another, by finding
+ * the shortest chain of dependencies between them and naming a concrete
+ * access for each link.
+ *
+ * The graph is copied into int arrays in both directions when the explainer
+ * is built. Each query then searches breadth first from both ends at once,
+ * always growing the smaller frontier by a whole level, and stops at the
+ * level where the two searches meet. On a large graph this visits only a
+ * small part of it.
+ *
+ * Explainers are immutable and may be queried by several threads.
+ */
+public final class DependencyExplainer {
+
+  private final ElementName[]             names;
+  private final Map<ElementName, Integer> ids;
+
+  // edges in each direction. Each edge has the same number in both.
+  private final int[]                     outOffsets;
+  private final int[]                     outSources;
+  private final int[]                     outTargets;
+  private final int[]                     outEdges;
+  private final int[]                     inOffsets;
+  private final int[]                     inSources;
+  private final int[]                     inEdges;
+  private final Dependency[]              dependencies;
+
+  public DependencyExplainer(final DirectedGraph<ElementName, Dependency> g) {
+    final List<ElementName> vertices = new ArrayList<ElementName>(
+        g.getVertices());
+    Collections.sort(vertices);
+    final int n = vertices.size();
+    this.names = vertices.toArray(new ElementName[n]);
+    this.ids = new HashMap<ElementName, Integer>(n * 2);
+    for (int i = 0; i != n; i++) {
+      this.ids.put(this.names[i], i);
+    }
+
+    final int m = g.getEdgeCount();
+    this.dependencies = new Dependency[m];
+    this.outOffsets = new int[n + 1];
+    this.outTargets = new int[m];
+    this.outEdges = new int[m];
+    this.outSources = new int[m];
+    int e = 0;
+    for (int i = 0; i != n; i++) {
+      this.outOffsets[i] = e;
+      for (final Dependency each : g.getOutEdges(this.names[i])) {
+        this.outSources[e] = i;
+        this.outTargets[e] = this.ids.get(g.getDest(each));
+        this.outEdges[e] = e;
+        this.dependencies[e] = each;
+        e++;
+      }
+    }
+    this.outOffsets[n] = e;
+
+    this.inOffsets = new int[n + 1];
+    for (int i = 0; i != e; i++) {
+      this.inOffsets[this.outTargets[i] + 1]++;
+    }
+    for (int i = 0; i != n; i++) {
+      this.inOffsets[i + 1] += this.inOffsets[i];
+    }
+    this.inSources = new int[e];
+    this.inEdges = new int[e];
+    final int[] fill = Arrays.copyOf(this.inOffsets, n);
+    for (int i = 0; i != e; i++) {
+      final int slot = fill[this.outTargets[i]]++;
+      this.inSources[slot] = this.outSources[i];
+      this.inEdges[slot] = i;
+    }
+  }
+
+  public boolean contains(final ElementName element) {
+    return this.ids.containsKey(element);
+  }
+
+  /**
+   * The shortest chain of dependencies by which from depends on to, as one
+   * access for each link, choosing the strongest where a link is made of
+   * several. Empty if from does not depend on to, or is to.
+   */
+  public List<Access> explain(final ElementName from, final ElementName to) {
+    final int source = id(from);
+    final int target = id(to);
+    if (source == target) {
+      return Collections.emptyList();
+    }
+
+    final int n = this.names.length;
+    // edge by which each vertex was first reached from either end
+    final int[] forwardVia = new int[n];
+    final int[] backwardVia = new int[n];
+    final boolean[] forwardSeen = new boolean[n];
+    final boolean[] backwardSeen = new boolean[n];
+    forwardSeen[source] = true;
+    backwardSeen[target] = true;
+
+    // each search queues vertices level by level, so the current level is
+    // the end of its queue
+    final int[] forward = new int[n];
+    final int[] backward = new int[n];
+    forward[0] = source;
+    backward[0] = target;
+    int forwardLevel = 0;
+    int forwardEnd = 1;
+    int backwardLevel = 0;
+    int backwardEnd = 1;
+    while (forwardLevel != forwardEnd && backwardLevel != backwardEnd) {
+      final int end;
+      if (forwardEnd - forwardLevel <= backwardEnd - backwardLevel) {
+        end = expand(forward, forwardLevel, forwardEnd, this.outOffsets,
+            this.outTargets, this.outEdges, forwardSeen, forwardVia,
+            backwardSeen);
+        forwardLevel = forwardEnd;
+        forwardEnd = end;
+      } else {
+        end = expand(backward, backwardLevel, backwardEnd, this.inOffsets,
+            this.inSources, this.inEdges, backwardSeen, backwardVia,
+            forwardSeen);
+        backwardLevel = backwardEnd;
+        backwardEnd = end;
+      }
+      if (end < 0) {
+        return path(-end - 1, source, target, forwardVia, backwardVia);
+      }
+    }
+    return Collections.emptyList();
+  }
+
+  /**
+   * Queues the vertices one step on from those between start and end,
+   * returning the new end of the queue, or if the other search has already
+   * seen one of them, -(that vertex + 1).
+   */
+  private static int expand(final int[] queue, final int start,
+      final int end, final int[] offsets, final int[] ends,
+      final int[] edges, final boolean[] seen, final int[] via,
+      final boolean[] otherSeen) {
+    int tail = end;
+    for (int i = start; i != end; i++) {
+      final int v = queue[i];
+      for (int e = offsets[v]; e != offsets[v + 1]; e++) {
+        final int w = ends[e];
+        if (!seen[w]) {
+          seen[w] = true;
+          via[w] = edges[e];
+          if (otherSeen[w]) {
+            // the searches have not met before, so no path is shorter than
+            // the one through here
+            return -w - 1;
+          }
+          queue[tail++] = w;
+        }
+      }
+    }
+    return tail;
+  }
+
+  private List<Access> path(final int meeting, final int source,
+      final int target, final int[] forwardVia, final int[] backwardVia) {
+    final List<Access> path = new ArrayList<Access>();
+    for (int v = meeting; v != source;) {
+      final int e = forwardVia[v];
+      path.add(strongest(this.dependencies[e]));
+      v = this.outSources[e];
+    }
+    Collections.reverse(path);
+    for (int v = meeting; v != target;) {
+      final int e = backwardVia[v];
+      path.add(strongest(this.dependencies[e]));
+      v = this.outTargets[e];
+    }
+    return path;
+  }
+
+  private static Access strongest(final Dependency dependency) {
+    Access strongest = null;
+    for (final Access each : dependency.consituents()) {
+      if (strongest == null || each.getStrength() > strongest.getStrength()) {
+        strongest = each;
+      }
+    }
+    return strongest;
+  }
+
+  private int id(final ElementName element) {
+    final Integer id = this.ids.get(element);
+    if (id == null) {
+      throw new IllegalArgumentException(element + " is not in the graph");
+    }
+    return id;
+  }
+
+}
@@ -0,0 +1,280 @@
+package org.pitest.highwheel.impact;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.BitSet;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import org.pitest.highwheel.algorithm.CompactSCCFinder;
+import org.pitest.highwheel.model.ElementName;
+
+import edu.uci.ics.jung.graph.DirectedGraph;
+
+/**
+ * Answers transitive dependency queries against a fixed graph, such as which
+ * classes may be affected by a change to a class.
+ *
+ * The graph is condensed into a DAG of its strongly connected components, so
+ * a query never walks round a cycle, and classes in the same tangle are
+ * reported together. Each component is labelled with the interval of post
+ * order numbers that its descendants span. A component can only reach
+ * another if its interval contains the other's, which answers most negative
+ * dependsOn queries without a search.
+ *
+ * Indexes are immutable and may be queried by several threads.
+ */
+public final class ImpactIndex {
+
+  private final ElementName[]             names;
+  private final Map<ElementName, Integer> ids;
+
+  // component of each class, and the classes of each component
+  private final int[]                     component;
+  private final int[]                     memberOffsets;
+  private final int[]                     members;
+
+  // condensation edges in each direction
+  private final int[]                     outOffsets;
+  private final int[]                     out;
+  private final int[]                     inOffsets;
+  private final int[]                     in;
+
+  // post order interval labels
+  private final int[]                     low;
+  private final int[]                     post;
+
+  public ImpactIndex(final DirectedGraph<ElementName, ?> g) {
+    final List<ElementName> vertices = new ArrayList<ElementName>(
+        g.getVertices());
+    Collections.sort(vertices);
+    final int n = vertices.size();
+    this.names = vertices.toArray(new ElementName[n]);
+    this.ids = new HashMap<ElementName, Integer>(n * 2);
+    for (int i = 0; i != n; i++) {
+      this.ids.put(this.names[i], i);
+    }
+
+    final int[] offsets = new int[n + 1];
+    final int[] targets = new int[g.getEdgeCount()];
+    int edges = 0;
+    for (int i = 0; i != n; i++) {
+      offsets[i] = edges;
+      for (final ElementName each : g.getSuccessors(this.names[i])) {
+        targets[edges++] = this.ids.get(each);
+      }
+    }
+    offsets[n] = edges;
+
+    this.component = CompactSCCFinder.findComponents(offsets, targets);
+    int count = 0;
+    for (final int each : this.component) {
+      count = Math.max(count, each + 1);
+    }
+
+    this.memberOffsets = new int[count + 1];
+    this.members = new int[n];
+    for (final int each : this.component) {
+      this.memberOffsets[each + 1]++;
+    }
+    prefixSum(this.memberOffsets);
+    final int[] fill = Arrays.copyOf(this.memberOffsets, count);
+    for (int i = 0; i != n; i++) {
+      this.members[fill[this.component[i]]++] = i;
+    }
+
+    final long[] dagEdges = new long[edges];
+    int dagCount = 0;
+    for (int i = 0; i != n; i++) {
+      for (int e = offsets[i]; e != offsets[i + 1]; e++) {
+        final int from = this.component[i];
+        final int to = this.component[targets[e]];
+        if (from != to) {
+          dagEdges[dagCount++] = ((long) from << 32) | to;
+        }
+      }
+    }
+    Arrays.sort(dagEdges, 0, dagCount);
+
+    this.outOffsets = new int[count + 1];
+    this.inOffsets = new int[count + 1];
+    int unique = 0;
+    for (int i = 0; i != dagCount; i++) {
+      if (i == 0 || dagEdges[i] != dagEdges[i - 1]) {
+        dagEdges[unique++] = dagEdges[i];
+        this.outOffsets[(int) (dagEdges[i] >>> 32) + 1]++;
+        this.inOffsets[(int) dagEdges[i] + 1]++;
+      }
+    }
+    prefixSum(this.outOffsets);
+    prefixSum(this.inOffsets);
+    this.out = new int[unique];
+    this.in = new int[unique];
+    final int[] inFill = Arrays.copyOf(this.inOffsets, count);
+    for (int i = 0; i != unique; i++) {
+      final int from = (int) (dagEdges[i] >>> 32);
+      final int to = (int) dagEdges[i];
+      this.out[i] = to;
+      this.in[inFill[to]++] = from;
+    }
+
+    // components are numbered in reverse topological order, so every
+    // successor of a component has a lower number and is labelled first
+    this.low = new int[count];
+    this.post = new int[count];
+    for (int c = 0; c != count; c++) {
+      this.post[c] = c;
+      int min = c;
+      for (int e = this.outOffsets[c]; e != this.outOffsets[c + 1]; e++) {
+        min = Math.min(min, this.low[this.out[e]]);
+      }
+      this.low[c] = min;
+    }
+  }
+
+  public int size() {
+    return this.names.length;
+  }
+
+  public boolean contains(final ElementName clazz) {
+    return this.ids.containsKey(clazz);
+  }
+
+  /**
+   * True if a depends on b directly or through other classes.
+   */
+  public boolean dependsOn(final ElementName a, final ElementName b) {
+    final int from = this.component[id(a)];
+    final int to = this.component[id(b)];
+    if (from == to) {
+      return a.equals(b) ? sizeOf(from) > 1 : true;
+    }
+    if (!mayReach(from, to)) {
+      return false;
+    }
+    final BitSet seen = new BitSet();
+    final int[] stack = new int[this.post.length];
+    int top = 0;
+    stack[top++] = from;
+    seen.set(from);
+    while (top != 0) {
+      final int c = stack[--top];
+      for (int e = this.outOffsets[c]; e != this.outOffsets[c + 1]; e++) {
+        final int next = this.out[e];
+        if (next == to) {
+          return true;
+        }
+        if (!seen.get(next) && mayReach(next, to)) {
+          seen.set(next);
+          stack[top++] = next;
+        }
+      }
+    }
+    return false;
+  }
+
+  /**
+   * The classes that the given classes depend on, directly or through other
+   * classes, sorted by name. Classes given are included only if they are part
+   * of a cycle or are reached from another of the classes given.
+   */
+  public List<ElementName> dependenciesOf(final Collection<ElementName> classes) {
+    return search(classes, this.outOffsets, this.out);
+  }
+
+  public List<ElementName> dependenciesOf(final ElementName clazz) {
+    return dependenciesOf(Collections.singleton(clazz));
+  }
+
+  /**
+   * The classes that depend on any of the given classes, directly or through
+   * other classes, sorted by name. These are the classes that may be affected
+   * by a change to them.
+   */
+  public List<ElementName> dependentsOf(final Collection<ElementName> classes) {
+    return search(classes, this.inOffsets, this.in);
+  }
+
+  public List<ElementName> dependentsOf(final ElementName clazz) {
+    return dependentsOf(Collections.singleton(clazz));
+  }
+
+  private List<ElementName> search(final Collection<ElementName> classes,
+      final int[] offsets, final int[] edges) {
+    final int count = this.post.length;
+    final BitSet seen = new BitSet(count);
+    final BitSet started = new BitSet(count);
+    // each component is queued at most once as a start and once when reached
+    final int[] queue = new int[count * 2];
+    int tail = 0;
+
+    for (final ElementName each : classes) {
+      final int c = this.component[id(each)];
+      if (sizeOf(c) > 1) {
+        // the rest of the cycle is reachable, including the class itself
+        if (!seen.get(c)) {
+          seen.set(c);
+          queue[tail++] = c;
+        }
+      } else if (!started.get(c)) {
+        started.set(c);
+        queue[tail++] = c;
+      }
+    }
+
+    final BitSet reached = new BitSet(count);
+    for (int head = 0; head != tail; head++) {
+      final int c = queue[head];
+      if (seen.get(c)) {
+        reached.set(c);
+      }
+      for (int e = offsets[c]; e != offsets[c + 1]; e++) {
+        final int next = edges[e];
+        if (!seen.get(next)) {
+          seen.set(next);
+          queue[tail++] = next;
+        }
+      }
+    }
+
+    final BitSet found = new BitSet(this.names.length);
+    for (int c = reached.nextSetBit(0); c >= 0; c = reached.nextSetBit(c + 1)) {
+      for (int m = this.memberOffsets[c]; m != this.memberOffsets[c + 1]; m++) {
+        found.set(this.members[m]);
+      }
+    }
+    // names are sorted, so ids in order give names in order
+    final List<ElementName> result = new ArrayList<ElementName>(
+        found.cardinality());
+    for (int i = found.nextSetBit(0); i >= 0; i = found.nextSetBit(i + 1)) {
+      result.add(this.names[i]);
+    }
+    return result;
+  }
+
+  private boolean mayReach(final int from, final int to) {
+    return this.low[from] <= this.low[to] && this.post[to] <= this.post[from];
+  }
+
+  private int sizeOf(final int c) {
+    return this.memberOffsets[c + 1] - this.memberOffsets[c];
+  }
+
+  private int id(final ElementName clazz) {
+    final Integer id = this.ids.get(clazz);
+    if (id == null) {
+      throw new IllegalArgumentException(clazz + " is not in the graph");
+    }
+    return id;
+  }
+
+  private static void prefixSum(final int[] values) {
+    for (int i = 1; i != values.length; i++) {
+      values[i] += values[i - 1];
+    }
+  }
+
+}
@@ -0,0 +1,166 @@
+package org.pitest.highwheel.impact;
+
+import java.io.BufferedReader;
+import java.io.FileInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.io.PrintStream;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+import org.pitest.highwheel.cycles.CodeGraphs;
+import org.pitest.highwheel.model.Access;
+import org.pitest.highwheel.model.ElementName;
+import org.pitest.highwheel.snapshot.SnapshotReader;
+
+/**
+ * Command line queries against a graph snapshot written by a previous run.
+ *
+ * <pre>
+ * ImpactQuery classes.hwg dependents com.example.Foo [more classes]
+ * ImpactQuery classes.hwg dependencies com.example.Foo [more classes]
+ * ImpactQuery classes.hwg dependsOn com.example.Foo com.example.Bar
+ * ImpactQuery classes.hwg explain com.example.Foo com.example.Bar
+ * ImpactQuery classes.hwg explain com.example.foo com.example.bar
+ * </pre>
+ *
+ * explain prints the shortest chain of accesses by which one class or package
+ * depends on another, one access per line.
+ *
+ * When no classes are given for dependents or dependencies they are read from
+ * standard input, one per line. Classes not in the snapshot are reported on
+ * standard error and otherwise ignored, as a changed class may be new.
+ */
+public class ImpactQuery {
+
+  private final ImpactIndex         index;
+  private final DependencyExplainer classes;
+  private final DependencyExplainer packages;
+  private final PrintStream         out;
+  private final PrintStream         err;
+
+  public ImpactQuery(final CodeGraphs graphs, final PrintStream out,
+      final PrintStream err) {
+    this.index = new ImpactIndex(graphs.classGraph());
+    this.classes = new DependencyExplainer(graphs.classGraph());
+    this.packages = new DependencyExplainer(graphs.packageGraph());
+    this.out = out;
+    this.err = err;
+  }
+
+  public static void main(final String[] args) throws IOException {
+    if (args.length < 2) {
+      usage(System.err);
+      System.exit(1);
+    }
+    final InputStream is = new FileInputStream(args[0]);
+    final CodeGraphs graphs;
+    try {
+      graphs = SnapshotReader.readGraphs(is);
+    } finally {
+      is.close();
+    }
+    List<String> classes = Arrays.asList(args).subList(2, args.length);
+    if (classes.isEmpty()) {
+      classes = readLines(System.in);
+    }
+    final int status = new ImpactQuery(graphs, System.out, System.err).run(
+        args[1], classes);
+    System.out.flush();
+    System.exit(status);
+  }
+
+  /**
+   * Runs a query, returning the exit status.
+   */
+  public int run(final String command, final List<String> classes) {
+    if (command.equals("dependents")) {
+      print(this.index.dependentsOf(known(classes)));
+      return 0;
+    }
+    if (command.equals("dependencies")) {
+      print(this.index.dependenciesOf(known(classes)));
+      return 0;
+    }
+    if (command.equals("dependsOn") && classes.size() == 2) {
+      final List<ElementName> pair = known(classes);
+      final boolean depends = pair.size() == 2
+          && this.index.dependsOn(pair.get(0), pair.get(1));
+      this.out.println(depends);
+      return depends ? 0 : 2;
+    }
+    if (command.equals("explain") && classes.size() == 2) {
+      return explain(ElementName.fromString(classes.get(0).trim()),
+          ElementName.fromString(classes.get(1).trim()));
+    }
+    usage(this.err);
+    return 1;
+  }
+
+  private int explain(final ElementName from, final ElementName to) {
+    final DependencyExplainer explainer = explainerFor(from, to);
+    if (explainer == null) {
+      this.err.println("Not in snapshot: " + from + " or " + to);
+      return 2;
+    }
+    final List<Access> path = explainer.explain(from, to);
+    for (final Access each : path) {
+      this.out.println(each.getSource() + " -> " + each.getDest() + " "
+          + each.getType());
+    }
+    return path.isEmpty() ? 2 : 0;
+  }
+
+  private DependencyExplainer explainerFor(final ElementName from,
+      final ElementName to) {
+    if (this.classes.contains(from) && this.classes.contains(to)) {
+      return this.classes;
+    }
+    if (this.packages.contains(from) && this.packages.contains(to)) {
+      return this.packages;
+    }
+    return null;
+  }
+
+  private List<ElementName> known(final List<String> classes) {
+    final List<ElementName> names = new ArrayList<ElementName>();
+    for (final String each : classes) {
+      final ElementName name = ElementName.fromString(each.trim());
+      if (this.index.contains(name)) {
+        names.add(name);
+      } else {
+        this.err.println("Not in snapshot: " + each);
+      }
+    }
+    return names;
+  }
+
+  private void print(final List<ElementName> names) {
+    for (final ElementName each : names) {
+      this.out.println(each.asJavaName());
+    }
+  }
+
+  private static List<String> readLines(final InputStream in)
+      throws IOException {
+    final BufferedReader r = new BufferedReader(new InputStreamReader(in,
+        "UTF-8"));
+    final List<String> lines = new ArrayList<String>();
+    String line;
+    while ((line = r.readLine()) != null) {
+      if (!line.trim().isEmpty()) {
+        lines.add(line);
+      }
+    }
+    return lines;
+  }
+
+  private static void usage(final PrintStream err) {
+    err.println("usage: ImpactQuery <snapshot.hwg> dependents|dependencies <class>...");
+    err.println("       ImpactQuery <snapshot.hwg> dependsOn <class> <class>");
+    err.println("       ImpactQuery <snapshot.hwg> explain <class|package> <class|package>");
+  }
+
+}
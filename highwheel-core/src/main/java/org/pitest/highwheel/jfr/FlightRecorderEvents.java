@@ -0,0 +1,28 @@
+package org.pitest.highwheel.jfr;
+
+/**
+ * Creates the jdk.jfr backed events. Only loaded once Traces has found the
+ * flight recorder, so nothing else needs to link against jdk.jfr.
+ */
+final class FlightRecorderEvents {
+
+  private FlightRecorderEvents() {
+  }
+
+  static ParseClassTrace parseClass() {
+    return new ParseClassEvent();
+  }
+
+  static StronglyConnectedComponentsTrace stronglyConnectedComponents() {
+    return new StronglyConnectedComponentsEvent();
+  }
+
+  static SubCycleAnalysisTrace subCycleAnalysis() {
+    return new SubCycleAnalysisEvent();
+  }
+
+  static SVGExportTrace svgExport() {
+    return new SVGExportEvent();
+  }
+
+}
@@ -0,0 +1,40 @@
+package org.pitest.highwheel.jfr;
+
+/**
+ * Stands in for every event when the runtime has no flight recorder. Never
+ * wants to be committed, so no fields are worked out.
+ */
+final class NoTrace implements ParseClassTrace,
+    StronglyConnectedComponentsTrace, SubCycleAnalysisTrace, SVGExportTrace {
+
+  static final NoTrace INSTANCE = new NoTrace();
+
+  private NoTrace() {
+  }
+
+  public void begin() {
+  }
+
+  public void end() {
+  }
+
+  public boolean shouldCommit() {
+    return false;
+  }
+
+  public void record(final String className, final int bytes) {
+  }
+
+  public void record(final int vertices, final int edges,
+      final int components, final int largestComponent) {
+  }
+
+  public void record(final String tangle, final int members,
+      final int connections, final int subCycles, final boolean truncated) {
+  }
+
+  public void record(final String graph, final int vertices, final int edges,
+      final String layout) {
+  }
+
+}
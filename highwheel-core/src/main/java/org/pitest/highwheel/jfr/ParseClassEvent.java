@@ -0,0 +1,39 @@
+package org.pitest.highwheel.jfr;
+
+import jdk.jfr.Category;
+import jdk.jfr.DataAmount;
+import jdk.jfr.Description;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+import jdk.jfr.Threshold;
+
+/**
+ * Flight recorder event covering the parse of a single class file, once its
+ * bytes have been read.
+ * Only classes that take longer than the threshold to parse are recorded by
+ * default so that outliers stand out.
+ */
+@Name("org.pitest.highwheel.ParseClass")
+@Label("Parse Class")
+@Category("Highwheel")
+@Description("Parsing of a single class file")
+@StackTrace(false)
+@Threshold("1 ms")
+public class ParseClassEvent extends Event implements ParseClassTrace {
+
+  @Label("Class")
+  public String className;
+
+  @Label("Size")
+  @DataAmount
+  public int    bytes;
+
+  public void record(final String className, final int bytes) {
+    this.className = className;
+    this.bytes = bytes;
+    commit();
+  }
+
+}
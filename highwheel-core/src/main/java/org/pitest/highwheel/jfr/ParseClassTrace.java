@@ -0,0 +1,7 @@
+package org.pitest.highwheel.jfr;
+
+public interface ParseClassTrace extends Trace {
+
+  void record(String className, int bytes);
+
+}
@@ -0,0 +1,42 @@
+package org.pitest.highwheel.jfr;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+
+/**
+ * Flight recorder event covering layout and rendering of a graph to SVG.
+ */
+@Name("org.pitest.highwheel.SVGExport")
+@Label("SVG Export")
+@Category("Highwheel")
+@Description("Layout and rendering of a dependency graph as SVG")
+@StackTrace(false)
+public class SVGExportEvent extends Event implements SVGExportTrace {
+
+  @Label("Graph")
+  @Description("A member of the graph, used to identify it")
+  public String graph;
+
+  @Label("Vertices")
+  public int    vertices;
+
+  @Label("Edges")
+  public int    edges;
+
+  @Label("Layout")
+  public String layout;
+
+  public void record(final String graph, final int vertices, final int edges,
+      final String layout) {
+    this.graph = graph;
+    this.vertices = vertices;
+    this.edges = edges;
+    this.layout = layout;
+    commit();
+  }
+
+}
@@ -0,0 +1,7 @@
+package org.pitest.highwheel.jfr;
+
+public interface SVGExportTrace extends Trace {
+
+  void record(String graph, int vertices, int edges, String layout);
+
+}
@@ -0,0 +1,41 @@
+package org.pitest.highwheel.jfr;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+
+/**
+ * Flight recorder event covering a run of Tarjan's algorithm over a graph.
+ */
+@Name("org.pitest.highwheel.StronglyConnectedComponents")
+@Label("Find Strongly Connected Components")
+@Category("Highwheel")
+@Description("Search for strongly connected components within a dependency graph")
+@StackTrace(false)
+public class StronglyConnectedComponentsEvent extends Event implements StronglyConnectedComponentsTrace {
+
+  @Label("Vertices")
+  public int vertices;
+
+  @Label("Edges")
+  public int edges;
+
+  @Label("Components")
+  public int components;
+
+  @Label("Largest Component")
+  public int largestComponent;
+
+  public void record(final int vertices, final int edges,
+      final int components, final int largestComponent) {
+    this.vertices = vertices;
+    this.edges = edges;
+    this.components = components;
+    this.largestComponent = largestComponent;
+    commit();
+  }
+
+}
@@ -0,0 +1,7 @@
+package org.pitest.highwheel.jfr;
+
+public interface StronglyConnectedComponentsTrace extends Trace {
+
+  void record(int vertices, int edges, int components, int largestComponent);
+
+}
@@ -0,0 +1,48 @@
+package org.pitest.highwheel.jfr;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+
+/**
+ * Flight recorder event covering the break down of a single tangle into its
+ * elemental sub cycles.
+ */
+@Name("org.pitest.highwheel.SubCycleAnalysis")
+@Label("Sub Cycle Analysis")
+@Category("Highwheel")
+@Description("Break down of a tangle into its elemental sub cycles")
+@StackTrace(false)
+public class SubCycleAnalysisEvent extends Event implements SubCycleAnalysisTrace {
+
+  @Label("Tangle")
+  @Description("A member of the tangle, used to identify it")
+  public String tangle;
+
+  @Label("Members")
+  public int    members;
+
+  @Label("Connections")
+  public int    connections;
+
+  @Label("Sub Cycles")
+  public int    subCycles;
+
+  @Label("Truncated")
+  @Description("Whether the analysis ran out of budget before finding every sub cycle")
+  public boolean truncated;
+
+  public void record(final String tangle, final int members,
+      final int connections, final int subCycles, final boolean truncated) {
+    this.tangle = tangle;
+    this.members = members;
+    this.connections = connections;
+    this.subCycles = subCycles;
+    this.truncated = truncated;
+    commit();
+  }
+
+}
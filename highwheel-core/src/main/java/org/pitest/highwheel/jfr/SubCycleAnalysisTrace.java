@@ -0,0 +1,8 @@
+package org.pitest.highwheel.jfr;
+
+public interface SubCycleAnalysisTrace extends Trace {
+
+  void record(String tangle, int members, int connections, int subCycles,
+      boolean truncated);
+
+}
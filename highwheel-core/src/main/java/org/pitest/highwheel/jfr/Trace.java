@@ -0,0 +1,21 @@
+package org.pitest.highwheel.jfr;
+
+/**
+ * Timing of an analysis step, recorded as a flight recorder event when the
+ * runtime has a flight recorder and a recording wants it. Mirrors the timing
+ * methods of jdk.jfr.Event so that code timing a step never refers to the
+ * jdk.jfr classes, which JDK 8 runtimes before 8u262 lack.
+ */
+public interface Trace {
+
+  void begin();
+
+  void end();
+
+  /**
+   * Whether a recording wants this event. Fields should only be worked out
+   * and recorded when it does.
+   */
+  boolean shouldCommit();
+
+}
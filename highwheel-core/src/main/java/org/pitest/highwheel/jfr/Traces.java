@@ -0,0 +1,46 @@
+package org.pitest.highwheel.jfr;
+
+/**
+ * Creates the traces for each analysis step. Whether the runtime has a flight
+ * recorder is checked once. When it has none, every trace is a shared no-op,
+ * so timing costs nothing and the jdk.jfr classes are never loaded.
+ */
+public final class Traces {
+
+  private static final boolean FLIGHT_RECORDER = hasFlightRecorder();
+
+  private Traces() {
+  }
+
+  public static ParseClassTrace parseClass() {
+    return FLIGHT_RECORDER ? FlightRecorderEvents.parseClass()
+        : NoTrace.INSTANCE;
+  }
+
+  public static StronglyConnectedComponentsTrace stronglyConnectedComponents() {
+    return FLIGHT_RECORDER ? FlightRecorderEvents.stronglyConnectedComponents()
+        : NoTrace.INSTANCE;
+  }
+
+  public static SubCycleAnalysisTrace subCycleAnalysis() {
+    return FLIGHT_RECORDER ? FlightRecorderEvents.subCycleAnalysis()
+        : NoTrace.INSTANCE;
+  }
+
+  public static SVGExportTrace svgExport() {
+    return FLIGHT_RECORDER ? FlightRecorderEvents.svgExport()
+        : NoTrace.INSTANCE;
+  }
+
+  static boolean hasFlightRecorder() {
+    try {
+      Class.forName("jdk.jfr.Event", false, Traces.class.getClassLoader());
+      return true;
+    } catch (final ClassNotFoundException e) {
+      return false;
+    } catch (final LinkageError e) {
+      return false;
+    }
+  }
+
+}
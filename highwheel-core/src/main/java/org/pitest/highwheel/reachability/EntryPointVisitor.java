@@ -0,0 +1,70 @@
+package org.pitest.highwheel.reachability;
+
+import java.util.LinkedHashSet;
+import java.util.Set;
+
+import org.pitest.highwheel.classpath.AccessVisitor;
+import org.pitest.highwheel.cycles.Filter;
+import org.pitest.highwheel.model.AccessPoint;
+import org.pitest.highwheel.model.AccessType;
+import org.pitest.highwheel.model.ElementName;
+
+/**
+ * Collects the classes from which the rest of the code should be reachable.
+ * These are the classes with a main method, together with any class whose
+ * name matches the extra roots filter or that is annotated with an
+ * annotation matching it.
+ */
+public class EntryPointVisitor implements AccessVisitor {
+
+  private final Filter           extraRoots;
+  private final Set<ElementName> roots = new LinkedHashSet<ElementName>();
+
+  public EntryPointVisitor() {
+    this(null);
+  }
+
+  /**
+   * @param extraRoots
+   *          filter matching the names of further root classes, or of the
+   *          annotations that mark them. May be null.
+   */
+  public EntryPointVisitor(final Filter extraRoots) {
+    this.extraRoots = extraRoots;
+  }
+
+  public void apply(final AccessPoint source, final AccessPoint dest,
+      final AccessType type) {
+
+  }
+
+  public void newNode(final ElementName clazz) {
+    if (isExtraRoot(clazz)) {
+      this.roots.add(clazz);
+    }
+  }
+
+  public void newAccessPoint(final AccessPoint ap) {
+
+  }
+
+  public void newEntryPoint(final ElementName clazz) {
+    this.roots.add(clazz);
+  }
+
+  public void newAnnotation(final ElementName clazz,
+      final ElementName annotation) {
+    if (isExtraRoot(annotation)) {
+      this.roots.add(clazz);
+    }
+  }
+
+  public Set<ElementName> getRoots() {
+    return this.roots;
+  }
+
+  private boolean isExtraRoot(final ElementName name) {
+    return this.extraRoots != null && this.extraRoots.include(name);
+  }
+
+}
@@ -0,0 +1,103 @@
+package org.pitest.highwheel.reachability;
+
+import java.util.ArrayList;
+import java.util.BitSet;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeSet;
+
+import org.pitest.highwheel.model.Dependency;
+import org.pitest.highwheel.model.ElementName;
+
+import edu.uci.ics.jung.graph.DirectedGraph;
+
+/**
+ * Finds the classes and packages that cannot be reached by following
+ * dependencies from a set of root classes.
+ *
+ * The class graph is copied once into int indexed adjacency arrays and
+ * searched breadth first, marking visited classes in a bitset, so the cost is
+ * a few passes over the edges however large the graph.
+ *
+ * With no roots in the graph, as for most libraries, nothing is reported
+ * unreachable, rather than reporting the whole code base.
+ */
+public class ReachabilityAnalyser {
+
+  public void analyse(final DirectedGraph<ElementName, Dependency> g,
+      final Collection<ElementName> roots, final ReachabilityVisitor v) {
+
+    final List<ElementName> classes = new ArrayList<ElementName>(
+        g.getVertices());
+    Collections.sort(classes);
+    final Map<ElementName, Integer> ids = new HashMap<ElementName, Integer>(
+        classes.size() * 2);
+    for (int i = 0; i != classes.size(); i++) {
+      ids.put(classes.get(i), i);
+    }
+
+    final int n = classes.size();
+    final int[] offsets = new int[n + 1];
+    final int[] targets = new int[g.getEdgeCount()];
+    int edges = 0;
+    for (int i = 0; i != n; i++) {
+      offsets[i] = edges;
+      for (final ElementName each : g.getSuccessors(classes.get(i))) {
+        targets[edges++] = ids.get(each);
+      }
+    }
+    offsets[n] = edges;
+
+    final int[] queue = new int[n];
+    int tail = 0;
+    final BitSet reached = new BitSet(n);
+    for (final ElementName each : roots) {
+      final Integer id = ids.get(each);
+      if (id != null && !reached.get(id)) {
+        reached.set(id);
+        queue[tail++] = id;
+      }
+    }
+    final int rootCount = tail;
+    for (int head = 0; head != tail; head++) {
+      final int from = queue[head];
+      for (int e = offsets[from]; e != offsets[from + 1]; e++) {
+        final int to = targets[e];
+        if (!reached.get(to)) {
+          reached.set(to);
+          queue[tail++] = to;
+        }
+      }
+    }
+
+    v.start(rootCount, tail, n);
+    if (rootCount == 0) {
+      v.end();
+      return;
+    }
+
+    final Set<ElementName> reachedPackages = new TreeSet<ElementName>();
+    for (int i = reached.nextSetBit(0); i >= 0; i = reached.nextSetBit(i + 1)) {
+      reachedPackages.add(classes.get(i).getParent());
+    }
+    final Set<ElementName> unreachedPackages = new TreeSet<ElementName>();
+    for (int i = reached.nextClearBit(0); i < n; i = reached
+        .nextClearBit(i + 1)) {
+      final ElementName clazz = classes.get(i);
+      v.visitUnreachableClass(clazz);
+      if (!reachedPackages.contains(clazz.getParent())) {
+        unreachedPackages.add(clazz.getParent());
+      }
+    }
+    for (final ElementName each : unreachedPackages) {
+      v.visitUnreachablePackage(each);
+    }
+
+    v.end();
+  }
+
+}
@@ -0,0 +1,62 @@
+package org.pitest.highwheel.reachability;
+
+import org.pitest.highwheel.model.ElementName;
+import org.pitest.highwheel.report.FileStreamFactory;
+import org.pitest.highwheel.report.html.BaseHtmlWriter;
+
+public class ReachabilityHTMLVisitor extends BaseHtmlWriter implements
+    ReachabilityVisitor {
+
+  public final static String FILENAME = "unreachable.html";
+
+  private final StringBuilder packages = new StringBuilder();
+  private boolean             analysed;
+
+  public ReachabilityHTMLVisitor(final FileStreamFactory fsf) {
+    super(fsf);
+  }
+
+  public void start(final int roots, final int reachableClasses,
+      final int classes) {
+    writeHeader(FILENAME);
+    write(FILENAME, "<header>");
+    write(FILENAME, "<h1>Code not reachable from entry points</h1>");
+    this.analysed = roots != 0;
+    if (!this.analysed) {
+      write(FILENAME, "<p>No entry points found, so reachability was not analysed. Configure roots to choose them.</p>");
+      write(FILENAME, "</header>");
+      return;
+    }
+    write(FILENAME, "<p>" + reachableClasses + " of " + classes
+        + " classes reachable from " + roots + " entry points</p>");
+    write(FILENAME, "</header>");
+    write(FILENAME, "<section class ='deps'>");
+    write(FILENAME, "<h1>Classes</h1>");
+    write(FILENAME,
+        "<table id=\"sorttable\" class=\"tablesorter\"><thead><tr><th>Class</th><th>Package</th></tr></thead>");
+    write(FILENAME, "<tbody>");
+  }
+
+  public void visitUnreachableClass(final ElementName clazz) {
+    write(FILENAME, "<tr><td>" + clazz.asJavaName() + "</td><td>"
+        + clazz.getParent().asJavaName() + "</td></tr>");
+  }
+
+  public void visitUnreachablePackage(final ElementName pkg) {
+    this.packages.append("<li>" + pkg.asJavaName() + "</li>");
+  }
+
+  public void end() {
+    if (!this.analysed) {
+      writeFooter(FILENAME);
+      return;
+    }
+    write(FILENAME, "</tbody>");
+    write(FILENAME, "</table>");
+    write(FILENAME, "</section>");
+    write(FILENAME, "<section><h1>Packages</h1><ul>" + this.packages
+        + "</ul></section>");
+    writeFooter(FILENAME);
+  }
+
+}
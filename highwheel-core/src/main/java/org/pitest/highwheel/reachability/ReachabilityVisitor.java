@@ -0,0 +1,15 @@
+package org.pitest.highwheel.reachability;
+
+import org.pitest.highwheel.model.ElementName;
+
+public interface ReachabilityVisitor {
+
+  public void start(int roots, int reachableClasses, int classes);
+
+  public void visitUnreachableClass(ElementName clazz);
+
+  public void visitUnreachablePackage(ElementName pkg);
+
+  public void end();
+
+}
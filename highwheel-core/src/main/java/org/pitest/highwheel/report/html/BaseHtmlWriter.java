@@ -38,6 +38,11 @@ public class BaseHtmlWriter {
     write(stream, "</html>");
   }
 
+  protected static String escape(final String value) {
+    return value.replace("&", "&amp;").replace("<", "&lt;")
+        .replace(">", "&gt;");
+  }
+
   protected final void write(final String stream, final String value) {
     try {
       final Writer w = new OutputStreamWriter(this.streams.getStream(stream));
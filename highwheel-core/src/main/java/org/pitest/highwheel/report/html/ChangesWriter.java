@@ -0,0 +1,77 @@
+package org.pitest.highwheel.report.html;
+
+import java.util.Collection;
+import java.util.List;
+
+import org.pitest.highwheel.baseline.BaselineDiff;
+import org.pitest.highwheel.report.StreamFactory;
+
+/**
+ * Writes a page listing what has changed since a baseline run.
+ */
+public class ChangesWriter extends BaseHtmlWriter {
+
+  public final static String FILENAME = "changes.html";
+
+  public ChangesWriter(final StreamFactory streams) {
+    super(streams);
+  }
+
+  public void write(final BaselineDiff diff) {
+    writeHeader(FILENAME);
+    write(FILENAME, "<header>");
+    write(FILENAME, "<h1>Changes since baseline</h1>");
+    write(FILENAME, "</header>");
+
+    if (diff.isEmpty()) {
+      write(FILENAME, "<section><p>No changes</p></section>");
+    } else {
+      writeTangles("New class tangles", diff.getNewClassTangles());
+      writeTangles("Grown class tangles", diff.getGrownClassTangles());
+      writeTangles("New package tangles", diff.getNewPackageTangles());
+      writeTangles("Grown package tangles", diff.getGrownPackageTangles());
+      writeList("New forbidden accesses", diff.getNewForbiddenAccesses());
+      writeList("Added package dependencies", diff.getAddedPackageEdges());
+      writeList("Removed package dependencies", diff.getRemovedPackageEdges());
+      writeList("Added class dependencies", diff.getAddedClassEdges());
+      writeList("Removed class dependencies", diff.getRemovedClassEdges());
+    }
+
+    writeFooter(FILENAME);
+  }
+
+  private void writeTangles(final String title,
+      final List<Collection<String>> tangles) {
+    if (tangles.isEmpty()) {
+      return;
+    }
+    write(FILENAME, "<section><h1>" + title + "</h1><ul>");
+    for (final Collection<String> each : tangles) {
+      write(FILENAME, "<li>" + members(each) + "</li>");
+    }
+    write(FILENAME, "</ul></section>");
+  }
+
+  private static String members(final Collection<String> tangle) {
+    final StringBuilder sb = new StringBuilder();
+    for (final String each : tangle) {
+      if (sb.length() != 0) {
+        sb.append(", ");
+      }
+      sb.append(escape(each));
+    }
+    return sb.toString();
+  }
+
+  private void writeList(final String title, final List<String> values) {
+    if (values.isEmpty()) {
+      return;
+    }
+    write(FILENAME, "<section><h1>" + title + "</h1><ul>");
+    for (final String each : values) {
+      write(FILENAME, "<li>" + escape(each) + "</li>");
+    }
+    write(FILENAME, "</ul></section>");
+  }
+
+}
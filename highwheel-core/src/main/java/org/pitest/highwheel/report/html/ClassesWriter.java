@@ -1,5 +1,7 @@
 package org.pitest.highwheel.report.html;
 
+import java.util.List;
+
 import org.pitest.highwheel.cycles.CodeStats;
 import org.pitest.highwheel.model.Dependency;
 import org.pitest.highwheel.model.ElementName;
@@ -18,17 +20,13 @@ class ClassesWriter extends BaseWriter {
   public void start(final CodeStats stats) {
     writeHeader(FILENAME);
 
-    write(FILENAME, "<section class ='deps'>");
-    write(FILENAME, "<table id=\"sorttable\" class=\"tablesorter\"><thead><tr><th>class</th><th>influence</th></tr></thead>");
-    write(FILENAME, "<tbody>");
+    final VirtualTable table = new VirtualTable("class", "influence");
     for (final ElementName each : stats.getClasses()) {
-      write(FILENAME,
-          "<tr><td>" + each + "</td><td>"
-              + stats.getClassStats(each).getPageRank() + "</td></tr>");
+      table.add(each.asJavaName(), stats.getClassStats(each).getPageRank());
     }
-    write(FILENAME, "</tbody>");
-    write(FILENAME, "</table>");
-    write(FILENAME, "</section");
+    write(FILENAME, "<section class='deps'>");
+    write(FILENAME, table.toHtml("classes"));
+    write(FILENAME, "</section>");
     writeFooter(FILENAME);
   }
 
@@ -38,6 +36,28 @@ class ClassesWriter extends BaseWriter {
 
   }
 
+  public void visitClassTangleCuts(
+      final DirectedGraph<ElementName, Dependency> scc,
+      final List<Dependency> cuts) {
+
+  }
+
+  public void visitPackageTangleCuts(
+      final DirectedGraph<ElementName, Dependency> scc,
+      final List<Dependency> cuts) {
+
+  }
+
+  public void visitClassSubCyclesTruncated(
+      final DirectedGraph<ElementName, Dependency> scc) {
+
+  }
+
+  public void visitPackageSubCyclesTruncated(
+      final DirectedGraph<ElementName, Dependency> scc) {
+
+  }
+
   public void visitSubCycle(final DirectedGraph<ElementName, Dependency> cycle) {
     // TODO Auto-generated method stub
 
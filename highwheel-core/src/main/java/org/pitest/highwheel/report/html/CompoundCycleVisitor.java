@@ -2,6 +2,7 @@ package org.pitest.highwheel.report.html;
 
 import java.util.ArrayList;
 import java.util.Collection;
+import java.util.List;
 
 import org.pitest.highwheel.cycles.CodeStats;
 import org.pitest.highwheel.cycles.CycleReporter;
@@ -25,6 +26,36 @@ public class CompoundCycleVisitor implements CycleReporter {
 
   }
 
+  public void visitClassTangleCuts(
+      final DirectedGraph<ElementName, Dependency> scc,
+      final List<Dependency> cuts) {
+    for (final CycleReporter cv : this.children) {
+      cv.visitClassTangleCuts(scc, cuts);
+    }
+  }
+
+  public void visitPackageTangleCuts(
+      final DirectedGraph<ElementName, Dependency> scc,
+      final List<Dependency> cuts) {
+    for (final CycleReporter cv : this.children) {
+      cv.visitPackageTangleCuts(scc, cuts);
+    }
+  }
+
+  public void visitClassSubCyclesTruncated(
+      final DirectedGraph<ElementName, Dependency> scc) {
+    for (final CycleReporter cv : this.children) {
+      cv.visitClassSubCyclesTruncated(scc);
+    }
+  }
+
+  public void visitPackageSubCyclesTruncated(
+      final DirectedGraph<ElementName, Dependency> scc) {
+    for (final CycleReporter cv : this.children) {
+      cv.visitPackageSubCyclesTruncated(scc);
+    }
+  }
+
   public void visitSubCycle(final DirectedGraph<ElementName, Dependency> cycle) {
     for (final CycleReporter cv : this.children) {
       cv.visitSubCycle(cycle);
@@ -1,6 +1,7 @@
 package org.pitest.highwheel.report.html;
 
 import java.io.IOException;
+import java.util.List;
 
 import org.pitest.highwheel.cycles.CodeStats;
 import org.pitest.highwheel.model.Access;
@@ -33,6 +34,57 @@ class CycleWriter extends BaseWriter {
     writeSubCycle(cycle, streamName);
   }
 
+  public void visitClassSubCyclesTruncated(
+      final DirectedGraph<ElementName, Dependency> scc) {
+    writeTruncated(getCurrentClassSccName());
+  }
+
+  public void visitPackageSubCyclesTruncated(
+      final DirectedGraph<ElementName, Dependency> scc) {
+    writeTruncated(getCurrentPackageSccName());
+  }
+
+  private void writeTruncated(final String stream) {
+    write(stream, "<section class='truncated'>");
+    write(stream, "<p>The search was cut short by the analysis budget or the limit on sub cycles "
+        + "before every sub cycle of this component was found, so only some are shown.</p>");
+    write(stream, "</section>");
+  }
+
+  public void visitClassTangleCuts(
+      final DirectedGraph<ElementName, Dependency> scc,
+      final List<Dependency> cuts) {
+    writeCuts(getCurrentClassSccName(), scc, cuts);
+  }
+
+  public void visitPackageTangleCuts(
+      final DirectedGraph<ElementName, Dependency> scc,
+      final List<Dependency> cuts) {
+    writeCuts(getCurrentPackageSccName(), scc, cuts);
+  }
+
+  private void writeCuts(final String stream,
+      final DirectedGraph<ElementName, Dependency> scc,
+      final List<Dependency> cuts) {
+    int strength = 0;
+    for (final Dependency each : cuts) {
+      strength = strength + each.getStrength();
+    }
+    write(stream, "<section class='cuts'>");
+    write(stream, "<h2>Suggested cuts : " + cuts.size() + " connections, strength "
+        + strength + "</h2>");
+    write(stream, "<p>Removing these connections would break every cycle in this component.</p>");
+    write(stream,
+        "<table><thead><tr><th>from</th><th>to</th><th>strength</th></tr></thead>");
+    for (final Dependency d : cuts) {
+      final Pair<ElementName> edge = scc.getEndpoints(d);
+      write(stream, "<tr><td>" + edge.getFirst() + "</td><td>"
+          + edge.getSecond() + "</td><td>" + d.getStrength() + "</td></tr>");
+    }
+    write(stream, "</table>");
+    write(stream, "</section>");
+  }
+
   private void writeSubCycle(
       final DirectedGraph<ElementName, Dependency> cycle,
       final String streamName) {
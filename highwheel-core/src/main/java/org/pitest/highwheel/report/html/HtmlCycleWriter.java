@@ -11,15 +11,40 @@ public class HtmlCycleWriter extends CompoundCycleVisitor {
 
   public HtmlCycleWriter(final DependencyOracle dependencyScorer,
       final StreamFactory streams) {
-    super(makeChildren(dependencyScorer, streams));
+    this(dependencyScorer, streams, IndexWriter.Baseline.NONE);
+  }
+
+  /**
+   * When nothing has changed since the baseline the pages for each cycle are
+   * not written, but the index and the class and package pages still are.
+   */
+  public HtmlCycleWriter(final DependencyOracle dependencyScorer,
+      final StreamFactory streams, final IndexWriter.Baseline baseline) {
+    this(dependencyScorer, streams, baseline, false);
+  }
+
+  /**
+   * @param methods
+   *          whether a page of method calls was written for the index to link
+   */
+  public HtmlCycleWriter(final DependencyOracle dependencyScorer,
+      final StreamFactory streams, final IndexWriter.Baseline baseline,
+      final boolean methods) {
+    super(makeChildren(dependencyScorer, streams, baseline, methods));
   }
 
   private static Collection<CycleReporter> makeChildren(
-      final DependencyOracle dependencyScorer, final StreamFactory streams) {
-    return Arrays.<CycleReporter> asList(new IndexWriter(dependencyScorer,
-        streams), new CycleWriter(dependencyScorer, streams),
-        new ClassesWriter(streams), new PackagesWriter(streams),
-        new ResourceWriter(streams));
+      final DependencyOracle dependencyScorer, final StreamFactory streams,
+      final IndexWriter.Baseline baseline, final boolean methods) {
+    final IndexWriter index = new IndexWriter(dependencyScorer, streams,
+        baseline, methods);
+    if (baseline == IndexWriter.Baseline.UNCHANGED) {
+      return Arrays.<CycleReporter> asList(index, new ClassesWriter(streams),
+          new PackagesWriter(streams), new ResourceWriter(streams));
+    }
+    return Arrays.<CycleReporter> asList(index, new CycleWriter(
+        dependencyScorer, streams), new ClassesWriter(streams),
+        new PackagesWriter(streams), new ResourceWriter(streams));
   }
 
 }
@@ -1,5 +1,7 @@
 package org.pitest.highwheel.report.html;
 
+import java.util.List;
+
 import org.pitest.highwheel.cycles.CodeStats;
 import org.pitest.highwheel.model.Dependency;
 import org.pitest.highwheel.model.ElementName;
@@ -12,9 +14,38 @@ public class IndexWriter extends BaseWriter {
 
   public final static String INDEX = "index.html";
 
+  /**
+   * How the run compares to a baseline. When nothing has changed the cycles
+   * are not analysed, so the index says so instead of listing them.
+   */
+  public enum Baseline {
+    NONE, CHANGED, UNCHANGED
+  }
+
+  private final Baseline     baseline;
+  private final boolean      methods;
+  private int                truncated;
+
   public IndexWriter(final DependencyOracle dependencyScorer,
       final StreamFactory streams) {
+    this(dependencyScorer, streams, Baseline.NONE);
+  }
+
+  public IndexWriter(final DependencyOracle dependencyScorer,
+      final StreamFactory streams, final Baseline baseline) {
+    this(dependencyScorer, streams, baseline, false);
+  }
+
+  /**
+   * @param methods
+   *          whether a page of method calls was written, so should be linked
+   */
+  public IndexWriter(final DependencyOracle dependencyScorer,
+      final StreamFactory streams, final Baseline baseline,
+      final boolean methods) {
     super(streams);
+    this.baseline = baseline;
+    this.methods = methods;
   }
 
   public void start(final CodeStats stats) {
@@ -29,10 +60,22 @@ public class IndexWriter extends BaseWriter {
         + stats.getClassCount() + " classes</a></li>");
     writeIndex("<li><a href=\"" + PackagesWriter.FILENAME + "\">"
         + stats.getPackageCount() + " packages</a></li>");
+    if (this.methods) {
+      writeIndex("<li><a href=\"" + MethodsWriter.FILENAME
+          + "\">method calls</a></li>");
+    }
+    if (this.baseline != Baseline.NONE) {
+      writeIndex("<li><a href=\"" + ChangesWriter.FILENAME
+          + "\">changes since baseline</a></li>");
+    }
     writeIndex("<ul>");
     writeIndex("</section>");
 
-    writeIndex("<section><h1>Class cycles</h1><ul>");
+    if (this.baseline == Baseline.UNCHANGED) {
+      writeIndex("<section><h1>Cycles</h1><p>Nothing has changed since the baseline, so cycles were not analysed.</p></section>");
+    } else {
+      writeIndex("<section><h1>Class cycles</h1><ul>");
+    }
 
   }
 
@@ -44,12 +87,42 @@ public class IndexWriter extends BaseWriter {
         + (scc.getVertexCount() - 1) + " others</a></li>");
   }
 
+  public void visitClassTangleCuts(
+      final DirectedGraph<ElementName, Dependency> scc,
+      final List<Dependency> cuts) {
+
+  }
+
+  public void visitPackageTangleCuts(
+      final DirectedGraph<ElementName, Dependency> scc,
+      final List<Dependency> cuts) {
+
+  }
+
   public void visitSubCycle(final DirectedGraph<ElementName, Dependency> cycle) {
 
   }
 
+  public void visitClassSubCyclesTruncated(
+      final DirectedGraph<ElementName, Dependency> scc) {
+    this.truncated++;
+  }
+
+  public void visitPackageSubCyclesTruncated(
+      final DirectedGraph<ElementName, Dependency> scc) {
+    this.truncated++;
+  }
+
   public void end() {
-    writeIndex("</ul></section>");
+    if (this.baseline != Baseline.UNCHANGED) {
+      writeIndex("</ul></section>");
+    }
+    if (this.truncated != 0) {
+      writeIndex("<section><p>The search for sub cycles was cut short in "
+          + this.truncated
+          + " tangles, so only some of their sub cycles are shown.</p></section>");
+    }
+    writeIndex("<section><h1>Unreachable code</h1><ul><li><a href=\"unreachable.html\">unreachable</a></li></ul></section>");
     writeIndex("<section><h1>Lost tests</h1><ul><li><a href=\"lost_tests.html\">lost_tests</a></li></ul></section>");
 
     this.writeFooter(INDEX);
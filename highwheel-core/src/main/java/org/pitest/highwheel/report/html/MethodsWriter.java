@@ -0,0 +1,90 @@
+package org.pitest.highwheel.report.html;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.List;
+
+import org.pitest.highwheel.algorithm.Cycle;
+import org.pitest.highwheel.callgraph.MethodGraph;
+import org.pitest.highwheel.model.AccessPoint;
+import org.pitest.highwheel.report.StreamFactory;
+
+/**
+ * Writes a page of the calls between methods, listing the groups of methods
+ * that call each other recursively and the fan in and fan out of each method.
+ */
+public class MethodsWriter extends BaseHtmlWriter {
+
+  public final static String FILENAME = "methods.html";
+
+  public MethodsWriter(final StreamFactory streams) {
+    super(streams);
+  }
+
+  public void write(final MethodGraph graph) {
+    writeHeader(FILENAME);
+    write(FILENAME, "<header>");
+    write(FILENAME, "<h1>Method calls</h1>");
+    write(FILENAME, "<p>" + graph.size() + " methods making "
+        + graph.edgeCount() + " distinct calls</p>");
+    write(FILENAME, "</header>");
+
+    writeTangles(graph.findTangles());
+
+    final VirtualTable table = new VirtualTable("method", "fan in", "fan out");
+    for (int i = 0; i != graph.size(); i++) {
+      table.add(name(graph.method(i)), graph.fanIn(i), graph.fanOut(i));
+    }
+    write(FILENAME, "<section class='deps'>");
+    write(FILENAME, "<h1>Fan in and fan out</h1>");
+    write(FILENAME, table.toHtml("methods"));
+    write(FILENAME, "</section>");
+    writeFooter(FILENAME);
+  }
+
+  private void writeTangles(final List<Cycle<AccessPoint>> tangles) {
+    write(FILENAME, "<section><h1>Method tangles</h1>");
+    if (tangles.isEmpty()) {
+      write(FILENAME, "<p>No methods call each other recursively</p>");
+    } else {
+      Collections.sort(tangles, LARGEST_FIRST);
+      write(FILENAME, "<ul>");
+      for (final Cycle<AccessPoint> each : tangles) {
+        write(FILENAME, "<li>" + each.size() + " methods: "
+            + escape(names(each)) + "</li>");
+      }
+      write(FILENAME, "</ul>");
+    }
+    write(FILENAME, "</section>");
+  }
+
+  private static String names(final Cycle<AccessPoint> tangle) {
+    final List<String> names = new ArrayList<String>(tangle.size());
+    for (final AccessPoint each : tangle) {
+      names.add(name(each));
+    }
+    Collections.sort(names);
+    final StringBuilder sb = new StringBuilder();
+    for (final String each : names) {
+      if (sb.length() != 0) {
+        sb.append(", ");
+      }
+      sb.append(each);
+    }
+    return sb.toString();
+  }
+
+  private static String name(final AccessPoint method) {
+    return method.getElementName().asJavaName() + "."
+        + method.getAttribute().getName()
+        + method.getAttribute().getDescriptor();
+  }
+
+  private static final Comparator<Cycle<AccessPoint>> LARGEST_FIRST = new Comparator<Cycle<AccessPoint>>() {
+    public int compare(final Cycle<AccessPoint> a, final Cycle<AccessPoint> b) {
+      return a.size() > b.size() ? -1 : a.size() == b.size() ? 0 : 1;
+    }
+  };
+
+}
@@ -3,6 +3,7 @@ package org.pitest.highwheel.report.html;
 import java.io.IOException;
 import java.io.InputStream;
 import java.io.OutputStream;
+import java.util.List;
 
 import org.pitest.highwheel.cycles.CodeStats;
 import org.pitest.highwheel.cycles.CycleReporter;
@@ -25,6 +26,7 @@ class ResourceWriter implements CycleReporter {
     writeResource("style.css");
     writeResource("jquery-latest.js");
     writeResource("jquery.tablesorter.min.js");    
+    writeResource(VirtualTable.SCRIPT);
     writeResource("asc.gif");
     writeResource("bg.gif");
     writeResource("desc.gif");
@@ -63,6 +65,28 @@ class ResourceWriter implements CycleReporter {
 
   }
 
+  public void visitClassTangleCuts(
+      final DirectedGraph<ElementName, Dependency> scc,
+      final List<Dependency> cuts) {
+
+  }
+
+  public void visitPackageTangleCuts(
+      final DirectedGraph<ElementName, Dependency> scc,
+      final List<Dependency> cuts) {
+
+  }
+
+  public void visitClassSubCyclesTruncated(
+      final DirectedGraph<ElementName, Dependency> scc) {
+
+  }
+
+  public void visitPackageSubCyclesTruncated(
+      final DirectedGraph<ElementName, Dependency> scc) {
+
+  }
+
   public void visitSubCycle(final DirectedGraph<ElementName, Dependency> cycle) {
     // TODO Auto-generated method stub
 
@@ -0,0 +1,146 @@
+package org.pitest.highwheel.report.html;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.List;
+
+/**
+ * A table of names and one or more columns of values written as data for
+ * vtable.js, which creates elements only for the rows in view. A page listing
+ * tens of thousands of classes as markup is many megabytes and slow to open.
+ *
+ * Rows are sorted here by each column, so the browser picks or reverses an
+ * order rather than sorting.
+ */
+final class VirtualTable {
+
+  public final static String SCRIPT = "vtable.js";
+
+  private final String       nameHeading;
+  private final String[]     valueHeadings;
+  private final List<Row>    rows = new ArrayList<Row>();
+
+  VirtualTable(final String nameHeading, final String... valueHeadings) {
+    this.nameHeading = nameHeading;
+    this.valueHeadings = valueHeadings;
+  }
+
+  /**
+   * Adds a row with a value for each value column.
+   */
+  void add(final String name, final int... values) {
+    if (values.length != this.valueHeadings.length) {
+      throw new IllegalArgumentException("Expected "
+          + this.valueHeadings.length + " values for " + name);
+    }
+    this.rows.add(new Row(this.rows.size(), name, values));
+  }
+
+  /**
+   * The markup for the table, including the script that renders it.
+   */
+  String toHtml(final String id) {
+    final StringBuilder sb = new StringBuilder(64 + (this.rows.size() * 48));
+    sb.append("<div class=\"vtable\" id=\"").append(id).append("\"></div>");
+    sb.append("<script type=\"text/javascript\" src=\"").append(SCRIPT)
+        .append("\"></script>");
+    sb.append("<script type=\"text/javascript\">highwheelTable(\"")
+        .append(id).append("\",");
+    appendJson(sb);
+    sb.append(");</script>");
+    return sb.toString();
+  }
+
+  private void appendJson(final StringBuilder sb) {
+    sb.append("{\"columns\":[");
+    appendString(sb, this.nameHeading);
+    for (final String each : this.valueHeadings) {
+      sb.append(',');
+      appendString(sb, each);
+    }
+    sb.append("],\"rows\":[");
+    for (int i = 0; i != this.rows.size(); i++) {
+      final Row row = this.rows.get(i);
+      if (i != 0) {
+        sb.append(',');
+      }
+      sb.append('[');
+      appendString(sb, row.name);
+      for (final int each : row.values) {
+        sb.append(',').append(each);
+      }
+      sb.append(']');
+    }
+    sb.append("],\"orders\":[");
+    appendOrder(sb, BY_NAME);
+    for (int i = 0; i != this.valueHeadings.length; i++) {
+      sb.append(',');
+      appendOrder(sb, byValue(i));
+    }
+    sb.append("]}");
+  }
+
+  private void appendOrder(final StringBuilder sb, final Comparator<Row> order) {
+    final List<Row> sorted = new ArrayList<Row>(this.rows);
+    Collections.sort(sorted, order);
+    sb.append('[');
+    for (int i = 0; i != sorted.size(); i++) {
+      if (i != 0) {
+        sb.append(',');
+      }
+      sb.append(sorted.get(i).index);
+    }
+    sb.append(']');
+  }
+
+  /**
+   * Appends a JSON string that is also safe within a script element.
+   */
+  private static void appendString(final StringBuilder sb, final String value) {
+    sb.append('"');
+    for (int i = 0; i != value.length(); i++) {
+      final char c = value.charAt(i);
+      if (c == '"' || c == '\\') {
+        sb.append('\\').append(c);
+      } else if (c < 0x20 || c == '<' || c == '>' || c == '&') {
+        sb.append(String.format("\\u%04x", (int) c));
+      } else {
+        sb.append(c);
+      }
+    }
+    sb.append('"');
+  }
+
+  private static final Comparator<Row> BY_NAME  = new Comparator<Row>() {
+    public int compare(final Row a, final Row b) {
+      return a.name.compareTo(b.name);
+    }
+  };
+
+  private static Comparator<Row> byValue(final int column) {
+    return new Comparator<Row>() {
+      public int compare(final Row a, final Row b) {
+        final int x = a.values[column];
+        final int y = b.values[column];
+        if (x != y) {
+          return x < y ? -1 : 1;
+        }
+        return a.name.compareTo(b.name);
+      }
+    };
+  }
+
+  private static final class Row {
+    private final int    index;
+    private final String name;
+    private final int[]  values;
+
+    Row(final int index, final String name, final int[] values) {
+      this.index = index;
+      this.name = name;
+      this.values = values;
+    }
+  }
+
+}
@@ -15,6 +15,8 @@ import java.util.Map;
 import org.apache.commons.collections15.Transformer;
 import org.apache.commons.collections15.TransformerUtils;
 import org.freehep.graphicsio.svg.SVGGraphics2D;
+import org.pitest.highwheel.jfr.SVGExportTrace;
+import org.pitest.highwheel.jfr.Traces;
 import org.pitest.highwheel.model.Access;
 import org.pitest.highwheel.model.Dependency;
 import org.pitest.highwheel.model.ElementName;
@@ -53,6 +55,9 @@ public class SVGExporter {
   public void export(final DirectedGraph<ElementName, Dependency> g)
       throws IOException {
 
+    final SVGExportTrace event = Traces.svgExport();
+    event.begin();
+
     final Dimension d = new Dimension(this.width, this.height);
     final Layout<ElementName, Dependency> layout = pickLayout(g, d);
 
@@ -89,6 +94,14 @@ public class SVGExporter {
     svgGenerator.writeTrailer();
     svgGenerator.dispose();
 
+    event.end();
+    if (event.shouldCommit()) {
+      final String graph = g.getVertexCount() != 0 ? g.getVertices()
+          .iterator().next().asJavaName() : "";
+      event.record(graph, g.getVertexCount(), g.getEdgeCount(), layout
+          .getClass().getSimpleName());
+    }
+
   }
 
   private Transformer<Dependency, Paint> fillEdge(
@@ -0,0 +1,40 @@
+package org.pitest.highwheel.snapshot;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+
+import org.pitest.highwheel.classpath.ClasspathRoot;
+
+/**
+ * Returns the first snapshot found in any of the wrapped stores, and offers
+ * new snapshots to all of them.
+ */
+public class CompoundSnapshotStore implements SnapshotStore {
+
+  private final List<SnapshotStore> children = new ArrayList<SnapshotStore>();
+
+  public CompoundSnapshotStore(final Collection<SnapshotStore> children) {
+    this.children.addAll(children);
+  }
+
+  public InputStream get(final ClasspathRoot root) throws IOException {
+    for (final SnapshotStore each : this.children) {
+      final InputStream is = each.get(root);
+      if (is != null) {
+        return is;
+      }
+    }
+    return null;
+  }
+
+  public void put(final ClasspathRoot root, final byte[] snapshot)
+      throws IOException {
+    for (final SnapshotStore each : this.children) {
+      each.put(root, snapshot);
+    }
+  }
+
+}
@@ -0,0 +1,27 @@
+package org.pitest.highwheel.snapshot;
+
+/**
+ * Constants shared by the snapshot reader and writer.
+ *
+ * A snapshot is a 4 byte magic number and a varint version, followed by a
+ * deflate compressed stream of tagged records. Strings are declared inline the
+ * first time they are referenced and are afterwards referred to by their
+ * position in the string table.
+ */
+final class SnapshotFormat {
+
+  static final byte[] MAGIC        = { 'H', 'W', 'G', 'S' };
+  static final int    VERSION      = 2;
+
+  static final int    END          = 0;
+  static final int    STRING       = 1;
+  static final int    NODE         = 2;
+  static final int    ENTRY_POINT  = 3;
+  static final int    ACCESS_POINT = 4;
+  static final int    ACCESS       = 5;
+  static final int    ANNOTATION   = 6;
+
+  private SnapshotFormat() {
+  }
+
+}
@@ -0,0 +1,159 @@
+package org.pitest.highwheel.snapshot;
+
+import java.io.BufferedInputStream;
+import java.io.EOFException;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.charset.Charset;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.zip.InflaterInputStream;
+
+import org.pitest.highwheel.classpath.AccessVisitor;
+import org.pitest.highwheel.cycles.ClassDependencyGraphBuildingVisitor;
+import org.pitest.highwheel.cycles.CodeGraphs;
+import org.pitest.highwheel.model.AccessPoint;
+import org.pitest.highwheel.model.AccessPointName;
+import org.pitest.highwheel.model.AccessPointPool;
+import org.pitest.highwheel.model.AccessType;
+import org.pitest.highwheel.model.Dependency;
+import org.pitest.highwheel.model.ElementName;
+import org.pitest.highwheel.util.VarInt;
+
+import edu.uci.ics.jung.graph.DirectedGraph;
+import edu.uci.ics.jung.graph.DirectedSparseGraph;
+
+/**
+ * Replays a snapshot written by a {@link SnapshotWriter} into an
+ * {@link AccessVisitor}.
+ */
+public class SnapshotReader {
+
+  private static final Charset      UTF8         = Charset.forName("UTF-8");
+  private static final AccessType[] ACCESS_TYPES = AccessType.values();
+
+  private final InputStream                in;
+  private final List<String>               strings  = new ArrayList<String>();
+  private final List<ElementName>          elements = new ArrayList<ElementName>();
+  private final Map<Long, AccessPointName> names    = new HashMap<Long, AccessPointName>();
+  private final AccessPointPool            points   = new AccessPointPool();
+
+  public SnapshotReader(final InputStream is) throws IOException {
+    final byte[] magic = new byte[SnapshotFormat.MAGIC.length];
+    for (int i = 0; i != magic.length; i++) {
+      magic[i] = (byte) is.read();
+    }
+    if (!Arrays.equals(magic, SnapshotFormat.MAGIC)) {
+      throw new IOException("Not a highwheel snapshot");
+    }
+    final int version = VarInt.read(is);
+    if (version != SnapshotFormat.VERSION) {
+      throw new IOException("Unsupported snapshot version " + version);
+    }
+    this.in = new BufferedInputStream(new InflaterInputStream(is), 64 * 1024);
+  }
+
+  public static CodeGraphs readGraphs(final InputStream is) throws IOException {
+    final DirectedGraph<ElementName, Dependency> classGraph = new DirectedSparseGraph<ElementName, Dependency>();
+    new SnapshotReader(is).read(new ClassDependencyGraphBuildingVisitor(
+        classGraph));
+    return new CodeGraphs(classGraph);
+  }
+
+  public void read(final AccessVisitor v) throws IOException {
+    int tag = this.in.read();
+    while (tag != SnapshotFormat.END) {
+      switch (tag) {
+      case SnapshotFormat.STRING:
+        readString();
+        break;
+      case SnapshotFormat.NODE:
+        v.newNode(element(VarInt.read(this.in)));
+        break;
+      case SnapshotFormat.ENTRY_POINT:
+        v.newEntryPoint(element(VarInt.read(this.in)));
+        break;
+      case SnapshotFormat.ANNOTATION:
+        v.newAnnotation(element(VarInt.read(this.in)),
+            element(VarInt.read(this.in)));
+        break;
+      case SnapshotFormat.ACCESS_POINT:
+        v.newAccessPoint(readAccessPoint());
+        break;
+      case SnapshotFormat.ACCESS:
+        readAccess(v);
+        break;
+      case -1:
+        throw new EOFException("Truncated snapshot");
+      default:
+        throw new IOException("Unexpected record " + tag + " in snapshot");
+      }
+      tag = this.in.read();
+    }
+  }
+
+  private void readAccess(final AccessVisitor v) throws IOException {
+    final AccessPoint source = readAccessPoint();
+    final AccessPoint dest = readAccessPoint();
+    final AccessType type = readAccessType();
+    final int count = VarInt.read(this.in);
+    for (int i = 0; i != count; i++) {
+      v.apply(source, dest, type);
+    }
+  }
+
+  private AccessType readAccessType() throws IOException {
+    final int type = this.in.read();
+    if (type == -1) {
+      throw new EOFException("Truncated snapshot");
+    }
+    if (type >= ACCESS_TYPES.length) {
+      throw new IOException("Unexpected access type " + type + " in snapshot");
+    }
+    return ACCESS_TYPES[type];
+  }
+
+  private AccessPoint readAccessPoint() throws IOException {
+    final int clazz = VarInt.read(this.in);
+    final int name = VarInt.read(this.in);
+    final int desc = name != 0 ? VarInt.read(this.in) : 0;
+    final long key = ((long) name << 32) | desc;
+    if (name == 0) {
+      return this.points.create(element(clazz));
+    }
+    AccessPointName attribute = this.names.get(key);
+    if (attribute == null) {
+      attribute = AccessPointName.create(this.strings.get(name - 1),
+          desc == 0 ? null : this.strings.get(desc - 1));
+      this.names.put(key, attribute);
+    }
+    return this.points.create(element(clazz), attribute);
+  }
+
+  private ElementName element(final int id) {
+    ElementName name = this.elements.get(id);
+    if (name == null) {
+      name = ElementName.fromString(this.strings.get(id));
+      this.elements.set(id, name);
+    }
+    return name;
+  }
+
+  private void readString() throws IOException {
+    final byte[] bytes = new byte[VarInt.read(this.in)];
+    int read = 0;
+    while (read != bytes.length) {
+      final int n = this.in.read(bytes, read, bytes.length - read);
+      if (n == -1) {
+        throw new IOException("Truncated snapshot");
+      }
+      read += n;
+    }
+    this.strings.add(new String(bytes, UTF8));
+    this.elements.add(null);
+  }
+
+}
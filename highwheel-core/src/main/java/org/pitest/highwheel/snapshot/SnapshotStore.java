@@ -0,0 +1,26 @@
+package org.pitest.highwheel.snapshot;
+
+import java.io.IOException;
+import java.io.InputStream;
+
+import org.pitest.highwheel.classpath.ClasspathRoot;
+
+/**
+ * Persists snapshots of previously parsed classpath roots so they can be
+ * replayed instead of parsed again.
+ */
+public interface SnapshotStore {
+
+  /**
+   * Returns the stored snapshot for the root, or null if there is no snapshot
+   * or it is out of date.
+   */
+  InputStream get(ClasspathRoot root) throws IOException;
+
+  /**
+   * Stores a snapshot for the root. Stores may ignore roots they do not know
+   * about.
+   */
+  void put(ClasspathRoot root, byte[] snapshot) throws IOException;
+
+}
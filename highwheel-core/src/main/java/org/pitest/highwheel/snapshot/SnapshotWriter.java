@@ -0,0 +1,161 @@
+package org.pitest.highwheel.snapshot;
+
+import java.io.BufferedOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.charset.Charset;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.zip.Deflater;
+import java.util.zip.DeflaterOutputStream;
+
+import org.pitest.highwheel.classpath.AccessVisitor;
+import org.pitest.highwheel.model.Access;
+import org.pitest.highwheel.model.AccessPoint;
+import org.pitest.highwheel.model.AccessPointName;
+import org.pitest.highwheel.model.AccessType;
+import org.pitest.highwheel.model.ElementName;
+import org.pitest.highwheel.util.VarInt;
+
+/**
+ * Streams access events into a compact binary snapshot that can be reloaded
+ * with a {@link SnapshotReader} without parsing bytecode again.
+ *
+ * Repeated identical accesses made by a class are written once along with a
+ * count. Only the accesses of the class currently being visited are held in
+ * memory.
+ */
+public class SnapshotWriter implements AccessVisitor {
+
+  private static final Charset       UTF8    = Charset.forName("UTF-8");
+
+  private final DeflaterOutputStream deflater;
+  private final OutputStream         out;
+  private final Map<String, Integer> strings = new HashMap<String, Integer>();
+  private final Map<Access, Integer> pending = new LinkedHashMap<Access, Integer>();
+
+  public SnapshotWriter(final OutputStream os) throws IOException {
+    os.write(SnapshotFormat.MAGIC);
+    VarInt.write(os, SnapshotFormat.VERSION);
+    this.deflater = new DeflaterOutputStream(os, new Deflater(
+        Deflater.BEST_SPEED), 64 * 1024);
+    this.out = new BufferedOutputStream(this.deflater, 64 * 1024);
+  }
+
+  public void apply(final AccessPoint source, final AccessPoint dest,
+      final AccessType type) {
+    final Access access = Access.create(source, dest, type);
+    final Integer count = this.pending.get(access);
+    this.pending.put(access, count == null ? 1 : count + 1);
+  }
+
+  public void newNode(final ElementName clazz) {
+    try {
+      flushPending();
+      final int id = stringId(clazz.asInternalName());
+      this.out.write(SnapshotFormat.NODE);
+      VarInt.write(this.out, id);
+    } catch (final IOException e) {
+      throw new RuntimeException(e);
+    }
+  }
+
+  public void newAccessPoint(final AccessPoint ap) {
+    try {
+      final int[] ids = accessPointIds(ap);
+      this.out.write(SnapshotFormat.ACCESS_POINT);
+      writeAccessPoint(ids);
+    } catch (final IOException e) {
+      throw new RuntimeException(e);
+    }
+  }
+
+  public void newEntryPoint(final ElementName clazz) {
+    try {
+      final int id = stringId(clazz.asInternalName());
+      this.out.write(SnapshotFormat.ENTRY_POINT);
+      VarInt.write(this.out, id);
+    } catch (final IOException e) {
+      throw new RuntimeException(e);
+    }
+  }
+
+  public void newAnnotation(final ElementName clazz,
+      final ElementName annotation) {
+    try {
+      final int id = stringId(clazz.asInternalName());
+      final int annotationId = stringId(annotation.asInternalName());
+      this.out.write(SnapshotFormat.ANNOTATION);
+      VarInt.write(this.out, id);
+      VarInt.write(this.out, annotationId);
+    } catch (final IOException e) {
+      throw new RuntimeException(e);
+    }
+  }
+
+  /**
+   * Writes any buffered accesses and the end marker and completes the
+   * compressed stream. The underlying stream is left open.
+   */
+  public void finish() throws IOException {
+    flushPending();
+    this.out.write(SnapshotFormat.END);
+    this.out.flush();
+    this.deflater.finish();
+  }
+
+  private void flushPending() throws IOException {
+    for (final Map.Entry<Access, Integer> each : this.pending.entrySet()) {
+      final Access access = each.getKey();
+      final int[] source = accessPointIds(access.getSource());
+      final int[] dest = accessPointIds(access.getDest());
+      this.out.write(SnapshotFormat.ACCESS);
+      writeAccessPoint(source);
+      writeAccessPoint(dest);
+      this.out.write(access.getType().ordinal());
+      VarInt.write(this.out, each.getValue());
+    }
+    this.pending.clear();
+  }
+
+  private int[] accessPointIds(final AccessPoint ap) throws IOException {
+    final int clazz = stringId(ap.getElementName().asInternalName());
+    final AccessPointName attribute = ap.getAttribute();
+    if (attribute == null) {
+      return new int[] { clazz, 0, 0 };
+    }
+    return new int[] { clazz, stringId(attribute.getName()) + 1,
+        optionalStringId(attribute.getDescriptor()) };
+  }
+
+  private void writeAccessPoint(final int[] ids) throws IOException {
+    VarInt.write(this.out, ids[0]);
+    VarInt.write(this.out, ids[1]);
+    if (ids[1] != 0) {
+      VarInt.write(this.out, ids[2]);
+    }
+  }
+
+  private int optionalStringId(final String value) throws IOException {
+    if (value == null) {
+      return 0;
+    }
+    return stringId(value) + 1;
+  }
+
+  private int stringId(final String value) throws IOException {
+    final Integer existing = this.strings.get(value);
+    if (existing != null) {
+      return existing;
+    }
+    final int id = this.strings.size();
+    this.strings.put(value, id);
+    final byte[] bytes = value.getBytes(UTF8);
+    this.out.write(SnapshotFormat.STRING);
+    VarInt.write(this.out, bytes.length);
+    this.out.write(bytes);
+    return id;
+  }
+
+}
@@ -0,0 +1,253 @@
+package org.pitest.highwheel.util;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+import org.pitest.highwheel.cycles.Filter;
+import org.pitest.highwheel.model.ElementName;
+
+/**
+ * Filter built from a comma separated list of globs. Globs starting with ! are
+ * excludes. A name is included if it matches at least one include glob (or
+ * there are none) and no exclude glob.
+ *
+ * As with GlobToRegex, * matches any run of characters and ? any single
+ * character, both across package boundaries.
+ *
+ * The globs are compiled into a single automaton whose states are built as
+ * they are first needed. Transitions are cached per package segment, so names
+ * that share a package prefix share the work of matching it, and the verdict
+ * for each name is remembered so repeated lookups cost one map access.
+ */
+public final class GlobFilter implements Filter {
+
+  private static final char               SEPARATOR = '/';
+  private static final char               ANY       = 0xFFFF;
+  private static final char               STAR      = 0xFFFE;
+
+  private final char[][]                  globs;
+  private final boolean[]                 excludes;
+  private final boolean                   hasIncludes;
+  private final State                     start;
+  private final Map<Key, State>           states    = new ConcurrentHashMap<Key, State>();
+  private final Map<ElementName, Boolean> verdicts  = new ConcurrentHashMap<ElementName, Boolean>();
+
+  public GlobFilter(final String globs) {
+    final List<char[]> patterns = new ArrayList<char[]>();
+    final List<Boolean> exclude = new ArrayList<Boolean>();
+    for (final String each : globs.split(",")) {
+      String glob = each.trim();
+      if (glob.isEmpty()) {
+        continue;
+      }
+      final boolean negated = glob.charAt(0) == '!';
+      if (negated) {
+        glob = glob.substring(1).trim();
+      }
+      patterns.add(compile(glob));
+      exclude.add(negated);
+    }
+    this.globs = patterns.toArray(new char[patterns.size()][]);
+    this.excludes = new boolean[this.globs.length];
+    boolean includes = false;
+    for (int i = 0; i != this.excludes.length; i++) {
+      this.excludes[i] = exclude.get(i);
+      includes |= !this.excludes[i];
+    }
+    this.hasIncludes = includes;
+
+    final int[] initial = new int[this.globs.length];
+    for (int i = 0; i != initial.length; i++) {
+      initial[i] = position(i, 0);
+    }
+    // kept out of the state table, as its first segment has no separator
+    this.start = makeState(closure(initial, initial.length));
+  }
+
+  public boolean include(final ElementName item) {
+    Boolean verdict = this.verdicts.get(item);
+    if (verdict == null) {
+      verdict = matches(item.asInternalName());
+      this.verdicts.put(item, verdict);
+    }
+    return verdict;
+  }
+
+  private boolean matches(final String name) {
+    State state = this.start;
+    int from = 0;
+    while (state.live) {
+      final int to = name.indexOf(SEPARATOR, from);
+      final String segment = to == -1 ? name.substring(from) : name.substring(
+          from, to);
+      state = state.next(segment, state != this.start);
+      if (to == -1) {
+        return state.included;
+      }
+      from = to + 1;
+    }
+    // no glob can match the rest of the name
+    return state.included;
+  }
+
+  private static char[] compile(final String glob) {
+    final char[] pattern = new char[glob.length()];
+    int length = 0;
+    for (int i = 0; i != glob.length(); i++) {
+      final char c = glob.charAt(i);
+      if (c == '*') {
+        if (length == 0 || pattern[length - 1] != STAR) {
+          pattern[length++] = STAR;
+        }
+      } else if (c == '?') {
+        pattern[length++] = ANY;
+      } else if (c == '.') {
+        pattern[length++] = SEPARATOR;
+      } else {
+        pattern[length++] = c;
+      }
+    }
+    return Arrays.copyOf(pattern, length);
+  }
+
+  private static int position(final int glob, final int index) {
+    return (glob << 16) | index;
+  }
+
+  private static int glob(final int position) {
+    return position >>> 16;
+  }
+
+  private static int index(final int position) {
+    return position & 0xFFFF;
+  }
+
+  /**
+   * Adds the positions reachable by skipping stars, and sorts the result so
+   * that equal sets of positions compare equal.
+   */
+  private int[] closure(final int[] positions, final int count) {
+    int[] out = new int[count * 2];
+    int n = 0;
+    for (int i = 0; i != count; i++) {
+      int p = positions[i];
+      while (true) {
+        if (n == out.length) {
+          out = Arrays.copyOf(out, n * 2);
+        }
+        out[n++] = p;
+        final char[] pattern = this.globs[glob(p)];
+        if (index(p) == pattern.length || pattern[index(p)] != STAR) {
+          break;
+        }
+        p++;
+      }
+    }
+    Arrays.sort(out, 0, n);
+    int unique = 0;
+    for (int i = 0; i != n; i++) {
+      if (unique == 0 || out[unique - 1] != out[i]) {
+        out[unique++] = out[i];
+      }
+    }
+    return Arrays.copyOf(out, unique);
+  }
+
+  private int[] step(final int[] positions, final char c) {
+    final int[] next = new int[positions.length];
+    int n = 0;
+    for (final int p : positions) {
+      final char[] pattern = this.globs[glob(p)];
+      final int i = index(p);
+      if (i == pattern.length) {
+        continue;
+      }
+      final char token = pattern[i];
+      if (token == STAR) {
+        next[n++] = p;
+      } else if (token == ANY || token == c) {
+        next[n++] = p + 1;
+      }
+    }
+    return closure(next, n);
+  }
+
+  private State makeState(final int[] positions) {
+    boolean include = !this.hasIncludes;
+    boolean exclude = false;
+    for (final int p : positions) {
+      if (index(p) == this.globs[glob(p)].length) {
+        if (this.excludes[glob(p)]) {
+          exclude = true;
+        } else {
+          include = true;
+        }
+      }
+    }
+    return new State(positions, include && !exclude);
+  }
+
+  private State stateFor(final int[] positions) {
+    final Key key = new Key(positions);
+    State state = this.states.get(key);
+    if (state == null) {
+      state = makeState(positions);
+      this.states.put(key, state);
+    }
+    return state;
+  }
+
+  private final class State {
+    private final int[]              positions;
+    private final boolean            included;
+    private final boolean            live;
+    private final Map<String, State> transitions = new ConcurrentHashMap<String, State>();
+
+    State(final int[] positions, final boolean included) {
+      this.positions = positions;
+      this.included = included;
+      this.live = positions.length != 0;
+    }
+
+    State next(final String segment, final boolean separated) {
+      State next = this.transitions.get(segment);
+      if (next == null) {
+        int[] p = this.positions;
+        if (separated) {
+          p = step(p, SEPARATOR);
+        }
+        for (int i = 0; i != segment.length() && p.length != 0; i++) {
+          p = step(p, segment.charAt(i));
+        }
+        next = stateFor(p);
+        this.transitions.put(segment, next);
+      }
+      return next;
+    }
+  }
+
+  private static final class Key {
+    private final int[] positions;
+    private final int   hash;
+
+    Key(final int[] positions) {
+      this.positions = positions;
+      this.hash = Arrays.hashCode(positions);
+    }
+
+    @Override
+    public int hashCode() {
+      return this.hash;
+    }
+
+    @Override
+    public boolean equals(final Object obj) {
+      return obj instanceof Key
+          && Arrays.equals(this.positions, ((Key) obj).positions);
+    }
+  }
+
+}
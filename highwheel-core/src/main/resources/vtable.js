@@ -0,0 +1,90 @@
+/*
+ * Renders a table written by highwheel as data, creating elements only for
+ * the rows in view so that tables of tens of thousands of rows open quickly.
+ *
+ * data.rows holds the rows, and data.orders holds, for each column, the row
+ * indexes sorted ascending by that column. Clicking a heading sorts by its
+ * column, and clicking it again reverses the order.
+ */
+function highwheelTable(id, data) {
+  var ROW_HEIGHT = 24;
+  var OVERSCAN = 20;
+
+  var container = document.getElementById(id);
+  var head = document.createElement('div');
+  var viewport = document.createElement('div');
+  var spacer = document.createElement('div');
+  var body = document.createElement('div');
+  head.className = 'vhead';
+  viewport.className = 'vviewport';
+  body.className = 'vrows';
+  spacer.style.height = (data.rows.length * ROW_HEIGHT) + 'px';
+  spacer.appendChild(body);
+  viewport.appendChild(spacer);
+  container.appendChild(head);
+  container.appendChild(viewport);
+
+  var column = 1;
+  var descending = true;
+  var pending = false;
+  var headings = [];
+
+  function escape(text) {
+    return String(text).replace(/&/g, '&amp;').replace(/</g, '&lt;')
+        .replace(/>/g, '&gt;');
+  }
+
+  function draw() {
+    pending = false;
+    var order = data.orders[column];
+    var count = order.length;
+    var first = Math.max(0,
+        Math.floor(viewport.scrollTop / ROW_HEIGHT) - OVERSCAN);
+    var last = Math.min(count, Math.ceil((viewport.scrollTop
+        + viewport.clientHeight) / ROW_HEIGHT) + OVERSCAN);
+    var html = [];
+    for (var i = first; i < last; i++) {
+      var row = data.rows[order[descending ? count - 1 - i : i]];
+      html.push('<div class="vrow', (i % 2 ? ' odd' : ''), '">');
+      for (var c = 0; c < row.length; c++) {
+        html.push('<span>', escape(row[c]), '</span>');
+      }
+      html.push('</div>');
+    }
+    body.style.top = (first * ROW_HEIGHT) + 'px';
+    body.innerHTML = html.join('');
+  }
+
+  function redraw() {
+    if (!pending) {
+      pending = true;
+      (window.requestAnimationFrame || setTimeout)(draw);
+    }
+  }
+
+  function sortBy(c) {
+    descending = c === column ? !descending : false;
+    column = c;
+    for (var i = 0; i < headings.length; i++) {
+      headings[i].className = i !== column ? '' : descending ? 'desc' : 'asc';
+    }
+    draw();
+  }
+
+  for (var c = 0; c < data.columns.length; c++) {
+    var heading = document.createElement('span');
+    heading.appendChild(document.createTextNode(data.columns[c]));
+    heading.onclick = (function (c) {
+      return function () {
+        sortBy(c);
+      };
+    })(c);
+    head.appendChild(heading);
+    headings.push(heading);
+  }
+  headings[column].className = 'desc';
+
+  viewport.onscroll = redraw;
+  window.addEventListener('resize', redraw);
+  draw();
+}
@@ -3,14 +3,19 @@ package org.pitest.highwheel;
 import static org.fest.assertions.api.Assertions.assertThat;
 
 import java.util.Arrays;
+import java.util.HashSet;
+import java.util.List;
 import java.util.Set;
 
+import org.apache.commons.collections15.Transformer;
 import org.junit.Test;
+import org.pitest.highwheel.algorithm.Budget;
 import org.pitest.highwheel.algorithm.Cycle;
 import org.pitest.highwheel.algorithm.ElementalCycleFinder;
 import org.pitest.highwheel.algorithm.SCCFinder;
 
 import edu.uci.ics.jung.graph.DirectedGraph;
+import edu.uci.ics.jung.graph.DirectedSparseGraph;
 
 public class ShortestCycleFinderTest {
 
@@ -38,4 +43,71 @@ public class ShortestCycleFinderTest {
 
   }
 
+  @Test
+  public void shouldRankCyclesByWeakestEdgeThenLength() {
+    final DirectedGraph<String, Integer> g = DirectedGraphMother
+        .makeJot2012Graph();
+    final ElementalCycleFinder<String, Integer> testee = new ElementalCycleFinder<String, Integer>(
+        g);
+    final SCCFinder<String, Integer> scc = new SCCFinder<String, Integer>();
+
+    final List<Cycle<String>> actual = testee.findWeakestCycles(
+        scc.findStronglyConnectedComponents(g), EDGE_NUMBER, 3);
+
+    assertThat(actual).containsExactly(
+        new Cycle<String>(Arrays.asList("A", "B")),
+        new Cycle<String>(Arrays.asList("D", "E", "A", "B")),
+        new Cycle<String>(Arrays.asList("D", "B")));
+  }
+
+  @Test
+  public void shouldFindSameCyclesWhenRankingWithoutLimit() {
+    final DirectedGraph<String, Integer> g = DirectedGraphMother
+        .makeJot2012Graph();
+    final SCCFinder<String, Integer> scc = new SCCFinder<String, Integer>();
+
+    final Set<Cycle<String>> all = new ElementalCycleFinder<String, Integer>(g)
+        .findShortestCycles(scc.findStronglyConnectedComponents(g));
+    final List<Cycle<String>> ranked = new ElementalCycleFinder<String, Integer>(
+        g).findWeakestCycles(
+        new SCCFinder<String, Integer>().findStronglyConnectedComponents(g),
+        EDGE_NUMBER, Integer.MAX_VALUE);
+
+    assertThat(ranked).hasSize(all.size());
+    assertThat(new HashSet<Cycle<String>>(ranked)).isEqualTo(all);
+  }
+
+  @Test
+  public void shouldSampleStartVerticesWhenBudgetRunsShort() {
+    final DirectedGraph<String, Integer> g = new DirectedSparseGraph<String, Integer>();
+    final int n = 200;
+    for (int i = 0; i != n; i++) {
+      g.addEdge(i, "v" + i, "v" + ((i + 1) % n));
+      g.addEdge(n + i, "v" + i, "v" + ((i + 7) % n));
+    }
+    final List<Cycle<String>> sccs = new SCCFinder<String, Integer>()
+        .findStronglyConnectedComponents(g);
+
+    final ElementalCycleFinder<String, Integer> unlimited = new ElementalCycleFinder<String, Integer>(
+        g);
+    final List<Cycle<String>> all = unlimited.findWeakestCycles(sccs,
+        EDGE_NUMBER, Integer.MAX_VALUE, Budget.UNLIMITED.start());
+    assertThat(unlimited.wasTruncated()).isFalse();
+
+    final ElementalCycleFinder<String, Integer> testee = new ElementalCycleFinder<String, Integer>(
+        g);
+    final List<Cycle<String>> sampled = testee.findWeakestCycles(sccs,
+        EDGE_NUMBER, Integer.MAX_VALUE, new Budget(n * 10, 0).start());
+    assertThat(testee.wasTruncated()).isTrue();
+    assertThat(sampled).isNotEmpty();
+    assertThat(sampled.size()).isLessThan(all.size());
+    assertThat(all).containsAll(sampled);
+  }
+
+  private static final Transformer<Integer, Integer> EDGE_NUMBER = new Transformer<Integer, Integer>() {
+    public Integer transform(final Integer edge) {
+      return edge;
+    }
+  };
+
 }
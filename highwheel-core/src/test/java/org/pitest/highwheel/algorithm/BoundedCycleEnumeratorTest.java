@@ -0,0 +1,137 @@
+package org.pitest.highwheel.algorithm;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+import org.junit.Test;
+
+import edu.uci.ics.jung.graph.DirectedGraph;
+import edu.uci.ics.jung.graph.DirectedSparseGraph;
+
+public class BoundedCycleEnumeratorTest {
+
+  private final DirectedGraph<String, Integer> g     = new DirectedSparseGraph<String, Integer>();
+  private int                                  edges = 0;
+
+  @Test
+  public void shouldFindCyclesUpToMaximumLength() {
+    edge("a", "b");
+    edge("b", "a");
+    edge("b", "c");
+    edge("c", "a");
+    assertEquals(Arrays.asList(2, 3), lengths(enumerate(3, 100, 1)));
+    assertEquals(Arrays.asList(2), lengths(enumerate(2, 100, 1)));
+  }
+
+  @Test
+  public void shouldListEachCycleOnceInDependencyOrder() {
+    edge("a", "b");
+    edge("b", "c");
+    edge("c", "a");
+    final List<List<String>> cycles = enumerate(3, 100, 1);
+    assertEquals(1, cycles.size());
+    final List<String> cycle = cycles.get(0);
+    for (int i = 0; i != cycle.size(); i++) {
+      assertTrue(this.g.findEdge(cycle.get(i),
+          cycle.get((i + 1) % cycle.size())) != null);
+    }
+  }
+
+  @Test
+  public void shouldFindEveryElementaryCycleOfCompleteGraph() {
+    completeGraph(4);
+    // 6 pairs, 8 triangles and 6 orderings of all four
+    assertEquals(20, enumerate(4, 100, 1).size());
+    assertEquals(14, enumerate(3, 100, 1).size());
+  }
+
+  @Test
+  public void shouldStopAtCap() {
+    completeGraph(4);
+    final BoundedCycleEnumerator<String> testee = new BoundedCycleEnumerator<String>(
+        this.g, 4, 5, 2);
+    assertEquals(5, testee.findCycles(scc()).size());
+    assertTrue(testee.wasCapped());
+  }
+
+  @Test
+  public void shouldNotReportCapWhenAllCyclesFound() {
+    completeGraph(3);
+    final BoundedCycleEnumerator<String> testee = new BoundedCycleEnumerator<String>(
+        this.g, 3, 100, 2);
+    testee.findCycles(scc());
+    assertFalse(testee.wasCapped());
+  }
+
+  @Test
+  public void shouldFindSameCyclesWithManyThreadsAsWithOne() {
+    final Random random = new Random(3);
+    for (int i = 0; i != 300; i++) {
+      final String from = "v" + random.nextInt(30);
+      final String to = "v" + random.nextInt(30);
+      if (!from.equals(to) && this.g.findEdge(from, to) == null) {
+        edge(from, to);
+      }
+    }
+    final List<List<String>> single = enumerate(5, Integer.MAX_VALUE, 1);
+    final List<List<String>> parallel = enumerate(5, Integer.MAX_VALUE, 4);
+    assertEquals(single, parallel);
+    assertEquals(single.size(), new HashSet<List<String>>(single).size());
+  }
+
+  @Test
+  public void shouldSearchOnASharedExecutorWithoutShuttingItDown() {
+    completeGraph(5);
+    final ExecutorService executor = Executors.newFixedThreadPool(2);
+    try {
+      final List<List<String>> shared = new BoundedCycleEnumerator<String>(
+          this.g, 5, Integer.MAX_VALUE, executor, 2).findCycles(scc());
+      assertEquals(enumerate(5, Integer.MAX_VALUE, 1), shared);
+      assertFalse(executor.isShutdown());
+    } finally {
+      executor.shutdown();
+    }
+  }
+
+  private List<List<String>> enumerate(final int maxLength,
+      final int maxCycles, final int threads) {
+    return new BoundedCycleEnumerator<String>(this.g, maxLength, maxCycles,
+        threads).findCycles(scc());
+  }
+
+  private Cycle<String> scc() {
+    return new Cycle<String>(this.g.getVertices());
+  }
+
+  private void completeGraph(final int size) {
+    for (int i = 0; i != size; i++) {
+      for (int j = 0; j != size; j++) {
+        if (i != j) {
+          edge("v" + i, "v" + j);
+        }
+      }
+    }
+  }
+
+  private void edge(final String from, final String to) {
+    this.g.addEdge(this.edges++, from, to);
+  }
+
+  private static List<Integer> lengths(final List<List<String>> cycles) {
+    final List<Integer> lengths = new ArrayList<Integer>();
+    for (final List<String> each : cycles) {
+      lengths.add(each.size());
+    }
+    return lengths;
+  }
+
+}
@@ -0,0 +1,47 @@
+package org.pitest.highwheel.algorithm;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+import org.junit.Test;
+
+public class BudgetTest {
+
+  @Test
+  public void shouldNeverExhaustUnlimitedBudget() {
+    final Budget.Allowance testee = Budget.UNLIMITED.start();
+    testee.spend(Long.MAX_VALUE / 2);
+    assertFalse(testee.isExhausted());
+    assertFalse(testee.isLimited());
+    assertEquals(Long.MAX_VALUE, testee.remainingWork());
+  }
+
+  @Test
+  public void shouldExhaustWorkBudgetOnceSpent() {
+    final Budget.Allowance testee = new Budget(10, 0).start();
+    testee.spend(6);
+    assertFalse(testee.isExhausted());
+    assertEquals(4, testee.remainingWork());
+    testee.spend(4);
+    assertTrue(testee.isExhausted());
+  }
+
+  @Test
+  public void shouldExhaustTimeBudgetOnceElapsed() throws InterruptedException {
+    final Budget.Allowance testee = new Budget(0, 1).start();
+    Thread.sleep(20);
+    assertTrue(testee.isExhausted());
+  }
+
+  @Test
+  public void shouldCountSpendingAgainstParent() {
+    final Budget.Allowance parent = new Budget(10, 0).start();
+    final Budget.Allowance child = Budget.UNLIMITED.start(parent);
+    assertTrue(child.isLimited());
+    child.spend(10);
+    assertTrue(parent.isExhausted());
+    assertTrue(new Budget(100, 0).start(parent).isExhausted());
+  }
+
+}
@@ -0,0 +1,59 @@
+package org.pitest.highwheel.algorithm;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+import org.junit.Test;
+
+public class CompactSCCFinderTest {
+
+  @Test
+  public void shouldPutUnconnectedVerticesInSeparateComponents() {
+    final int[] components = CompactSCCFinder.findComponents(
+        new int[] { 0, 0, 0 }, new int[0]);
+    assertTrue(components[0] != components[1]);
+  }
+
+  @Test
+  public void shouldFindCycleOfThreeVertices() {
+    // 0 -> 1 -> 2 -> 0, 2 -> 3
+    final int[] components = CompactSCCFinder.findComponents(new int[] { 0, 1,
+        2, 4, 4 }, new int[] { 1, 2, 0, 3 });
+    assertEquals(components[0], components[1]);
+    assertEquals(components[0], components[2]);
+    assertTrue(components[3] != components[0]);
+  }
+
+  @Test
+  public void shouldNumberComponentsInReverseTopologicalOrder() {
+    // 0 -> 1, 1 <-> 2, 2 -> 3
+    final int[] components = CompactSCCFinder.findComponents(new int[] { 0, 1,
+        3, 4, 4 }, new int[] { 1, 2, 3, 1 });
+    assertTrue(components[0] > components[1]);
+    assertTrue(components[1] > components[3]);
+  }
+
+  @Test
+  public void shouldFindTwoCyclesSharingNoVertices() {
+    // 0 <-> 1, 1 -> 2, 2 <-> 3
+    final int[] components = CompactSCCFinder.findComponents(new int[] { 0, 1,
+        3, 4, 5 }, new int[] { 1, 0, 2, 3, 2 });
+    assertEquals(components[0], components[1]);
+    assertEquals(components[2], components[3]);
+    assertTrue(components[0] != components[2]);
+  }
+
+  @Test
+  public void shouldHandleLongChainsWithoutRecursion() {
+    final int n = 200000;
+    final int[] offsets = new int[n + 1];
+    final int[] targets = new int[n];
+    for (int i = 0; i != n; i++) {
+      offsets[i + 1] = i + 1;
+      targets[i] = (i + 1) % n;
+    }
+    final int[] components = CompactSCCFinder.findComponents(offsets, targets);
+    assertEquals(components[0], components[n - 1]);
+  }
+
+}
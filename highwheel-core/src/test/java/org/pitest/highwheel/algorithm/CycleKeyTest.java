@@ -0,0 +1,26 @@
+package org.pitest.highwheel.algorithm;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+
+import org.junit.Test;
+
+public class CycleKeyTest {
+
+  @Test
+  public void shouldEqualKeyWithSameMembersInAnyOrder() {
+    final CycleKey a = new CycleKey(new int[] { 3, 1, 2 });
+    final CycleKey b = new CycleKey(new int[] { 2, 3, 1 });
+    assertEquals(a, b);
+    assertEquals(a.hashCode(), b.hashCode());
+  }
+
+  @Test
+  public void shouldNotEqualKeyWithDifferentMembers() {
+    assertFalse(new CycleKey(new int[] { 1, 2 }).equals(new CycleKey(
+        new int[] { 1, 3 })));
+    assertFalse(new CycleKey(new int[] { 1, 2 }).equals(new CycleKey(
+        new int[] { 1, 2, 3 })));
+  }
+
+}
@@ -0,0 +1,28 @@
+package org.pitest.highwheel.algorithm;
+
+import static org.junit.Assert.assertEquals;
+
+import java.util.Arrays;
+import java.util.Iterator;
+
+import org.junit.Test;
+
+public class CycleTest {
+
+  @Test(expected = UnsupportedOperationException.class)
+  public void shouldNotAllowMembersToBeRemovedThroughIterator() {
+    final Iterator<String> it = new Cycle<String>(Arrays.asList("a", "b"))
+        .iterator();
+    it.next();
+    it.remove();
+  }
+
+  @Test
+  public void shouldEqualCycleWithSameMembersInAnyOrder() {
+    final Cycle<String> a = new Cycle<String>(Arrays.asList("a", "b", "c"));
+    final Cycle<String> b = new Cycle<String>(Arrays.asList("c", "a", "b"));
+    assertEquals(a, b);
+    assertEquals(a.hashCode(), b.hashCode());
+  }
+
+}
@@ -0,0 +1,99 @@
+package org.pitest.highwheel.algorithm;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.Random;
+
+import org.apache.commons.collections15.Transformer;
+import org.junit.Test;
+import org.pitest.highwheel.DirectedGraphMother;
+
+import edu.uci.ics.jung.graph.DirectedGraph;
+import edu.uci.ics.jung.graph.DirectedSparseGraph;
+
+public class FeedbackArcSetFinderTest {
+
+  private static final Transformer<Integer, Integer> EDGE_NUMBER = new Transformer<Integer, Integer>() {
+    public Integer transform(final Integer edge) {
+      return edge;
+    }
+  };
+
+  @Test
+  public void shouldSuggestNoCutsForGraphWithoutCycles() {
+    final DirectedGraph<String, Integer> g = new DirectedSparseGraph<String, Integer>();
+    g.addEdge(1, "a", "b");
+    g.addEdge(2, "b", "c");
+    g.addEdge(3, "a", "c");
+    assertEquals(Collections.emptyList(), findArcs(g));
+  }
+
+  @Test
+  public void shouldCutLighterEdgeOfTwoCycle() {
+    final DirectedGraph<String, Integer> g = new DirectedSparseGraph<String, Integer>();
+    g.addEdge(5, "a", "b");
+    g.addEdge(1, "b", "a");
+    assertEquals(Arrays.asList(1), findArcs(g));
+  }
+
+  @Test
+  public void shouldCutSharedEdgeRatherThanOneEdgeOfEachCycle() {
+    // a -> b is in both a b c and a b d
+    final DirectedGraph<String, Integer> g = new DirectedSparseGraph<String, Integer>();
+    g.addEdge(3, "a", "b");
+    g.addEdge(10, "b", "c");
+    g.addEdge(11, "c", "a");
+    g.addEdge(12, "b", "d");
+    g.addEdge(13, "d", "a");
+    assertEquals(Arrays.asList(3), findArcs(g));
+  }
+
+  @Test
+  public void shouldBreakAllCyclesInJot2012Graph() {
+    final DirectedGraph<String, Integer> g = DirectedGraphMother
+        .makeJot2012Graph();
+    assertAcyclicWithout(g, findArcs(g));
+  }
+
+  @Test
+  public void shouldBreakAllCyclesInLargeRandomTangles() {
+    final Random random = new Random(3);
+    for (int round = 0; round != 5; round++) {
+      final DirectedGraph<Integer, Integer> g = new DirectedSparseGraph<Integer, Integer>();
+      final int n = 2000;
+      int edge = 0;
+      for (int i = 0; i != n * 4; i++) {
+        final int from = random.nextInt(n);
+        final int to = random.nextInt(n);
+        if (from != to && g.findEdge(from, to) == null) {
+          g.addEdge(edge++, from, to);
+        }
+      }
+      final List<Integer> arcs = new FeedbackArcSetFinder<Integer, Integer>(g,
+          EDGE_NUMBER).findFeedbackArcs();
+      assertTrue(arcs.size() < g.getEdgeCount() / 2);
+      assertAcyclicWithout(g, arcs);
+    }
+  }
+
+  private static List<Integer> findArcs(final DirectedGraph<String, Integer> g) {
+    return new FeedbackArcSetFinder<String, Integer>(g, EDGE_NUMBER)
+        .findFeedbackArcs();
+  }
+
+  private static <V> void assertAcyclicWithout(
+      final DirectedGraph<V, Integer> g, final List<Integer> arcs) {
+    for (final Integer each : arcs) {
+      g.removeEdge(each);
+    }
+    for (final Cycle<V> each : new SCCFinder<V, Integer>()
+        .findStronglyConnectedComponents(g)) {
+      assertEquals(1, each.size());
+    }
+  }
+
+}
@@ -0,0 +1,146 @@
+package org.pitest.highwheel.algorithm;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+
+import org.junit.Test;
+
+import edu.uci.ics.jung.graph.DirectedGraph;
+import edu.uci.ics.jung.graph.DirectedSparseGraph;
+
+public class IncrementalSCCFinderTest {
+
+  private final IncrementalSCCFinder<String> testee = new IncrementalSCCFinder<String>();
+
+  @Test
+  public void shouldPutUnconnectedVerticesInSeparateComponents() {
+    this.testee.addVertex("a");
+    this.testee.addVertex("b");
+    assertEquals(2, this.testee.componentCount());
+    assertTrue(this.testee.findTangles().isEmpty());
+  }
+
+  @Test
+  public void shouldMergeComponentsWhenEdgeClosesCycle() {
+    this.testee.addEdge("a", "b");
+    this.testee.addEdge("b", "c");
+    this.testee.addEdge("c", "d");
+    this.testee.addEdge("c", "a");
+    assertEquals(cycle("a", "b", "c"), this.testee.componentOf("a"));
+    assertEquals(cycle("d"), this.testee.componentOf("d"));
+    assertEquals(2, this.testee.componentCount());
+  }
+
+  @Test
+  public void shouldSplitComponentWhenCycleIsBroken() {
+    this.testee.addEdge("a", "b");
+    this.testee.addEdge("b", "c");
+    this.testee.addEdge("c", "a");
+    this.testee.removeEdge("b", "c");
+    assertEquals(3, this.testee.componentCount());
+  }
+
+  @Test
+  public void shouldKeepComponentWhileAnotherPathRemains() {
+    this.testee.addEdge("a", "b");
+    this.testee.addEdge("b", "a");
+    this.testee.addEdge("a", "c");
+    this.testee.addEdge("c", "b");
+    this.testee.removeEdge("a", "b");
+    assertEquals(cycle("a", "b", "c"), this.testee.componentOf("b"));
+  }
+
+  @Test
+  public void shouldSplitComponentWhenMemberRemoved() {
+    this.testee.addEdge("a", "b");
+    this.testee.addEdge("b", "c");
+    this.testee.addEdge("c", "a");
+    this.testee.removeVertex("c");
+    assertFalse(this.testee.containsVertex("c"));
+    assertEquals(2, this.testee.componentCount());
+  }
+
+  @Test
+  public void shouldStartFromComponentsOfExistingGraph() {
+    final DirectedGraph<String, Integer> g = new DirectedSparseGraph<String, Integer>();
+    g.addEdge(1, "a", "b");
+    g.addEdge(2, "b", "a");
+    g.addEdge(3, "b", "c");
+    final IncrementalSCCFinder<String> seeded = new IncrementalSCCFinder<String>(
+        g);
+    assertEquals(Arrays.asList(cycle("a", "b")), seeded.findTangles());
+    assertEquals(2, seeded.componentCount());
+  }
+
+  @Test
+  public void shouldReturnComponentsInReverseTopologicalOrder() {
+    this.testee.addEdge("c", "d");
+    this.testee.addEdge("b", "c");
+    this.testee.addEdge("a", "b");
+    assertEquals(
+        Arrays.asList(cycle("d"), cycle("c"), cycle("b"), cycle("a")),
+        this.testee.findStronglyConnectedComponents());
+  }
+
+  @Test
+  public void shouldMatchTarjanAfterRandomChanges() {
+    final Random random = new Random(11);
+    final DirectedGraph<String, Integer> g = new DirectedSparseGraph<String, Integer>();
+    int edge = 0;
+    for (int round = 0; round != 400; round++) {
+      for (int i = 0; i != 5; i++) {
+        final String from = "v" + random.nextInt(40);
+        final String to = "v" + random.nextInt(40);
+        final int action = random.nextInt(10);
+        if (action < 6) {
+          if (g.findEdge(from, to) == null) {
+            g.addEdge(edge++, from, to);
+          }
+          this.testee.addEdge(from, to);
+        } else if (action < 9) {
+          if (g.findEdge(from, to) != null) {
+            g.removeEdge(g.findEdge(from, to));
+          }
+          this.testee.removeEdge(from, to);
+        } else {
+          g.removeVertex(from);
+          this.testee.removeVertex(from);
+        }
+      }
+      final List<Cycle<String>> expected = new SCCFinder<String, Integer>()
+          .findStronglyConnectedComponents(g);
+      final List<Cycle<String>> actual = this.testee
+          .findStronglyConnectedComponents();
+      assertEquals(new HashSet<Cycle<String>>(expected),
+          new HashSet<Cycle<String>>(actual));
+      assertTopologicallyOrdered(g, actual);
+    }
+  }
+
+  private static void assertTopologicallyOrdered(
+      final DirectedGraph<String, Integer> g, final List<Cycle<String>> sccs) {
+    final Map<String, Integer> position = new HashMap<String, Integer>();
+    for (int i = 0; i != sccs.size(); i++) {
+      for (final String each : sccs.get(i)) {
+        position.put(each, i);
+      }
+    }
+    for (final Integer each : g.getEdges()) {
+      assertTrue(position.get(g.getSource(each)) >= position.get(g
+          .getDest(each)));
+    }
+  }
+
+  private static Cycle<String> cycle(final String... members) {
+    return new Cycle<String>(Arrays.asList(members));
+  }
+
+}
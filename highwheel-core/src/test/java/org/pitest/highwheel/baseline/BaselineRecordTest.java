@@ -0,0 +1,166 @@
+package org.pitest.highwheel.baseline;
+
+import static org.fest.assertions.api.Assertions.assertThat;
+import static org.mockito.Matchers.any;
+import static org.mockito.Mockito.when;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.util.Arrays;
+import java.util.Collection;
+
+import org.junit.Before;
+import org.junit.Test;
+import org.mockito.Mock;
+import org.mockito.MockitoAnnotations;
+import org.pitest.highwheel.cycles.CodeGraphs;
+import org.pitest.highwheel.model.Access;
+import org.pitest.highwheel.model.AccessPoint;
+import org.pitest.highwheel.model.AccessType;
+import org.pitest.highwheel.model.Dependency;
+import org.pitest.highwheel.model.ElementName;
+import org.pitest.highwheel.oracle.DependencyOracle;
+import org.pitest.highwheel.oracle.DependendencyStatus;
+
+import edu.uci.ics.jung.graph.DirectedGraph;
+import edu.uci.ics.jung.graph.DirectedSparseGraph;
+
+public class BaselineRecordTest {
+
+  private final ElementName foo      = ElementName.fromString("com.foo.Foo");
+  private final ElementName bar      = ElementName.fromString("com.bar.Bar");
+  private final ElementName far      = ElementName.fromString("com.far.Far");
+  private final ElementName foo2     = ElementName.fromString("com.foo.Foo2");
+
+  private final DirectedGraph<ElementName, Dependency> previous = new DirectedSparseGraph<ElementName, Dependency>();
+  private final DirectedGraph<ElementName, Dependency> current  = new DirectedSparseGraph<ElementName, Dependency>();
+
+  @Mock
+  private DependencyOracle oracle;
+
+  @Before
+  public void setUp() {
+    MockitoAnnotations.initMocks(this);
+    when(this.oracle.assess(any(Access.class))).thenReturn(
+        DependendencyStatus.OK);
+  }
+
+  @Test
+  public void shouldReportNothingWhenGraphsAreUnchanged() throws IOException {
+    addEdge(this.previous, this.foo, this.bar);
+    addEdge(this.current, this.foo, this.bar);
+    assertThat(diff().isEmpty()).isTrue();
+  }
+
+  @Test
+  public void shouldReportAddedAndRemovedClassEdges() throws IOException {
+    addEdge(this.previous, this.foo, this.bar);
+    addEdge(this.previous, this.foo, this.foo2);
+    addEdge(this.current, this.foo, this.bar);
+    addEdge(this.current, this.bar, this.far);
+
+    final BaselineDiff diff = diff();
+    assertThat(diff.getAddedClassEdges()).containsOnly(
+        "com.bar.Bar -> com.far.Far");
+    assertThat(diff.getRemovedClassEdges()).containsOnly(
+        "com.foo.Foo -> com.foo.Foo2");
+  }
+
+  @Test
+  public void shouldReportAddedPackageEdges() throws IOException {
+    addEdge(this.previous, this.foo, this.bar);
+    addEdge(this.current, this.foo, this.bar);
+    addEdge(this.current, this.bar, this.far);
+
+    assertThat(diff().getAddedPackageEdges()).containsOnly(
+        "com.bar -> com.far");
+  }
+
+  @Test
+  public void shouldReportNewTangles() throws IOException {
+    addEdge(this.previous, this.foo, this.bar);
+    addEdge(this.current, this.foo, this.bar);
+    addEdge(this.current, this.bar, this.foo);
+
+    final BaselineDiff diff = diff();
+    assertThat(diff.getNewClassTangles()).containsOnly(
+        tangle("com.bar.Bar", "com.foo.Foo"));
+    assertThat(diff.getNewPackageTangles()).containsOnly(
+        tangle("com.bar", "com.foo"));
+    assertThat(diff.getGrownClassTangles()).isEmpty();
+  }
+
+  @Test
+  public void shouldReportGrownTangles() throws IOException {
+    addEdge(this.previous, this.foo, this.bar);
+    addEdge(this.previous, this.bar, this.foo);
+    addEdge(this.current, this.foo, this.bar);
+    addEdge(this.current, this.bar, this.far);
+    addEdge(this.current, this.far, this.foo);
+
+    final BaselineDiff diff = diff();
+    assertThat(diff.getGrownClassTangles()).containsOnly(
+        tangle("com.bar.Bar", "com.far.Far", "com.foo.Foo"));
+    assertThat(diff.getNewClassTangles()).isEmpty();
+  }
+
+  @Test
+  public void shouldNotReportTanglesThatHaveShrunk() throws IOException {
+    addEdge(this.previous, this.foo, this.bar);
+    addEdge(this.previous, this.bar, this.far);
+    addEdge(this.previous, this.far, this.foo);
+    addEdge(this.current, this.foo, this.bar);
+    addEdge(this.current, this.bar, this.foo);
+
+    final BaselineDiff diff = diff();
+    assertThat(diff.getNewClassTangles()).isEmpty();
+    assertThat(diff.getGrownClassTangles()).isEmpty();
+  }
+
+  @Test
+  public void shouldReportOnlyNewForbiddenAccesses() throws IOException {
+    when(this.oracle.assess(any(Access.class))).thenReturn(
+        DependendencyStatus.FORBIDDEN);
+    addEdge(this.previous, this.foo, this.bar);
+    addEdge(this.current, this.foo, this.bar);
+    addEdge(this.current, this.bar, this.far);
+
+    assertThat(diff().getNewForbiddenAccesses()).containsOnly(
+        "com.bar.Bar -> com.far.Far (USES)");
+  }
+
+  @Test(expected = IOException.class)
+  public void shouldRejectStreamsThatAreNotBaselines() throws IOException {
+    BaselineRecord.read(new ByteArrayInputStream("not a baseline".getBytes()));
+  }
+
+  private BaselineDiff diff() throws IOException {
+    return roundTrip(record(this.previous)).compareTo(
+        roundTrip(record(this.current)));
+  }
+
+  private BaselineRecord record(final DirectedGraph<ElementName, Dependency> g) {
+    return BaselineRecord.create(new CodeGraphs(g), this.oracle);
+  }
+
+  private BaselineRecord roundTrip(final BaselineRecord record)
+      throws IOException {
+    final ByteArrayOutputStream bos = new ByteArrayOutputStream();
+    record.write(bos);
+    return BaselineRecord.read(new ByteArrayInputStream(bos.toByteArray()));
+  }
+
+  private static Collection<String> tangle(final String... members) {
+    return Arrays.asList(members);
+  }
+
+  private static void addEdge(final DirectedGraph<ElementName, Dependency> g,
+      final ElementName source, final ElementName dest) {
+    final Dependency d = new Dependency();
+    d.addDependency(AccessPoint.create(source), AccessPoint.create(dest),
+        AccessType.USES);
+    g.addEdge(d, source, dest);
+  }
+
+}
@@ -0,0 +1,100 @@
+package org.pitest.highwheel.callgraph;
+
+import static org.fest.assertions.api.Assertions.assertThat;
+import static org.junit.Assert.assertEquals;
+
+import java.util.Arrays;
+import java.util.List;
+
+import org.junit.Test;
+import org.pitest.highwheel.algorithm.Cycle;
+import org.pitest.highwheel.model.AccessPoint;
+import org.pitest.highwheel.model.AccessPointName;
+import org.pitest.highwheel.model.AccessType;
+import org.pitest.highwheel.model.ElementName;
+
+public class MethodGraphBuildingVisitorTest {
+
+  private final MethodGraphBuildingVisitor testee = new MethodGraphBuildingVisitor();
+
+  private final AccessPoint                a      = method("Foo", "a");
+  private final AccessPoint                b      = method("Foo", "b");
+  private final AccessPoint                c      = method("Bar", "c");
+  private final AccessPoint                d      = method("Bar", "d");
+
+  @Test
+  public void shouldRecordMethodsAsNodes() {
+    this.testee.newAccessPoint(this.a);
+    this.testee.newAccessPoint(this.b);
+    final MethodGraph graph = this.testee.build();
+    assertEquals(2, graph.size());
+    assertEquals(this.a, graph.method(graph.id(this.a)));
+    assertEquals(-1, graph.id(this.c));
+  }
+
+  @Test
+  public void shouldRecordCallsBetweenMethods() {
+    call(this.a, this.b);
+    call(this.a, this.c);
+    call(this.b, this.c);
+    final MethodGraph graph = this.testee.build();
+    assertEquals(3, graph.edgeCount());
+    assertEquals(2, graph.fanOut(graph.id(this.a)));
+    assertEquals(0, graph.fanIn(graph.id(this.a)));
+    assertEquals(2, graph.fanIn(graph.id(this.c)));
+    assertEquals(graph.id(this.b), graph.successor(graph.id(this.a), 0));
+  }
+
+  @Test
+  public void shouldRecordRepeatedCallsOnce() {
+    call(this.a, this.b);
+    call(this.a, this.b);
+    final MethodGraph graph = this.testee.build();
+    assertEquals(1, graph.edgeCount());
+    assertEquals(1, graph.fanIn(graph.id(this.b)));
+  }
+
+  @Test
+  public void shouldIgnoreFieldAndClassAccesses() {
+    this.testee.apply(this.a, AccessPoint.create(ElementName
+        .fromString("Bar"), AccessPointName.create("field", "I")),
+        AccessType.USES);
+    this.testee.apply(this.a, AccessPoint.create(ElementName
+        .fromString("Bar")), AccessType.USES);
+    this.testee.apply(AccessPoint.create(ElementName.fromString("Foo")),
+        this.c, AccessType.USES);
+    assertEquals(0, this.testee.build().edgeCount());
+  }
+
+  @SuppressWarnings("unchecked")
+  @Test
+  public void shouldFindMutuallyRecursiveMethods() {
+    call(this.a, this.c);
+    call(this.c, this.b);
+    call(this.b, this.a);
+    call(this.b, this.d);
+    final List<Cycle<AccessPoint>> tangles = this.testee.build().findTangles();
+    assertThat(tangles).containsOnly(
+        new Cycle<AccessPoint>(Arrays.asList(this.a, this.b, this.c)));
+  }
+
+  @SuppressWarnings("unchecked")
+  @Test
+  public void shouldTreatSelfRecursiveMethodsAsTangles() {
+    call(this.a, this.a);
+    call(this.a, this.b);
+    final List<Cycle<AccessPoint>> tangles = this.testee.build().findTangles();
+    assertThat(tangles).containsOnly(
+        new Cycle<AccessPoint>(Arrays.asList(this.a)));
+  }
+
+  private void call(final AccessPoint source, final AccessPoint dest) {
+    this.testee.apply(source, dest, AccessType.USES);
+  }
+
+  private static AccessPoint method(final String clazz, final String name) {
+    return AccessPoint.create(ElementName.fromString(clazz),
+        AccessPointName.create(name, "()V"));
+  }
+
+}
@@ -3,10 +3,15 @@ package org.pitest.highwheel.cycles;
 import static org.mockito.Matchers.*;
 import static org.mockito.Mockito.*;
 
+import java.util.Arrays;
+import java.util.Collections;
+
 import org.junit.Before;
 import org.junit.Test;
 import org.mockito.Mock;
 import org.mockito.MockitoAnnotations;
+import org.pitest.highwheel.algorithm.Budget;
+import org.pitest.highwheel.algorithm.Cycle;
 import org.pitest.highwheel.model.AccessPoint;
 import org.pitest.highwheel.model.AccessType;
 import org.pitest.highwheel.model.Dependency;
@@ -115,6 +120,85 @@ public class CycleAnalyserTest {
     verify(r).end();
   }
 
+  @SuppressWarnings("unchecked")
+  @Test
+  public void shouldUseSuppliedClassComponentsWithoutFindingThemAgain() {
+    classGraph.addEdge(dep(foo,bar, AccessType.COMPOSED), foo, bar);
+    classGraph.addEdge(dep(bar,foo, AccessType.COMPOSED), bar, foo);
+    
+    final Cycle<ElementName> supplied = new Cycle<ElementName>(Arrays.asList(foo, bar));
+    testee.analyse(new CodeGraphs(classGraph), Arrays.asList(supplied), r);
+    verify(r).visitClassStronglyConnectedComponent(any(DirectedGraph.class));
+    
+    testee.analyse(new CodeGraphs(classGraph), Collections.<Cycle<ElementName>> emptyList(), r);
+    verify(r).visitClassStronglyConnectedComponent(any(DirectedGraph.class));
+  }
+
+  @SuppressWarnings("unchecked")
+  @Test
+  public void shouldReportNoMoreSubCyclesThanLimit() {
+    classGraph.addEdge(dep(foo,bar, AccessType.COMPOSED), foo, bar);
+    classGraph.addEdge(dep(bar,foo, AccessType.USES), bar, foo);
+    classGraph.addEdge(dep(bar,far, AccessType.COMPOSED), bar, far);
+    classGraph.addEdge(dep(far,bar, AccessType.COMPOSED), far, bar);
+    classGraph.addEdge(dep(far,foo, AccessType.COMPOSED), far, foo);
+    classGraph.addEdge(dep(foo,far, AccessType.COMPOSED), foo, far);
+    
+    new CycleAnalyser(THRESHOLD, 1).analyse(new CodeGraphs(classGraph),r);
+    verify(r, times(1)).visitClassSubCycle(any(DirectedGraph.class));
+  }
+
+  @SuppressWarnings("unchecked")
+  @Test
+  public void shouldSuggestCuttingWeakestDependencyOfTangle() {
+    final Dependency weak = dep(bar,foo, AccessType.USES);
+    classGraph.addEdge(dep(foo,bar, AccessType.INHERITANCE), foo, bar);
+    classGraph.addEdge(weak, bar, foo);
+    
+    testee.analyse(new CodeGraphs(classGraph),r);
+    verify(r).visitClassTangleCuts(any(DirectedGraph.class), eq(Arrays.asList(weak)));
+  }
+
+  @SuppressWarnings("unchecked")
+  @Test
+  public void shouldReportTruncatedSubCyclesWhenBudgetRunsOut() {
+    classGraph.addEdge(dep(foo,bar, AccessType.COMPOSED), foo, bar);
+    classGraph.addEdge(dep(bar,far, AccessType.COMPOSED), bar, far);
+    classGraph.addEdge(dep(far,foo, AccessType.COMPOSED), far, foo);
+    
+    new CycleAnalyser(THRESHOLD, 0, Budget.UNLIMITED, new Budget(1, 0))
+        .analyse(new CodeGraphs(classGraph),r);
+    verify(r).visitClassSubCyclesTruncated(any(DirectedGraph.class));
+  }
+
+  @SuppressWarnings("unchecked")
+  @Test
+  public void shouldNotReportTruncationWhenBudgetSuffices() {
+    classGraph.addEdge(dep(foo,bar, AccessType.COMPOSED), foo, bar);
+    classGraph.addEdge(dep(bar,far, AccessType.COMPOSED), bar, far);
+    classGraph.addEdge(dep(far,foo, AccessType.COMPOSED), far, foo);
+    
+    new CycleAnalyser(THRESHOLD, 0, new Budget(1000, 0), Budget.UNLIMITED)
+        .analyse(new CodeGraphs(classGraph),r);
+    verify(r).visitClassSubCycle(any(DirectedGraph.class));
+    verify(r, never()).visitClassSubCyclesTruncated(any(DirectedGraph.class));
+  }
+
+  @SuppressWarnings("unchecked")
+  @Test
+  public void shouldListLongerSubCyclesWhenMaximumLengthGiven() {
+    classGraph.addEdge(dep(foo,bar, AccessType.COMPOSED), foo, bar);
+    classGraph.addEdge(dep(bar,foo, AccessType.COMPOSED), bar, foo);
+    classGraph.addEdge(dep(bar,far, AccessType.COMPOSED), bar, far);
+    classGraph.addEdge(dep(far,bar, AccessType.COMPOSED), far, bar);
+    classGraph.addEdge(dep(far,foo, AccessType.COMPOSED), far, foo);
+    classGraph.addEdge(dep(foo,far, AccessType.COMPOSED), foo, far);
+
+    new CycleAnalyser(THRESHOLD, 0, 3, Budget.UNLIMITED, Budget.UNLIMITED)
+        .analyse(new CodeGraphs(classGraph),r);
+    verify(r, times(4)).visitClassSubCycle(any(DirectedGraph.class));
+  }
+
   private Dependency dep(ElementName from, ElementName to, AccessType type) {
     Dependency d = new Dependency();
     d.addDependency(AccessPoint.create(from), AccessPoint.create(to), type);
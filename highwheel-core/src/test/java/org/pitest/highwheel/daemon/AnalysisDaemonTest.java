@@ -0,0 +1,148 @@
+package org.pitest.highwheel.daemon;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+import java.io.ByteArrayOutputStream;
+import java.io.File;
+import java.io.IOException;
+import java.io.InputStream;
+import java.net.URL;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Collections;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+import org.pitest.highwheel.classpath.AccessVisitor;
+import org.pitest.highwheel.classpath.ClassParser;
+import org.pitest.highwheel.classpath.ClasspathRoot;
+import org.pitest.highwheel.cycles.CycleAnalyser;
+import org.pitest.highwheel.model.AccessPoint;
+import org.pitest.highwheel.model.AccessType;
+import org.pitest.highwheel.model.ElementName;
+import org.pitest.highwheel.oracle.DependendencyStatus;
+import org.pitest.highwheel.oracle.FixedScorer;
+
+public class AnalysisDaemonTest {
+
+  @Rule
+  public TemporaryFolder folder = new TemporaryFolder();
+
+  private AnalysisDaemon testee;
+  private Thread         thread;
+  private File           reportDir;
+
+  @Before
+  public void setUp() throws Exception {
+    final ElementName foo = ElementName.fromString("com.example.Foo");
+    final ElementName bar = ElementName.fromString("com.example.Bar");
+    final ClasspathRoot root = new ClasspathRoot() {
+      public InputStream getData(final ElementName name) {
+        return null;
+      }
+
+      public Collection<ElementName> classNames() {
+        return Arrays.asList(foo, bar);
+      }
+
+      public InputStream getResource(final String name) {
+        return null;
+      }
+    };
+    final ClassParser parser = new ClassParser() {
+      public void parse(final ClasspathRoot cp, final AccessVisitor v) {
+        for (final ElementName each : cp.classNames()) {
+          v.newNode(each);
+          if (each.equals(foo)) {
+            v.apply(AccessPoint.create(foo), AccessPoint.create(bar),
+                AccessType.USES);
+          }
+        }
+      }
+    };
+
+    this.reportDir = new File(this.folder.getRoot(), "report");
+    this.testee = new AnalysisDaemon(new IncrementalClassGraph(parser, root),
+        new ClassFileWatcher(Collections.<File> emptyList(), 10),
+        new FixedScorer(DependendencyStatus.UNKNOWN), new CycleAnalyser(),
+        this.reportDir, 0);
+    this.thread = new Thread(new Runnable() {
+      public void run() {
+        try {
+          AnalysisDaemonTest.this.testee.run();
+        } catch (final Exception ex) {
+          throw new RuntimeException(ex);
+        }
+      }
+    });
+    this.thread.start();
+  }
+
+  @After
+  public void tearDown() throws InterruptedException {
+    this.testee.stop();
+    this.thread.join();
+  }
+
+  @Test
+  public void shouldReportStatus() throws IOException {
+    assertEquals("classes 2\ndependencies 1\ntangles 0\nversion 1\n", get("/status"));
+  }
+
+  @Test
+  public void shouldAnswerDependentsQueries() throws IOException {
+    assertEquals("com.example.Foo\n", get("/dependents?class=com.example.Bar"));
+    assertEquals("", get("/dependents?class=com.example.Foo"));
+  }
+
+  @Test
+  public void shouldAnswerDependenciesQueries() throws IOException {
+    assertEquals("com.example.Bar\n",
+        get("/dependencies?class=com.example.Foo&class=not.Known"));
+  }
+
+  @Test
+  public void shouldWriteReport() throws IOException {
+    get("/report");
+    assertTrue(new File(this.reportDir, "index.html").exists());
+  }
+
+  private String get(final String path) throws IOException {
+    IOException last = null;
+    for (int attempt = 0; attempt != 50; attempt++) {
+      try {
+        final InputStream is = new URL("http://127.0.0.1:"
+            + this.testee.getPort() + path).openStream();
+        try {
+          final ByteArrayOutputStream bos = new ByteArrayOutputStream();
+          final byte[] buffer = new byte[1024];
+          int read;
+          while ((read = is.read(buffer)) != -1) {
+            bos.write(buffer, 0, read);
+          }
+          return bos.toString("UTF-8");
+        } finally {
+          is.close();
+        }
+      } catch (final IOException ex) {
+        // the daemon may still be starting
+        last = ex;
+        sleep();
+      }
+    }
+    throw last;
+  }
+
+  private static void sleep() {
+    try {
+      Thread.sleep(100);
+    } catch (final InterruptedException ex) {
+      Thread.currentThread().interrupt();
+    }
+  }
+
+}
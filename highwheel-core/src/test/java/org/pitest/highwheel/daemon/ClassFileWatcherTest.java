@@ -0,0 +1,100 @@
+package org.pitest.highwheel.daemon;
+
+import static org.fest.assertions.api.Assertions.assertThat;
+import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertNull;
+
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.util.Arrays;
+import java.util.concurrent.TimeUnit;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+import org.pitest.highwheel.model.ElementName;
+
+public class ClassFileWatcherTest {
+
+  @Rule
+  public TemporaryFolder   folder = new TemporaryFolder();
+
+  private File             root;
+  private ClassFileWatcher testee;
+
+  @Before
+  public void setUp() throws IOException {
+    this.root = this.folder.newFolder("classes");
+    write("com/example/Foo.class");
+    this.testee = new ClassFileWatcher(Arrays.asList(this.root), 50);
+  }
+
+  @After
+  public void tearDown() throws IOException {
+    this.testee.close();
+  }
+
+  @Test
+  public void shouldReportNothingWhenNothingChanges() throws Exception {
+    assertNull(this.testee.poll(100, TimeUnit.MILLISECONDS));
+  }
+
+  @Test
+  public void shouldReportChangedClasses() throws Exception {
+    write("com/example/Foo.class");
+    write("com/example/Bar.class");
+    final ClassFileWatcher.Changes changes = poll();
+    assertThat(changes.getChanged()).containsOnly(name("com.example.Foo"),
+        name("com.example.Bar"));
+    assertThat(changes.getRemoved()).isEmpty();
+  }
+
+  @Test
+  public void shouldReportRemovedClasses() throws Exception {
+    new File(this.root, "com/example/Foo.class").delete();
+    final ClassFileWatcher.Changes changes = poll();
+    assertThat(changes.getRemoved()).containsOnly(name("com.example.Foo"));
+  }
+
+  @Test
+  public void shouldReportClassesInNewPackages() throws Exception {
+    write("com/example/inner/Baz.class");
+    final ClassFileWatcher.Changes changes = poll();
+    assertThat(changes.getChanged()).contains(name("com.example.inner.Baz"));
+
+    write("com/example/inner/Qux.class");
+    assertThat(poll().getChanged()).contains(name("com.example.inner.Qux"));
+  }
+
+  @Test
+  public void shouldIgnoreOtherFiles() throws Exception {
+    write("com/example/notes.txt");
+    assertNull(this.testee.poll(500, TimeUnit.MILLISECONDS));
+  }
+
+  private ClassFileWatcher.Changes poll() throws Exception {
+    final ClassFileWatcher.Changes changes = this.testee.poll(10,
+        TimeUnit.SECONDS);
+    assertNotNull(changes);
+    return changes;
+  }
+
+  private void write(final String path) throws IOException {
+    final File f = new File(this.root, path);
+    f.getParentFile().mkdirs();
+    final FileOutputStream fos = new FileOutputStream(f);
+    try {
+      fos.write(new byte[] { 1, 2, 3 });
+    } finally {
+      fos.close();
+    }
+  }
+
+  private static ElementName name(final String name) {
+    return ElementName.fromString(name);
+  }
+
+}
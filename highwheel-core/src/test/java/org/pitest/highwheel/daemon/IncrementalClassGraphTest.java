@@ -0,0 +1,260 @@
+package org.pitest.highwheel.daemon;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import java.util.Set;
+
+import org.junit.Test;
+import org.pitest.highwheel.algorithm.Cycle;
+import org.pitest.highwheel.algorithm.SCCFinder;
+import org.pitest.highwheel.classpath.AccessVisitor;
+import org.pitest.highwheel.classpath.ClassParser;
+import org.pitest.highwheel.classpath.ClasspathRoot;
+import org.pitest.highwheel.cycles.ClassDependencyGraphBuildingVisitor;
+import org.pitest.highwheel.model.AccessPoint;
+import org.pitest.highwheel.model.AccessPointName;
+import org.pitest.highwheel.model.AccessType;
+import org.pitest.highwheel.model.Dependency;
+import org.pitest.highwheel.model.ElementName;
+
+import edu.uci.ics.jung.graph.DirectedGraph;
+import edu.uci.ics.jung.graph.DirectedSparseGraph;
+
+public class IncrementalClassGraphTest {
+
+  private final FakeCode              code   = new FakeCode();
+  private final IncrementalClassGraph testee = new IncrementalClassGraph(
+                                                 this.code, this.code);
+
+  private final ElementName           a      = name("A");
+  private final ElementName           b      = name("B");
+  private final ElementName           c      = name("C");
+
+  @Test
+  public void shouldBuildGraphOfAllClassesOnLoad() throws IOException {
+    this.code.define(this.a, this.b);
+    this.code.define(this.b, this.c);
+    this.code.define(this.c);
+    this.testee.load();
+    assertEquals(3, graph().getVertexCount());
+    assertNotNull(graph().findEdge(this.a, this.b));
+    assertNotNull(graph().findEdge(this.b, this.c));
+  }
+
+  @Test
+  public void shouldReplaceEdgesOfChangedClasses() throws IOException {
+    this.code.define(this.a, this.b);
+    this.code.define(this.b);
+    this.code.define(this.c);
+    this.testee.load();
+
+    this.code.define(this.a, this.c);
+    this.testee.update(Arrays.asList(this.a),
+        Collections.<ElementName> emptyList());
+
+    assertNull(graph().findEdge(this.a, this.b));
+    assertNotNull(graph().findEdge(this.a, this.c));
+    assertEquals(2, this.testee.getVersion());
+  }
+
+  @Test
+  public void shouldRemoveDeletedClasses() throws IOException {
+    this.code.define(this.a);
+    this.code.define(this.b, this.a);
+    this.testee.load();
+
+    this.code.remove(this.b);
+    this.testee.update(Collections.<ElementName> emptyList(),
+        Arrays.asList(this.b));
+
+    assertFalse(graph().containsVertex(this.b));
+    assertTrue(graph().containsVertex(this.a));
+  }
+
+  @Test
+  public void shouldKeepEdgesContributedByOtherFilesOfSameClass()
+      throws IOException {
+    // an inner class whose accesses are reported from its outer class
+    final ElementName inner = name("A$1");
+    this.code.define(this.a, this.b);
+    this.code.defineAs(inner, this.a, this.c);
+    this.code.define(this.b);
+    this.code.define(this.c);
+    this.testee.load();
+
+    this.code.define(this.a);
+    this.testee.update(Arrays.asList(this.a),
+        Collections.<ElementName> emptyList());
+
+    assertNull(graph().findEdge(this.a, this.b));
+    assertNotNull(graph().findEdge(this.a, this.c));
+  }
+
+  @Test
+  public void shouldMatchFullParseAfterRandomChanges() throws IOException {
+    final Random random = new Random(7);
+    final List<ElementName> names = new ArrayList<ElementName>();
+    for (int i = 0; i != 30; i++) {
+      names.add(name("C" + i));
+    }
+    for (final ElementName each : names) {
+      this.code.define(each, pick(random, names, 3));
+    }
+    this.testee.load();
+
+    for (int round = 0; round != 50; round++) {
+      final Set<ElementName> changed = new HashSet<ElementName>();
+      final Set<ElementName> removed = new HashSet<ElementName>();
+      for (int i = 0; i != 3; i++) {
+        final ElementName each = names.get(random.nextInt(names.size()));
+        if (random.nextInt(4) == 0) {
+          this.code.remove(each);
+          removed.add(each);
+          changed.remove(each);
+        } else {
+          this.code.define(each, pick(random, names, 3));
+          changed.add(each);
+          removed.remove(each);
+        }
+      }
+      this.testee.update(changed, removed);
+      assertSameGraph(this.code.fullParse(), graph());
+      assertEquals(tangles(this.code.fullParse()),
+          new HashSet<Cycle<ElementName>>(this.testee.getClassTangles()));
+    }
+  }
+
+  @Test
+  public void shouldTrackTanglesAsClassesChange() throws IOException {
+    this.code.define(this.a, this.b);
+    this.code.define(this.b, this.c);
+    this.code.define(this.c);
+    this.testee.load();
+    assertTrue(this.testee.getClassTangles().isEmpty());
+
+    this.code.define(this.c, this.a);
+    this.testee.update(Arrays.asList(this.c),
+        Collections.<ElementName> emptyList());
+    assertEquals(Arrays.asList(new Cycle<ElementName>(Arrays.asList(this.a,
+        this.b, this.c))), this.testee.getClassTangles());
+
+    this.code.define(this.b);
+    this.testee.update(Arrays.asList(this.b),
+        Collections.<ElementName> emptyList());
+    assertTrue(this.testee.getClassTangles().isEmpty());
+  }
+
+  private static Set<Cycle<ElementName>> tangles(
+      final DirectedGraph<ElementName, Dependency> g) {
+    final Set<Cycle<ElementName>> tangles = new HashSet<Cycle<ElementName>>();
+    for (final Cycle<ElementName> each : new SCCFinder<ElementName, Dependency>()
+        .findStronglyConnectedComponents(g)) {
+      if (each.size() > 1) {
+        tangles.add(each);
+      }
+    }
+    return tangles;
+  }
+
+  private void assertSameGraph(final DirectedGraph<ElementName, Dependency> expected,
+      final DirectedGraph<ElementName, Dependency> actual) {
+    assertEquals(new HashSet<ElementName>(expected.getVertices()),
+        new HashSet<ElementName>(actual.getVertices()));
+    assertEquals(expected.getEdgeCount(), actual.getEdgeCount());
+    for (final Dependency each : expected.getEdges()) {
+      final Dependency other = actual.findEdge(expected.getSource(each),
+          expected.getDest(each));
+      assertNotNull(other);
+      assertEquals(each.getStrength(), other.getStrength());
+    }
+  }
+
+  private DirectedGraph<ElementName, Dependency> graph() {
+    return this.testee.getGraph();
+  }
+
+  private static ElementName[] pick(final Random random,
+      final List<ElementName> names, final int count) {
+    final ElementName[] picked = new ElementName[count];
+    for (int i = 0; i != count; i++) {
+      picked[i] = names.get(random.nextInt(names.size()));
+    }
+    return picked;
+  }
+
+  private static ElementName name(final String name) {
+    return ElementName.fromString("com.example." + name);
+  }
+
+  /**
+   * Root and parser for imaginary class files, each declaring a class and
+   * calling a method on each of its dependencies.
+   */
+  private static class FakeCode implements ClasspathRoot, ClassParser {
+    private final Map<ElementName, ElementName>   reportedAs = new LinkedHashMap<ElementName, ElementName>();
+    private final Map<ElementName, ElementName[]> deps       = new LinkedHashMap<ElementName, ElementName[]>();
+
+    void define(final ElementName file, final ElementName... deps) {
+      defineAs(file, file, deps);
+    }
+
+    void defineAs(final ElementName file, final ElementName clazz,
+        final ElementName... deps) {
+      this.reportedAs.put(file, clazz);
+      this.deps.put(file, deps);
+    }
+
+    void remove(final ElementName file) {
+      this.reportedAs.remove(file);
+      this.deps.remove(file);
+    }
+
+    DirectedGraph<ElementName, Dependency> fullParse() throws IOException {
+      final DirectedGraph<ElementName, Dependency> g = new DirectedSparseGraph<ElementName, Dependency>();
+      parse(this, new ClassDependencyGraphBuildingVisitor(g));
+      return g;
+    }
+
+    public void parse(final ClasspathRoot cp, final AccessVisitor v)
+        throws IOException {
+      for (final ElementName file : cp.classNames()) {
+        final ElementName clazz = this.reportedAs.get(file);
+        v.newNode(clazz);
+        final AccessPoint source = AccessPoint.create(clazz,
+            AccessPointName.create("run", "()V"));
+        for (final ElementName each : this.deps.get(file)) {
+          v.apply(source, AccessPoint.create(each,
+              AccessPointName.create("call", "()V")), AccessType.USES);
+        }
+      }
+    }
+
+    public InputStream getData(final ElementName name) {
+      return null;
+    }
+
+    public Collection<ElementName> classNames() {
+      return new ArrayList<ElementName>(this.reportedAs.keySet());
+    }
+
+    public InputStream getResource(final String name) {
+      return null;
+    }
+  }
+
+}
@@ -0,0 +1,144 @@
+package org.pitest.highwheel.impact;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+import java.util.ArrayDeque;
+import java.util.Deque;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+
+import org.junit.Test;
+import org.pitest.highwheel.model.Access;
+import org.pitest.highwheel.model.AccessPoint;
+import org.pitest.highwheel.model.AccessPointName;
+import org.pitest.highwheel.model.AccessType;
+import org.pitest.highwheel.model.Dependency;
+import org.pitest.highwheel.model.ElementName;
+
+import edu.uci.ics.jung.graph.DirectedGraph;
+import edu.uci.ics.jung.graph.DirectedSparseGraph;
+
+public class DependencyExplainerTest {
+
+  private final DirectedGraph<ElementName, Dependency> g = new DirectedSparseGraph<ElementName, Dependency>();
+
+  @Test
+  public void shouldExplainDirectDependencyWithStrongestAccess() {
+    final Dependency d = new Dependency();
+    d.addDependency(AccessPoint.create(name("A")), AccessPoint.create(name("B")),
+        AccessType.USES);
+    d.addDependency(method("A", "foo"), method("B", "bar"),
+        AccessType.INHERITANCE);
+    this.g.addEdge(d, name("A"), name("B"));
+
+    final List<Access> path = explain("A", "B");
+    assertEquals(1, path.size());
+    assertEquals(AccessType.INHERITANCE, path.get(0).getType());
+    assertEquals(method("A", "foo"), path.get(0).getSource());
+  }
+
+  @Test
+  public void shouldFindShortestOfSeveralChains() {
+    edge("A", "B");
+    edge("B", "C");
+    edge("C", "D");
+    edge("D", "E");
+    edge("A", "X");
+    edge("X", "E");
+    final List<Access> path = explain("A", "E");
+    assertEquals(2, path.size());
+    assertEquals(name("A"), path.get(0).getSource().getElementName());
+    assertEquals(name("X"), path.get(0).getDest().getElementName());
+    assertEquals(name("X"), path.get(1).getSource().getElementName());
+    assertEquals(name("E"), path.get(1).getDest().getElementName());
+  }
+
+  @Test
+  public void shouldReturnEmptyPathWhenNoDependency() {
+    edge("A", "B");
+    edge("C", "B");
+    assertTrue(explain("A", "C").isEmpty());
+    assertTrue(explain("B", "A").isEmpty());
+  }
+
+  @Test(expected = IllegalArgumentException.class)
+  public void shouldRejectUnknownElements() {
+    edge("A", "B");
+    explain("A", "Z");
+  }
+
+  @Test
+  public void shouldFindChainsAsShortAsSingleEndedSearch() {
+    final Random random = new Random(5);
+    for (int i = 0; i != 600; i++) {
+      final String from = "v" + random.nextInt(200);
+      final String to = "v" + random.nextInt(200);
+      if (!from.equals(to) && this.g.findEdge(name(from), name(to)) == null) {
+        edge(from, to);
+      }
+    }
+    final DependencyExplainer testee = new DependencyExplainer(this.g);
+    for (int i = 0; i != 500; i++) {
+      final ElementName from = name("v" + random.nextInt(200));
+      final ElementName to = name("v" + random.nextInt(200));
+      if (!this.g.containsVertex(from) || !this.g.containsVertex(to)
+          || from.equals(to)) {
+        continue;
+      }
+      final List<Access> path = testee.explain(from, to);
+      assertEquals(distance(from, to), path.size());
+      ElementName at = from;
+      for (final Access each : path) {
+        assertEquals(at, each.getSource().getElementName());
+        assertTrue(this.g.findEdge(at, each.getDest().getElementName()) != null);
+        at = each.getDest().getElementName();
+      }
+      if (!path.isEmpty()) {
+        assertEquals(to, at);
+      }
+    }
+  }
+
+  private int distance(final ElementName from, final ElementName to) {
+    final Map<ElementName, Integer> distances = new HashMap<ElementName, Integer>();
+    final Deque<ElementName> queue = new ArrayDeque<ElementName>();
+    distances.put(from, 0);
+    queue.add(from);
+    while (!queue.isEmpty()) {
+      final ElementName v = queue.remove();
+      if (v.equals(to)) {
+        return distances.get(v);
+      }
+      for (final ElementName each : this.g.getSuccessors(v)) {
+        if (!distances.containsKey(each)) {
+          distances.put(each, distances.get(v) + 1);
+          queue.add(each);
+        }
+      }
+    }
+    return 0;
+  }
+
+  private List<Access> explain(final String from, final String to) {
+    return new DependencyExplainer(this.g).explain(name(from), name(to));
+  }
+
+  private void edge(final String from, final String to) {
+    final Dependency d = new Dependency();
+    d.addDependency(AccessPoint.create(name(from)),
+        AccessPoint.create(name(to)), AccessType.USES);
+    this.g.addEdge(d, name(from), name(to));
+  }
+
+  private static AccessPoint method(final String clazz, final String method) {
+    return AccessPoint.create(name(clazz), AccessPointName.create(method, "()V"));
+  }
+
+  private static ElementName name(final String name) {
+    return ElementName.fromString(name);
+  }
+
+}
@@ -0,0 +1,151 @@
+package org.pitest.highwheel.impact;
+
+import static org.fest.assertions.api.Assertions.assertThat;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.LinkedList;
+import java.util.List;
+import java.util.Random;
+import java.util.Set;
+
+import org.junit.Test;
+import org.pitest.highwheel.model.ElementName;
+
+import edu.uci.ics.jung.graph.DirectedGraph;
+import edu.uci.ics.jung.graph.DirectedSparseGraph;
+
+public class ImpactIndexTest {
+
+  private final DirectedGraph<ElementName, Integer> g = new DirectedSparseGraph<ElementName, Integer>();
+  private int                                       edges;
+
+  private final ElementName                         a = name("A");
+  private final ElementName                         b = name("B");
+  private final ElementName                         c = name("C");
+  private final ElementName                         d = name("D");
+  private final ElementName                         e = name("E");
+
+  @Test
+  public void shouldFindTransitiveDependencies() {
+    edge(this.a, this.b);
+    edge(this.b, this.c);
+    edge(this.d, this.c);
+    final ImpactIndex testee = new ImpactIndex(this.g);
+    assertThat(testee.dependenciesOf(this.a)).containsExactly(this.b, this.c);
+    assertThat(testee.dependenciesOf(this.c)).isEmpty();
+  }
+
+  @Test
+  public void shouldFindTransitiveDependents() {
+    edge(this.a, this.b);
+    edge(this.b, this.c);
+    edge(this.d, this.c);
+    final ImpactIndex testee = new ImpactIndex(this.g);
+    assertThat(testee.dependentsOf(this.c)).containsExactly(this.a, this.b,
+        this.d);
+    assertThat(testee.dependentsOf(this.a)).isEmpty();
+  }
+
+  @Test
+  public void shouldIncludeWholeCycleAmongDependents() {
+    edge(this.a, this.b);
+    edge(this.b, this.c);
+    edge(this.c, this.b);
+    edge(this.d, this.e);
+    final ImpactIndex testee = new ImpactIndex(this.g);
+    assertThat(testee.dependentsOf(this.b)).containsExactly(this.a, this.b,
+        this.c);
+  }
+
+  @Test
+  public void shouldCombineDependentsOfSeveralClasses() {
+    edge(this.a, this.b);
+    edge(this.d, this.e);
+    edge(this.b, this.e);
+    final ImpactIndex testee = new ImpactIndex(this.g);
+    assertThat(testee.dependentsOf(Arrays.asList(this.b, this.e)))
+        .containsExactly(this.a, this.b, this.d);
+  }
+
+  @Test
+  public void shouldAnswerWhetherOneClassDependsOnAnother() {
+    edge(this.a, this.b);
+    edge(this.b, this.c);
+    edge(this.c, this.b);
+    edge(this.d, this.e);
+    final ImpactIndex testee = new ImpactIndex(this.g);
+    assertTrue(testee.dependsOn(this.a, this.c));
+    assertTrue(testee.dependsOn(this.c, this.b));
+    assertTrue(testee.dependsOn(this.b, this.b));
+    assertFalse(testee.dependsOn(this.a, this.a));
+    assertFalse(testee.dependsOn(this.c, this.a));
+    assertFalse(testee.dependsOn(this.a, this.e));
+  }
+
+  @Test(expected = IllegalArgumentException.class)
+  public void shouldRejectClassesNotInGraph() {
+    this.g.addVertex(this.a);
+    new ImpactIndex(this.g).dependentsOf(this.b);
+  }
+
+  @Test
+  public void shouldAgreeWithSearchOfUncondensedGraph() {
+    final Random random = new Random(42);
+    for (int run = 0; run != 20; run++) {
+      final DirectedGraph<ElementName, Integer> graph = new DirectedSparseGraph<ElementName, Integer>();
+      final List<ElementName> vertices = new ArrayList<ElementName>();
+      for (int i = 0; i != 40; i++) {
+        vertices.add(name("V" + i));
+        graph.addVertex(vertices.get(i));
+      }
+      for (int i = 0; i != 60; i++) {
+        final ElementName from = vertices.get(random.nextInt(40));
+        final ElementName to = vertices.get(random.nextInt(40));
+        if (!from.equals(to) && graph.findEdge(from, to) == null) {
+          graph.addEdge(i, from, to);
+        }
+      }
+
+      final ImpactIndex testee = new ImpactIndex(graph);
+      for (final ElementName from : vertices) {
+        final Set<ElementName> expected = reachable(graph, from);
+        final List<ElementName> sorted = new ArrayList<ElementName>(expected);
+        Collections.sort(sorted);
+        assertEquals(sorted, testee.dependenciesOf(from));
+        for (final ElementName to : vertices) {
+          assertEquals(from + " " + to, expected.contains(to),
+              testee.dependsOn(from, to));
+        }
+      }
+    }
+  }
+
+  private static Set<ElementName> reachable(
+      final DirectedGraph<ElementName, Integer> graph, final ElementName from) {
+    final Set<ElementName> seen = new HashSet<ElementName>();
+    final LinkedList<ElementName> queue = new LinkedList<ElementName>(
+        graph.getSuccessors(from));
+    while (!queue.isEmpty()) {
+      final ElementName next = queue.removeFirst();
+      if (seen.add(next)) {
+        queue.addAll(graph.getSuccessors(next));
+      }
+    }
+    return seen;
+  }
+
+  private void edge(final ElementName from, final ElementName to) {
+    this.g.addEdge(this.edges++, from, to);
+  }
+
+  private static ElementName name(final String name) {
+    return ElementName.fromString("com.example." + name);
+  }
+
+}
@@ -0,0 +1,102 @@
+package org.pitest.highwheel.impact;
+
+import static org.junit.Assert.assertEquals;
+
+import java.io.ByteArrayOutputStream;
+import java.io.PrintStream;
+import java.util.Arrays;
+
+import org.junit.Before;
+import org.junit.Test;
+import org.pitest.highwheel.cycles.CodeGraphs;
+import org.pitest.highwheel.model.AccessPoint;
+import org.pitest.highwheel.model.AccessType;
+import org.pitest.highwheel.model.Dependency;
+import org.pitest.highwheel.model.ElementName;
+
+import edu.uci.ics.jung.graph.DirectedGraph;
+import edu.uci.ics.jung.graph.DirectedSparseGraph;
+
+public class ImpactQueryTest {
+
+  private final ByteArrayOutputStream out = new ByteArrayOutputStream();
+  private final ByteArrayOutputStream err = new ByteArrayOutputStream();
+  private ImpactQuery                 testee;
+
+  @Before
+  public void setUp() {
+    final DirectedGraph<ElementName, Dependency> g = new DirectedSparseGraph<ElementName, Dependency>();
+    addEdge(g, "a.A", "b.B", AccessType.USES);
+    addEdge(g, "b.B", "c.C", AccessType.COMPOSED);
+    this.testee = new ImpactQuery(new CodeGraphs(g),
+        new PrintStream(this.out), new PrintStream(this.err));
+  }
+
+  @Test
+  public void shouldPrintDependentsOneClassPerLine() {
+    assertEquals(0, this.testee.run("dependents", Arrays.asList("c.C")));
+    assertEquals(lines("a.A", "b.B"), this.out.toString());
+  }
+
+  @Test
+  public void shouldPrintDependencies() {
+    assertEquals(0, this.testee.run("dependencies", Arrays.asList("a.A")));
+    assertEquals(lines("b.B", "c.C"), this.out.toString());
+  }
+
+  @Test
+  public void shouldWarnAboutAndIgnoreUnknownClasses() {
+    assertEquals(0,
+        this.testee.run("dependents", Arrays.asList("c.C", "new.Class")));
+    assertEquals(lines("a.A", "b.B"), this.out.toString());
+    assertEquals(lines("Not in snapshot: new.Class"), this.err.toString());
+  }
+
+  @Test
+  public void shouldReturnNonZeroWhenClassDoesNotDependOnOther() {
+    assertEquals(0, this.testee.run("dependsOn", Arrays.asList("a.A", "c.C")));
+    assertEquals(2, this.testee.run("dependsOn", Arrays.asList("c.C", "a.A")));
+  }
+
+  @Test
+  public void shouldReturnErrorForUnknownCommands() {
+    assertEquals(1, this.testee.run("foo", Arrays.asList("a.A")));
+  }
+
+  @Test
+  public void shouldExplainHowOneClassDependsOnAnother() {
+    assertEquals(0, this.testee.run("explain", Arrays.asList("a.A", "c.C")));
+    assertEquals(lines("a.A -> b.B USES", "b.B -> c.C COMPOSED"),
+        this.out.toString());
+  }
+
+  @Test
+  public void shouldExplainHowOnePackageDependsOnAnother() {
+    assertEquals(0, this.testee.run("explain", Arrays.asList("a", "c")));
+    assertEquals(lines("a.A -> b.B USES", "b.B -> c.C COMPOSED"),
+        this.out.toString());
+  }
+
+  @Test
+  public void shouldReturnNonZeroWhenNothingToExplain() {
+    assertEquals(2, this.testee.run("explain", Arrays.asList("c.C", "a.A")));
+    assertEquals("", this.out.toString());
+  }
+
+  private static void addEdge(final DirectedGraph<ElementName, Dependency> g,
+      final String from, final String to, final AccessType type) {
+    final Dependency d = new Dependency();
+    d.addDependency(AccessPoint.create(ElementName.fromString(from)),
+        AccessPoint.create(ElementName.fromString(to)), type);
+    g.addEdge(d, ElementName.fromString(from), ElementName.fromString(to));
+  }
+
+  private static String lines(final String... lines) {
+    final StringBuilder sb = new StringBuilder();
+    for (final String each : lines) {
+      sb.append(each).append(System.getProperty("line.separator"));
+    }
+    return sb.toString();
+  }
+
+}
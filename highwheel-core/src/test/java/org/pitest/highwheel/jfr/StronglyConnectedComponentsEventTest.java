@@ -0,0 +1,62 @@
+package org.pitest.highwheel.jfr;
+
+import static org.junit.Assert.assertEquals;
+
+import java.io.File;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+import org.pitest.highwheel.DirectedGraphMother;
+import org.pitest.highwheel.algorithm.SCCFinder;
+
+import jdk.jfr.Recording;
+import jdk.jfr.consumer.RecordedEvent;
+import jdk.jfr.consumer.RecordingFile;
+
+public class StronglyConnectedComponentsEventTest {
+
+  @Rule
+  public TemporaryFolder folder = new TemporaryFolder();
+
+  @Test
+  public void shouldRecordGraphSizesWhenFlightRecorderRunning()
+      throws IOException {
+    final File dump = this.folder.newFile("highwheel.jfr");
+    final Recording recording = new Recording();
+    try {
+      recording.enable(StronglyConnectedComponentsEvent.class);
+      recording.start();
+      new SCCFinder<String, Integer>()
+          .findStronglyConnectedComponents(DirectedGraphMother
+              .makeJot2012Graph());
+      recording.stop();
+      recording.dump(dump.toPath());
+    } finally {
+      recording.close();
+    }
+
+    final List<RecordedEvent> events = eventsOfType(dump,
+        "org.pitest.highwheel.StronglyConnectedComponents");
+    assertEquals(1, events.size());
+    assertEquals(8, events.get(0).getInt("vertices"));
+    assertEquals(12, events.get(0).getInt("edges"));
+    assertEquals(3, events.get(0).getInt("components"));
+    assertEquals(5, events.get(0).getInt("largestComponent"));
+  }
+
+  private List<RecordedEvent> eventsOfType(final File dump, final String name)
+      throws IOException {
+    final List<RecordedEvent> matches = new ArrayList<RecordedEvent>();
+    for (final RecordedEvent each : RecordingFile.readAllEvents(dump.toPath())) {
+      if (each.getEventType().getName().equals(name)) {
+        matches.add(each);
+      }
+    }
+    return matches;
+  }
+
+}
@@ -0,0 +1,26 @@
+package org.pitest.highwheel.jfr;
+
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+import org.junit.Test;
+
+public class TracesTest {
+
+  @Test
+  public void shouldFindFlightRecorderOnRuntimesThatHaveOne() {
+    assertTrue(Traces.hasFlightRecorder());
+    assertTrue(Traces.parseClass() instanceof ParseClassEvent);
+    assertTrue(Traces.subCycleAnalysis() instanceof SubCycleAnalysisEvent);
+  }
+
+  @Test
+  public void shouldNeverCommitWithoutFlightRecorder() {
+    final ParseClassTrace testee = NoTrace.INSTANCE;
+    testee.begin();
+    testee.end();
+    assertFalse(testee.shouldCommit());
+    testee.record("com.example.Foo", 10);
+  }
+
+}
@@ -0,0 +1,53 @@
+package org.pitest.highwheel.reachability;
+
+import static org.fest.assertions.api.Assertions.assertThat;
+
+import org.junit.Test;
+import org.pitest.highwheel.model.AccessPoint;
+import org.pitest.highwheel.model.AccessType;
+import org.pitest.highwheel.model.ElementName;
+import org.pitest.highwheel.util.GlobFilter;
+
+public class EntryPointVisitorTest {
+
+  private final ElementName foo = ElementName.fromString("com.example.Foo");
+
+  @Test
+  public void shouldTreatClassesWithMainMethodsAsRoots() {
+    final EntryPointVisitor testee = new EntryPointVisitor();
+    testee.newNode(this.foo);
+    testee.newEntryPoint(this.foo);
+    assertThat(testee.getRoots()).containsOnly(this.foo);
+  }
+
+  @Test
+  public void shouldNotTreatOtherClassesAsRootsByDefault() {
+    final EntryPointVisitor testee = new EntryPointVisitor();
+    testee.newNode(this.foo);
+    assertThat(testee.getRoots()).isEmpty();
+  }
+
+  @Test
+  public void shouldTreatClassesMatchingExtraRootsAsRoots() {
+    final EntryPointVisitor testee = new EntryPointVisitor(new GlobFilter(
+        "*Foo"));
+    testee.newNode(this.foo);
+    testee.newNode(ElementName.fromString("com.example.Bar"));
+    assertThat(testee.getRoots()).containsOnly(this.foo);
+  }
+
+  @Test
+  public void shouldTreatClassesWithMatchingAnnotationsAsRoots() {
+    final EntryPointVisitor testee = new EntryPointVisitor(new GlobFilter(
+        "org.example.Service"));
+    testee.newAnnotation(this.foo,
+        ElementName.fromString("org.example.Service"));
+    testee.newAnnotation(ElementName.fromString("com.example.Bar"),
+        ElementName.fromString("org.example.Other"));
+    testee.apply(AccessPoint.create(ElementName.fromString("com.example.Baz")),
+        AccessPoint.create(ElementName.fromString("org.example.Service")),
+        AccessType.USES);
+    assertThat(testee.getRoots()).containsOnly(this.foo);
+  }
+
+}
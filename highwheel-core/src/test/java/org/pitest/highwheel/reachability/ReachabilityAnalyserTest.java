@@ -0,0 +1,84 @@
+package org.pitest.highwheel.reachability;
+
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+
+import java.util.Arrays;
+import java.util.Collections;
+
+import org.junit.Before;
+import org.junit.Test;
+import org.mockito.Mock;
+import org.mockito.MockitoAnnotations;
+import org.pitest.highwheel.model.Dependency;
+import org.pitest.highwheel.model.ElementName;
+
+import edu.uci.ics.jung.graph.DirectedGraph;
+import edu.uci.ics.jung.graph.DirectedSparseGraph;
+
+public class ReachabilityAnalyserTest {
+
+  private final ReachabilityAnalyser                   testee = new ReachabilityAnalyser();
+  private final DirectedGraph<ElementName, Dependency> g      = new DirectedSparseGraph<ElementName, Dependency>();
+
+  private final ElementName main   = ElementName.fromString("com.example.Main");
+  private final ElementName used   = ElementName.fromString("com.example.util.Used");
+  private final ElementName unused = ElementName.fromString("com.example.util.Unused");
+  private final ElementName dead   = ElementName.fromString("com.example.dead.Dead");
+
+  @Mock
+  private ReachabilityVisitor v;
+
+  @Before
+  public void setUp() {
+    MockitoAnnotations.initMocks(this);
+    this.g.addVertex(this.main);
+    this.g.addVertex(this.used);
+    this.g.addVertex(this.unused);
+    this.g.addVertex(this.dead);
+    this.g.addEdge(new Dependency(), this.main, this.used);
+    this.g.addEdge(new Dependency(), this.dead, this.used);
+  }
+
+  @Test
+  public void shouldReportClassesNotReachableFromRoots() {
+    this.testee.analyse(this.g, Arrays.asList(this.main), this.v);
+    verify(this.v).visitUnreachableClass(this.unused);
+    verify(this.v).visitUnreachableClass(this.dead);
+    verify(this.v, never()).visitUnreachableClass(this.main);
+    verify(this.v, never()).visitUnreachableClass(this.used);
+  }
+
+  @Test
+  public void shouldReportPackagesWithNoReachableClasses() {
+    this.testee.analyse(this.g, Arrays.asList(this.main), this.v);
+    verify(this.v).visitUnreachablePackage(this.dead.getParent());
+    verify(this.v, never()).visitUnreachablePackage(this.used.getParent());
+  }
+
+  @Test
+  public void shouldFollowDependenciesTransitively() {
+    final ElementName deep = ElementName.fromString("com.example.deep.Deep");
+    this.g.addEdge(new Dependency(), this.used, deep);
+    this.testee.analyse(this.g, Arrays.asList(this.main), this.v);
+    verify(this.v, never()).visitUnreachableClass(deep);
+  }
+
+  @Test
+  public void shouldReportCountsOfRootsAndReachableClasses() {
+    this.testee.analyse(this.g, Arrays.asList(this.main,
+        ElementName.fromString("not.in.Graph")), this.v);
+    verify(this.v).start(1, 2, 4);
+    verify(this.v).end();
+  }
+
+  @Test
+  public void shouldReportNothingUnreachableWhenNoRoots() {
+    this.testee.analyse(this.g, Collections.<ElementName> emptyList(), this.v);
+    verify(this.v).start(0, 0, 4);
+    verify(this.v, never()).visitUnreachableClass(this.main);
+    verify(this.v, never()).visitUnreachablePackage(this.dead.getParent());
+    verify(this.v).end();
+  }
+
+}
@@ -74,6 +74,17 @@ public class HtmlCycleWriterTest {
     verify(streams, atLeast(2)).getStream("package_tangle_1.html");
   }
   
+  @Test
+  public void shouldWriteIndexButNotCyclePagesWhenNothingHasChanged() {
+    this.testee = new HtmlCycleWriter(this.scorer, this.streams,
+        IndexWriter.Baseline.UNCHANGED);
+    this.testee.start(emptyCodeStats());
+    this.testee.visitClassStronglyConnectedComponent(smallCycle());
+    this.testee.end();
+    verify(streams, atLeast(2)).getStream(IndexWriter.INDEX);
+    verify(streams, never()).getStream("class_tangle_1.html");
+  }
+
   private DirectedSparseGraph<ElementName, Dependency> smallCycle() {
     final DirectedSparseGraph<ElementName, Dependency> scc = new DirectedSparseGraph<ElementName, Dependency>();
     final Dependency dep = new Dependency();
@@ -90,6 +90,47 @@ public class IndexWriterTest {
         .isEqualTo("packages.html");
   }
 
+  @Test
+  public void shouldLinkToChangesWhenComparedWithABaseline()
+      throws SAXException, IOException {
+    this.testee = new IndexWriter(this.scorer, this.streams,
+        IndexWriter.Baseline.CHANGED);
+    this.testee.start(emptyCodeStats());
+    this.testee.end();
+    final Document d = parseOutput();
+    final NodeList links = d.getElementsByTagName("a");
+    assertThat(
+        links.item(2).getAttributes().getNamedItem("href").getTextContent())
+        .isEqualTo(ChangesWriter.FILENAME);
+  }
+
+  @Test
+  public void shouldNotListCyclesWhenNothingHasChanged() throws Exception {
+    this.testee = new IndexWriter(this.scorer, this.streams,
+        IndexWriter.Baseline.UNCHANGED);
+    this.testee.start(emptyCodeStats());
+    this.testee.end();
+    final Document d = parseOutput();
+    assertThat(d.getElementsByTagName("a").item(2).getAttributes()
+        .getNamedItem("href").getTextContent()).isEqualTo(
+        ChangesWriter.FILENAME);
+    assertThat(this.os.toString()).doesNotContain("Class cycles");
+  }
+
+  @Test
+  public void shouldLinkToMethodCallsWhenWritten() throws SAXException,
+      IOException {
+    this.testee = new IndexWriter(this.scorer, this.streams,
+        IndexWriter.Baseline.NONE, true);
+    this.testee.start(emptyCodeStats());
+    this.testee.end();
+    final Document d = parseOutput();
+    final NodeList links = d.getElementsByTagName("a");
+    assertThat(
+        links.item(2).getAttributes().getNamedItem("href").getTextContent())
+        .isEqualTo(MethodsWriter.FILENAME);
+  }
+
   @Test
   public void shouldLinkToPackageSccs() throws SAXException, IOException {
     final DirectedSparseGraph<ElementName, Dependency> scc = smallCycle();
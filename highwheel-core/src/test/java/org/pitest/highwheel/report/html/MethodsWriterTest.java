@@ -0,0 +1,86 @@
+package org.pitest.highwheel.report.html;
+
+import static org.fest.assertions.api.Assertions.assertThat;
+import static org.mockito.Mockito.when;
+
+import java.io.ByteArrayOutputStream;
+
+import org.junit.Before;
+import org.junit.Test;
+import org.mockito.Mock;
+import org.mockito.MockitoAnnotations;
+import org.pitest.highwheel.callgraph.MethodGraphBuildingVisitor;
+import org.pitest.highwheel.model.AccessPoint;
+import org.pitest.highwheel.model.AccessPointName;
+import org.pitest.highwheel.model.AccessType;
+import org.pitest.highwheel.model.ElementName;
+import org.pitest.highwheel.report.StreamFactory;
+
+public class MethodsWriterTest {
+
+  private final MethodGraphBuildingVisitor calls = new MethodGraphBuildingVisitor();
+
+  private final AccessPoint                a     = method("com.example.Foo", "a");
+  private final AccessPoint                b     = method("com.example.Foo", "b");
+  private final AccessPoint                init  = method("com.example.Bar",
+                                                     "<init>");
+
+  private MethodsWriter                    testee;
+
+  @Mock
+  private StreamFactory                    streams;
+
+  private ByteArrayOutputStream            os;
+
+  @Before
+  public void setUp() {
+    MockitoAnnotations.initMocks(this);
+    this.os = new ByteArrayOutputStream();
+    when(this.streams.getStream(MethodsWriter.FILENAME)).thenReturn(this.os);
+    this.testee = new MethodsWriter(this.streams);
+  }
+
+  @Test
+  public void shouldListMethodsThatCallEachOtherRecursively() {
+    call(this.a, this.b);
+    call(this.b, this.a);
+    this.testee.write(this.calls.build());
+    assertThat(this.os.toString()).contains(
+        "<li>2 methods: com.example.Foo.a()V, com.example.Foo.b()V</li>");
+  }
+
+  @Test
+  public void shouldSayWhenNoMethodsAreRecursive() {
+    call(this.a, this.b);
+    this.testee.write(this.calls.build());
+    assertThat(this.os.toString()).contains(
+        "No methods call each other recursively");
+  }
+
+  @Test
+  public void shouldListMethodsThatCallThemselves() {
+    call(this.init, this.init);
+    this.testee.write(this.calls.build());
+    assertThat(this.os.toString()).contains("<li>1 methods: ");
+  }
+
+  @Test
+  public void shouldTabulateFanInAndFanOut() {
+    call(this.a, this.b);
+    call(this.a, this.init);
+    this.testee.write(this.calls.build());
+    assertThat(this.os.toString()).contains(
+        "\"columns\":[\"method\",\"fan in\",\"fan out\"]").contains(
+        "[\"com.example.Foo.a()V\",0,2]");
+  }
+
+  private void call(final AccessPoint from, final AccessPoint to) {
+    this.calls.apply(from, to, AccessType.USES);
+  }
+
+  private static AccessPoint method(final String clazz, final String name) {
+    return AccessPoint.create(ElementName.fromString(clazz),
+        AccessPointName.create(name, "()V"));
+  }
+
+}
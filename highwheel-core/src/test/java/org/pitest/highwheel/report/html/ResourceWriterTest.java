@@ -43,6 +43,12 @@ public class ResourceWriterTest {
     verify(this.streams).getStream("jquery.tablesorter.min.js");
   }
 
+  @Test
+  public void shouldCopyVirtualTableScriptToOutputLocation() {
+    testee.start(stats);
+    verify(this.streams).getStream("vtable.js");
+  }
+
   @Test
   public void shouldCopyTableSortingImagesToOutputLocation() {
     testee.start(stats);
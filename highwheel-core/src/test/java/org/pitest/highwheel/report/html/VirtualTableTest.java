@@ -0,0 +1,58 @@
+package org.pitest.highwheel.report.html;
+
+import static org.fest.assertions.api.Assertions.assertThat;
+
+import org.junit.Test;
+
+public class VirtualTableTest {
+
+  private final VirtualTable testee = new VirtualTable("class", "influence");
+
+  @Test
+  public void shouldWriteRowsAsData() {
+    this.testee.add("com.example.Foo", 3);
+    this.testee.add("com.example.Bar", 7);
+    assertThat(this.testee.toHtml("t")).contains(
+        "\"rows\":[[\"com.example.Foo\",3],[\"com.example.Bar\",7]]");
+  }
+
+  @Test
+  public void shouldWriteRowOrderForEachColumn() {
+    this.testee.add("b", 1);
+    this.testee.add("c", 0);
+    this.testee.add("a", 1);
+    assertThat(this.testee.toHtml("t")).contains(
+        "\"orders\":[[2,0,1],[1,2,0]]");
+  }
+
+  @Test
+  public void shouldWriteEachValueColumnWithItsOwnOrder() {
+    final VirtualTable table = new VirtualTable("method", "fan in", "fan out");
+    table.add("b", 2, 0);
+    table.add("a", 1, 5);
+    assertThat(table.toHtml("t")).contains(
+        "\"columns\":[\"method\",\"fan in\",\"fan out\"]").contains(
+        "\"rows\":[[\"b\",2,0],[\"a\",1,5]]").contains(
+        "\"orders\":[[1,0],[1,0],[0,1]]");
+  }
+
+  @Test(expected = IllegalArgumentException.class)
+  public void shouldRejectRowsWithTheWrongNumberOfValues() {
+    this.testee.add("a", 1, 2);
+  }
+
+  @Test
+  public void shouldEscapeNamesThatCouldEndTheScript() {
+    this.testee.add("</script>\"\\", 1);
+    assertThat(this.testee.toHtml("t")).contains(
+        "\"\\u003c/script\\u003e\\\"\\\\\"");
+  }
+
+  @Test
+  public void shouldIncludeRenderingScript() {
+    assertThat(this.testee.toHtml("t")).contains(
+        "src=\"" + VirtualTable.SCRIPT + "\"").contains(
+        "highwheelTable(\"t\",");
+  }
+
+}
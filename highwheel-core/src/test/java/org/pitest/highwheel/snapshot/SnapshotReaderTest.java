@@ -0,0 +1,170 @@
+package org.pitest.highwheel.snapshot;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.fail;
+import static org.mockito.Mockito.inOrder;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.Arrays;
+import java.util.zip.DeflaterOutputStream;
+import java.util.zip.InflaterInputStream;
+
+import org.junit.Test;
+import org.mockito.InOrder;
+import org.pitest.highwheel.classpath.AccessVisitor;
+import org.pitest.highwheel.cycles.CodeGraphs;
+import org.pitest.highwheel.model.AccessPoint;
+import org.pitest.highwheel.model.AccessPointName;
+import org.pitest.highwheel.model.AccessType;
+import org.pitest.highwheel.model.ElementName;
+
+public class SnapshotReaderTest {
+
+  private static final int HEADER  = SnapshotFormat.MAGIC.length + 1;
+
+  private final ElementName foo     = ElementName.fromString("com.foo.Foo");
+  private final ElementName bar     = ElementName.fromString("com.bar.Bar");
+
+  private final AccessPoint fooRun  = AccessPoint.create(this.foo,
+                                        AccessPointName.create("run", "()V"));
+  private final AccessPoint barInit = AccessPoint.create(this.bar,
+                                        AccessPointName.create("<init>", "()V"));
+
+  @Test
+  public void shouldReplayNodesEntryPointsAndAnnotations() throws IOException {
+    final AccessVisitor v = replay(write(new Writes() {
+      public void to(final SnapshotWriter w) {
+        w.newNode(SnapshotReaderTest.this.foo);
+        w.newEntryPoint(SnapshotReaderTest.this.foo);
+        w.newAnnotation(SnapshotReaderTest.this.foo,
+            SnapshotReaderTest.this.bar);
+        w.newAccessPoint(SnapshotReaderTest.this.fooRun);
+      }
+    }));
+    final InOrder order = inOrder(v);
+    order.verify(v).newNode(this.foo);
+    order.verify(v).newEntryPoint(this.foo);
+    order.verify(v).newAnnotation(this.foo, this.bar);
+    order.verify(v).newAccessPoint(this.fooRun);
+  }
+
+  @Test
+  public void shouldReplayRepeatedAccessesTheSameNumberOfTimes()
+      throws IOException {
+    final AccessVisitor v = replay(write(new Writes() {
+      public void to(final SnapshotWriter w) {
+        w.newNode(SnapshotReaderTest.this.foo);
+        for (int i = 0; i != 3; i++) {
+          w.apply(SnapshotReaderTest.this.fooRun,
+              SnapshotReaderTest.this.barInit, AccessType.USES);
+        }
+        w.apply(AccessPoint.create(SnapshotReaderTest.this.foo),
+            AccessPoint.create(SnapshotReaderTest.this.bar),
+            AccessType.INHERITANCE);
+      }
+    }));
+    verify(v, times(3)).apply(this.fooRun, this.barInit, AccessType.USES);
+    verify(v).apply(AccessPoint.create(this.foo),
+        AccessPoint.create(this.bar), AccessType.INHERITANCE);
+  }
+
+  @Test
+  public void shouldReloadClassAndPackageGraphs() throws IOException {
+    final byte[] snapshot = write(new Writes() {
+      public void to(final SnapshotWriter w) {
+        w.newNode(SnapshotReaderTest.this.foo);
+        w.apply(SnapshotReaderTest.this.fooRun,
+            SnapshotReaderTest.this.barInit, AccessType.USES);
+        w.newNode(SnapshotReaderTest.this.bar);
+      }
+    });
+    final CodeGraphs graphs = SnapshotReader
+        .readGraphs(new ByteArrayInputStream(snapshot));
+    assertEquals(2, graphs.classGraph().getVertexCount());
+    assertEquals(1, graphs.classGraph().findEdge(this.foo, this.bar)
+        .getCount());
+    assertEquals(1, graphs.packageGraph().getEdgeCount());
+  }
+
+  @Test(expected = IOException.class)
+  public void shouldRejectStreamsThatAreNotSnapshots() throws IOException {
+    new SnapshotReader(new ByteArrayInputStream("not a snapshot".getBytes()));
+  }
+
+  @Test
+  public void shouldReportTruncatedSnapshotsAsIOExceptions() throws IOException {
+    final byte[] snapshot = write(new Writes() {
+      public void to(final SnapshotWriter w) {
+        w.apply(SnapshotReaderTest.this.fooRun,
+            SnapshotReaderTest.this.barInit, AccessType.USES);
+      }
+    });
+    final byte[] records = inflate(snapshot);
+    for (int length = 0; length != records.length; length++) {
+      try {
+        replay(snapshotOf(Arrays.copyOf(records, length)));
+        fail("Read records truncated to " + length + " bytes");
+      } catch (final IOException expected) {
+        // expected
+      }
+    }
+  }
+
+  @Test
+  public void shouldStoreRepeatedAccessesCompactly() throws IOException {
+    final byte[] snapshot = write(new Writes() {
+      public void to(final SnapshotWriter w) {
+        for (int i = 0; i != 100000; i++) {
+          w.apply(SnapshotReaderTest.this.fooRun,
+              SnapshotReaderTest.this.barInit, AccessType.USES);
+        }
+      }
+    });
+    assertEquals(true, snapshot.length < 100);
+  }
+
+  private AccessVisitor replay(final byte[] snapshot) throws IOException {
+    final AccessVisitor v = mock(AccessVisitor.class);
+    new SnapshotReader(new ByteArrayInputStream(snapshot)).read(v);
+    return v;
+  }
+
+  private byte[] write(final Writes writes) throws IOException {
+    final ByteArrayOutputStream bos = new ByteArrayOutputStream();
+    final SnapshotWriter w = new SnapshotWriter(bos);
+    writes.to(w);
+    w.finish();
+    return bos.toByteArray();
+  }
+
+  private static byte[] inflate(final byte[] snapshot) throws IOException {
+    final InputStream in = new InflaterInputStream(new ByteArrayInputStream(
+        snapshot, HEADER, snapshot.length - HEADER));
+    final ByteArrayOutputStream bos = new ByteArrayOutputStream();
+    for (int b = in.read(); b != -1; b = in.read()) {
+      bos.write(b);
+    }
+    return bos.toByteArray();
+  }
+
+  private static byte[] snapshotOf(final byte[] records) throws IOException {
+    final ByteArrayOutputStream bos = new ByteArrayOutputStream();
+    bos.write(SnapshotFormat.MAGIC);
+    bos.write(SnapshotFormat.VERSION);
+    final DeflaterOutputStream out = new DeflaterOutputStream(bos);
+    out.write(records);
+    out.finish();
+    return bos.toByteArray();
+  }
+
+  private interface Writes {
+    void to(SnapshotWriter w);
+  }
+
+}
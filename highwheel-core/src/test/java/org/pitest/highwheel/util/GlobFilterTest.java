@@ -0,0 +1,107 @@
+package org.pitest.highwheel.util;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+import java.util.regex.Pattern;
+
+import org.junit.Test;
+import org.pitest.highwheel.model.ElementName;
+
+public class GlobFilterTest {
+
+  private static final String[] NAMES = { "org.foo.Foo", "org.foo.bar.Bar",
+      "org.foo", "org.fo", "org.foobar.Baz", "com.example.Foo",
+      "com.example.Foo$1", "com.example.FooTest", "com.example.inner.Foo",
+      "Foo", ""                        };
+
+  @Test
+  public void shouldMatchExactNames() {
+    assertTrue(matches("org.foo.Foo", "org.foo.Foo"));
+    assertFalse(matches("org.foo.Foo", "org.foo.Foo2"));
+    assertFalse(matches("org.foo.Foo", "org.foo"));
+  }
+
+  @Test
+  public void shouldMatchEverythingAfterAStarAcrossPackages() {
+    assertTrue(matches("org.foo.*", "org.foo.Foo"));
+    assertTrue(matches("org.foo.*", "org.foo.bar.Bar"));
+    assertFalse(matches("org.foo.*", "org.foobar.Baz"));
+  }
+
+  @Test
+  public void shouldMatchSingleCharactersWithQuestionMarks() {
+    assertTrue(matches("org.fo?.Foo", "org.foo.Foo"));
+    assertFalse(matches("org.fo?.Foo", "org.fo.Foo"));
+  }
+
+  @Test
+  public void shouldMatchStarsInTheMiddleOfGlobs() {
+    assertTrue(matches("com.*.Foo", "com.example.Foo"));
+    assertTrue(matches("com.*.Foo", "com.example.inner.Foo"));
+    assertFalse(matches("com.*.Foo", "com.example.FooTest"));
+    assertTrue(matches("*Test", "com.example.FooTest"));
+  }
+
+  @Test
+  public void shouldTreatDollarsAsLiterals() {
+    assertTrue(matches("com.example.Foo$1", "com.example.Foo$1"));
+    assertFalse(matches("com.example.Foo$1", "com.example.Foo"));
+  }
+
+  @Test
+  public void shouldIncludeNamesMatchingAnyOfSeveralGlobs() {
+    final GlobFilter testee = new GlobFilter("org.foo.*, com.example.*");
+    assertTrue(testee.include(name("org.foo.Foo")));
+    assertTrue(testee.include(name("com.example.Foo")));
+    assertFalse(testee.include(name("org.foobar.Baz")));
+  }
+
+  @Test
+  public void shouldExcludeNamesMatchingNegatedGlobs() {
+    final GlobFilter testee = new GlobFilter("com.example.*,!*Test");
+    assertTrue(testee.include(name("com.example.Foo")));
+    assertFalse(testee.include(name("com.example.FooTest")));
+  }
+
+  @Test
+  public void shouldIncludeEverythingNotExcludedWhenOnlyExcludesGiven() {
+    final GlobFilter testee = new GlobFilter("!com.example.inner.*");
+    assertTrue(testee.include(name("org.foo.Foo")));
+    assertFalse(testee.include(name("com.example.inner.Foo")));
+  }
+
+  @Test
+  public void shouldGiveTheSameVerdictWhenAskedAgain() {
+    final GlobFilter testee = new GlobFilter("com.*.Foo");
+    for (int i = 0; i != 3; i++) {
+      assertTrue(testee.include(name("com.example.Foo")));
+      assertFalse(testee.include(name("com.example.FooTest")));
+    }
+  }
+
+  @Test
+  public void shouldAgreeWithGlobToRegexForSingleGlobs() {
+    final String[] globs = { "*", "org.*", "org.foo*", "org.foo.*", "*.Foo",
+        "*Foo*", "com.example.Foo$?", "?rg.*", "org.fo?", "*.*.*", "Foo",
+        "com.*.inner.*", "**" };
+    for (final String glob : globs) {
+      final GlobFilter testee = new GlobFilter(glob);
+      final Pattern p = Pattern.compile(GlobToRegex.convertGlobToRegex(glob));
+      for (final String each : NAMES) {
+        assertEquals(glob + " " + each, p.matcher(each).matches(),
+            testee.include(name(each)));
+      }
+    }
+  }
+
+  private static boolean matches(final String glob, final String value) {
+    return new GlobFilter(glob).include(name(value));
+  }
+
+  private static ElementName name(final String value) {
+    return ElementName.fromString(value);
+  }
+
+}
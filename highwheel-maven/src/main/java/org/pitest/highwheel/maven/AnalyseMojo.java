@@ -7,14 +7,17 @@ import java.io.InputStream;
 
 import org.apache.maven.plugin.MojoExecutionException;
 import org.pitest.highwheel.Highwheel;
+import org.pitest.highwheel.baseline.BaselineRecord;
+import org.pitest.highwheel.bytecodeparser.ClassFileParser;
 import org.pitest.highwheel.bytecodeparser.ClassPathParser;
+import org.pitest.highwheel.bytecodeparser.ConstantPoolClassParser;
+import org.pitest.highwheel.bytecodeparser.PipelinedClassPathParser;
+import org.pitest.highwheel.bytecodeparser.SnapshotCachingParser;
+import org.pitest.highwheel.classpath.ClassParser;
 import org.pitest.highwheel.classpath.ClasspathRoot;
 import org.pitest.highwheel.cycles.Filter;
-import org.pitest.highwheel.oracle.DependencyOracle;
-import org.pitest.highwheel.oracle.DependendencyStatus;
-import org.pitest.highwheel.oracle.FixedScorer;
-import org.pitest.highwheel.oracle.SimpleFlatFileOracleParser;
 import org.pitest.highwheel.report.FileStreamFactory;
+import org.pitest.highwheel.util.GlobFilter;
 
 /**
  * 
@@ -22,15 +25,46 @@ import org.pitest.highwheel.report.FileStreamFactory;
  * 
  * @requiresDependencyResolution test
  * 
+ * @threadSafe
+ * 
  */
 public class AnalyseMojo extends BaseMojo {
 
   /**
-   * Location of user defined access rules
+   * Location of a baseline written by a previous run. When set, only the
+   * changes since that run are reported.
+   * 
+   * @parameter property="highwheel.baseline"
+   */
+  private File    baseline;
+
+  /**
+   * Reads only the constant pool, descriptors and signatures of each class
+   * rather than every method body. Much faster, but dependencies are
+   * reported from classes rather than methods and types seen only in local
+   * variables are missed.
    * 
-   * @parameter
+   * @parameter default-value="false" property="highwheel.fastScan"
    */
-  private String accessRules;
+  private boolean fastScan;
+
+  /**
+   * Comma separated globs matching classes, or the annotations on classes,
+   * from which all code should be reachable. Classes with a main method are
+   * always treated as reachable.
+   * 
+   * @parameter property="highwheel.roots"
+   */
+  private String  roots;
+
+  /**
+   * Also builds a graph of the calls between methods, and reports the groups
+   * of methods that call each other recursively and the fan in and fan out
+   * of each method. Calls are not seen by a fast scan.
+   * 
+   * @parameter default-value="false" property="highwheel.methodGraph"
+   */
+  private boolean methodGraph;
 
   @Override
   protected void analyse(final ClasspathRoot mainRoot,
@@ -38,14 +72,25 @@ public class AnalyseMojo extends BaseMojo {
       throws MojoExecutionException {
     try {
 
-      final ClassPathParser parser = new ClassPathParser(filter);
+      if (this.methodGraph && this.fastScan) {
+        this.getLog().warn(
+            "Method calls are not seen by a fast scan, so the method graph will be empty");
+      }
+
+      final ClassFileParser classParser = this.fastScan
+          ? new ConstantPoolClassParser(filter) : new ClassPathParser(filter);
+      final ClassParser parser = new SnapshotCachingParser(
+          new PipelinedClassPathParser(filter, classParser),
+          makeSnapshotStore(this.fastScan ? "fast" : "full"));
 
       final File dir = makeReportDirectory("highwheel");
       final FileStreamFactory fsf = new FileStreamFactory(dir);
 
       try {
-        final Highwheel a = new Highwheel(parser, makePackageScorer(), fsf);
-        a.analyse(mainRoot, testRoot);
+        final Highwheel a = new Highwheel(parser, makePackageScorer(), fsf,
+            this.roots != null ? new GlobFilter(this.roots) : null,
+            makeCycleAnalyser(), this.methodGraph);
+        a.analyse(mainRoot, testRoot, readBaseline());
       } finally {
         fsf.close();
       }
@@ -55,16 +100,21 @@ public class AnalyseMojo extends BaseMojo {
     }
   }
 
-  private DependencyOracle makePackageScorer() throws IOException {
-    if (this.accessRules != null) {
-      final InputStream is = new FileInputStream(this.accessRules);
-      try {
-        return new SimpleFlatFileOracleParser(is).parse();
-      } finally {
-        is.close();
-      }
+  private BaselineRecord readBaseline() throws IOException {
+    if (this.baseline == null) {
+      return null;
+    }
+    if (!this.baseline.exists()) {
+      this.getLog().warn(
+          "No baseline found at " + this.baseline.getAbsolutePath());
+      return null;
+    }
+    final InputStream is = new FileInputStream(this.baseline);
+    try {
+      return BaselineRecord.read(is);
+    } finally {
+      is.close();
     }
-    return new FixedScorer(DependendencyStatus.UNKNOWN);
   }
 
 }
\ No newline at end of file
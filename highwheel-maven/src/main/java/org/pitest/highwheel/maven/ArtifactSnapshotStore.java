@@ -0,0 +1,95 @@
+package org.pitest.highwheel.maven;
+
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.HashMap;
+import java.util.Map;
+
+import org.apache.maven.artifact.Artifact;
+import org.pitest.highwheel.classpath.ClasspathRoot;
+
+/**
+ * Caches the parsed contents of dependency jars in a directory shared by all
+ * builds on the machine.
+ *
+ * Snapshots are keyed by the artifact's coordinates, the checksum of the jar,
+ * the class filter and the scan mode, so an unchanged artifact is parsed only
+ * once. Cached snapshots never go stale, as a changed jar has a different
+ * checksum.
+ */
+class ArtifactSnapshotStore extends FileSnapshotStore {
+
+  private final Map<ClasspathRoot, Artifact> artifacts;
+  private final File                         cacheDir;
+  private final String                       stampKey;
+  private final Map<ClasspathRoot, File>     files = new HashMap<ClasspathRoot, File>();
+
+  ArtifactSnapshotStore(final Map<ClasspathRoot, Artifact> artifacts,
+      final File cacheDir, final String stamp) {
+    super(stamp);
+    this.artifacts = artifacts;
+    this.cacheDir = cacheDir;
+    this.stampKey = Integer.toHexString(stamp.hashCode());
+  }
+
+  @Override
+  protected synchronized File snapshotFile(final ClasspathRoot root)
+      throws IOException {
+    final Artifact artifact = this.artifacts.get(root);
+    if (artifact == null) {
+      return null;
+    }
+    File file = this.files.get(root);
+    if (file == null) {
+      file = new File(this.cacheDir, artifact.getGroupId().replace('.',
+          File.separatorChar)
+          + File.separator
+          + artifact.getArtifactId()
+          + File.separator
+          + artifact.getVersion()
+          + File.separator
+          + checksum(artifact.getFile()) + "-" + this.stampKey + ".hwg");
+      this.files.put(root, file);
+    }
+    return file;
+  }
+
+  @Override
+  protected boolean isCurrent(final ClasspathRoot root, final File snapshot) {
+    return true;
+  }
+
+  private static String checksum(final File jar) throws IOException {
+    final MessageDigest digest = sha1();
+    final InputStream is = new FileInputStream(jar);
+    try {
+      final byte[] buffer = new byte[64 * 1024];
+      int n = is.read(buffer);
+      while (n != -1) {
+        digest.update(buffer, 0, n);
+        n = is.read(buffer);
+      }
+    } finally {
+      is.close();
+    }
+    final StringBuilder sb = new StringBuilder();
+    for (final byte each : digest.digest()) {
+      sb.append(Character.forDigit((each >> 4) & 0xF, 16));
+      sb.append(Character.forDigit(each & 0xF, 16));
+    }
+    return sb.toString();
+  }
+
+  private static MessageDigest sha1() {
+    try {
+      return MessageDigest.getInstance("SHA-1");
+    } catch (final NoSuchAlgorithmException e) {
+      throw new RuntimeException(e);
+    }
+  }
+
+}
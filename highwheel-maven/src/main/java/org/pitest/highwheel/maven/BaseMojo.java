@@ -1,20 +1,38 @@
 package org.pitest.highwheel.maven;
 
 import java.io.File;
+import java.io.FileInputStream;
+import java.io.IOException;
+import java.io.InputStream;
 import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashSet;
+import java.util.IdentityHashMap;
 import java.util.List;
-import java.util.regex.Pattern;
+import java.util.Map;
+import java.util.Set;
 
+import org.apache.maven.artifact.Artifact;
 import org.apache.maven.plugin.AbstractMojo;
 import org.apache.maven.plugin.MojoExecutionException;
 import org.apache.maven.plugin.MojoFailureException;
 import org.apache.maven.project.MavenProject;
+import org.pitest.highwheel.algorithm.Budget;
+import org.pitest.highwheel.bytecodeparser.classpath.ArchiveClassPathRoot;
 import org.pitest.highwheel.bytecodeparser.classpath.CompoundClassPathRoot;
 import org.pitest.highwheel.bytecodeparser.classpath.DirectoryClassPathRoot;
+import org.pitest.highwheel.bytecodeparser.classpath.JmodClassPathRoot;
+import org.pitest.highwheel.bytecodeparser.classpath.JrtClassPathRoot;
 import org.pitest.highwheel.classpath.ClasspathRoot;
+import org.pitest.highwheel.cycles.CycleAnalyser;
 import org.pitest.highwheel.cycles.Filter;
-import org.pitest.highwheel.model.ElementName;
-import org.pitest.highwheel.util.GlobToRegex;
+import org.pitest.highwheel.oracle.DependencyOracle;
+import org.pitest.highwheel.oracle.DependendencyStatus;
+import org.pitest.highwheel.oracle.FixedScorer;
+import org.pitest.highwheel.oracle.SimpleFlatFileOracleParser;
+import org.pitest.highwheel.snapshot.CompoundSnapshotStore;
+import org.pitest.highwheel.snapshot.SnapshotStore;
+import org.pitest.highwheel.util.GlobFilter;
 
 //FIXME duplicated from highwheel-maven as properties fail
 //to set when included as dependency
@@ -35,7 +53,8 @@ public abstract class BaseMojo extends AbstractMojo {
   private MavenProject project;
 
   /**
-   * Classes to include in analyse. Glob syntax
+   * Classes to include in analyse. Comma separated globs, those starting with
+   * ! exclude classes
    * 
    * @parameter default="" property="classFilter"
    */
@@ -55,6 +74,91 @@ public abstract class BaseMojo extends AbstractMojo {
    */
   private boolean      childOnly;
 
+  /**
+   * Also analyse the jars of resolved (non test scope) dependencies, so that
+   * tangles spanning published artifacts are found
+   * 
+   * @parameter default="false" property="highwheel.includeDependencies"
+   */
+  private boolean      includeDependencies;
+
+  /**
+   * Directory in which the parsed contents of dependency jars are cached
+   * between builds
+   * 
+   * @parameter default-value="${user.home}/.highwheel/cache" property="highwheel.cacheDirectory"
+   */
+  private File         cacheDirectory;
+
+  /**
+   * JDK home (java 9 or later), jmod file or directory of jmod files whose
+   * classes should be included in the analysis. Use the classFilter to choose
+   * which platform packages are analysed.
+   * 
+   * @parameter property="highwheel.platform"
+   */
+  private File         platform;
+
+  /**
+   * Location of user defined access rules
+   * 
+   * @parameter
+   */
+  private String       accessRules;
+
+  /**
+   * Most sub cycles to report for each large tangle, ranked by the strength
+   * of the weakest dependency in each so the easiest to break come first.
+   * Zero reports them all.
+   * 
+   * @parameter default-value="0" property="highwheel.maxSubCycles"
+   */
+  private int          maxSubCycles;
+
+  /**
+   * If greater than zero, every sub cycle of up to this many members is
+   * listed rather than only the shortest through each member of a tangle.
+   * 
+   * @parameter default-value="0" property="highwheel.maxSubCycleLength"
+   */
+  private int          maxSubCycleLength;
+
+  /**
+   * Milliseconds that may be spent breaking down each tangle into sub cycles
+   * before falling back to a sample of them. Zero for no limit.
+   * 
+   * @parameter default-value="0" property="highwheel.tangleTimeBudget"
+   */
+  private long         tangleTimeBudget;
+
+  /**
+   * Dependencies that may be followed while breaking down each tangle into
+   * sub cycles before falling back to a sample of them. Unlike the time
+   * budget, this gives the same report on every run. Zero for no limit.
+   * 
+   * @parameter default-value="0" property="highwheel.tangleWorkBudget"
+   */
+  private long         tangleWorkBudget;
+
+  /**
+   * Milliseconds that may be spent breaking down all tangles into sub cycles.
+   * Zero for no limit.
+   * 
+   * @parameter default-value="0" property="highwheel.totalTimeBudget"
+   */
+  private long         totalTimeBudget;
+
+  /**
+   * Dependencies that may be followed while breaking down all tangles into
+   * sub cycles. Zero for no limit.
+   * 
+   * @parameter default-value="0" property="highwheel.totalWorkBudget"
+   */
+  private long         totalWorkBudget;
+
+  private final Map<ClasspathRoot, MavenProject> mainModules    = new IdentityHashMap<ClasspathRoot, MavenProject>();
+  private final Map<ClasspathRoot, Artifact>     dependencyJars = new IdentityHashMap<ClasspathRoot, Artifact>();
+
   public final void execute() throws MojoExecutionException,
       MojoFailureException {
 
@@ -72,11 +176,32 @@ public abstract class BaseMojo extends AbstractMojo {
 
     final Filter filter = createClassFilter();
 
-    final ClasspathRoot mainRoot = makeRoot(packaging, mainDir());
-    final ClasspathRoot testRoot = makeRoot(packaging, testDir());
+    final CompoundClassPathRoot mainRoot = makeRoot(packaging, mainDir(),
+        this.mainModules);
+    if (this.includeDependencies) {
+      addDependencyJars(mainRoot.getRoots());
+    }
+    if (this.platform != null) {
+      addPlatform(mainRoot.getRoots());
+    }
+    final CompoundClassPathRoot testRoot = makeRoot(packaging, testDir(),
+        new IdentityHashMap<ClasspathRoot, MavenProject>());
+
+    try {
+      analyse(mainRoot, testRoot, filter);
+    } finally {
+      close(mainRoot);
+      close(testRoot);
+    }
 
-    analyse(mainRoot, testRoot, filter);
+  }
 
+  private void close(final CompoundClassPathRoot root) {
+    try {
+      root.close();
+    } catch (final IOException ex) {
+      this.getLog().warn("Could not close " + root, ex);
+    }
   }
 
   private static F<MavenProject, File> testDir() {
@@ -88,10 +213,14 @@ public abstract class BaseMojo extends AbstractMojo {
   }
 
   private CompoundClassPathRoot makeRoot(final String packaging,
-      final F<MavenProject, File> dirFunc) {
-    final List<ClasspathRoot> roots = collectRootsForChildProjects(dirFunc);
+      final F<MavenProject, File> dirFunc,
+      final Map<ClasspathRoot, MavenProject> modules) {
+    final List<ClasspathRoot> roots = collectRootsForChildProjects(dirFunc,
+        modules);
     if (!packaging.equalsIgnoreCase("pom")) {
-      roots.add(makeRootForProject(this.project, dirFunc));
+      final ClasspathRoot root = makeRootForProject(this.project, dirFunc);
+      modules.put(root, this.project);
+      roots.add(root);
     }
     return new CompoundClassPathRoot(roots);
   }
@@ -105,12 +234,15 @@ public abstract class BaseMojo extends AbstractMojo {
   }
 
   private List<ClasspathRoot> collectRootsForChildProjects(
-      final F<MavenProject, File> dirFunc) {
+      final F<MavenProject, File> dirFunc,
+      final Map<ClasspathRoot, MavenProject> modules) {
     final List<ClasspathRoot> roots = new ArrayList<ClasspathRoot>();
     for (final Object each : this.project.getCollectedProjects()) {
       final MavenProject project = (MavenProject) each;
       this.getLog().info("Including child project " + project.getName());
-      roots.add(makeRootForProject(project, dirFunc));
+      final ClasspathRoot root = makeRootForProject(project, dirFunc);
+      modules.put(root, project);
+      roots.add(root);
     }
     return roots;
   }
@@ -126,25 +258,119 @@ public abstract class BaseMojo extends AbstractMojo {
     return new DirectoryClassPathRoot(f);
   }
 
+  private void addDependencyJars(final List<ClasspathRoot> roots) {
+    final Set<String> reactor = new HashSet<String>();
+    final List<MavenProject> projects = new ArrayList<MavenProject>();
+    projects.add(this.project);
+    for (final Object each : this.project.getCollectedProjects()) {
+      projects.add((MavenProject) each);
+    }
+    for (final MavenProject each : projects) {
+      reactor.add(each.getGroupId() + ":" + each.getArtifactId());
+    }
+
+    final Set<String> seen = new HashSet<String>();
+    for (final MavenProject each : projects) {
+      for (final Object a : each.getArtifacts()) {
+        final Artifact artifact = (Artifact) a;
+        final String key = artifact.getGroupId() + ":"
+            + artifact.getArtifactId();
+        if (isAnalysableJar(artifact) && !reactor.contains(key)
+            && seen.add(key)) {
+          this.getLog().info("Including dependency " + artifact);
+          final ClasspathRoot root = new ArchiveClassPathRoot(
+              artifact.getFile());
+          this.dependencyJars.put(root, artifact);
+          roots.add(root);
+        }
+      }
+    }
+  }
+
+  private void addPlatform(final List<ClasspathRoot> roots)
+      throws MojoExecutionException {
+    this.getLog().info("Including platform " + this.platform);
+    if (this.platform.isFile()) {
+      roots.add(new JmodClassPathRoot(this.platform));
+    } else if (new File(this.platform, "lib/jrt-fs.jar").isFile()) {
+      try {
+        roots.add(JrtClassPathRoot.open(this.platform));
+      } catch (final IOException ex) {
+        throw new MojoExecutionException("Cannot read runtime image in "
+            + this.platform, ex);
+      }
+    } else {
+      final File[] jmods = this.platform.listFiles();
+      if (jmods == null) {
+        throw new MojoExecutionException("Cannot read platform "
+            + this.platform);
+      }
+      for (final File each : jmods) {
+        if (each.getName().endsWith(".jmod")) {
+          roots.add(new JmodClassPathRoot(each));
+        }
+      }
+    }
+  }
+
+  private static boolean isAnalysableJar(final Artifact artifact) {
+    return !Artifact.SCOPE_TEST.equals(artifact.getScope())
+        && artifact.getFile() != null && artifact.getFile().isFile()
+        && artifact.getFile().getName().endsWith(".jar");
+  }
+
   protected abstract void analyse(final ClasspathRoot mainRoot,
       final ClasspathRoot testRoot, final Filter filter)
       throws MojoExecutionException;
 
   private Filter createClassFilter() {
+    return makeFilter(classFilterGlob());
+  }
+
+  private String classFilterGlob() {
     if (this.classFilter == null || this.classFilter.isEmpty() ) {
-      return makeFilter(this.project.getGroupId() + ".*");
+      return this.project.getGroupId() + ".*";
     }
-    return makeFilter(this.classFilter);
+    return this.classFilter;
   }
 
-  private Filter makeFilter(final String glob) {
-    final Pattern p = Pattern.compile(GlobToRegex.convertGlobToRegex(glob));
-    return new Filter() {
-      public boolean include(final ElementName item) {
-        return p.matcher(item.asJavaName()).matches();
+  /**
+   * Store for the parsed main classes of this project, any child projects and
+   * any included dependency jars, so that they are not parsed again. Snapshots
+   * are only reused by runs with the same filter and scan mode.
+   */
+  protected SnapshotStore makeSnapshotStore(final String scanMode) {
+    final String stamp = classFilterGlob() + " " + scanMode;
+    return new CompoundSnapshotStore(Arrays.<SnapshotStore> asList(
+        new ModuleSnapshotStore(this.mainModules, stamp),
+        new ArtifactSnapshotStore(this.dependencyJars, this.cacheDirectory,
+            stamp)));
+  }
+
+  /**
+   * Analyser configured with the sub cycle limits and budgets.
+   */
+  protected CycleAnalyser makeCycleAnalyser() {
+    return new CycleAnalyser(CycleAnalyser.DEFAULT_SUB_ANALYSIS_THRESHOLD,
+        this.maxSubCycles, this.maxSubCycleLength, new Budget(
+            this.tangleWorkBudget, this.tangleTimeBudget), new Budget(
+            this.totalWorkBudget, this.totalTimeBudget));
+  }
+
+  protected DependencyOracle makePackageScorer() throws IOException {
+    if (this.accessRules != null) {
+      final InputStream is = new FileInputStream(this.accessRules);
+      try {
+        return new SimpleFlatFileOracleParser(is).parse();
+      } finally {
+        is.close();
       }
+    }
+    return new FixedScorer(DependendencyStatus.UNKNOWN);
+  }
 
-    };
+  private Filter makeFilter(final String glob) {
+    return new GlobFilter(glob);
   }
 
   protected File makeReportDirectory(final String dirName) {
@@ -0,0 +1,78 @@
+package org.pitest.highwheel.maven;
+
+import java.io.File;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+
+import org.apache.maven.plugin.MojoExecutionException;
+import org.pitest.highwheel.bytecodeparser.ClassPathParser;
+import org.pitest.highwheel.bytecodeparser.classpath.CompoundClassPathRoot;
+import org.pitest.highwheel.bytecodeparser.classpath.DirectoryClassPathRoot;
+import org.pitest.highwheel.classpath.ClasspathRoot;
+import org.pitest.highwheel.cycles.Filter;
+import org.pitest.highwheel.daemon.AnalysisDaemon;
+import org.pitest.highwheel.daemon.ClassFileWatcher;
+import org.pitest.highwheel.daemon.IncrementalClassGraph;
+
+/**
+ * Keeps the class graph in memory and updates it as classes are recompiled,
+ * answering queries over http on the loopback interface until stopped.
+ * 
+ * @goal daemon
+ * 
+ * @requiresDependencyResolution test
+ * 
+ */
+public class DaemonMojo extends BaseMojo {
+
+  /**
+   * Port to listen on.
+   * 
+   * @parameter default-value="7890" property="highwheel.port"
+   */
+  private int  port;
+
+  /**
+   * Milliseconds without further changes to wait for before updating the
+   * graph, so that a compile is applied in one go.
+   * 
+   * @parameter default-value="200" property="highwheel.quietPeriod"
+   */
+  private long quietPeriod;
+
+  @Override
+  protected void analyse(final ClasspathRoot mainRoot,
+      final ClasspathRoot testRoot, final Filter filter)
+      throws MojoExecutionException {
+    try {
+      final AnalysisDaemon daemon = new AnalysisDaemon(
+          new IncrementalClassGraph(new ClassPathParser(filter), mainRoot),
+          new ClassFileWatcher(directories(mainRoot), this.quietPeriod),
+          makePackageScorer(), makeCycleAnalyser(),
+          makeReportDirectory("highwheel"), this.port);
+      this.getLog().info(
+          "Highwheel daemon listening on http://127.0.0.1:"
+              + daemon.getPort() + "/");
+      daemon.run();
+    } catch (final IOException ex) {
+      throw new MojoExecutionException("Error while running daemon", ex);
+    } catch (final InterruptedException ex) {
+      Thread.currentThread().interrupt();
+    }
+  }
+
+  private static List<File> directories(final ClasspathRoot root) {
+    final List<File> dirs = new ArrayList<File>();
+    if (root instanceof DirectoryClassPathRoot) {
+      dirs.add(((DirectoryClassPathRoot) root).getRoot());
+    } else if (root instanceof CompoundClassPathRoot) {
+      for (final ClasspathRoot each : ((CompoundClassPathRoot) root)
+          .getRoots()) {
+        dirs.addAll(directories(each));
+      }
+    }
+    return dirs;
+  }
+
+}
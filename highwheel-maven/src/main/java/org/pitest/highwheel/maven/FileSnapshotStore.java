@@ -0,0 +1,73 @@
+package org.pitest.highwheel.maven;
+
+import java.io.BufferedInputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.file.Files;
+import java.nio.file.StandardCopyOption;
+
+import org.pitest.highwheel.classpath.ClasspathRoot;
+import org.pitest.highwheel.snapshot.SnapshotStore;
+
+/**
+ * Stores each snapshot in its own file, stamped with the class filter and scan
+ * mode used to create it. Snapshots made with a different stamp are ignored.
+ */
+abstract class FileSnapshotStore implements SnapshotStore {
+
+  private final String stamp;
+
+  FileSnapshotStore(final String stamp) {
+    this.stamp = stamp;
+  }
+
+  /**
+   * Returns the file for the root's snapshot, or null if the root is not
+   * handled by this store.
+   */
+  protected abstract File snapshotFile(ClasspathRoot root) throws IOException;
+
+  protected abstract boolean isCurrent(ClasspathRoot root, File snapshot);
+
+  public InputStream get(final ClasspathRoot root) throws IOException {
+    final File snapshot = snapshotFile(root);
+    if (snapshot == null || !snapshot.exists() || !isCurrent(root, snapshot)) {
+      return null;
+    }
+    final DataInputStream is = new DataInputStream(new BufferedInputStream(
+        new FileInputStream(snapshot)));
+    if (!this.stamp.equals(is.readUTF())) {
+      is.close();
+      return null;
+    }
+    return is;
+  }
+
+  public void put(final ClasspathRoot root, final byte[] snapshot)
+      throws IOException {
+    final File file = snapshotFile(root);
+    if (file == null) {
+      return;
+    }
+    file.getParentFile().mkdirs();
+    // write then move so concurrent builds never see a partial file
+    final File temp = File.createTempFile(file.getName(), ".tmp",
+        file.getParentFile());
+    final DataOutputStream os = new DataOutputStream(new FileOutputStream(
+        temp));
+    try {
+      os.writeUTF(this.stamp);
+      os.write(snapshot);
+    } finally {
+      os.close();
+    }
+    Files.move(temp.toPath(), file.toPath(),
+        StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+  }
+
+}
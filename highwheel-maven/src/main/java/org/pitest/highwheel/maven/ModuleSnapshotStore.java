@@ -0,0 +1,62 @@
+package org.pitest.highwheel.maven;
+
+import java.io.File;
+import java.util.Map;
+
+import org.apache.maven.project.MavenProject;
+import org.pitest.highwheel.classpath.ClasspathRoot;
+
+/**
+ * Stores the parsed main classes of each module in its build directory so that
+ * the parsing done by a module's own execution can be reused by an aggregating
+ * execution.
+ *
+ * A snapshot is ignored if any class file or directory under the module's
+ * output directory is newer than it.
+ */
+class ModuleSnapshotStore extends FileSnapshotStore {
+
+  static final String                            SNAPSHOT = "module.hwg";
+
+  private final Map<ClasspathRoot, MavenProject> modules;
+
+  ModuleSnapshotStore(final Map<ClasspathRoot, MavenProject> modules,
+      final String stamp) {
+    super(stamp);
+    this.modules = modules;
+  }
+
+  @Override
+  protected File snapshotFile(final ClasspathRoot root) {
+    final MavenProject module = this.modules.get(root);
+    if (module == null) {
+      return null;
+    }
+    return new File(module.getBuild().getDirectory() + File.separator
+        + "highwheel" + File.separator + SNAPSHOT);
+  }
+
+  @Override
+  protected boolean isCurrent(final ClasspathRoot root, final File snapshot) {
+    final File classes = new File(this.modules.get(root).getBuild()
+        .getOutputDirectory());
+    return newestClass(classes) <= snapshot.lastModified();
+  }
+
+  private static long newestClass(final File dir) {
+    long newest = dir.lastModified();
+    final File[] files = dir.listFiles();
+    if (files == null) {
+      return newest;
+    }
+    for (final File each : files) {
+      if (each.isDirectory()) {
+        newest = Math.max(newest, newestClass(each));
+      } else if (each.getName().endsWith(".class")) {
+        newest = Math.max(newest, each.lastModified());
+      }
+    }
+    return newest;
+  }
+
+}
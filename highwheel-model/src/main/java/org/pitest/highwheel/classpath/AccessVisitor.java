@@ -15,4 +15,10 @@ public interface AccessVisitor {
 
   void newEntryPoint(ElementName clazz);
 
+  /**
+   * Called for each annotation on a class or its members, whether or not the
+   * annotation passes the class filter.
+   */
+  void newAnnotation(ElementName clazz, ElementName annotation);
+
 }
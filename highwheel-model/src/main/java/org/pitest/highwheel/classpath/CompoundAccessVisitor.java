@@ -0,0 +1,54 @@
+package org.pitest.highwheel.classpath;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+
+import org.pitest.highwheel.model.AccessPoint;
+import org.pitest.highwheel.model.AccessType;
+import org.pitest.highwheel.model.ElementName;
+
+/**
+ * Forwards all events to each of the wrapped children in turn
+ */
+public class CompoundAccessVisitor implements AccessVisitor {
+
+  private final List<AccessVisitor> children = new ArrayList<AccessVisitor>();
+
+  public CompoundAccessVisitor(final Collection<AccessVisitor> children) {
+    this.children.addAll(children);
+  }
+
+  public void apply(final AccessPoint source, final AccessPoint dest,
+      final AccessType type) {
+    for (final AccessVisitor each : this.children) {
+      each.apply(source, dest, type);
+    }
+  }
+
+  public void newNode(final ElementName clazz) {
+    for (final AccessVisitor each : this.children) {
+      each.newNode(clazz);
+    }
+  }
+
+  public void newAccessPoint(final AccessPoint ap) {
+    for (final AccessVisitor each : this.children) {
+      each.newAccessPoint(ap);
+    }
+  }
+
+  public void newEntryPoint(final ElementName clazz) {
+    for (final AccessVisitor each : this.children) {
+      each.newEntryPoint(clazz);
+    }
+  }
+
+  public void newAnnotation(final ElementName clazz,
+      final ElementName annotation) {
+    for (final AccessVisitor each : this.children) {
+      each.newAnnotation(clazz, annotation);
+    }
+  }
+
+}
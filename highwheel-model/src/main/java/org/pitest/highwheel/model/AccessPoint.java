@@ -4,10 +4,12 @@ public final class AccessPoint {
 
   private final ElementName clazz;
   private final AccessPointName      attribute;
+  private final int                  hash;
 
   AccessPoint(final ElementName clazz, final AccessPointName attribute) {
     this.clazz = clazz;
     this.attribute = attribute;
+    this.hash = calculateHashCode();
   }
 
   public static AccessPoint create(final ElementName clazz,
@@ -33,6 +35,10 @@ public final class AccessPoint {
 
   @Override
   public int hashCode() {
+    return this.hash;
+  }
+
+  private int calculateHashCode() {
     final int prime = 31;
     int result = 1;
     result = prime * result + ((attribute == null) ? 0 : attribute.hashCode());
@@ -49,6 +55,8 @@ public final class AccessPoint {
     if (getClass() != obj.getClass())
       return false;
     AccessPoint other = (AccessPoint) obj;
+    if (hash != other.hash)
+      return false;
     if (attribute == null) {
       if (other.attribute != null)
         return false;
@@ -7,18 +7,33 @@ public final class AccessPointName {
   // We store the method/field descriptor so we can distinguish between different methods of
   // the same name. Not yet clear how this will be communicated externally
   private final String desc;
+
+  private final int hash;
   
   AccessPointName(String name, String desc) {
     this.name = name;
     this.desc = desc;
+    this.hash = calculateHashCode();
   }
 
   public static AccessPointName create(String name, String desc) {
     return new AccessPointName(name.replace('<', '(').replace('>', ')').intern(),desc);
   }
+
+  public String getName() {
+    return this.name;
+  }
+
+  public String getDescriptor() {
+    return this.desc;
+  }
   
   @Override
   public int hashCode() {
+    return this.hash;
+  }
+
+  private int calculateHashCode() {
     final int prime = 31;
     int result = 1;
     result = prime * result + ((desc == null) ? 0 : desc.hashCode());
@@ -35,6 +50,8 @@ public final class AccessPointName {
     if (getClass() != obj.getClass())
       return false;
     AccessPointName other = (AccessPointName) obj;
+    if (hash != other.hash)
+      return false;
     if (desc == null) {
       if (other.desc != null)
         return false;
@@ -0,0 +1,85 @@
+package org.pitest.highwheel.model;
+
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+
+/**
+ * Canonicalising pool of access points, so that each distinct access point is
+ * held once however many times it is referenced. Equal access points from the
+ * same pool are the same instance, so comparisons between them succeed on
+ * reference equality.
+ *
+ * Members are held by class and then by name, so looking up a known access
+ * point allocates nothing.
+ *
+ * Pools are safe for use by several threads. Nothing is ever removed, so a
+ * pool should live no longer than the analysis that fills it.
+ */
+public final class AccessPointPool {
+
+  private final ConcurrentMap<ElementName, AccessPoint>                                classes = new ConcurrentHashMap<ElementName, AccessPoint>();
+  private final ConcurrentMap<ElementName, ConcurrentMap<AccessPointName, AccessPoint>> members = new ConcurrentHashMap<ElementName, ConcurrentMap<AccessPointName, AccessPoint>>();
+  private final ConcurrentMap<String, ConcurrentMap<String, AccessPointName>>           names   = new ConcurrentHashMap<String, ConcurrentMap<String, AccessPointName>>();
+
+  public AccessPoint create(final ElementName clazz) {
+    final AccessPoint point = this.classes.get(clazz);
+    if (point != null) {
+      return point;
+    }
+    return canonical(this.classes, clazz, AccessPoint.create(clazz));
+  }
+
+  public AccessPoint create(final ElementName clazz,
+      final AccessPointName attribute) {
+    if (attribute == null) {
+      return create(clazz);
+    }
+    ConcurrentMap<AccessPointName, AccessPoint> byName = this.members
+        .get(clazz);
+    if (byName == null) {
+      byName = canonical(this.members, clazz,
+          new ConcurrentHashMap<AccessPointName, AccessPoint>());
+    }
+    final AccessPoint point = byName.get(attribute);
+    if (point != null) {
+      return point;
+    }
+    return canonical(byName, attribute, AccessPoint.create(clazz, attribute));
+  }
+
+  /**
+   * Equivalent to AccessPointName.create, but returns the same instance for
+   * each distinct name and descriptor.
+   */
+  public AccessPointName name(final String name, final String desc) {
+    if (desc == null) {
+      return AccessPointName.create(name, desc);
+    }
+    ConcurrentMap<String, AccessPointName> byDesc = this.names.get(name);
+    if (byDesc == null) {
+      byDesc = canonical(this.names, name,
+          new ConcurrentHashMap<String, AccessPointName>());
+    }
+    final AccessPointName attribute = byDesc.get(desc);
+    if (attribute != null) {
+      return attribute;
+    }
+    return canonical(byDesc, desc, AccessPointName.create(name, desc));
+  }
+
+  public int size() {
+    int size = this.classes.size();
+    for (final ConcurrentMap<AccessPointName, AccessPoint> each : this.members
+        .values()) {
+      size += each.size();
+    }
+    return size;
+  }
+
+  private static <K, V> V canonical(final ConcurrentMap<K, V> map,
+      final K key, final V value) {
+    final V existing = map.putIfAbsent(key, value);
+    return existing != null ? existing : value;
+  }
+
+}
@@ -9,7 +9,9 @@ public class AccessPointNameTest {
 
   @Test
   public void shouldObeyHashcodeEqualsContract() {
-    EqualsVerifier.forClass(AccessPointName.class).verify();
+    EqualsVerifier.forClass(AccessPointName.class)
+        .withCachedHashCode("hash", "calculateHashCode",
+            AccessPointName.create("foo", "()V")).verify();
   }
   
   @Test
@@ -0,0 +1,83 @@
+package org.pitest.highwheel.model;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotSame;
+import static org.junit.Assert.assertSame;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import org.junit.Test;
+
+public class AccessPointPoolTest {
+
+  private final AccessPointPool testee = new AccessPointPool();
+  private final ElementName     foo    = ElementName.fromString("com.example.Foo");
+  private final ElementName     bar    = ElementName.fromString("com.example.Bar");
+
+  @Test
+  public void shouldReturnSameInstanceForEqualClassAccessPoints() {
+    assertSame(this.testee.create(this.foo),
+        this.testee.create(ElementName.fromString("com.example.Foo")));
+  }
+
+  @Test
+  public void shouldReturnSameInstanceForEqualMemberAccessPoints() {
+    final AccessPoint first = this.testee.create(this.foo,
+        AccessPointName.create("foo", "()V"));
+    assertSame(first,
+        this.testee.create(this.foo, AccessPointName.create("foo", "()V")));
+    assertEquals(AccessPoint.create(this.foo, AccessPointName.create("foo", "()V")),
+        first);
+  }
+
+  @Test
+  public void shouldReturnDifferentInstancesForDifferentAccessPoints() {
+    assertNotSame(this.testee.create(this.foo), this.testee.create(this.bar));
+    assertNotSame(
+        this.testee.create(this.foo, AccessPointName.create("foo", "()V")),
+        this.testee.create(this.foo, AccessPointName.create("foo", "(I)V")));
+    assertEquals(4, this.testee.size());
+  }
+
+  @Test
+  public void shouldTreatNullAttributeAsClassAccess() {
+    assertSame(this.testee.create(this.foo),
+        this.testee.create(this.foo, null));
+  }
+
+  @Test
+  public void shouldPoolAccessPointNames() {
+    final AccessPointName name = this.testee.name("<init>", "()V");
+    assertSame(name, this.testee.name("<init>", "()V"));
+    assertEquals(AccessPointName.create("<init>", "()V"), name);
+  }
+
+  @Test
+  public void shouldReturnOneInstanceToConcurrentCallers() throws Exception {
+    final ExecutorService executor = Executors.newFixedThreadPool(4);
+    try {
+      final List<Future<AccessPoint>> results = new ArrayList<Future<AccessPoint>>();
+      for (int i = 0; i != 100; i++) {
+        results.add(executor.submit(new Callable<AccessPoint>() {
+          public AccessPoint call() {
+            return AccessPointPoolTest.this.testee.create(
+                ElementName.fromString("com.example.Foo"),
+                AccessPointPoolTest.this.testee.name("foo", "()V"));
+          }
+        }));
+      }
+      final AccessPoint expected = results.get(0).get();
+      for (final Future<AccessPoint> each : results) {
+        assertSame(expected, each.get());
+      }
+    } finally {
+      executor.shutdown();
+    }
+  }
+
+}
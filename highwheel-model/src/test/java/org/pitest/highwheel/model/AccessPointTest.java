@@ -12,7 +12,10 @@ public class AccessPointTest {
 
   @Test
   public void shouldObeyHashcodeEqualsContract() {
-    EqualsVerifier.forClass(AccessPoint.class).verify();
+    EqualsVerifier.forClass(AccessPoint.class)
+        .withCachedHashCode("hash", "calculateHashCode",
+            AccessPoint.create(foo, AccessPointName.create("bar", "()V")))
+        .verify();
   }
 
   @Test
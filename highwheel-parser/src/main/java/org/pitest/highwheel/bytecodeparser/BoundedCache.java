@@ -0,0 +1,35 @@
+package org.pitest.highwheel.bytecodeparser;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Thread safe map that is emptied whenever it grows past its capacity. The
+ * descriptors of a code base follow a long tail, so the common ones are soon
+ * cached again, and clearing costs far less than tracking use.
+ */
+final class BoundedCache<K, V> {
+
+  private final int       capacity;
+  private final Map<K, V> entries = new ConcurrentHashMap<K, V>();
+
+  BoundedCache(final int capacity) {
+    this.capacity = capacity;
+  }
+
+  V get(final K key) {
+    return this.entries.get(key);
+  }
+
+  void put(final K key, final V value) {
+    if (this.entries.size() >= this.capacity) {
+      this.entries.clear();
+    }
+    this.entries.put(key, value);
+  }
+
+  int size() {
+    return this.entries.size();
+  }
+
+}
@@ -0,0 +1,14 @@
+package org.pitest.highwheel.bytecodeparser;
+
+import org.pitest.highwheel.classpath.AccessVisitor;
+import org.pitest.highwheel.model.ElementName;
+
+/**
+ * Parses a single class file that has already been read into memory.
+ */
+public interface ClassFileParser {
+
+  public void parseClass(ElementName name, byte[] bytes, int offset,
+      int length, AccessVisitor v);
+
+}
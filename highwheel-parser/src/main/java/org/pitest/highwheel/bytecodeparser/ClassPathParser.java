@@ -5,16 +5,20 @@ import java.io.IOException;
 import java.io.InputStream;
 
 import org.objectweb.asm.ClassReader;
+import org.pitest.highwheel.bytecodeparser.classpath.ClassBytes;
 import org.pitest.highwheel.classpath.AccessVisitor;
 import org.pitest.highwheel.classpath.ClassParser;
 import org.pitest.highwheel.classpath.ClasspathRoot;
 import org.pitest.highwheel.cycles.Filter;
+import org.pitest.highwheel.jfr.ParseClassTrace;
+import org.pitest.highwheel.jfr.Traces;
 import org.pitest.highwheel.model.ElementName;
+import org.pitest.highwheel.util.StreamUtil;
 
-public class ClassPathParser implements ClassParser {
+public class ClassPathParser implements ClassParser, ClassFileParser {
 
   private final Filter        filter;
-  private final NameTransformer nameTransformer;
+  private final NameCache     names;
   
   public ClassPathParser(final Filter filter) {
     this(filter, new CollapseInnerClassesNameTransformer());
@@ -22,7 +26,7 @@ public class ClassPathParser implements ClassParser {
 
   public ClassPathParser(final Filter filter, final NameTransformer nameTransformer) {
     this.filter = filter;
-    this.nameTransformer = nameTransformer;
+    this.names = new NameCache(filter, nameTransformer);
   }
 
   public void parse(final ClasspathRoot classes, final AccessVisitor v) throws IOException {
@@ -39,14 +43,30 @@ public class ClassPathParser implements ClassParser {
       final ElementName each) throws IOException {
     final InputStream is = cp.getData(each);
     try {
-      final ClassReader reader = new ClassReader(is);
-      final DependencyClassVisitor cv = new DependencyClassVisitor(null,
-          new FilteringDecorator(dv, this.filter), nameTransformer);
-      reader.accept(cv, 0);
+      if (is instanceof ClassBytes) {
+        final ClassBytes bytes = (ClassBytes) is;
+        parseClass(each, bytes.array(), bytes.offset(), bytes.length(), dv);
+      } else {
+        final byte[] bytes = StreamUtil.streamToByteArray(is);
+        parseClass(each, bytes, 0, bytes.length, dv);
+      }
     } finally {
       is.close();
     }
 
   }
 
+  public void parseClass(final ElementName each, final byte[] bytes,
+      final int offset, final int length, final AccessVisitor dv) {
+    final ParseClassTrace event = Traces.parseClass();
+    event.begin();
+    final DependencyClassVisitor cv = new DependencyClassVisitor(null,
+        new MaterialisingAccessVisitor(dv, this.names));
+    new ClassReader(bytes, offset, length).accept(cv, 0);
+    event.end();
+    if (event.shouldCommit()) {
+      event.record(each.asJavaName(), length);
+    }
+  }
+
 }
@@ -0,0 +1,484 @@
+package org.pitest.highwheel.bytecodeparser;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.HashSet;
+import java.util.Set;
+
+import org.pitest.highwheel.bytecodeparser.classpath.ClassBytes;
+import org.pitest.highwheel.classpath.AccessVisitor;
+import org.pitest.highwheel.classpath.ClassParser;
+import org.pitest.highwheel.classpath.ClasspathRoot;
+import org.pitest.highwheel.cycles.Filter;
+import org.pitest.highwheel.jfr.ParseClassTrace;
+import org.pitest.highwheel.jfr.Traces;
+import org.pitest.highwheel.model.AccessPoint;
+import org.pitest.highwheel.model.AccessType;
+import org.pitest.highwheel.model.ElementName;
+import org.pitest.highwheel.util.StreamUtil;
+
+/**
+ * Fast parser for when only the class and package graphs are needed.
+ *
+ * Rather than visiting every method body this reads the class file's header,
+ * the descriptors, signatures and annotations of its fields and methods, and
+ * the classes named in its constant pool. Code attributes are skipped without
+ * being decoded, so types that appear only in local variable tables are not
+ * seen.
+ *
+ * All dependencies are reported from the class rather than from its methods,
+ * no access points are reported, and each dependency is reported once per
+ * class and access type. Types referenced only from the constant pool are
+ * reported as USES.
+ */
+public class ConstantPoolClassParser implements ClassParser, ClassFileParser {
+
+  private static final ElementName OBJECT      = ElementName
+                                                   .fromClass(Object.class);
+  private static final String      MAIN_DESC   = "([Ljava/lang/String;)V";
+  private static final int         ACC_STATIC  = 0x0008;
+
+  private static final int         UTF8        = 1;
+  private static final int         INTEGER     = 3;
+  private static final int         FLOAT       = 4;
+  private static final int         LONG        = 5;
+  private static final int         DOUBLE      = 6;
+  private static final int         CLASS       = 7;
+  private static final int         STRING      = 8;
+  private static final int         FIELDREF    = 9;
+  private static final int         METHODREF   = 10;
+  private static final int         IMETHODREF  = 11;
+  private static final int         NAMEANDTYPE = 12;
+  private static final int         HANDLE      = 15;
+  private static final int         METHODTYPE  = 16;
+  private static final int         DYNAMIC     = 17;
+  private static final int         INDY        = 18;
+  private static final int         MODULE      = 19;
+  private static final int         PACKAGE     = 20;
+
+  private final Filter             filter;
+  private final NameTransformer    nameTransformer;
+
+  public ConstantPoolClassParser(final Filter filter) {
+    this(filter, new CollapseInnerClassesNameTransformer());
+  }
+
+  public ConstantPoolClassParser(final Filter filter,
+      final NameTransformer nameTransformer) {
+    this.filter = filter;
+    this.nameTransformer = nameTransformer;
+  }
+
+  public void parse(final ClasspathRoot classes, final AccessVisitor v)
+      throws IOException {
+    for (final ElementName each : classes.classNames()) {
+      if (this.filter.include(each)) {
+        parseClass(classes, v, each);
+      }
+    }
+  }
+
+  private void parseClass(final ClasspathRoot cp, final AccessVisitor v,
+      final ElementName each) throws IOException {
+    final InputStream is = cp.getData(each);
+    if (is == null) {
+      throw new IOException("Class not found " + each.asJavaName());
+    }
+    try {
+      if (is instanceof ClassBytes) {
+        final ClassBytes bytes = (ClassBytes) is;
+        parseClass(each, bytes.array(), bytes.offset(), bytes.length(), v);
+      } else {
+        final byte[] bytes = StreamUtil.streamToByteArray(is);
+        parseClass(each, bytes, 0, bytes.length, v);
+      }
+    } finally {
+      is.close();
+    }
+  }
+
+  public void parseClass(final ElementName name, final byte[] bytes,
+      final int offset, final int length, final AccessVisitor v) {
+    final ParseClassTrace event = Traces.parseClass();
+    event.begin();
+    new Scan(bytes, offset, new FilteringDecorator(v, this.filter),
+        this.nameTransformer).run();
+    event.end();
+    if (event.shouldCommit()) {
+      event.record(name.asJavaName(), length);
+    }
+  }
+
+  /**
+   * State for the scan of a single class file.
+   */
+  private static final class Scan {
+
+    private final byte[]          b;
+    private final int             start;
+    private final AccessVisitor   v;
+    private final NameTransformer nameTransformer;
+    private final Set<String>     reported = new HashSet<String>();
+    private final Set<String>     seen     = new HashSet<String>();
+
+    private int[]                 items;
+    private byte[]                tags;
+    private String[]              strings;
+    private char[]                chars;
+    private AccessPoint           source;
+
+    Scan(final byte[] b, final int start, final AccessVisitor v,
+        final NameTransformer nameTransformer) {
+      this.b = b;
+      this.start = start;
+      this.v = v;
+      this.nameTransformer = nameTransformer;
+    }
+
+    void run() {
+      if (readInt(this.start) != 0xCAFEBABE) {
+        throw new IllegalArgumentException("Not a class file");
+      }
+      int pos = readConstantPool();
+
+      final int thisClass = readUnsignedShort(pos + 2);
+      final int superClass = readUnsignedShort(pos + 4);
+      this.source = AccessPoint.create(this.nameTransformer
+          .transform(classAt(thisClass)));
+      this.v.newNode(this.source.getElementName());
+      if (superClass != 0) {
+        internalName(classAt(superClass), AccessType.INHERITANCE);
+      }
+      final int interfaces = readUnsignedShort(pos + 6);
+      pos += 8;
+      for (int i = 0; i != interfaces; i++) {
+        internalName(classAt(readUnsignedShort(pos)), AccessType.IMPLEMENTS);
+        pos += 2;
+      }
+
+      pos = readMembers(pos, AccessType.COMPOSED, AccessType.COMPOSED);
+      pos = readMembers(pos, AccessType.SIGNATURE, AccessType.SIGNATURE);
+      readAttributes(pos, AccessType.SIGNATURE);
+
+      readReferences();
+    }
+
+    private int readConstantPool() {
+      final int count = readUnsignedShort(this.start + 8);
+      this.items = new int[count];
+      this.tags = new byte[count];
+      this.strings = new String[count];
+      int maxString = 0;
+      int pos = this.start + 10;
+      for (int i = 1; i < count; i++) {
+        final int tag = this.b[pos];
+        this.items[i] = pos + 1;
+        this.tags[i] = (byte) tag;
+        switch (tag) {
+        case UTF8:
+          final int size = 3 + readUnsignedShort(pos + 1);
+          maxString = Math.max(maxString, size);
+          pos += size;
+          break;
+        case INTEGER:
+        case FLOAT:
+        case FIELDREF:
+        case METHODREF:
+        case IMETHODREF:
+        case NAMEANDTYPE:
+        case DYNAMIC:
+        case INDY:
+          pos += 5;
+          break;
+        case LONG:
+        case DOUBLE:
+          pos += 9;
+          i++;
+          break;
+        case CLASS:
+        case STRING:
+        case METHODTYPE:
+        case MODULE:
+        case PACKAGE:
+          pos += 3;
+          break;
+        case HANDLE:
+          pos += 4;
+          break;
+        default:
+          throw new IllegalArgumentException("Unknown constant pool tag "
+              + tag);
+        }
+      }
+      this.chars = new char[maxString];
+      return pos;
+    }
+
+    private int readMembers(final int from, final AccessType descriptorType,
+        final AccessType attributeType) {
+      int pos = from;
+      final int count = readUnsignedShort(pos);
+      pos += 2;
+      for (int i = 0; i != count; i++) {
+        final int access = readUnsignedShort(pos);
+        final String name = utf8At(readUnsignedShort(pos + 2));
+        final String desc = utf8At(readUnsignedShort(pos + 4));
+        descriptor(desc, descriptorType);
+        if ((access & ACC_STATIC) != 0 && name.equals("main")
+            && desc.equals(MAIN_DESC)) {
+          this.v.newEntryPoint(this.source.getElementName());
+        }
+        pos = readAttributes(pos + 6, attributeType);
+      }
+      return pos;
+    }
+
+    private int readAttributes(final int from, final AccessType signatureType) {
+      int pos = from;
+      final int count = readUnsignedShort(pos);
+      pos += 2;
+      for (int i = 0; i != count; i++) {
+        final String name = utf8At(readUnsignedShort(pos));
+        final int length = readInt(pos + 2);
+        final int data = pos + 6;
+        if (name.equals("Signature")) {
+          descriptor(utf8At(readUnsignedShort(data)), signatureType);
+        } else if (name.equals("Exceptions")) {
+          final int exceptions = readUnsignedShort(data);
+          for (int e = 0; e != exceptions; e++) {
+            internalName(classAt(readUnsignedShort(data + 2 + (e * 2))),
+                AccessType.SIGNATURE);
+          }
+        } else if (name.equals("RuntimeVisibleAnnotations")
+            || name.equals("RuntimeInvisibleAnnotations")) {
+          readAnnotations(data);
+        } else if (name.equals("RuntimeVisibleParameterAnnotations")
+            || name.equals("RuntimeInvisibleParameterAnnotations")) {
+          final int parameters = this.b[data] & 0xFF;
+          int p = data + 1;
+          for (int a = 0; a != parameters; a++) {
+            p = readAnnotations(p);
+          }
+        }
+        // Code and all other attributes are skipped undecoded
+        pos = data + length;
+      }
+      return pos;
+    }
+
+    private int readAnnotations(final int from) {
+      final int count = readUnsignedShort(from);
+      int pos = from + 2;
+      for (int i = 0; i != count; i++) {
+        pos = readAnnotation(pos, AccessType.ANNOTATED);
+      }
+      return pos;
+    }
+
+    private int readAnnotation(final int from, final AccessType type) {
+      final String desc = utf8At(readUnsignedShort(from));
+      if (type == AccessType.ANNOTATED) {
+        // reported unfiltered so annotations can mark entry points
+        this.v.newAnnotation(this.source.getElementName(), this.nameTransformer
+            .transform(desc.substring(1, desc.length() - 1)));
+      }
+      descriptor(desc, type);
+      final int pairs = readUnsignedShort(from + 2);
+      int pos = from + 4;
+      for (int i = 0; i != pairs; i++) {
+        pos = skipElementValue(pos + 2);
+      }
+      return pos;
+    }
+
+    private int skipElementValue(final int pos) {
+      switch (this.b[pos]) {
+      case 'e':
+        descriptor(utf8At(readUnsignedShort(pos + 1)), AccessType.USES);
+        return pos + 5;
+      case 'c':
+        descriptor(utf8At(readUnsignedShort(pos + 1)), AccessType.USES);
+        return pos + 3;
+      case '@':
+        return readAnnotation(pos + 1, AccessType.USES);
+      case '[':
+        final int values = readUnsignedShort(pos + 1);
+        int p = pos + 3;
+        for (int i = 0; i != values; i++) {
+          p = skipElementValue(p);
+        }
+        return p;
+      default:
+        return pos + 3;
+      }
+    }
+
+    /**
+     * Reports the classes named in the constant pool, which include the owner
+     * of every member a method body refers to, and the types passed to and
+     * returned from invokedynamic call sites.
+     */
+    private void readReferences() {
+      for (int i = 1; i != this.items.length; i++) {
+        if (this.tags[i] == CLASS) {
+          internalName(utf8At(readUnsignedShort(this.items[i])),
+              AccessType.USES);
+        } else if (this.tags[i] == INDY) {
+          final int nameAndType = this.items[readUnsignedShort(this.items[i]
+              + 2)];
+          descriptor(utf8At(readUnsignedShort(nameAndType + 2)),
+              AccessType.USES);
+        }
+      }
+    }
+
+    /**
+     * Reports the class types found in a field or method descriptor or in a
+     * generic signature.
+     */
+    private void descriptor(final String desc, final AccessType type) {
+      int i = formalTypeParameters(desc, 0, type);
+      while (i < desc.length()) {
+        final char c = desc.charAt(i);
+        if (c == '(' || c == ')' || c == '^') {
+          i++;
+        } else {
+          i = typeAt(desc, i, type);
+        }
+      }
+    }
+
+    private int formalTypeParameters(final String s, final int from,
+        final AccessType type) {
+      if (s.length() == 0 || s.charAt(from) != '<') {
+        return from;
+      }
+      int i = from + 1;
+      while (s.charAt(i) != '>') {
+        i = s.indexOf(':', i);
+        while (s.charAt(i) == ':') {
+          i++;
+          if (s.charAt(i) != ':') {
+            i = typeAt(s, i, type);
+          }
+        }
+      }
+      return i + 1;
+    }
+
+    private int typeAt(final String s, final int from, final AccessType type) {
+      switch (s.charAt(from)) {
+      case '[':
+        return typeAt(s, from + 1, type);
+      case 'T':
+        return s.indexOf(';', from) + 1;
+      case 'L':
+        int i = from + 1;
+        while (";<.".indexOf(s.charAt(i)) == -1) {
+          i++;
+        }
+        report(s.substring(from + 1, i), type);
+        // type arguments and inner class suffixes
+        while (s.charAt(i) != ';') {
+          if (s.charAt(i) == '<') {
+            i = typeArguments(s, i, type);
+          } else {
+            i++;
+            while (";<.".indexOf(s.charAt(i)) == -1) {
+              i++;
+            }
+          }
+        }
+        return i + 1;
+      default:
+        return from + 1;
+      }
+    }
+
+    private int typeArguments(final String s, final int from,
+        final AccessType type) {
+      int i = from + 1;
+      while (s.charAt(i) != '>') {
+        final char c = s.charAt(i);
+        if (c == '*') {
+          i++;
+        } else if (c == '+' || c == '-') {
+          i = typeAt(s, i + 1, type);
+        } else {
+          i = typeAt(s, i, type);
+        }
+      }
+      return i + 1;
+    }
+
+    /**
+     * Reports a name from a CONSTANT_Class entry, which holds a descriptor
+     * rather than a plain name for array types.
+     */
+    private void internalName(final String name, final AccessType type) {
+      if (name.charAt(0) == '[') {
+        descriptor(name, type);
+      } else {
+        report(name, type);
+      }
+    }
+
+    private void report(final String internalName, final AccessType type) {
+      final ElementName dest = this.nameTransformer.transform(internalName);
+      if (dest.equals(OBJECT) || dest.equals(this.source.getElementName())) {
+        return;
+      }
+      final String key = dest.asInternalName();
+      // a type met in a declaration is not reported again as USES
+      final boolean first = type == AccessType.USES ? this.seen.add(key)
+          : this.reported.add(type.ordinal() + key);
+      if (first) {
+        this.seen.add(key);
+        this.v.apply(this.source, AccessPoint.create(dest), type);
+      }
+    }
+
+    private String classAt(final int index) {
+      return utf8At(readUnsignedShort(this.items[index]));
+    }
+
+    private String utf8At(final int index) {
+      String s = this.strings[index];
+      if (s == null) {
+        s = readUtf8(this.items[index]);
+        this.strings[index] = s;
+      }
+      return s;
+    }
+
+    private String readUtf8(final int pos) {
+      final int length = readUnsignedShort(pos);
+      int i = pos + 2;
+      final int end = i + length;
+      int n = 0;
+      while (i < end) {
+        final int c = this.b[i++];
+        if ((c & 0x80) == 0) {
+          this.chars[n++] = (char) (c & 0x7F);
+        } else if ((c & 0xE0) == 0xC0) {
+          this.chars[n++] = (char) (((c & 0x1F) << 6) + (this.b[i++] & 0x3F));
+        } else {
+          this.chars[n++] = (char) (((c & 0xF) << 12)
+              + ((this.b[i++] & 0x3F) << 6) + (this.b[i++] & 0x3F));
+        }
+      }
+      return new String(this.chars, 0, n);
+    }
+
+    private int readUnsignedShort(final int pos) {
+      return ((this.b[pos] & 0xFF) << 8) | (this.b[pos + 1] & 0xFF);
+    }
+
+    private int readInt(final int pos) {
+      return ((this.b[pos] & 0xFF) << 24) | ((this.b[pos + 1] & 0xFF) << 16)
+          | ((this.b[pos + 2] & 0xFF) << 8) | (this.b[pos + 3] & 0xFF);
+    }
+
+  }
+
+}
@@ -1,199 +1,119 @@
 package org.pitest.highwheel.bytecodeparser;
 
-import static org.pitest.highwheel.bytecodeparser.NameUtil.getElementNameForType;
-
 import org.objectweb.asm.AnnotationVisitor;
 import org.objectweb.asm.ClassVisitor;
 import org.objectweb.asm.FieldVisitor;
 import org.objectweb.asm.MethodVisitor;
 import org.objectweb.asm.Opcodes;
-import org.objectweb.asm.Type;
-import org.objectweb.asm.signature.SignatureReader;
-import org.pitest.highwheel.classpath.AccessVisitor;
-import org.pitest.highwheel.model.AccessPoint;
-import org.pitest.highwheel.model.AccessPointName;
 import org.pitest.highwheel.model.AccessType;
-import org.pitest.highwheel.model.ElementName;
 
 class DependencyClassVisitor extends ClassVisitor {
 
-  private final static ElementName OBJECT = ElementName.fromClass(Object.class);
-
-  private final AccessVisitor      dependencyVisitor;
-  private final NameTransformer nameTransformer;
-  private AccessPoint              parent;
+  private final RawAccessVisitor dependencyVisitor;
+  private String                 parentClass;
+  private String                 parentMember;
+  private String                 parentDesc;
 
   public DependencyClassVisitor(final ClassVisitor visitor,
-      final AccessVisitor typeReceiver, NameTransformer nameTransformer) {
+      final RawAccessVisitor typeReceiver) {
     super(Opcodes.ASM7, visitor);
-    this.dependencyVisitor = filterOutJavaLangObject(typeReceiver);
-    this.nameTransformer = nameTransformer;
-  }
-
-  private static AccessVisitor filterOutJavaLangObject(final AccessVisitor child) {
-    return new AccessVisitor() {
-
-      @Override
-      public void apply(final AccessPoint source, final AccessPoint dest,
-          final AccessType type) {
-        if (!dest.getElementName().equals(OBJECT)) {
-          child.apply(source, dest, type);
-        }
-
-      }
-
-      @Override
-      public void newNode(final ElementName clazz) {
-        child.newNode(clazz);
-      }
-
-      @Override
-      public void newEntryPoint(ElementName clazz) {
-        child.newEntryPoint(clazz);        
-      }
-
-      @Override
-      public void newAccessPoint(AccessPoint ap) {
-        child.newAccessPoint(ap); 
-      }
-
-    };
+    this.dependencyVisitor = typeReceiver;
   }
 
   @Override
   public void visit(final int version, final int access, final String name,
       final String signature, final String superName, final String[] interfaces) {
-    this.parent = AccessPoint.create(nameTransformer.transform(name));
-    this.dependencyVisitor.newNode(this.parent.getElementName());
+    this.parentClass = name;
+    this.dependencyVisitor.newNode(name);
+    atParent();
 
     if (superName != null) {
-      this.dependencyVisitor.apply(this.parent,
-          AccessPoint.create(nameTransformer.transform(superName)),
+      this.dependencyVisitor.apply(superName, null, null,
           AccessType.INHERITANCE);
     }
     for (final String each : interfaces) {
-      this.dependencyVisitor.apply(this.parent,
-          AccessPoint.create(nameTransformer.transform(each)), AccessType.IMPLEMENTS);
+      this.dependencyVisitor.apply(each, null, null, AccessType.IMPLEMENTS);
     }
 
     if (signature != null) {
-      final SignatureReader sr = new SignatureReader(signature);
-      sr.accept(new DependencySignatureVisitor(this.parent,
-          this.dependencyVisitor, AccessType.SIGNATURE));
+      this.dependencyVisitor.applySignature(signature, AccessType.SIGNATURE);
     }
   }
 
   @Override
   public AnnotationVisitor visitAnnotation(final String desc,
       final boolean visible) {
-    this.dependencyVisitor.apply(this.parent, AccessPoint.create(ElementName
-        .fromString(org.objectweb.asm.Type.getType(desc).getClassName())),
-        AccessType.ANNOTATED);
+    atParent();
+    this.dependencyVisitor.applyType(desc, AccessType.ANNOTATED);
     return null;
   }
 
   @Override
   public FieldVisitor visitField(final int access, final String name,
       final String desc, final String signature, final Object value) {
-    final org.objectweb.asm.Type asmType = org.objectweb.asm.Type.getType(desc);
-    this.dependencyVisitor
-        .apply(this.parent, AccessPoint.create(getElementNameForType(asmType)),
-            AccessType.COMPOSED);
+    atParent();
+    this.dependencyVisitor.applyType(desc, AccessType.COMPOSED);
 
     if (signature != null) {
-      final SignatureReader sr = new SignatureReader(signature);
-      sr.accept(new DependencySignatureVisitor(this.parent,
-          this.dependencyVisitor, AccessType.COMPOSED));
+      this.dependencyVisitor.applySignature(signature, AccessType.COMPOSED);
     }
 
-    return new DependencyFieldVisitor(this.parent, this.dependencyVisitor);
+    return new DependencyFieldVisitor(this.dependencyVisitor);
   }
 
   @Override
   public void visitOuterClass(final String owner, final String name,
       final String desc) {
-
-    final ElementName outer = nameTransformer.transform(owner);
-    if (name != null) {
-      this.parent = AccessPoint.create(outer, AccessPointName.create(name, desc));
-    } else {
-      this.parent = AccessPoint.create(outer);
-    }
+    this.parentClass = owner;
+    this.parentMember = name;
+    this.parentDesc = name != null ? desc : null;
   }
 
   @Override
   public MethodVisitor visitMethod(final int access, final String name,
       final String desc, final String signature, final String[] exceptions) {
 
-    final AccessPoint method = pickAccessPointForMethod(name, desc);
-    
-    this.dependencyVisitor.newAccessPoint(method);
-
-    examineParameters(desc, method);
-    examineExceptions(exceptions, method);
-    examineReturnType(desc, method);
-    
-    if (isEntryPoint(access,name,desc) ) {
-      this.dependencyVisitor.newEntryPoint(parent.getElementName());
-    }
-    
     if (signature != null) {
-      final SignatureReader sr = new SignatureReader(signature);
-      sr.accept(new DependencySignatureVisitor(this.parent,
-          this.dependencyVisitor, AccessType.SIGNATURE));
+      atParent();
+      this.dependencyVisitor.applySignature(signature, AccessType.SIGNATURE);
     }
 
-    return new DependencyMethodVisitor(method, this.dependencyVisitor, nameTransformer);
-  }
-
-  private boolean isEntryPoint(int access, String name, String desc) {
-    return isStatic(access) && name.equals("main") && desc.equals("([Ljava/lang/String;)V");
-  }
-
-  private boolean isStatic(int access) {
-    return (Opcodes.ACC_STATIC & access) != 0;
-  }
-
-  private void examineReturnType(final String desc, final AccessPoint method) {
-    final org.objectweb.asm.Type returnType = org.objectweb.asm.Type
-        .getMethodType(desc).getReturnType();
-    this.dependencyVisitor.apply(method, AccessPoint
-        .create(nameTransformer.transform(getElementNameForType(returnType)
-            .asInternalName())), AccessType.SIGNATURE);
-  }
+    if (parentIsMethod()) {
+      atParent();
+    } else {
+      this.dependencyVisitor.source(this.parentClass, name, desc);
+    }
+    this.dependencyVisitor.newAccessPoint();
 
-  private void examineExceptions(final String[] exceptions,
-      final AccessPoint method) {
+    this.dependencyVisitor.applyMethodType(desc, AccessType.SIGNATURE);
     if (exceptions != null) {
       for (final String each : exceptions) {
-        this.dependencyVisitor.apply(method,
-            AccessPoint.create(nameTransformer.transform(each)), AccessType.SIGNATURE);
+        this.dependencyVisitor.apply(each, null, null, AccessType.SIGNATURE);
       }
     }
-  }
-
-  private void examineParameters(final String desc, final AccessPoint method) {
-    final org.objectweb.asm.Type[] params = org.objectweb.asm.Type
-        .getArgumentTypes(desc);
 
-    for (final Type each : params) {
-      this.dependencyVisitor.apply(method,
-          AccessPoint.create(nameTransformer.transform(getElementNameForType(each)
-              .asInternalName())), AccessType.SIGNATURE);
+    if (isEntryPoint(access, name, desc)) {
+      this.dependencyVisitor.newEntryPoint(this.parentClass);
     }
+
+    return new DependencyMethodVisitor(this.dependencyVisitor);
   }
 
-  private AccessPoint pickAccessPointForMethod(final String name, final String desc) {
-    if (parentIsMethod()) {
-      return this.parent;
-    }
-    return this.parent.methodAccess(AccessPointName.create(name, desc));
+  private void atParent() {
+    this.dependencyVisitor.source(this.parentClass, this.parentMember,
+        this.parentDesc);
   }
 
-  private boolean parentIsMethod() {
-    return this.parent.getAttribute() != null;
+  private boolean isEntryPoint(int access, String name, String desc) {
+    return isStatic(access) && name.equals("main") && desc.equals("([Ljava/lang/String;)V");
   }
 
+  private boolean isStatic(int access) {
+    return (Opcodes.ACC_STATIC & access) != 0;
+  }
 
+  private boolean parentIsMethod() {
+    return this.parentMember != null;
+  }
 
 }
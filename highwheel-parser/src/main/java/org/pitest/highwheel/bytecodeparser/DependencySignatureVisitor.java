@@ -1,31 +1,26 @@
 package org.pitest.highwheel.bytecodeparser;
 
+import java.util.List;
+
 import org.objectweb.asm.Opcodes;
 import org.objectweb.asm.signature.SignatureVisitor;
-import org.pitest.highwheel.classpath.AccessVisitor;
-import org.pitest.highwheel.model.AccessPoint;
-import org.pitest.highwheel.model.AccessType;
-import org.pitest.highwheel.model.ElementName;
 
-public class DependencySignatureVisitor extends SignatureVisitor {
+/**
+ * Collects the internal names of the classes referenced by a generic
+ * signature.
+ */
+class DependencySignatureVisitor extends SignatureVisitor {
 
-  private final AccessPoint   parent;
-  private final AccessVisitor typeReceiver;
-  private final AccessType type;
+  private final List<String> classes;
 
-  public DependencySignatureVisitor(final AccessPoint owner,
-      final AccessVisitor typeReceiver, AccessType type) {
+  DependencySignatureVisitor(final List<String> classes) {
     super(Opcodes.ASM7);
-    this.typeReceiver = typeReceiver;
-    this.parent = owner;
-    this.type = type;
+    this.classes = classes;
   }
 
   @Override
   public void visitClassType(final String name) {
-    this.typeReceiver.apply(this.parent,
-        AccessPoint.create(ElementName.fromString(name)), type);
-
+    this.classes.add(name);
   }
 
 }
@@ -42,6 +42,14 @@ class FilteringDecorator implements AccessVisitor {
     }
   }
 
+  @Override
+  public void newAnnotation(final ElementName clazz,
+      final ElementName annotation) {
+    if (this.filter.include(clazz)) {
+      this.child.newAnnotation(clazz, annotation);
+    }
+  }
+
   @Override
   public void newAccessPoint(AccessPoint ap) {
     this.child.newAccessPoint(ap);
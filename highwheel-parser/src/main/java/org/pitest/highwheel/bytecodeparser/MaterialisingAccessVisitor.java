@@ -0,0 +1,121 @@
+package org.pitest.highwheel.bytecodeparser;
+
+import org.pitest.highwheel.classpath.AccessVisitor;
+import org.pitest.highwheel.model.AccessPoint;
+import org.pitest.highwheel.model.AccessType;
+import org.pitest.highwheel.model.ElementName;
+
+/**
+ * Adapts raw parser events to an AccessVisitor, looking up access points only
+ * for accesses that pass the filter and are not to java.lang.Object.
+ * Annotations on included classes are also reported whether or not they pass
+ * the filter.
+ */
+class MaterialisingAccessVisitor implements RawAccessVisitor {
+
+  private static final ElementName OBJECT = ElementName.fromClass(Object.class);
+
+  private final AccessVisitor      child;
+  private final NameCache          names;
+
+  private String                   sourceName;
+  private ElementName              sourceClass;
+  private String                   sourceMember;
+  private String                   sourceDesc;
+  private boolean                  sourceIncluded;
+  private AccessPoint              source;
+
+  MaterialisingAccessVisitor(final AccessVisitor child, final NameCache names) {
+    this.child = child;
+    this.names = names;
+  }
+
+  public void newNode(final String clazz) {
+    final ElementName name = this.names.clazz(clazz);
+    if (this.names.include(name)) {
+      this.child.newNode(name);
+    }
+  }
+
+  public void newEntryPoint(final String clazz) {
+    final ElementName name = this.names.clazz(clazz);
+    if (this.names.include(name)) {
+      this.child.newEntryPoint(name);
+    }
+  }
+
+  public void source(final String clazz, final String member,
+      final String desc) {
+    if (clazz != this.sourceName) {
+      this.sourceName = clazz;
+      this.sourceClass = this.names.clazz(clazz);
+      this.sourceIncluded = this.names.include(this.sourceClass);
+    }
+    this.sourceMember = member;
+    this.sourceDesc = desc;
+    this.source = null;
+  }
+
+  public void newAccessPoint() {
+    this.child.newAccessPoint(source());
+  }
+
+  public void apply(final String clazz, final String member,
+      final String desc, final AccessType type) {
+    if (!this.sourceIncluded) {
+      return;
+    }
+    final ElementName dest = this.names.clazz(clazz);
+    if (accepts(dest)) {
+      this.child.apply(source(), this.names.point(dest, member, desc), type);
+    }
+  }
+
+  public void applyType(final String desc, final AccessType type) {
+    if (!this.sourceIncluded) {
+      return;
+    }
+    final ElementName dest = this.names.type(desc);
+    if (type == AccessType.ANNOTATED && dest != null) {
+      this.child.newAnnotation(this.sourceClass, dest);
+    }
+    if (accepts(dest)) {
+      this.child.apply(source(), this.names.point(dest, null, null), type);
+    }
+  }
+
+  public void applyMethodType(final String desc, final AccessType type) {
+    if (!this.sourceIncluded) {
+      return;
+    }
+    for (final ElementName each : this.names.methodTypes(desc)) {
+      if (accepts(each)) {
+        this.child.apply(source(), this.names.point(each, null, null), type);
+      }
+    }
+  }
+
+  public void applySignature(final String signature, final AccessType type) {
+    if (!this.sourceIncluded) {
+      return;
+    }
+    for (final ElementName each : this.names.signatureTypes(signature)) {
+      if (accepts(each)) {
+        this.child.apply(source(), this.names.point(each, null, null), type);
+      }
+    }
+  }
+
+  private boolean accepts(final ElementName dest) {
+    return dest != null && !dest.equals(OBJECT) && this.names.include(dest);
+  }
+
+  private AccessPoint source() {
+    if (this.source == null) {
+      this.source = this.names.point(this.sourceClass, this.sourceMember,
+          this.sourceDesc);
+    }
+    return this.source;
+  }
+
+}
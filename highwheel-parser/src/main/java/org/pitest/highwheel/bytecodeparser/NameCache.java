@@ -0,0 +1,152 @@
+package org.pitest.highwheel.bytecodeparser;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import org.objectweb.asm.Type;
+import org.objectweb.asm.signature.SignatureReader;
+import org.pitest.highwheel.cycles.Filter;
+import org.pitest.highwheel.model.AccessPoint;
+import org.pitest.highwheel.model.AccessPointPool;
+import org.pitest.highwheel.model.ElementName;
+
+/**
+ * Resolves internal names, descriptors and generic signatures to transformed
+ * element names, and members to pooled access points, remembering each so that
+ * the names shared between classes are only built once. Safe for use by
+ * several parsing threads.
+ *
+ * Each cache holds a bounded number of entries, so memory use does not grow
+ * with the size of the code base.
+ */
+final class NameCache {
+
+  static final int                               DEFAULT_CAPACITY = 64 * 1024;
+
+  private static final ElementName               PRIMITIVE        = new ElementName("");
+  private static final ElementName[]             NO_TYPES         = new ElementName[0];
+
+  private final Filter                           filter;
+  private final NameTransformer                  nameTransformer;
+  private final BoundedCache<String, ElementName>   classes;
+  private final BoundedCache<String, ElementName>   types;
+  private final BoundedCache<String, ElementName[]> methodTypes;
+  private final BoundedCache<String, ElementName[]> signatures;
+  private final AccessPointPool                  points           = new AccessPointPool();
+
+  NameCache(final Filter filter, final NameTransformer nameTransformer) {
+    this(filter, nameTransformer, DEFAULT_CAPACITY);
+  }
+
+  NameCache(final Filter filter, final NameTransformer nameTransformer,
+      final int capacity) {
+    this.filter = filter;
+    this.nameTransformer = nameTransformer;
+    this.classes = new BoundedCache<String, ElementName>(capacity);
+    this.types = new BoundedCache<String, ElementName>(capacity);
+    this.methodTypes = new BoundedCache<String, ElementName[]>(capacity);
+    this.signatures = new BoundedCache<String, ElementName[]>(capacity);
+  }
+
+  boolean include(final ElementName name) {
+    return this.filter.include(name);
+  }
+
+  AccessPoint point(final ElementName clazz, final String member,
+      final String desc) {
+    if (member == null) {
+      return this.points.create(clazz);
+    }
+    return this.points.create(clazz, this.points.name(member, desc));
+  }
+
+  /**
+   * The class named by an internal name or array descriptor, or null for
+   * arrays of primitives.
+   */
+  ElementName clazz(final String internalName) {
+    if (internalName.charAt(0) == '[') {
+      return type(internalName);
+    }
+    ElementName name = this.classes.get(internalName);
+    if (name == null) {
+      name = this.nameTransformer.transform(internalName);
+      this.classes.put(internalName, name);
+    }
+    return name;
+  }
+
+  /**
+   * The class described by a field descriptor, its element class for arrays,
+   * or null for primitives.
+   */
+  ElementName type(final String desc) {
+    ElementName name = this.types.get(desc);
+    if (name == null) {
+      name = resolve(Type.getType(desc));
+      this.types.put(desc, name);
+    }
+    return name == PRIMITIVE ? null : name;
+  }
+
+  /**
+   * The classes of each parameter and the return type of a method descriptor,
+   * omitting primitives.
+   */
+  ElementName[] methodTypes(final String desc) {
+    ElementName[] names = this.methodTypes.get(desc);
+    if (names == null) {
+      final List<ElementName> found = new ArrayList<ElementName>();
+      for (final Type each : Type.getArgumentTypes(desc)) {
+        addIfClass(found, resolve(each));
+      }
+      addIfClass(found, resolve(Type.getReturnType(desc)));
+      names = toArray(found);
+      this.methodTypes.put(desc, names);
+    }
+    return names;
+  }
+
+  /**
+   * The classes named in a generic signature, including type arguments and
+   * bounds. Names may repeat.
+   */
+  ElementName[] signatureTypes(final String signature) {
+    ElementName[] names = this.signatures.get(signature);
+    if (names == null) {
+      final List<String> classes = new ArrayList<String>();
+      new SignatureReader(signature).accept(new DependencySignatureVisitor(
+          classes));
+      final List<ElementName> found = new ArrayList<ElementName>(
+          classes.size());
+      for (final String each : classes) {
+        found.add(clazz(each));
+      }
+      names = toArray(found);
+      this.signatures.put(signature, names);
+    }
+    return names;
+  }
+
+  private static ElementName[] toArray(final List<ElementName> names) {
+    return names.isEmpty() ? NO_TYPES : names.toArray(new ElementName[names
+        .size()]);
+  }
+
+  private static void addIfClass(final List<ElementName> names,
+      final ElementName name) {
+    if (name != PRIMITIVE) {
+      names.add(name);
+    }
+  }
+
+  private ElementName resolve(final Type type) {
+    final Type element = type.getSort() == Type.ARRAY ? type.getElementType()
+        : type;
+    if (element.getSort() != Type.OBJECT) {
+      return PRIMITIVE;
+    }
+    return clazz(element.getInternalName());
+  }
+
+}
@@ -0,0 +1,181 @@
+package org.pitest.highwheel.bytecodeparser;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Deque;
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.ThreadFactory;
+
+import org.pitest.highwheel.bytecodeparser.classpath.ClassBytes;
+import org.pitest.highwheel.classpath.AccessVisitor;
+import org.pitest.highwheel.classpath.ClassParser;
+import org.pitest.highwheel.classpath.ClasspathRoot;
+import org.pitest.highwheel.cycles.Filter;
+import org.pitest.highwheel.model.ElementName;
+
+/**
+ * Parser that reads class files ahead of the parse on dedicated I/O threads,
+ * so that time spent waiting on the disk overlaps with time spent parsing.
+ *
+ * At most readAhead classes are in flight at once, each read into one of a
+ * ring of reusable buffers. Classes are parsed, and events delivered to the
+ * visitor, on the calling thread in the order the root lists them.
+ */
+public class PipelinedClassPathParser implements ClassParser {
+
+  private static final int      INITIAL_BUFFER = 8 * 1024;
+
+  private final Filter          filter;
+  private final ClassFileParser parser;
+  private final int             ioThreads;
+  private final int             readAhead;
+
+  public PipelinedClassPathParser(final Filter filter) {
+    this(filter, new CollapseInnerClassesNameTransformer());
+  }
+
+  public PipelinedClassPathParser(final Filter filter,
+      final NameTransformer nameTransformer) {
+    this(filter, new ClassPathParser(filter, nameTransformer));
+  }
+
+  public PipelinedClassPathParser(final Filter filter,
+      final ClassFileParser parser) {
+    this(filter, parser, 2, 64);
+  }
+
+  public PipelinedClassPathParser(final Filter filter,
+      final ClassFileParser parser, final int ioThreads, final int readAhead) {
+    this.filter = filter;
+    this.parser = parser;
+    this.ioThreads = ioThreads;
+    this.readAhead = readAhead;
+  }
+
+  public void parse(final ClasspathRoot classes, final AccessVisitor v)
+      throws IOException {
+    final List<ElementName> names = new ArrayList<ElementName>();
+    for (final ElementName each : classes.classNames()) {
+      if (this.filter.include(each)) {
+        names.add(each);
+      }
+    }
+    if (names.isEmpty()) {
+      return;
+    }
+
+    final ExecutorService io = Executors.newFixedThreadPool(
+        Math.max(1, Math.min(this.ioThreads, names.size())), daemonThreads());
+    try {
+      final Deque<Future<Slot>> inFlight = new ArrayDeque<Future<Slot>>();
+      int next = 0;
+      while (next != names.size() && inFlight.size() != this.readAhead) {
+        inFlight.add(io.submit(read(classes, names.get(next), new Slot())));
+        next++;
+      }
+
+      while (!inFlight.isEmpty()) {
+        final Slot slot = get(inFlight.remove());
+        this.parser.parseClass(slot.name, slot.bytes, slot.offset,
+            slot.length, v);
+        if (next != names.size()) {
+          // the parsed slot's buffer is free to take the next read
+          inFlight.add(io.submit(read(classes, names.get(next), slot)));
+          next++;
+        }
+      }
+    } finally {
+      io.shutdownNow();
+    }
+  }
+
+  private static Callable<Slot> read(final ClasspathRoot cp,
+      final ElementName name, final Slot slot) {
+    return new Callable<Slot>() {
+      public Slot call() throws IOException {
+        final InputStream is = cp.getData(name);
+        if (is == null) {
+          throw new IOException("Class not found " + name.asJavaName());
+        }
+        try {
+          slot.fill(name, is);
+          return slot;
+        } finally {
+          is.close();
+        }
+      }
+    };
+  }
+
+  private static Slot get(final Future<Slot> future) throws IOException {
+    try {
+      return future.get();
+    } catch (final InterruptedException e) {
+      Thread.currentThread().interrupt();
+      throw new IOException(e);
+    } catch (final ExecutionException e) {
+      if (e.getCause() instanceof IOException) {
+        throw (IOException) e.getCause();
+      }
+      throw new RuntimeException(e.getCause());
+    }
+  }
+
+  private static ThreadFactory daemonThreads() {
+    final ThreadFactory defaults = Executors.defaultThreadFactory();
+    return new ThreadFactory() {
+      public Thread newThread(final Runnable r) {
+        final Thread t = defaults.newThread(r);
+        t.setName("highwheel-io-" + t.getName());
+        t.setDaemon(true);
+        return t;
+      }
+    };
+  }
+
+  /**
+   * Bytes of one class. Classes already held in memory are referenced in
+   * place, others are copied into the slot's buffer, which grows as needed and
+   * is kept for the next read.
+   */
+  private static final class Slot {
+    private byte[]      buffer = new byte[INITIAL_BUFFER];
+    private ElementName name;
+    private byte[]      bytes;
+    private int         offset;
+    private int         length;
+
+    void fill(final ElementName name, final InputStream is) throws IOException {
+      this.name = name;
+      if (is instanceof ClassBytes) {
+        final ClassBytes in = (ClassBytes) is;
+        this.bytes = in.array();
+        this.offset = in.offset();
+        this.length = in.length();
+        return;
+      }
+      int read = 0;
+      int n = is.read(this.buffer, read, this.buffer.length - read);
+      while (n != -1) {
+        read += n;
+        if (read == this.buffer.length) {
+          final byte[] larger = new byte[this.buffer.length * 2];
+          System.arraycopy(this.buffer, 0, larger, 0, read);
+          this.buffer = larger;
+        }
+        n = is.read(this.buffer, read, this.buffer.length - read);
+      }
+      this.bytes = this.buffer;
+      this.offset = 0;
+      this.length = read;
+    }
+  }
+
+}
@@ -0,0 +1,51 @@
+package org.pitest.highwheel.bytecodeparser;
+
+import org.pitest.highwheel.model.AccessType;
+
+/**
+ * Low level receiver for the dependencies found by the bytecode parser.
+ *
+ * Classes are given as internal names and types as descriptors, exactly as
+ * they appear in the class file, so nothing need be built for the many
+ * accesses a consumer is not interested in. Each access is made from the most
+ * recently set source.
+ */
+public interface RawAccessVisitor {
+
+  public void newNode(String clazz);
+
+  public void newEntryPoint(String clazz);
+
+  /**
+   * Sets the source of the accesses that follow. Member and descriptor are
+   * null when the source is the class itself.
+   */
+  public void source(String clazz, String member, String desc);
+
+  /**
+   * Declares the current source as a method of its class.
+   */
+  public void newAccessPoint();
+
+  /**
+   * Access to a member of a class, or to the class itself if member and
+   * descriptor are null. The class may be an array descriptor.
+   */
+  public void apply(String clazz, String member, String desc, AccessType type);
+
+  /**
+   * Access to the type described by a field descriptor.
+   */
+  public void applyType(String desc, AccessType type);
+
+  /**
+   * Access to each parameter and the return type of a method descriptor.
+   */
+  public void applyMethodType(String desc, AccessType type);
+
+  /**
+   * Access to each class named in a generic signature.
+   */
+  public void applySignature(String signature, AccessType type);
+
+}
@@ -0,0 +1,142 @@
+package org.pitest.highwheel.bytecodeparser;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import org.pitest.highwheel.bytecodeparser.classpath.CompoundClassPathRoot;
+import org.pitest.highwheel.classpath.AccessVisitor;
+import org.pitest.highwheel.classpath.ClassParser;
+import org.pitest.highwheel.classpath.ClasspathRoot;
+import org.pitest.highwheel.snapshot.SnapshotReader;
+import org.pitest.highwheel.snapshot.SnapshotStore;
+import org.pitest.highwheel.snapshot.SnapshotWriter;
+
+/**
+ * Parses each child of a compound root separately, replaying stored snapshots
+ * for children that have not changed and parsing the remainder in parallel.
+ *
+ * Events are always delivered to the visitor from the calling thread, in the
+ * order of the roots. Stored snapshots that cannot be read, such as those
+ * written in an older format, are ignored and the root parsed again.
+ */
+public class SnapshotCachingParser implements ClassParser {
+
+  private final ClassParser   parser;
+  private final SnapshotStore store;
+  private final int           threads;
+
+  public SnapshotCachingParser(final ClassParser parser,
+      final SnapshotStore store) {
+    this(parser, store, Runtime.getRuntime().availableProcessors());
+  }
+
+  public SnapshotCachingParser(final ClassParser parser,
+      final SnapshotStore store, final int threads) {
+    this.parser = parser;
+    this.store = store;
+    this.threads = threads;
+  }
+
+  public void parse(final ClasspathRoot classes, final AccessVisitor v)
+      throws IOException {
+    final List<ClasspathRoot> roots = split(classes);
+    final List<InputStream> cached = new ArrayList<InputStream>(roots.size());
+    final List<SnapshotReader> readers = new ArrayList<SnapshotReader>(
+        roots.size());
+    final List<ClasspathRoot> stale = new ArrayList<ClasspathRoot>();
+    for (final ClasspathRoot each : roots) {
+      final InputStream is = this.store.get(each);
+      final SnapshotReader reader = is == null ? null : open(is);
+      cached.add(is);
+      readers.add(reader);
+      if (reader == null) {
+        stale.add(each);
+      }
+    }
+
+    final ExecutorService executor = Executors.newFixedThreadPool(Math.max(1,
+        Math.min(this.threads, stale.size())));
+    try {
+      final List<Future<byte[]>> parsed = new ArrayList<Future<byte[]>>();
+      for (final ClasspathRoot each : stale) {
+        parsed.add(executor.submit(parseToSnapshot(each)));
+      }
+
+      int next = 0;
+      for (int i = 0; i != roots.size(); i++) {
+        if (readers.get(i) != null) {
+          readers.get(i).read(v);
+        } else {
+          final byte[] snapshot = get(parsed.get(next));
+          next++;
+          this.store.put(roots.get(i), snapshot);
+          replay(new ByteArrayInputStream(snapshot), v);
+        }
+      }
+    } finally {
+      executor.shutdownNow();
+      for (final InputStream each : cached) {
+        if (each != null) {
+          each.close();
+        }
+      }
+    }
+  }
+
+  private Callable<byte[]> parseToSnapshot(final ClasspathRoot root) {
+    return new Callable<byte[]>() {
+      public byte[] call() throws IOException {
+        final ByteArrayOutputStream bos = new ByteArrayOutputStream();
+        final SnapshotWriter w = new SnapshotWriter(bos);
+        SnapshotCachingParser.this.parser.parse(root, w);
+        w.finish();
+        return bos.toByteArray();
+      }
+    };
+  }
+
+  private static void replay(final InputStream is, final AccessVisitor v)
+      throws IOException {
+    new SnapshotReader(is).read(v);
+  }
+
+  private static SnapshotReader open(final InputStream is) {
+    try {
+      return new SnapshotReader(is);
+    } catch (final IOException ex) {
+      return null;
+    }
+  }
+
+  private static byte[] get(final Future<byte[]> future) throws IOException {
+    try {
+      return future.get();
+    } catch (final InterruptedException e) {
+      Thread.currentThread().interrupt();
+      throw new IOException(e);
+    } catch (final ExecutionException e) {
+      if (e.getCause() instanceof IOException) {
+        throw (IOException) e.getCause();
+      }
+      throw new RuntimeException(e.getCause());
+    }
+  }
+
+  private static List<ClasspathRoot> split(final ClasspathRoot root) {
+    if (root instanceof CompoundClassPathRoot) {
+      return ((CompoundClassPathRoot) root).getRoots();
+    }
+    return Collections.singletonList(root);
+  }
+
+}
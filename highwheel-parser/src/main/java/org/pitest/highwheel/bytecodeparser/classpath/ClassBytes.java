@@ -0,0 +1,27 @@
+package org.pitest.highwheel.bytecodeparser.classpath;
+
+import java.io.ByteArrayInputStream;
+
+/**
+ * Stream over class bytes that are already held in memory. The parser reads
+ * the backing array directly rather than copying the stream.
+ */
+public class ClassBytes extends ByteArrayInputStream {
+
+  public ClassBytes(final byte[] bytes) {
+    super(bytes);
+  }
+
+  public byte[] array() {
+    return this.buf;
+  }
+
+  public int offset() {
+    return this.pos;
+  }
+
+  public int length() {
+    return this.count - this.pos;
+  }
+
+}
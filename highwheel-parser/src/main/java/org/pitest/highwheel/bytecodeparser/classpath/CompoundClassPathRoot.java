@@ -1,5 +1,6 @@
 package org.pitest.highwheel.bytecodeparser.classpath;
 
+import java.io.Closeable;
 import java.io.IOException;
 import java.io.InputStream;
 import java.util.ArrayList;
@@ -10,9 +11,10 @@ import org.pitest.highwheel.classpath.ClasspathRoot;
 import org.pitest.highwheel.model.ElementName;
 
 /**
- * Wraps multiple child roots.
+ * Wraps multiple child roots. Closing it closes any children that hold open
+ * files.
  */
-public class CompoundClassPathRoot implements ClasspathRoot {
+public class CompoundClassPathRoot implements ClasspathRoot, Closeable {
 
   private final List<ClasspathRoot> roots;
 
@@ -38,6 +40,10 @@ public class CompoundClassPathRoot implements ClasspathRoot {
     return cns;
   }
 
+  public List<ClasspathRoot> getRoots() {
+    return this.roots;
+  }
+
   public InputStream getResource(final String name) throws IOException {
     for (final ClasspathRoot each : this.roots) {
       final InputStream is = each.getResource(name);
@@ -48,4 +54,20 @@ public class CompoundClassPathRoot implements ClasspathRoot {
     return null;
   }
 
+  public void close() throws IOException {
+    IOException failure = null;
+    for (final ClasspathRoot each : this.roots) {
+      if (each instanceof Closeable) {
+        try {
+          ((Closeable) each).close();
+        } catch (final IOException ex) {
+          failure = failure == null ? ex : failure;
+        }
+      }
+    }
+    if (failure != null) {
+      throw failure;
+    }
+  }
+
 }
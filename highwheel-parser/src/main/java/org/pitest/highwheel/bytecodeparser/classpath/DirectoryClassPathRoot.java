@@ -20,6 +20,10 @@ public class DirectoryClassPathRoot implements ClasspathRoot {
     this.root = root;
   }
 
+  public File getRoot() {
+    return this.root;
+  }
+
   public InputStream getData(final ElementName classname) throws IOException {
     return getResource(classname.asJavaName().replace('.', File.separatorChar)
         .concat(".class"));
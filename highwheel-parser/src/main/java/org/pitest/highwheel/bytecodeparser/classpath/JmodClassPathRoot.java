@@ -0,0 +1,108 @@
+package org.pitest.highwheel.bytecodeparser.classpath;
+
+import java.io.Closeable;
+import java.io.File;
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Enumeration;
+import java.util.List;
+import java.util.zip.ZipEntry;
+import java.util.zip.ZipFile;
+
+import org.pitest.highwheel.classpath.ClasspathRoot;
+import org.pitest.highwheel.model.ElementName;
+import org.pitest.highwheel.util.StreamUtil;
+
+/**
+ * ClassPathRoot wrapping a jmod file.
+ *
+ * A jmod is a four byte header followed by a zip, with the classes stored
+ * beneath a classes/ directory. The zip is opened on first use and kept open
+ * until the root is closed.
+ */
+public class JmodClassPathRoot implements ClasspathRoot, Closeable {
+
+  private static final String CLASSES = "classes/";
+
+  private final File          file;
+  private ZipFile             zip;
+
+  public JmodClassPathRoot(final File file) {
+    this.file = file;
+  }
+
+  public InputStream getData(final ElementName name) throws IOException {
+    return getResource(name.asInternalName() + ".class");
+  }
+
+  public InputStream getResource(final String name) throws IOException {
+    final ZipFile root = getRoot();
+    final ZipEntry entry = root.getEntry(CLASSES + name);
+    if (entry == null) {
+      return null;
+    }
+    final InputStream is = root.getInputStream(entry);
+    try {
+      return new ClassBytes(readEntry(is, entry));
+    } finally {
+      is.close();
+    }
+  }
+
+  public Collection<ElementName> classNames() {
+    final List<ElementName> names = new ArrayList<ElementName>();
+    final Enumeration<? extends ZipEntry> entries = getRoot().entries();
+    while (entries.hasMoreElements()) {
+      final String name = entries.nextElement().getName();
+      if (name.startsWith(CLASSES) && name.endsWith(".class")
+          && !name.endsWith("module-info.class")) {
+        names.add(ElementName.fromString(name.substring(CLASSES.length(),
+            name.length() - ".class".length())));
+      }
+    }
+    return names;
+  }
+
+  public synchronized void close() throws IOException {
+    if (this.zip != null) {
+      this.zip.close();
+      this.zip = null;
+    }
+  }
+
+  @Override
+  public String toString() {
+    return "JmodClassPathRoot [file=" + this.file.getName() + "]";
+  }
+
+  private static byte[] readEntry(final InputStream is, final ZipEntry entry)
+      throws IOException {
+    if (entry.getSize() < 0) {
+      return StreamUtil.streamToByteArray(is);
+    }
+    final byte[] bytes = new byte[(int) entry.getSize()];
+    int read = 0;
+    while (read != bytes.length) {
+      final int n = is.read(bytes, read, bytes.length - read);
+      if (n == -1) {
+        throw new IOException("Truncated entry " + entry.getName());
+      }
+      read += n;
+    }
+    return bytes;
+  }
+
+  private synchronized ZipFile getRoot() {
+    if (this.zip == null) {
+      try {
+        this.zip = new ZipFile(this.file);
+      } catch (final IOException ex) {
+        throw new RuntimeException(ex);
+      }
+    }
+    return this.zip;
+  }
+
+}
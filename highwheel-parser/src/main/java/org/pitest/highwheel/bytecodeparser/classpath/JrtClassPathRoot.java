@@ -0,0 +1,206 @@
+package org.pitest.highwheel.bytecodeparser.classpath;
+
+import java.io.Closeable;
+import java.io.File;
+import java.io.IOException;
+import java.io.InputStream;
+import java.net.URI;
+import java.net.URL;
+import java.net.URLClassLoader;
+import java.nio.file.DirectoryStream;
+import java.nio.file.FileSystem;
+import java.nio.file.FileSystems;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+import org.pitest.highwheel.classpath.ClasspathRoot;
+import org.pitest.highwheel.model.ElementName;
+
+/**
+ * ClassPathRoot reading classes from the runtime image of a JDK 9 or later
+ * through the jrt filesystem.
+ *
+ * Nothing is listed until classNames is called, and then only for the chosen
+ * module. Lookups find the owning module through the image's /packages
+ * directory rather than searching every module.
+ *
+ * A root returned by open owns the filesystem and the class loader it was
+ * opened with, and closing it closes both. Roots for a single module share
+ * them, so closing those does nothing.
+ */
+public class JrtClassPathRoot implements ClasspathRoot, Closeable {
+
+  private final FileSystem                fs;
+  private final String                    module;
+  private final Map<String, List<String>> packageModules;
+  private final List<Closeable>           owned;
+
+  public JrtClassPathRoot(final FileSystem fs) {
+    this(fs, null, new ConcurrentHashMap<String, List<String>>(), Collections
+        .<Closeable> emptyList());
+  }
+
+  private JrtClassPathRoot(final FileSystem fs, final String module,
+      final Map<String, List<String>> packageModules,
+      final List<Closeable> owned) {
+    this.fs = fs;
+    this.module = module;
+    this.packageModules = packageModules;
+    this.owned = owned;
+  }
+
+  /**
+   * Opens the runtime image of the JDK installed at javaHome. This works from
+   * a java 8 runtime as the filesystem provider is loaded from the target JDK.
+   */
+  public static JrtClassPathRoot open(final File javaHome) throws IOException {
+    final File provider = new File(javaHome, "lib" + File.separator
+        + "jrt-fs.jar");
+    if (!provider.isFile()) {
+      throw new IOException("No runtime image found in " + javaHome);
+    }
+    final URLClassLoader loader = new URLClassLoader(new URL[] { provider
+        .toURI().toURL() });
+    final FileSystem fs;
+    try {
+      fs = FileSystems.newFileSystem(URI.create("jrt:/"),
+          Collections.singletonMap("java.home", javaHome.getAbsolutePath()),
+          loader);
+    } catch (final IOException ex) {
+      loader.close();
+      throw ex;
+    }
+    return new JrtClassPathRoot(fs, null,
+        new ConcurrentHashMap<String, List<String>>(),
+        Arrays.<Closeable> asList(fs, loader));
+  }
+
+  public List<String> moduleNames() throws IOException {
+    return list(this.fs.getPath("/modules"));
+  }
+
+  /**
+   * Returns a root that lists only the classes of a single module.
+   */
+  public JrtClassPathRoot forModule(final String module) {
+    return new JrtClassPathRoot(this.fs, module, this.packageModules,
+        Collections.<Closeable> emptyList());
+  }
+
+  public InputStream getData(final ElementName name) throws IOException {
+    return getResource(name.asInternalName() + ".class");
+  }
+
+  public InputStream getResource(final String name) throws IOException {
+    final Path path = locate(name);
+    if (path == null) {
+      return null;
+    }
+    return new ClassBytes(Files.readAllBytes(path));
+  }
+
+  public Collection<ElementName> classNames() {
+    try {
+      final List<ElementName> names = new ArrayList<ElementName>();
+      if (this.module != null) {
+        addClassNames(names, this.fs.getPath("/modules", this.module), "");
+      } else {
+        for (final String each : moduleNames()) {
+          addClassNames(names, this.fs.getPath("/modules", each), "");
+        }
+      }
+      return names;
+    } catch (final IOException ex) {
+      throw new RuntimeException(ex);
+    }
+  }
+
+  public void close() throws IOException {
+    IOException failure = null;
+    for (final Closeable each : this.owned) {
+      try {
+        each.close();
+      } catch (final IOException ex) {
+        failure = failure == null ? ex : failure;
+      }
+    }
+    if (failure != null) {
+      throw failure;
+    }
+  }
+
+  @Override
+  public String toString() {
+    return "JrtClassPathRoot [module=" + this.module + "]";
+  }
+
+  private Path locate(final String name) throws IOException {
+    if (this.module != null) {
+      return existing(this.fs.getPath("/modules", this.module, name));
+    }
+    final int slash = name.lastIndexOf('/');
+    final String pkg = slash == -1 ? "" : name.substring(0, slash).replace(
+        '/', '.');
+    for (final String each : modulesFor(pkg)) {
+      final Path path = existing(this.fs.getPath("/modules", each, name));
+      if (path != null) {
+        return path;
+      }
+    }
+    return null;
+  }
+
+  private List<String> modulesFor(final String pkg) throws IOException {
+    List<String> modules = this.packageModules.get(pkg);
+    if (modules == null) {
+      final Path dir = this.fs.getPath("/packages", pkg);
+      modules = Files.isDirectory(dir) ? list(dir) : Collections
+          .<String> emptyList();
+      this.packageModules.put(pkg, modules);
+    }
+    return modules;
+  }
+
+  private static Path existing(final Path path) {
+    return Files.isRegularFile(path) ? path : null;
+  }
+
+  private static List<String> list(final Path dir) throws IOException {
+    final List<String> names = new ArrayList<String>();
+    final DirectoryStream<Path> children = Files.newDirectoryStream(dir);
+    try {
+      for (final Path each : children) {
+        names.add(each.getFileName().toString());
+      }
+    } finally {
+      children.close();
+    }
+    return names;
+  }
+
+  private static void addClassNames(final List<ElementName> names,
+      final Path dir, final String prefix) throws IOException {
+    final DirectoryStream<Path> children = Files.newDirectoryStream(dir);
+    try {
+      for (final Path each : children) {
+        final String name = each.getFileName().toString();
+        if (Files.isDirectory(each)) {
+          addClassNames(names, each, prefix + name + "/");
+        } else if (name.endsWith(".class") && !name.equals("module-info.class")) {
+          names.add(ElementName.fromString(prefix
+              + name.substring(0, name.length() - ".class".length())));
+        }
+      }
+    } finally {
+      children.close();
+    }
+  }
+
+}
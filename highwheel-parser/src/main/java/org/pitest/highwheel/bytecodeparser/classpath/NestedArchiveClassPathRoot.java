@@ -0,0 +1,180 @@
+package org.pitest.highwheel.bytecodeparser.classpath;
+
+import java.io.Closeable;
+import java.io.File;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.RandomAccessFile;
+import java.nio.channels.FileChannel;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.zip.ZipFile;
+
+import org.pitest.highwheel.classpath.ClasspathRoot;
+import org.pitest.highwheel.model.ElementName;
+
+/**
+ * ClassPathRoot for fat jars, wars and ears that contain other archives.
+ *
+ * The outer archive and every nested jar, war or ear found within it are
+ * indexed without extracting anything to disk. Nested archives that are
+ * stored uncompressed (as in spring boot jars) are read in place. Compressed
+ * ones must be inflated into memory, one at a time, to be indexed, and again
+ * when their classes are read. Each inflated copy is only softly held, so
+ * costs up to the uncompressed size of the nested archives that are in use
+ * and is given up when memory runs short. BOOT-INF/classes, WEB-INF/classes,
+ * any other classes in the archive and each nested library are exposed as
+ * separate roots.
+ *
+ * Every root reads through the one open file, which is owned by this root and
+ * closed with it.
+ */
+public class NestedArchiveClassPathRoot extends CompoundClassPathRoot {
+
+  private static final String[] CLASS_DIRS = { "BOOT-INF/classes/",
+      "WEB-INF/classes/"                    };
+
+  private final Closeable file;
+
+  private NestedArchiveClassPathRoot(final List<ClasspathRoot> roots,
+      final Closeable file) {
+    super(roots);
+    this.file = file;
+  }
+
+  /**
+   * Indexes the archive. The file is kept open until the root is closed.
+   */
+  public static NestedArchiveClassPathRoot open(final File archive)
+      throws IOException {
+    final RandomAccessFile file = new RandomAccessFile(archive, "r");
+    try {
+      final FileChannel channel = file.getChannel();
+      final List<ClasspathRoot> roots = new ArrayList<ClasspathRoot>();
+      addRoots(roots, ZipIndex.open(channel, 0, channel.size()),
+          archive.getName());
+      return new NestedArchiveClassPathRoot(roots, file);
+    } catch (final IOException ex) {
+      file.close();
+      throw ex;
+    } catch (final RuntimeException ex) {
+      file.close();
+      throw ex;
+    }
+  }
+
+  @Override
+  public void close() throws IOException {
+    try {
+      super.close();
+    } finally {
+      this.file.close();
+    }
+  }
+
+  /**
+   * True for wars, ears and jars laid out as spring boot executables.
+   */
+  public static boolean isNestedArchive(final File archive) throws IOException {
+    final String name = archive.getName();
+    if (name.endsWith(".war") || name.endsWith(".ear")) {
+      return true;
+    }
+    final ZipFile zip = new ZipFile(archive);
+    try {
+      return zip.getEntry("BOOT-INF/classes/") != null
+          || zip.getEntry("BOOT-INF/lib/") != null;
+    } finally {
+      zip.close();
+    }
+  }
+
+  private static void addRoots(final List<ClasspathRoot> roots,
+      final ZipIndex index, final String name) throws IOException {
+    final EntriesRoot top = new EntriesRoot(index, "", name);
+    if (!top.classNames().isEmpty()) {
+      roots.add(top);
+    }
+    for (final String each : CLASS_DIRS) {
+      final EntriesRoot classes = new EntriesRoot(index, each, name + "!/"
+          + each);
+      if (!classes.classNames().isEmpty()) {
+        roots.add(classes);
+      }
+    }
+    for (final ZipIndex.Entry each : index.entries()) {
+      if (isArchive(each.name)) {
+        addRoots(roots, index.openNested(each), name + "!/" + each.name);
+      }
+    }
+  }
+
+  private static boolean isArchive(final String name) {
+    return name.endsWith(".jar") || name.endsWith(".war")
+        || name.endsWith(".ear");
+  }
+
+  private static boolean isClassDirEntry(final String name) {
+    for (final String each : CLASS_DIRS) {
+      if (name.startsWith(each)) {
+        return true;
+      }
+    }
+    return false;
+  }
+
+  private static final class EntriesRoot implements ClasspathRoot {
+
+    private final ZipIndex index;
+    private final String   prefix;
+    private final String   name;
+
+    EntriesRoot(final ZipIndex index, final String prefix, final String name) {
+      this.index = index;
+      this.prefix = prefix;
+      this.name = name;
+    }
+
+    public InputStream getData(final ElementName name) throws IOException {
+      return getResource(name.asInternalName() + ".class");
+    }
+
+    public InputStream getResource(final String name) throws IOException {
+      final ZipIndex.Entry entry = this.index.getEntry(this.prefix + name);
+      if (entry == null || entry.isDirectory()) {
+        return null;
+      }
+      return new ClassBytes(this.index.read(entry));
+    }
+
+    public Collection<ElementName> classNames() {
+      final List<ElementName> names = new ArrayList<ElementName>();
+      for (final ZipIndex.Entry each : this.index.entries()) {
+        if (isClass(each.name)) {
+          names.add(ElementName.fromString(each.name.substring(
+              this.prefix.length(), each.name.length() - ".class".length())));
+        }
+      }
+      return names;
+    }
+
+    private boolean isClass(final String entry) {
+      if (!entry.startsWith(this.prefix) || !entry.endsWith(".class")
+          || entry.endsWith("module-info.class")) {
+        return false;
+      }
+      if (this.prefix.isEmpty()) {
+        return !entry.startsWith("META-INF/") && !isClassDirEntry(entry);
+      }
+      return true;
+    }
+
+    @Override
+    public String toString() {
+      return "NestedArchiveClassPathRoot [" + this.name + "]";
+    }
+
+  }
+
+}
@@ -0,0 +1,294 @@
+package org.pitest.highwheel.bytecodeparser.classpath;
+
+import java.io.IOException;
+import java.lang.ref.SoftReference;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.channels.FileChannel;
+import java.nio.charset.Charset;
+import java.util.Collection;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.zip.DataFormatException;
+import java.util.zip.Inflater;
+
+/**
+ * Minimal reader for the central directory of a zip held in a region of a
+ * file or in memory. Unlike ZipFile it can index an archive stored inside
+ * another archive without extracting it first.
+ *
+ * Zip64 archives are not supported.
+ */
+final class ZipIndex {
+
+  private static final int         EOCD_SIGNATURE    = 0x06054b50;
+  private static final int         CENTRAL_SIGNATURE = 0x02014b50;
+  private static final int         LOCAL_SIGNATURE   = 0x04034b50;
+  private static final int         EOCD_SIZE         = 22;
+  private static final int         MAX_COMMENT       = 0xFFFF;
+  private static final int         STORED            = 0;
+  private static final int         DEFLATED          = 8;
+  private static final Charset     UTF8              = Charset.forName("UTF-8");
+
+  private final Source             source;
+  private final Map<String, Entry> entries;
+
+  private ZipIndex(final Source source, final Map<String, Entry> entries) {
+    this.source = source;
+    this.entries = entries;
+  }
+
+  static ZipIndex open(final FileChannel channel, final long start,
+      final long length) throws IOException {
+    return open(new ChannelSource(channel, start, length));
+  }
+
+  Collection<Entry> entries() {
+    return this.entries.values();
+  }
+
+  Entry getEntry(final String name) {
+    return this.entries.get(name);
+  }
+
+  byte[] read(final Entry entry) throws IOException {
+    final long data = dataOffset(entry);
+    if (entry.method == STORED) {
+      final byte[] bytes = new byte[(int) entry.size];
+      this.source.read(data, bytes, 0, bytes.length);
+      return bytes;
+    }
+    if (entry.method == DEFLATED) {
+      return inflate(entry, data);
+    }
+    throw new IOException("Unsupported compression method " + entry.method
+        + " for " + entry.name);
+  }
+
+  /**
+   * Returns an index over a nested archive. Stored archives are indexed in
+   * place. Others are inflated to read their central directory, then again
+   * whenever their entries are read after the inflated copy has been
+   * reclaimed.
+   */
+  ZipIndex openNested(final Entry entry) throws IOException {
+    if (entry.method == STORED && this.source instanceof ChannelSource) {
+      final ChannelSource outer = (ChannelSource) this.source;
+      return open(outer.channel, outer.start + dataOffset(entry), entry.size);
+    }
+    return open(new InflatingSource(this, entry));
+  }
+
+  private byte[] inflate(final Entry entry, final long data)
+      throws IOException {
+    final byte[] bytes = new byte[(int) entry.size];
+    final byte[] chunk = new byte[(int) Math.min(entry.compressedSize,
+        64 * 1024)];
+    final Inflater inflater = new Inflater(true);
+    try {
+      long position = data;
+      long remaining = entry.compressedSize;
+      int written = 0;
+      while (written != bytes.length) {
+        if (inflater.needsInput()) {
+          final int n = (int) Math.min(chunk.length, remaining);
+          if (n == 0) {
+            throw new IOException("Truncated entry " + entry.name);
+          }
+          this.source.read(position, chunk, 0, n);
+          inflater.setInput(chunk, 0, n);
+          position += n;
+          remaining -= n;
+        }
+        final int n = inflater.inflate(bytes, written, bytes.length - written);
+        if (n == 0 && (inflater.finished() || inflater.needsDictionary())) {
+          throw new IOException("Corrupt entry " + entry.name);
+        }
+        written += n;
+      }
+      return bytes;
+    } catch (final DataFormatException e) {
+      throw new IOException("Corrupt entry " + entry.name, e);
+    } finally {
+      inflater.end();
+    }
+  }
+
+  private long dataOffset(final Entry entry) throws IOException {
+    if (entry.dataOffset < 0) {
+      final ByteBuffer local = this.source.read(entry.localHeader, 30);
+      if (local.getInt(0) != LOCAL_SIGNATURE) {
+        throw new IOException("Bad local header for " + entry.name);
+      }
+      entry.dataOffset = entry.localHeader + 30 + unsignedShort(local, 26)
+          + unsignedShort(local, 28);
+    }
+    return entry.dataOffset;
+  }
+
+  private static ZipIndex open(final Source source) throws IOException {
+    final int tail = (int) Math.min(source.length(), EOCD_SIZE + MAX_COMMENT);
+    final long tailStart = source.length() - tail;
+    final ByteBuffer end = source.read(tailStart, tail);
+    int eocd = tail - EOCD_SIZE;
+    while (eocd >= 0 && end.getInt(eocd) != EOCD_SIGNATURE) {
+      eocd--;
+    }
+    if (eocd < 0) {
+      throw new IOException("Not a zip archive");
+    }
+    final int count = unsignedShort(end, eocd + 10);
+    final long centralSize = unsignedInt(end, eocd + 12);
+    final long centralOffset = unsignedInt(end, eocd + 16);
+    if (count == 0xFFFF || centralOffset == 0xFFFFFFFFL) {
+      throw new IOException("Zip64 archives are not supported");
+    }
+    // allows for data such as a jmod header or launch script before the zip
+    final long base = tailStart + eocd - centralSize - centralOffset;
+
+    final ByteBuffer central = source.read(base + centralOffset,
+        (int) centralSize);
+    final Map<String, Entry> entries = new LinkedHashMap<String, Entry>(
+        count * 2);
+    int pos = 0;
+    for (int i = 0; i != count; i++) {
+      if (central.getInt(pos) != CENTRAL_SIGNATURE) {
+        throw new IOException("Bad central directory entry");
+      }
+      final int nameLength = unsignedShort(central, pos + 28);
+      final byte[] name = new byte[nameLength];
+      central.position(pos + 46);
+      central.get(name);
+      final Entry entry = new Entry(new String(name, UTF8), unsignedShort(
+          central, pos + 10), unsignedInt(central, pos + 20), unsignedInt(
+          central, pos + 24), base + unsignedInt(central, pos + 42));
+      entries.put(entry.name, entry);
+      pos += 46 + nameLength + unsignedShort(central, pos + 30)
+          + unsignedShort(central, pos + 32);
+    }
+    return new ZipIndex(source, entries);
+  }
+
+  private static int unsignedShort(final ByteBuffer b, final int pos) {
+    return b.getShort(pos) & 0xFFFF;
+  }
+
+  private static long unsignedInt(final ByteBuffer b, final int pos) {
+    return b.getInt(pos) & 0xFFFFFFFFL;
+  }
+
+  static final class Entry {
+    final String  name;
+    final int     method;
+    final long    compressedSize;
+    final long    size;
+    final long    localHeader;
+    volatile long dataOffset = -1;
+
+    Entry(final String name, final int method, final long compressedSize,
+        final long size, final long localHeader) {
+      this.name = name;
+      this.method = method;
+      this.compressedSize = compressedSize;
+      this.size = size;
+      this.localHeader = localHeader;
+    }
+
+    boolean isDirectory() {
+      return this.name.endsWith("/");
+    }
+  }
+
+  private interface Source {
+    long length();
+
+    void read(long pos, byte[] dest, int offset, int length) throws IOException;
+
+    ByteBuffer read(long pos, int length) throws IOException;
+  }
+
+  private static final class ChannelSource implements Source {
+    private final FileChannel channel;
+    private final long        start;
+    private final long        length;
+
+    ChannelSource(final FileChannel channel, final long start, final long length) {
+      this.channel = channel;
+      this.start = start;
+      this.length = length;
+    }
+
+    public long length() {
+      return this.length;
+    }
+
+    public void read(final long pos, final byte[] dest, final int offset,
+        final int length) throws IOException {
+      final ByteBuffer buffer = ByteBuffer.wrap(dest, offset, length);
+      long at = this.start + pos;
+      while (buffer.hasRemaining()) {
+        // positional reads leave the channel position alone, so are thread safe
+        final int n = this.channel.read(buffer, at);
+        if (n == -1) {
+          throw new IOException("Unexpected end of archive");
+        }
+        at += n;
+      }
+    }
+
+    public ByteBuffer read(final long pos, final int length)
+        throws IOException {
+      final byte[] bytes = new byte[length];
+      read(pos, bytes, 0, length);
+      return ByteBuffer.wrap(bytes).order(ByteOrder.LITTLE_ENDIAN);
+    }
+  }
+
+  /**
+   * A compressed entry of another archive. The inflated copy is only softly
+   * held, so is reclaimed when memory is short and inflated again if needed.
+   */
+  private static final class InflatingSource implements Source {
+    private final ZipIndex        outer;
+    private final Entry           entry;
+    private SoftReference<byte[]> inflated = new SoftReference<byte[]>(null);
+
+    InflatingSource(final ZipIndex outer, final Entry entry) {
+      this.outer = outer;
+      this.entry = entry;
+    }
+
+    public long length() {
+      return this.entry.size;
+    }
+
+    public void read(final long pos, final byte[] dest, final int offset,
+        final int length) throws IOException {
+      final byte[] bytes = bytes();
+      if (pos + length > bytes.length) {
+        throw new IOException("Unexpected end of archive");
+      }
+      System.arraycopy(bytes, (int) pos, dest, offset, length);
+    }
+
+    public ByteBuffer read(final long pos, final int length)
+        throws IOException {
+      final byte[] bytes = bytes();
+      if (pos + length > bytes.length) {
+        throw new IOException("Unexpected end of archive");
+      }
+      return ByteBuffer.wrap(bytes, (int) pos, length).slice()
+          .order(ByteOrder.LITTLE_ENDIAN);
+    }
+
+    private synchronized byte[] bytes() throws IOException {
+      byte[] bytes = this.inflated.get();
+      if (bytes == null) {
+        bytes = this.outer.read(this.entry);
+        this.inflated = new SoftReference<byte[]>(bytes);
+      }
+      return bytes;
+    }
+  }
+
+}
@@ -0,0 +1,6 @@
+package com.example.annotated;
+
+@Deprecated
+public class AnnotatedWithExcludedAnnotation {
+
+}
@@ -0,0 +1,31 @@
+package org.pitest.highwheel.bytecodeparser;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNull;
+
+import org.junit.Test;
+
+public class BoundedCacheTest {
+
+  private final BoundedCache<String, Integer> testee = new BoundedCache<String, Integer>(
+                                                         2);
+
+  @Test
+  public void shouldReturnCachedValues() {
+    this.testee.put("a", 1);
+    this.testee.put("b", 2);
+    assertEquals(Integer.valueOf(1), this.testee.get("a"));
+    assertEquals(Integer.valueOf(2), this.testee.get("b"));
+    assertNull(this.testee.get("c"));
+  }
+
+  @Test
+  public void shouldNotGrowPastCapacity() {
+    for (int i = 0; i != 100; i++) {
+      this.testee.put("" + i, i);
+      assertEquals(Integer.valueOf(i), this.testee.get("" + i));
+    }
+    assertEquals(true, this.testee.size() <= 2);
+  }
+
+}
@@ -1,6 +1,8 @@
 package org.pitest.highwheel.bytecodeparser;
 
+import static org.fest.assertions.api.Assertions.assertThat;
 import static org.mockito.Matchers.any;
+import static org.mockito.Matchers.eq;
 import static org.mockito.Mockito.never;
 import static org.mockito.Mockito.verify;
 
@@ -24,6 +26,8 @@ import org.pitest.highwheel.model.AccessPoint;
 import org.pitest.highwheel.model.AccessPointName;
 import org.pitest.highwheel.model.AccessType;
 import org.pitest.highwheel.model.ElementName;
+import org.pitest.highwheel.reachability.EntryPointVisitor;
+import org.pitest.highwheel.util.GlobFilter;
 
 import com.example.annotated.AnAnnotation;
 import com.example.annotated.AnnotatedAtClassLevel;
@@ -31,6 +35,7 @@ import com.example.annotated.AnnotatedAtFieldLevel;
 import com.example.annotated.AnnotatedAtMethodLevel;
 import com.example.annotated.AnnotatedAtParameterLevel;
 import com.example.annotated.AnnotatedAtVariableLevel;
+import com.example.annotated.AnnotatedWithExcludedAnnotation;
 import com.example.classliterals.HasFieldOfTypeClassFoo;
 import com.example.classliterals.MethodAccessFooClassLiteral;
 import com.example.classliterals.StoresFooArrayClassLiteralAsField;
@@ -159,6 +164,28 @@ public class ClassPathParserSystemTest {
         accessAType(AnAnnotation.class), AccessType.ANNOTATED);
   }
 
+  @Test
+  public void shouldReportAnnotationsExcludedByTheFilter() {
+    parseClassPath(AnnotatedWithExcludedAnnotation.class);
+    verify(this.v).newAnnotation(
+        ElementName.fromClass(AnnotatedWithExcludedAnnotation.class),
+        ElementName.fromClass(Deprecated.class));
+    verify(this.v, never()).apply(any(AccessPoint.class),
+        eq(accessAType(Deprecated.class)), any(AccessType.class));
+  }
+
+  @Test
+  public void shouldFindEntryPointsMarkedByAnnotationsExcludedByTheFilter()
+      throws IOException {
+    final EntryPointVisitor entryPoints = new EntryPointVisitor(
+        new GlobFilter("java.lang.Deprecated"));
+    new ClassPathParser(matchOnlyExampleDotCom()).parse(
+        createRootFor(new Class<?>[] { AnnotatedWithExcludedAnnotation.class,
+            AnnotatedAtClassLevel.class }), entryPoints);
+    assertThat(entryPoints.getRoots()).containsOnly(
+        ElementName.fromClass(AnnotatedWithExcludedAnnotation.class));
+  }
+
   @Test
   public void willNotDetectWhenAnnotatedAtVariableLevel() {
     parseClassPath(AnnotatedAtVariableLevel.class, AnAnnotation.class);
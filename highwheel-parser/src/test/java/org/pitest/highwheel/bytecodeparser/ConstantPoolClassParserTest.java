@@ -0,0 +1,292 @@
+package org.pitest.highwheel.bytecodeparser;
+
+import static org.mockito.Matchers.any;
+import static org.mockito.Matchers.eq;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.ArrayList;
+import java.util.Collection;
+
+import org.junit.Before;
+import org.junit.Test;
+import org.mockito.Mock;
+import org.mockito.MockitoAnnotations;
+import org.pitest.highwheel.bytecodeparser.classpath.ClassLoaderClassPathRoot;
+import org.pitest.highwheel.classpath.AccessVisitor;
+import org.pitest.highwheel.classpath.ClasspathRoot;
+import org.pitest.highwheel.cycles.Filter;
+import org.pitest.highwheel.model.AccessPoint;
+import org.pitest.highwheel.model.AccessType;
+import org.pitest.highwheel.model.ElementName;
+
+import com.example.AnException;
+import com.example.AnInterface;
+import com.example.CallsFooMethod;
+import com.example.DeclaresAnException;
+import com.example.ExtendsFoo;
+import com.example.Foo;
+import com.example.HasArrayOfFooAsMember;
+import com.example.HasFooArrayAsParameter;
+import com.example.HasFooAsMember;
+import com.example.HasMainMethod;
+import com.example.ImplementsAnInterface;
+import com.example.ReturnsAFoo;
+import com.example.Unconnected;
+import com.example.UsesMethodReference;
+import com.example.annotated.AnAnnotation;
+import com.example.annotated.AnnotatedAtClassLevel;
+import com.example.annotated.AnnotatedAtFieldLevel;
+import com.example.annotated.AnnotatedAtMethodLevel;
+import com.example.annotated.AnnotatedAtParameterLevel;
+import com.example.annotated.AnnotatedWithExcludedAnnotation;
+import com.example.classliterals.MethodAccessFooClassLiteral;
+import com.example.generics.BoundedByFoo;
+import com.example.generics.HasCollectionOfFooParameter;
+import com.example.generics.ImplementsGenericisedInterface;
+import com.example.innerclasses.CallsMethodFromFooWithinInnerClass;
+
+public class ConstantPoolClassParserTest {
+
+  private final ClassLoaderClassPathRoot data = new ClassLoaderClassPathRoot(
+                                                  Thread.currentThread()
+                                                      .getContextClassLoader());
+
+  private ConstantPoolClassParser        testee;
+
+  @Mock
+  private AccessVisitor                  v;
+
+  @Before
+  public void setUp() {
+    MockitoAnnotations.initMocks(this);
+    this.testee = new ConstantPoolClassParser(matchOnlyExampleDotCom());
+  }
+
+  @Test
+  public void shouldDetectInheritance() {
+    parseClassPath(ExtendsFoo.class);
+    verify(this.v).apply(accessAType(ExtendsFoo.class), accessAType(Foo.class),
+        AccessType.INHERITANCE);
+  }
+
+  @Test
+  public void shouldDetectImplementedInterfaces() {
+    parseClassPath(ImplementsAnInterface.class);
+    verify(this.v).apply(accessAType(ImplementsAnInterface.class),
+        accessAType(AnInterface.class), AccessType.IMPLEMENTS);
+  }
+
+  @Test
+  public void shouldDetectCompositionFromFieldTypes() {
+    parseClassPath(HasFooAsMember.class);
+    verify(this.v).apply(accessAType(HasFooAsMember.class),
+        accessAType(Foo.class), AccessType.COMPOSED);
+  }
+
+  @Test
+  public void shouldDetectCompositionFromArrayFieldTypes() {
+    parseClassPath(HasArrayOfFooAsMember.class);
+    verify(this.v).apply(accessAType(HasArrayOfFooAsMember.class),
+        accessAType(Foo.class), AccessType.COMPOSED);
+  }
+
+  @Test
+  public void shouldReportSignatureDependenciesFromTheClass() {
+    parseClassPath(ReturnsAFoo.class);
+    verify(this.v).apply(accessAType(ReturnsAFoo.class),
+        accessAType(Foo.class), AccessType.SIGNATURE);
+  }
+
+  @Test
+  public void shouldDetectSignatureDependenciesOnArrayParameters() {
+    parseClassPath(HasFooArrayAsParameter.class);
+    verify(this.v).apply(accessAType(HasFooArrayAsParameter.class),
+        accessAType(Foo.class), AccessType.SIGNATURE);
+  }
+
+  @Test
+  public void shouldDetectDeclaredExceptions() {
+    parseClassPath(DeclaresAnException.class);
+    verify(this.v).apply(accessAType(DeclaresAnException.class),
+        accessAType(AnException.class), AccessType.SIGNATURE);
+  }
+
+  @Test
+  public void shouldDetectUsesFromConstantPoolReferences() {
+    parseClassPath(CallsFooMethod.class);
+    verify(this.v).apply(accessAType(CallsFooMethod.class),
+        accessAType(Foo.class), AccessType.USES);
+  }
+
+  @Test
+  public void shouldDetectUsesFromClassLiterals() {
+    parseClassPath(MethodAccessFooClassLiteral.class);
+    verify(this.v).apply(accessAType(MethodAccessFooClassLiteral.class),
+        accessAType(Foo.class), AccessType.USES);
+  }
+
+  @Test
+  public void shouldDetectUsesFromMethodReferences() {
+    parseClassPath(UsesMethodReference.class);
+    verify(this.v).apply(accessAType(UsesMethodReference.class),
+        accessAType(Foo.class), AccessType.USES);
+  }
+
+  @Test
+  public void shouldAttributeUsesInInnerClassesToTheOuterClass() {
+    parseClassPath(CallsMethodFromFooWithinInnerClass.class);
+    verify(this.v).apply(
+        accessAType(CallsMethodFromFooWithinInnerClass.class),
+        accessAType(Foo.class), AccessType.USES);
+  }
+
+  @Test
+  public void shouldDetectAnnotationsAtClassLevel() {
+    parseClassPath(AnnotatedAtClassLevel.class);
+    verify(this.v).apply(accessAType(AnnotatedAtClassLevel.class),
+        accessAType(AnAnnotation.class), AccessType.ANNOTATED);
+  }
+
+  @Test
+  public void shouldReportAnnotationsExcludedByTheFilter() {
+    parseClassPath(AnnotatedWithExcludedAnnotation.class);
+    verify(this.v).newAnnotation(
+        ElementName.fromClass(AnnotatedWithExcludedAnnotation.class),
+        ElementName.fromClass(Deprecated.class));
+    verify(this.v, never()).apply(any(AccessPoint.class),
+        eq(accessAType(Deprecated.class)), any(AccessType.class));
+  }
+
+  @Test
+  public void shouldDetectAnnotationsAtMethodLevel() {
+    parseClassPath(AnnotatedAtMethodLevel.class);
+    verify(this.v).apply(accessAType(AnnotatedAtMethodLevel.class),
+        accessAType(AnAnnotation.class), AccessType.ANNOTATED);
+  }
+
+  @Test
+  public void shouldDetectAnnotationsAtParameterLevel() {
+    parseClassPath(AnnotatedAtParameterLevel.class);
+    verify(this.v).apply(accessAType(AnnotatedAtParameterLevel.class),
+        accessAType(AnAnnotation.class), AccessType.ANNOTATED);
+  }
+
+  @Test
+  public void shouldDetectAnnotationsAtFieldLevel() {
+    parseClassPath(AnnotatedAtFieldLevel.class);
+    verify(this.v).apply(accessAType(AnnotatedAtFieldLevel.class),
+        accessAType(AnAnnotation.class), AccessType.ANNOTATED);
+  }
+
+  @Test
+  public void shouldDetectTypesInGenericSignatures() {
+    parseClassPath(ImplementsGenericisedInterface.class);
+    verify(this.v).apply(accessAType(ImplementsGenericisedInterface.class),
+        accessAType(Foo.class), AccessType.SIGNATURE);
+  }
+
+  @Test
+  public void shouldDetectTypesInGenericMethodParameters() {
+    parseClassPath(HasCollectionOfFooParameter.class);
+    verify(this.v).apply(accessAType(HasCollectionOfFooParameter.class),
+        accessAType(Foo.class), AccessType.SIGNATURE);
+  }
+
+  @Test
+  public void shouldDetectTypeParameterBounds() {
+    parseClassPath(BoundedByFoo.class);
+    verify(this.v).apply(accessAType(BoundedByFoo.class),
+        accessAType(Foo.class), AccessType.SIGNATURE);
+  }
+
+  @Test
+  public void shouldNotReportTypesFromDeclarationsAgainAsUses() {
+    parseClassPath(ExtendsFoo.class);
+    verify(this.v, never()).apply(accessAType(ExtendsFoo.class),
+        accessAType(Foo.class), AccessType.USES);
+  }
+
+  @Test
+  public void shouldReportEachDependencyOncePerAccessType() {
+    parseClassPath(HasFooArrayAsParameter.class);
+    verify(this.v, times(1)).apply(accessAType(HasFooArrayAsParameter.class),
+        accessAType(Foo.class), AccessType.SIGNATURE);
+  }
+
+  @Test
+  public void shouldDetectUnconnectedClasses() {
+    parseClassPath(Unconnected.class);
+    verify(this.v).newNode(ElementName.fromClass(Unconnected.class));
+  }
+
+  @Test
+  public void shouldNotReportAccessPoints() {
+    parseClassPath(Foo.class);
+    verify(this.v, never()).newAccessPoint(any(AccessPoint.class));
+  }
+
+  @Test
+  public void shouldDetectEntryPoints() {
+    parseClassPath(HasMainMethod.class);
+    verify(this.v).newEntryPoint(ElementName.fromClass(HasMainMethod.class));
+  }
+
+  @Test
+  public void shouldNotDetectEntryPointsInClassesWithoutMainMethod() {
+    parseClassPath(Foo.class);
+    verify(this.v, never()).newEntryPoint(any(ElementName.class));
+  }
+
+  private void parseClassPath(final Class<?> clazz) {
+    try {
+      this.testee.parse(createRootFor(clazz), this.v);
+    } catch (final IOException ex) {
+      throw new RuntimeException(ex);
+    }
+  }
+
+  private ClasspathRoot createRootFor(final Class<?> clazz) throws IOException {
+    final ClassLoaderClassPathRoot data = this.data;
+    final Collection<ElementName> elements = new ArrayList<ElementName>();
+    final ElementName element = ElementName.fromClass(clazz);
+    elements.add(element);
+    for (int i = 1; i != 4; i++) {
+      final ElementName inner = ElementName.fromString(element.asJavaName()
+          + "$" + i);
+      if (data.getData(inner) != null) {
+        elements.add(inner);
+      }
+    }
+
+    return new ClasspathRoot() {
+      public InputStream getData(final ElementName name) throws IOException {
+        return data.getData(name);
+      }
+
+      public Collection<ElementName> classNames() {
+        return elements;
+      }
+
+      public InputStream getResource(final String name) throws IOException {
+        return data.getResource(name);
+      }
+    };
+  }
+
+  private static AccessPoint accessAType(final Class<?> type) {
+    return AccessPoint.create(ElementName.fromClass(type));
+  }
+
+  private static Filter matchOnlyExampleDotCom() {
+    return new Filter() {
+      public boolean include(final ElementName item) {
+        return item.asJavaName().startsWith("com.example");
+      }
+    };
+  }
+
+}
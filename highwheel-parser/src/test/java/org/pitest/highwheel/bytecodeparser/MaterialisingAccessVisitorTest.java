@@ -0,0 +1,134 @@
+package org.pitest.highwheel.bytecodeparser;
+
+import static org.mockito.Matchers.any;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.verifyNoMoreInteractions;
+
+import org.junit.Before;
+import org.junit.Test;
+import org.mockito.Mock;
+import org.mockito.MockitoAnnotations;
+import org.pitest.highwheel.classpath.AccessVisitor;
+import org.pitest.highwheel.cycles.Filter;
+import org.pitest.highwheel.model.AccessPoint;
+import org.pitest.highwheel.model.AccessPointName;
+import org.pitest.highwheel.model.AccessType;
+import org.pitest.highwheel.model.ElementName;
+
+public class MaterialisingAccessVisitorTest {
+
+  private static final AccessPoint   BAR = AccessPoint.create(ElementName
+                                             .fromString("com.example.Bar"));
+  private static final AccessPoint   FOO = AccessPoint.create(ElementName
+                                             .fromString("com.example.Foo"));
+
+  private MaterialisingAccessVisitor testee;
+
+  @Mock
+  private AccessVisitor              v;
+
+  @Before
+  public void setUp() {
+    MockitoAnnotations.initMocks(this);
+    this.testee = new MaterialisingAccessVisitor(this.v, new NameCache(
+        excluding("com.example.Excluded"),
+        new CollapseInnerClassesNameTransformer()));
+    this.testee.source("com/example/Bar", null, null);
+  }
+
+  @Test
+  public void shouldReportAccessesToClasses() {
+    this.testee.apply("com/example/Foo", null, null, AccessType.USES);
+    verify(this.v).apply(BAR, FOO, AccessType.USES);
+  }
+
+  @Test
+  public void shouldReportAccessesToMembers() {
+    this.testee.apply("com/example/Foo", "foo", "()V", AccessType.USES);
+    verify(this.v).apply(BAR,
+        FOO.methodAccess(AccessPointName.create("foo", "()V")),
+        AccessType.USES);
+  }
+
+  @Test
+  public void shouldReportAccessesFromMethods() {
+    this.testee.source("com/example/Bar", "bar", "()V");
+    this.testee.apply("com/example/Foo", null, null, AccessType.USES);
+    verify(this.v).apply(BAR.methodAccess(AccessPointName.create("bar", "()V")),
+        FOO, AccessType.USES);
+  }
+
+  @Test
+  public void shouldTransformNamesInDescriptors() {
+    this.testee.applyType("Lcom/example/Foo$Inner;", AccessType.COMPOSED);
+    verify(this.v).apply(BAR, FOO, AccessType.COMPOSED);
+  }
+
+  @Test
+  public void shouldReportElementTypesOfArrays() {
+    this.testee.applyType("[[Lcom/example/Foo;", AccessType.COMPOSED);
+    this.testee.apply("[Lcom/example/Foo;", "clone", "()Ljava/lang/Object;",
+        AccessType.USES);
+    verify(this.v).apply(BAR, FOO, AccessType.COMPOSED);
+    verify(this.v).apply(BAR, FOO.methodAccess(AccessPointName.create("clone",
+        "()Ljava/lang/Object;")), AccessType.USES);
+  }
+
+  @Test
+  public void shouldReportClassesInMethodDescriptorsButNotPrimitives() {
+    this.testee.applyMethodType("(ILcom/example/Foo;[J)V",
+        AccessType.SIGNATURE);
+    verify(this.v).apply(BAR, FOO, AccessType.SIGNATURE);
+    verifyNoMoreInteractions(this.v);
+  }
+
+  @Test
+  public void shouldReportClassesInGenericSignatures() {
+    this.testee.applySignature(
+        "Ljava/util/List<Lcom/example/Foo$Inner;>;", AccessType.COMPOSED);
+    verify(this.v).apply(BAR,
+        AccessPoint.create(ElementName.fromString("java.util.List")),
+        AccessType.COMPOSED);
+    verify(this.v).apply(BAR, FOO, AccessType.COMPOSED);
+  }
+
+  @Test
+  public void shouldNotReportAccessesToObject() {
+    this.testee.apply("java/lang/Object", "<init>", "()V", AccessType.USES);
+    verify(this.v, never()).apply(any(AccessPoint.class),
+        any(AccessPoint.class), any(AccessType.class));
+  }
+
+  @Test
+  public void shouldNotReportAccessesToFilteredClasses() {
+    this.testee.apply("com/example/Excluded", null, null, AccessType.USES);
+    verify(this.v, never()).apply(any(AccessPoint.class),
+        any(AccessPoint.class), any(AccessType.class));
+  }
+
+  @Test
+  public void shouldNotReportAccessesFromFilteredClasses() {
+    this.testee.source("com/example/Excluded", null, null);
+    this.testee.apply("com/example/Foo", null, null, AccessType.USES);
+    verify(this.v, never()).apply(any(AccessPoint.class),
+        any(AccessPoint.class), any(AccessType.class));
+  }
+
+  @Test
+  public void shouldNotReportFilteredNodes() {
+    this.testee.newNode("com/example/Excluded");
+    this.testee.newNode("com/example/Foo");
+    verify(this.v).newNode(FOO.getElementName());
+    verifyNoMoreInteractions(this.v);
+  }
+
+  private static Filter excluding(final String name) {
+    return new Filter() {
+      public boolean include(final ElementName item) {
+        return !item.asJavaName().equals(name);
+      }
+    };
+  }
+
+}
@@ -0,0 +1,160 @@
+package org.pitest.highwheel.bytecodeparser;
+
+import static org.fest.assertions.api.Assertions.assertThat;
+import static org.mockito.Matchers.any;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+
+import org.junit.Before;
+import org.junit.Test;
+import org.mockito.Mock;
+import org.mockito.MockitoAnnotations;
+import org.pitest.highwheel.bytecodeparser.classpath.ClassBytes;
+import org.pitest.highwheel.bytecodeparser.classpath.ClassLoaderClassPathRoot;
+import org.pitest.highwheel.classpath.AccessVisitor;
+import org.pitest.highwheel.classpath.ClassParser;
+import org.pitest.highwheel.classpath.ClasspathRoot;
+import org.pitest.highwheel.cycles.Filter;
+import org.pitest.highwheel.model.ElementName;
+import org.pitest.highwheel.snapshot.SnapshotWriter;
+import org.pitest.highwheel.util.StreamUtil;
+
+import com.example.CallsFooMethod;
+import com.example.ConstructsAFoo;
+import com.example.ExtendsFoo;
+import com.example.Foo;
+import com.example.HasFooAsMember;
+import com.example.ReturnsAFoo;
+import com.example.UsesFieldOnFoo;
+import com.example.UsesMethodReference;
+
+public class PipelinedClassPathParserTest {
+
+  private final ClassLoaderClassPathRoot data = new ClassLoaderClassPathRoot(
+                                                  Thread.currentThread()
+                                                      .getContextClassLoader());
+
+  private PipelinedClassPathParser       testee;
+
+  @Mock
+  private AccessVisitor                  v;
+
+  @Before
+  public void setUp() {
+    MockitoAnnotations.initMocks(this);
+    this.testee = new PipelinedClassPathParser(onlyExampleDotCom(),
+        new ClassPathParser(onlyExampleDotCom()), 3, 2);
+  }
+
+  @Test
+  public void shouldReportTheSameDependenciesAsTheUnpipelinedParser()
+      throws IOException {
+    final ClasspathRoot root = rootFor(names(Foo.class, ExtendsFoo.class,
+        CallsFooMethod.class, ConstructsAFoo.class, HasFooAsMember.class,
+        ReturnsAFoo.class, UsesFieldOnFoo.class, UsesMethodReference.class),
+        false);
+    assertThat(snapshot(this.testee, root)).isEqualTo(
+        snapshot(new ClassPathParser(onlyExampleDotCom()), root));
+  }
+
+  @Test
+  public void shouldParseClassesAlreadyHeldInMemory() throws IOException {
+    final ClasspathRoot root = rootFor(names(Foo.class, ExtendsFoo.class,
+        CallsFooMethod.class, ConstructsAFoo.class, HasFooAsMember.class),
+        true);
+    assertThat(snapshot(this.testee, root)).isEqualTo(
+        snapshot(new ClassPathParser(onlyExampleDotCom()), root));
+  }
+
+  @Test
+  public void shouldNotReadClassesExcludedByTheFilter() throws IOException {
+    final List<ElementName> names = names(Foo.class);
+    names.add(ElementName.fromString("org.example.DoesNotExist"));
+    this.testee.parse(rootFor(names, false), this.v);
+    verify(this.v).newNode(ElementName.fromClass(Foo.class));
+  }
+
+  @Test(expected = IOException.class)
+  public void shouldReportClassesThatCannotBeFound() throws IOException {
+    final List<ElementName> names = names(Foo.class);
+    names.add(ElementName.fromString("com.example.DoesNotExist"));
+    this.testee.parse(rootFor(names, false), this.v);
+  }
+
+  @Test
+  public void shouldDoNothingWhenNoClassesAreIncluded() throws IOException {
+    this.testee.parse(rootFor(new ArrayList<ElementName>(), false), this.v);
+    verify(this.v, never()).newNode(any(ElementName.class));
+  }
+
+  private static byte[] snapshot(final ClassParser parser,
+      final ClasspathRoot root) throws IOException {
+    final ByteArrayOutputStream bos = new ByteArrayOutputStream();
+    final SnapshotWriter w = new SnapshotWriter(bos);
+    parser.parse(root, w);
+    w.finish();
+    return bos.toByteArray();
+  }
+
+  private static List<ElementName> names(final Class<?>... classes) {
+    final List<ElementName> names = new ArrayList<ElementName>();
+    for (final Class<?> each : classes) {
+      names.add(ElementName.fromClass(each));
+    }
+    return names;
+  }
+
+  /**
+   * Root over the test classes. Unless inMemory is set the bytes are served
+   * as a plain stream, so are copied into the parser's buffers.
+   */
+  private ClasspathRoot rootFor(final Collection<ElementName> names,
+      final boolean inMemory) {
+    final ClassLoaderClassPathRoot data = this.data;
+    return new ClasspathRoot() {
+      public InputStream getData(final ElementName name) throws IOException {
+        final InputStream is = data.getData(name);
+        if (is == null) {
+          return null;
+        }
+        final byte[] bytes = StreamUtil.streamToByteArray(is);
+        if (inMemory) {
+          return new ClassBytes(bytes);
+        }
+        // a plain stream returning small chunks, so buffers must grow
+        return new ByteArrayInputStream(bytes) {
+          @Override
+          public synchronized int read(final byte[] b, final int off,
+              final int len) {
+            return super.read(b, off, Math.min(len, 100));
+          }
+        };
+      }
+
+      public Collection<ElementName> classNames() {
+        return names;
+      }
+
+      public InputStream getResource(final String name) throws IOException {
+        return data.getResource(name);
+      }
+    };
+  }
+
+  private static Filter onlyExampleDotCom() {
+    return new Filter() {
+      public boolean include(final ElementName item) {
+        return item.asJavaName().startsWith("com.example");
+      }
+    };
+  }
+
+}
@@ -0,0 +1,151 @@
+package org.pitest.highwheel.bytecodeparser;
+
+import static org.fest.assertions.api.Assertions.assertThat;
+import static org.mockito.Matchers.any;
+import static org.mockito.Matchers.eq;
+import static org.mockito.Mockito.doAnswer;
+import static org.mockito.Mockito.inOrder;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.Map;
+
+import org.junit.Before;
+import org.junit.Test;
+import org.mockito.InOrder;
+import org.mockito.Mock;
+import org.mockito.MockitoAnnotations;
+import org.mockito.invocation.InvocationOnMock;
+import org.mockito.stubbing.Answer;
+import org.pitest.highwheel.bytecodeparser.classpath.CompoundClassPathRoot;
+import org.pitest.highwheel.classpath.AccessVisitor;
+import org.pitest.highwheel.classpath.ClassParser;
+import org.pitest.highwheel.classpath.ClasspathRoot;
+import org.pitest.highwheel.model.ElementName;
+import org.pitest.highwheel.snapshot.SnapshotStore;
+import org.pitest.highwheel.snapshot.SnapshotWriter;
+
+public class SnapshotCachingParserTest {
+
+  private final ElementName                      foo   = ElementName
+                                                           .fromString("com.example.Foo");
+  private final ElementName                      bar   = ElementName
+                                                           .fromString("com.example.Bar");
+  private final Map<ClasspathRoot, ElementName> nodes = new HashMap<ClasspathRoot, ElementName>();
+
+  private SnapshotCachingParser                  testee;
+
+  private InMemoryStore                          store;
+
+  @Mock
+  private ClassParser                            parser;
+
+  @Mock
+  private ClasspathRoot                          fooRoot;
+
+  @Mock
+  private ClasspathRoot                          barRoot;
+
+  @Mock
+  private AccessVisitor                          v;
+
+  @Before
+  public void setUp() throws IOException {
+    MockitoAnnotations.initMocks(this);
+    this.store = new InMemoryStore();
+    this.testee = new SnapshotCachingParser(this.parser, this.store, 2);
+    this.nodes.put(this.fooRoot, this.foo);
+    this.nodes.put(this.barRoot, this.bar);
+    doAnswer(declareNode()).when(this.parser).parse(any(ClasspathRoot.class),
+        any(AccessVisitor.class));
+  }
+
+  @Test
+  public void shouldParseRootsWithoutStoredSnapshots() throws IOException {
+    this.testee.parse(this.fooRoot, this.v);
+    verify(this.parser).parse(any(ClasspathRoot.class),
+        any(AccessVisitor.class));
+    verify(this.v).newNode(this.foo);
+  }
+
+  @Test
+  public void shouldStoreSnapshotsOfParsedRoots() throws IOException {
+    this.testee.parse(this.fooRoot, this.v);
+    assertThat(this.store.snapshots).containsKey(this.fooRoot);
+  }
+
+  @Test
+  public void shouldReplayStoredSnapshotsInsteadOfParsing() throws IOException {
+    this.store.snapshots.put(this.fooRoot, snapshotOf(this.foo));
+    this.testee.parse(this.fooRoot, this.v);
+    verify(this.parser, never()).parse(any(ClasspathRoot.class),
+        any(AccessVisitor.class));
+    verify(this.v).newNode(this.foo);
+  }
+
+  @Test
+  public void shouldParseRootsWhoseStoredSnapshotsCannotBeRead()
+      throws IOException {
+    this.store.snapshots.put(this.fooRoot, new byte[] { 'H', 'W', 'G', 'S',
+        0 });
+    this.testee.parse(this.fooRoot, this.v);
+    verify(this.parser).parse(any(ClasspathRoot.class),
+        any(AccessVisitor.class));
+    verify(this.v).newNode(this.foo);
+  }
+
+  @Test
+  public void shouldDeliverEventsInRootOrderWhenMixingStoredAndParsedRoots()
+      throws IOException {
+    this.store.snapshots.put(this.barRoot, snapshotOf(this.bar));
+    this.testee.parse(
+        new CompoundClassPathRoot(Arrays.asList(this.fooRoot, this.barRoot)),
+        this.v);
+    final InOrder order = inOrder(this.v);
+    order.verify(this.v).newNode(this.foo);
+    order.verify(this.v).newNode(this.bar);
+    verify(this.parser, never()).parse(eq(this.barRoot),
+        any(AccessVisitor.class));
+  }
+
+  private Answer<Void> declareNode() {
+    return new Answer<Void>() {
+      public Void answer(final InvocationOnMock invocation) {
+        final ElementName name = SnapshotCachingParserTest.this.nodes
+            .get(invocation.getArguments()[0]);
+        ((AccessVisitor) invocation.getArguments()[1]).newNode(name);
+        return null;
+      }
+    };
+  }
+
+  private static byte[] snapshotOf(final ElementName name) throws IOException {
+    final ByteArrayOutputStream bos = new ByteArrayOutputStream();
+    final SnapshotWriter w = new SnapshotWriter(bos);
+    w.newNode(name);
+    w.finish();
+    return bos.toByteArray();
+  }
+
+  private static class InMemoryStore implements SnapshotStore {
+
+    private final Map<ClasspathRoot, byte[]> snapshots = new HashMap<ClasspathRoot, byte[]>();
+
+    public InputStream get(final ClasspathRoot root) {
+      final byte[] snapshot = this.snapshots.get(root);
+      return snapshot == null ? null : new ByteArrayInputStream(snapshot);
+    }
+
+    public void put(final ClasspathRoot root, final byte[] snapshot) {
+      this.snapshots.put(root, snapshot);
+    }
+
+  }
+
+}
@@ -2,8 +2,12 @@ package org.pitest.highwheel.bytecodeparser.classpath;
 
 import static org.fest.assertions.api.Assertions.assertThat;
 import static org.mockito.Matchers.any;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
+import static org.mockito.Mockito.withSettings;
 
+import java.io.Closeable;
 import java.io.IOException;
 import java.io.InputStream;
 import java.util.Arrays;
@@ -73,4 +77,14 @@ public class CompoundClassPathRootTest {
     assertThat(this.testee.getResource("Foo")).isSameAs(is);
   }
 
+  @Test
+  public void shouldCloseChildrenThatHoldFiles() throws IOException {
+    final ClasspathRoot closeable = mock(ClasspathRoot.class, withSettings()
+        .extraInterfaces(Closeable.class));
+    this.testee = new CompoundClassPathRoot(Arrays.asList(this.child1,
+        closeable));
+    this.testee.close();
+    verify((Closeable) closeable).close();
+  }
+
 }
@@ -0,0 +1,83 @@
+package org.pitest.highwheel.bytecodeparser.classpath;
+
+import static org.fest.assertions.api.Assertions.assertThat;
+
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.zip.ZipEntry;
+import java.util.zip.ZipOutputStream;
+
+import org.junit.Before;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+import org.pitest.highwheel.model.ElementName;
+import org.pitest.highwheel.util.StreamUtil;
+
+public class JmodClassPathRootTest {
+
+  private static final byte[] CLASS_BYTES = { (byte) 0xCA, (byte) 0xFE,
+      (byte) 0xBA, (byte) 0xBE         };
+
+  @Rule
+  public TemporaryFolder      folder      = new TemporaryFolder();
+
+  private JmodClassPathRoot   testee;
+
+  @Before
+  public void setUp() throws IOException {
+    this.testee = new JmodClassPathRoot(makeJmod());
+  }
+
+  @Test
+  public void shouldListClassesBeneathTheClassesDirectory() {
+    assertThat(this.testee.classNames()).containsOnly(
+        ElementName.fromString("com.example.Foo"));
+  }
+
+  @Test
+  public void shouldReturnClassBytesForKnownClasses() throws IOException {
+    final InputStream actual = this.testee.getData(ElementName
+        .fromString("com.example.Foo"));
+    assertThat(actual).isInstanceOf(ClassBytes.class);
+    assertThat(StreamUtil.streamToByteArray(actual)).isEqualTo(CLASS_BYTES);
+  }
+
+  @Test
+  public void shouldReturnNullForUnknownClasses() throws IOException {
+    assertThat(this.testee.getData(ElementName.fromString("com.example.Bar")))
+        .isNull();
+  }
+
+  @Test
+  public void shouldNotReturnEntriesOutsideTheClassesDirectory()
+      throws IOException {
+    assertThat(this.testee.getResource("conf/foo.properties")).isNull();
+  }
+
+  private File makeJmod() throws IOException {
+    final File jmod = this.folder.newFile("example.jmod");
+    final FileOutputStream fos = new FileOutputStream(jmod);
+    try {
+      fos.write(new byte[] { 'J', 'M', 1, 0 });
+      final ZipOutputStream zos = new ZipOutputStream(fos);
+      add(zos, "classes/module-info.class", CLASS_BYTES);
+      add(zos, "classes/com/example/Foo.class", CLASS_BYTES);
+      add(zos, "conf/foo.properties", new byte[0]);
+      zos.finish();
+    } finally {
+      fos.close();
+    }
+    return jmod;
+  }
+
+  private static void add(final ZipOutputStream zos, final String name,
+      final byte[] bytes) throws IOException {
+    zos.putNextEntry(new ZipEntry(name));
+    zos.write(bytes);
+    zos.closeEntry();
+  }
+
+}
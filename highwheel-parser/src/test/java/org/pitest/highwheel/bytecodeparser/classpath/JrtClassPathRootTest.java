@@ -0,0 +1,50 @@
+package org.pitest.highwheel.bytecodeparser.classpath;
+
+import static org.fest.assertions.api.Assertions.assertThat;
+import static org.junit.Assume.assumeTrue;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.file.ClosedFileSystemException;
+
+import org.junit.Before;
+import org.junit.Test;
+import org.pitest.highwheel.model.ElementName;
+
+public class JrtClassPathRootTest {
+
+  private JrtClassPathRoot testee;
+
+  @Before
+  public void setUp() throws IOException {
+    final File javaHome = new File(System.getProperty("java.home"));
+    assumeTrue(new File(javaHome, "lib/jrt-fs.jar").isFile());
+    this.testee = JrtClassPathRoot.open(javaHome);
+  }
+
+  @Test
+  public void shouldFindClassesWithoutListingModules() throws IOException {
+    assertThat(this.testee.getData(ElementName.fromString("java.lang.Object")))
+        .isInstanceOf(ClassBytes.class);
+  }
+
+  @Test
+  public void shouldReturnNullForUnknownClasses() throws IOException {
+    assertThat(this.testee.getData(ElementName.fromString("com.example.Foo")))
+        .isNull();
+  }
+
+  @Test
+  public void shouldListOnlyTheClassesOfTheChosenModule() {
+    assertThat(this.testee.forModule("java.logging").classNames()).contains(
+        ElementName.fromString("java.util.logging.Logger")).doesNotContain(
+        ElementName.fromString("java.lang.Object"));
+  }
+
+  @Test(expected = ClosedFileSystemException.class)
+  public void shouldCloseTheRuntimeImageItOpened() throws IOException {
+    this.testee.close();
+    this.testee.getData(ElementName.fromString("java.lang.Object"));
+  }
+
+}
@@ -0,0 +1,143 @@
+package org.pitest.highwheel.bytecodeparser.classpath;
+
+import static org.fest.assertions.api.Assertions.assertThat;
+
+import java.io.ByteArrayOutputStream;
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.channels.ClosedChannelException;
+import java.util.zip.CRC32;
+import java.util.zip.ZipEntry;
+import java.util.zip.ZipOutputStream;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+import org.pitest.highwheel.model.ElementName;
+import org.pitest.highwheel.util.StreamUtil;
+
+public class NestedArchiveClassPathRootTest {
+
+  private static final byte[]        APP    = bytes("app");
+  private static final byte[]        STORED = bytes("stored");
+  private static final byte[]        PACKED = bytes("packed");
+
+  @Rule
+  public TemporaryFolder             folder = new TemporaryFolder();
+
+  private NestedArchiveClassPathRoot testee;
+
+  @Before
+  public void setUp() throws IOException {
+    final ByteArrayOutputStream fat = new ByteArrayOutputStream();
+    // launch script as prepended by spring boot's executable jars
+    fat.write("#!/bin/sh\nexec java -jar $0\n".getBytes("UTF-8"));
+    final ZipOutputStream zos = new ZipOutputStream(fat);
+    add(zos, "BOOT-INF/classes/com/example/App.class", APP, false);
+    add(zos, "BOOT-INF/lib/stored.jar",
+        jar("com/lib/Stored.class", STORED), true);
+    add(zos, "BOOT-INF/lib/packed.jar",
+        jar("com/lib/Packed.class", PACKED), false);
+    add(zos, "META-INF/MANIFEST.MF", bytes("Manifest-Version: 1.0"), false);
+    zos.finish();
+
+    final File file = this.folder.newFile("app.jar");
+    final FileOutputStream fos = new FileOutputStream(file);
+    try {
+      fos.write(fat.toByteArray());
+    } finally {
+      fos.close();
+    }
+    this.testee = NestedArchiveClassPathRoot.open(file);
+  }
+
+  @After
+  public void tearDown() throws IOException {
+    this.testee.close();
+  }
+
+  @Test
+  public void shouldExposeClassesAndEachLibraryAsSeparateRoots() {
+    assertThat(this.testee.getRoots()).hasSize(3);
+  }
+
+  @Test
+  public void shouldListClassesFromAllRoots() {
+    assertThat(this.testee.classNames()).containsOnly(
+        ElementName.fromString("com.example.App"),
+        ElementName.fromString("com.lib.Stored"),
+        ElementName.fromString("com.lib.Packed"));
+  }
+
+  @Test
+  public void shouldReadApplicationClasses() throws IOException {
+    assertThat(read("com.example.App")).isEqualTo(APP);
+  }
+
+  @Test
+  public void shouldReadClassesFromStoredLibraries() throws IOException {
+    assertThat(read("com.lib.Stored")).isEqualTo(STORED);
+  }
+
+  @Test
+  public void shouldReadClassesFromCompressedLibraries() throws IOException {
+    assertThat(read("com.lib.Packed")).isEqualTo(PACKED);
+  }
+
+  @Test
+  public void shouldReturnNullForUnknownClasses() throws IOException {
+    assertThat(this.testee.getData(ElementName.fromString("com.example.Foo")))
+        .isNull();
+  }
+
+  @Test(expected = ClosedChannelException.class)
+  public void shouldCloseTheArchiveWithTheRoot() throws IOException {
+    this.testee.close();
+    read("com.lib.Stored");
+  }
+
+  private byte[] read(final String clazz) throws IOException {
+    final InputStream is = this.testee.getData(ElementName.fromString(clazz));
+    assertThat(is).isInstanceOf(ClassBytes.class);
+    return StreamUtil.streamToByteArray(is);
+  }
+
+  private static byte[] jar(final String name, final byte[] contents)
+      throws IOException {
+    final ByteArrayOutputStream bos = new ByteArrayOutputStream();
+    final ZipOutputStream zos = new ZipOutputStream(bos);
+    add(zos, "META-INF/MANIFEST.MF", bytes("Manifest-Version: 1.0"), false);
+    add(zos, name, contents, false);
+    zos.finish();
+    return bos.toByteArray();
+  }
+
+  private static void add(final ZipOutputStream zos, final String name,
+      final byte[] contents, final boolean stored) throws IOException {
+    final ZipEntry entry = new ZipEntry(name);
+    if (stored) {
+      final CRC32 crc = new CRC32();
+      crc.update(contents);
+      entry.setMethod(ZipEntry.STORED);
+      entry.setSize(contents.length);
+      entry.setCompressedSize(contents.length);
+      entry.setCrc(crc.getValue());
+    }
+    zos.putNextEntry(entry);
+    zos.write(contents);
+    zos.closeEntry();
+  }
+
+  private static byte[] bytes(final String value) {
+    final StringBuilder sb = new StringBuilder();
+    for (int i = 0; i != 50; i++) {
+      sb.append(value);
+    }
+    return sb.toString().getBytes();
+  }
+
+}